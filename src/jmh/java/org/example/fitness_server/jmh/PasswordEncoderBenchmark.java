@@ -0,0 +1,71 @@
+package org.example.fitness_server.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки шифрования и проверки паролей BCrypt при разной стоимости.
+ * <p>
+ * Стоимость 10 используется приложением по умолчанию; остальные значения показывают,
+ * как растёт время входа и создания пользователей при её изменении.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "ivan123";
+
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    /**
+     * Создаёт кодировщик с заданной стоимостью и заранее шифрует пароль для проверки.
+     */
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    /**
+     * Шифрует пароль, как при создании пользователя.
+     *
+     * @return зашифрованный пароль
+     */
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    /**
+     * Проверяет пароль, как при входе в систему.
+     *
+     * @return {@code true}, если пароль совпал
+     */
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.fitness_server.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.model.Trainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки сериализации страниц сущностей в JSON.
+ * <p>
+ * Сериализует страницы {@code Client}, {@code ClientSummary}, {@code Trainer} и {@code Subscription}
+ * заданного размера тем же способом, что и Spring MVC: {@code ObjectMapper} создаётся через
+ * {@code Jackson2ObjectMapperBuilder}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Client> clients;
+    private Page<ClientSummary> clientSummaries;
+    private Page<Trainer> trainers;
+    private Page<Subscription> subscriptions;
+
+    /**
+     * Создаёт страницы с тестовыми данными.
+     */
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PageRequest pageable = PageRequest.of(0, pageSize);
+
+        List<Subscription> subscriptionList = new ArrayList<>();
+        List<Trainer> trainerList = new ArrayList<>();
+        List<Client> clientList = new ArrayList<>();
+        List<ClientSummary> summaryList = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            Subscription subscription = new Subscription();
+            subscription.setId(i);
+            subscription.setType("Месячный");
+            subscription.setCost(5000.0);
+            subscription.setDurationDays(30);
+            subscriptionList.add(subscription);
+
+            Trainer trainer = new Trainer();
+            trainer.setId(i);
+            trainer.setName("Тренер Иванов");
+            trainer.setUsername("trainer" + i);
+            trainer.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3DOGWpDWh1y1Px5b6A2Tn3a");
+            trainerList.add(trainer);
+
+            Client client = new Client();
+            client.setId(i);
+            client.setName("Иван Иванов");
+            client.setPhone("+79876543210");
+            client.setUsername("client" + i);
+            client.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3DOGWpDWh1y1Px5b6A2Tn3a");
+            client.setSubscription(subscription);
+            client.setTrainer(trainer);
+            clientList.add(client);
+
+            summaryList.add(new ClientSummary(i, "Иван Иванов", "+79876543210", "client" + i,
+                    i, "Месячный", i, "Тренер Иванов"));
+        }
+        clients = new PageImpl<>(clientList, pageable, 1000);
+        clientSummaries = new PageImpl<>(summaryList, pageable, 1000);
+        trainers = new PageImpl<>(trainerList, pageable, 1000);
+        subscriptions = new PageImpl<>(subscriptionList, pageable, 1000);
+    }
+
+    /**
+     * Сериализует страницу клиентов со вложенными абонементом и тренером.
+     *
+     * @return JSON в кодировке UTF-8
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+
+    @Benchmark
+    public byte[] clientPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(clients);
+    }
+
+    /**
+     * Сериализует страницу кратких представлений клиентов.
+     *
+     * @return JSON в кодировке UTF-8
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+
+    @Benchmark
+    public byte[] clientSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(clientSummaries);
+    }
+
+    /**
+     * Сериализует страницу тренеров.
+     *
+     * @return JSON в кодировке UTF-8
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+
+    @Benchmark
+    public byte[] trainerPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(trainers);
+    }
+
+    /**
+     * Сериализует страницу абонементов.
+     *
+     * @return JSON в кодировке UTF-8
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+
+    @Benchmark
+    public byte[] subscriptionPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(subscriptions);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.fitness_server.jmh;
+
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Trainer;
+import org.example.fitness_server.util.UserEntityValidator;
+import org.example.fitness_server.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки валидации и обновления пользовательских сущностей.
+ * <p>
+ * Измеряет {@code UserEntityValidator.validateUserEntity} для создаваемого клиента и обновляемого
+ * тренера, а также {@code UserUtil.encodeChangedPassword} с уже зашифрованным паролем (без вызова BCrypt)
+ * и с новым паролем при минимальной стоимости BCrypt.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserEntityBenchmark {
+
+    private static final String ENCODED_PASSWORD = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3DOGWpDWh1y1Px5b6A2Tn3a";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    private Client newClient;
+    private Trainer updatedTrainer;
+    private Client clientWithEncodedPassword;
+    private Client clientWithRawPassword;
+
+    /**
+     * Подготавливает сущности для замеров.
+     */
+
+    @Setup
+    public void setUp() {
+        newClient = client("  Иван   Иванов ", "ivan_ivanov", "ivan123");
+        updatedTrainer = new Trainer();
+        updatedTrainer.setName("Мария Петрова-Сидорова");
+        updatedTrainer.setUsername("maria_trainer");
+        clientWithEncodedPassword = client("Иван Петров", "ivan_petrov", ENCODED_PASSWORD);
+        clientWithRawPassword = client("Иван Петров", "ivan_petrov", "newpassword");
+    }
+
+    /**
+     * Валидирует создаваемого клиента, включая проверку пароля.
+     *
+     * @return проверенный клиент
+     */
+
+    @Benchmark
+    public Client validateNewClient() {
+        newClient.setName("  Иван   Иванов ");
+        UserEntityValidator.validateUserEntity(newClient, "клиента", true);
+        return newClient;
+    }
+
+    /**
+     * Валидирует обновляемого тренера без проверки пароля.
+     *
+     * @return проверенный тренер
+     */
+
+    @Benchmark
+    public Trainer validateUpdatedTrainer() {
+        UserEntityValidator.validateUserEntity(updatedTrainer, "тренера", false);
+        return updatedTrainer;
+    }
+
+    /**
+     * Проверяет пароль обновления, который уже зашифрован.
+     *
+     * @return {@code false}: пароль не меняется
+     */
+
+    @Benchmark
+    public boolean encodeChangedPasswordWithEncodedPassword() {
+        return UserUtil.encodeChangedPassword(clientWithEncodedPassword, passwordEncoder);
+    }
+
+    /**
+     * Шифрует новый пароль обновления (BCrypt, стоимость 4).
+     *
+     * @return {@code true}: пароль изменился
+     */
+
+    @Benchmark
+    public boolean encodeChangedPasswordWithRawPassword() {
+        clientWithRawPassword.setPassword("newpassword");
+        return UserUtil.encodeChangedPassword(clientWithRawPassword, passwordEncoder);
+    }
+
+    private static Client client(String name, String username, String password) {
+        Client client = new Client();
+        client.setName(name);
+        client.setUsername(username);
+        client.setPassword(password);
+        client.setPhone("+79876543210");
+        return client;
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.fitness_server.jmh;
+
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.UserEntity;
+import org.example.fitness_server.util.UserEntityValidator;
+import org.example.fitness_server.util.ValidationErrors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение посимвольной валидации {@code UserEntityValidator} с прежней реализацией на регулярных выражениях.
+ * <p>
+ * Прежняя реализация воспроизведена в методе {@code validateWithRegex}: она вызывает
+ * {@code String.matches} и {@code String.replaceAll}, которые компилируют шаблон при каждом вызове,
+ * и выбрасывает исключение на первой ошибке. Замеряются корректный клиент, клиент с лишними
+ * пробелами в имени и клиент с ошибками во всех полях.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidatorBenchmark {
+
+    private Client validClient;
+    private Client spacedClient;
+    private Client invalidClient;
+
+    /**
+     * Подготавливает клиентов для замеров.
+     */
+
+    @Setup
+    public void setUp() {
+        validClient = client("Иван Иванов", "ivan_ivanov", "ivan123");
+        spacedClient = client("  Иван   Иванов ", "ivan_ivanov", "ivan123");
+        invalidClient = client("И1", "ab", "123");
+    }
+
+    /**
+     * Проверяет корректного клиента прежней реализацией.
+     *
+     * @return проверенный клиент
+     */
+
+    @Benchmark
+    public Client regexValid() {
+        validateWithRegex(validClient, "клиента", true);
+        return validClient;
+    }
+
+    /**
+     * Проверяет корректного клиента посимвольной реализацией.
+     *
+     * @return проверенный клиент
+     */
+
+    @Benchmark
+    public Client scannerValid() {
+        UserEntityValidator.validateUserEntity(validClient, "клиента", true);
+        return validClient;
+    }
+
+    /**
+     * Проверяет клиента с лишними пробелами в имени прежней реализацией.
+     *
+     * @return проверенный клиент
+     */
+
+    @Benchmark
+    public Client regexSpaced() {
+        spacedClient.setName("  Иван   Иванов ");
+        validateWithRegex(spacedClient, "клиента", true);
+        return spacedClient;
+    }
+
+    /**
+     * Проверяет клиента с лишними пробелами в имени посимвольной реализацией.
+     *
+     * @return проверенный клиент
+     */
+
+    @Benchmark
+    public Client scannerSpaced() {
+        spacedClient.setName("  Иван   Иванов ");
+        UserEntityValidator.validateUserEntity(spacedClient, "клиента", true);
+        return spacedClient;
+    }
+
+    /**
+     * Проверяет некорректного клиента прежней реализацией (исключение на первой ошибке).
+     *
+     * @return сообщение первой ошибки
+     */
+
+    @Benchmark
+    public String regexInvalid() {
+        try {
+            validateWithRegex(invalidClient, "клиента", true);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Собирает все ошибки некорректного клиента посимвольной реализацией без исключения.
+     *
+     * @return накопитель нарушений
+     */
+
+    @Benchmark
+    public ValidationErrors scannerInvalid() {
+        ValidationErrors errors = new ValidationErrors();
+        UserEntityValidator.validateUserEntity(invalidClient, "клиента", true, errors);
+        return errors;
+    }
+
+    private static void validateWithRegex(UserEntity entity, String entityType, boolean isNew) {
+        if (entity.getName() == null || entity.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Имя не может быть пустым.");
+        }
+        String cleanedName = entity.getName().trim().replaceAll("\\s+", " ");
+        if (cleanedName.length() < 2 || cleanedName.length() > 50) {
+            throw new IllegalArgumentException("Имя должно содержать от 2 до 50 символов.");
+        }
+        if (!cleanedName.matches("^[a-zA-Zа-яА-ЯёЁ\\s-]+$")) {
+            throw new IllegalArgumentException("Имя может содержать только буквы, пробелы и дефисы.");
+        }
+        entity.setName(cleanedName);
+
+        if (entity.getUsername() == null || entity.getUsername().trim().isEmpty()) {
+            throw new IllegalArgumentException("Имя пользователя не может быть пустым.");
+        }
+        if (!entity.getUsername().matches("^[a-zA-Z0-9_]{3,20}$")) {
+            throw new IllegalArgumentException("Имя пользователя должно содержать 3–20 символов (буквы, цифры, подчёркивание).");
+        }
+
+        if (isNew) {
+            String password = entity.getPassword();
+            if (password == null || password.trim().isEmpty()) {
+                throw new IllegalArgumentException("Пароль не может быть пустым при создании " + entityType + ".");
+            }
+            if (password.length() < 6) {
+                throw new IllegalArgumentException("Пароль должен содержать минимум 6 символов.");
+            }
+        }
+    }
+
+    private static Client client(String name, String username, String password) {
+        Client client = new Client();
+        client.setName(name);
+        client.setUsername(username);
+        client.setPassword(password);
+        client.setPhone("+79876543210");
+        return client;
+    }
+}
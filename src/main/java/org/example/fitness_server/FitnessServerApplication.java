@@ -2,13 +2,15 @@ package org.example.fitness_server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Главный класс серверного приложения фитнес-клуба.
  * <p>
  * Этот класс является точкой входа для запуска Spring Boot приложения.
  * Аннотация {@code @SpringBootApplication} включает автоконфигурацию,
- * сканирование компонентов и другие функции Spring Boot.
+ * сканирование компонентов и другие функции Spring Boot. Аннотация {@code @EnableScheduling}
+ * включает периодические задачи, например сверку статистики.
  * </p>
  *
  * @author Милана
@@ -17,6 +19,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 
 @SpringBootApplication
+@EnableScheduling
 public class FitnessServerApplication {
 
 	/**
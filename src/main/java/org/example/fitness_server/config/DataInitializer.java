@@ -1,16 +1,22 @@
 package org.example.fitness_server.config;
 
 import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.RegisteredUsername;
 import org.example.fitness_server.model.Role;
 import org.example.fitness_server.model.Subscription;
 import org.example.fitness_server.model.User;
 import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
 import org.example.fitness_server.repository.SubscriptionRepository;
 import org.example.fitness_server.repository.TrainerRepository;
 import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.util.Memberships;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
 
 /**
  * Класс для инициализации начальных данных приложения фитнес-клуба.
@@ -32,6 +38,7 @@ public class DataInitializer implements CommandLineRunner {
     private final SubscriptionRepository subscriptionRepository;
     private final PasswordEncoder passwordEncoder;
     private final TrainerRepository trainerRepository;
+    private final RegisteredUsernameRepository registeredUsernameRepository;
 
     /**
      * Конструктор для создания экземпляра {@code DataInitializer}.
@@ -40,15 +47,19 @@ public class DataInitializer implements CommandLineRunner {
      * @param clientRepository       репозиторий для работы с клиентами
      * @param subscriptionRepository репозиторий для работы с абонементами
      * @param passwordEncoder        кодировщик паролей для шифрования паролей пользователей
+     * @param trainerRepository      репозиторий для работы с тренерами
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
      */
 
     public DataInitializer(UserRepository userRepository, ClientRepository clientRepository,
-                           SubscriptionRepository subscriptionRepository, PasswordEncoder passwordEncoder, TrainerRepository trainerRepository) {
+                           SubscriptionRepository subscriptionRepository, PasswordEncoder passwordEncoder, TrainerRepository trainerRepository,
+                           RegisteredUsernameRepository registeredUsernameRepository) {
         this.userRepository = userRepository;
         this.clientRepository = clientRepository;
         this.subscriptionRepository = subscriptionRepository;
         this.passwordEncoder = passwordEncoder;
         this.trainerRepository = trainerRepository;
+        this.registeredUsernameRepository = registeredUsernameRepository;
     }
 
     /**
@@ -60,18 +71,24 @@ public class DataInitializer implements CommandLineRunner {
      *     <li>Администратора с именем пользователя "admin" и паролем "admin123".</li>
      *     <li>Двух клиентов: "Иван Иванов" (ivan, ivan123) и "Мария Петрова" (maria, maria123).</li>
      * </ul>
-     * Пароли шифруются с использованием {@code PasswordEncoder}.
+     * Пароли шифруются с использованием {@code PasswordEncoder} один раз на учётную запись
+     * {@code User}; клиенты ссылаются на свою учётную запись. Имена пользователей заносятся
+     * в реестр {@code RegisteredUsername}.
+     * Все данные сохраняются в одной транзакции, поэтому вставки в каждую таблицу
+     * отправляются в базу данных одним пакетом JDBC при фиксации.
      *
      * @param args аргументы командной строки (не используются)
      */
 
     @Override
+    @Transactional
     public void run(String... args) {
         // Очищаем все данные из репозиториев
         clientRepository.deleteAllInBatch();
+        trainerRepository.deleteAllInBatch();
         userRepository.deleteAllInBatch();
         subscriptionRepository.deleteAllInBatch();
-        trainerRepository.deleteAllInBatch();
+        registeredUsernameRepository.deleteAllInBatch();
 
         // Создаём абонементы
         Subscription subscription1 = new Subscription();
@@ -86,19 +103,23 @@ public class DataInitializer implements CommandLineRunner {
         subscription2.setDurationDays(365);
         subscriptionRepository.save(subscription2);
 
+        Instant now = Instant.now();
+
         // Создаём администратора
         User admin = new User();
         admin.setUsername("admin");
         admin.setPassword(passwordEncoder.encode("admin123"));
         admin.setRole(Role.ADMIN);
         userRepository.save(admin);
+        registeredUsernameRepository.save(new RegisteredUsername("admin"));
 
         Client adminClient = new Client();
-        adminClient.setUsername("admin");
+        adminClient.setUser(admin);
         adminClient.setName("Админ Админов");
         adminClient.setPhone("+79999999999");
-        adminClient.setPassword(passwordEncoder.encode("admin123"));
+        adminClient.setPhoneNormalized("+79999999999");
         adminClient.setSubscription(subscription1);
+        Memberships.activate(adminClient, subscription1.getDurationDays(), now);
         clientRepository.save(adminClient);
 
         // Создаём клиентов
@@ -107,13 +128,15 @@ public class DataInitializer implements CommandLineRunner {
         client1.setPassword(passwordEncoder.encode("ivan123"));
         client1.setRole(Role.CLIENT);
         userRepository.save(client1);
+        registeredUsernameRepository.save(new RegisteredUsername("ivan"));
 
         Client ivan = new Client();
-        ivan.setUsername("ivan");
+        ivan.setUser(client1);
         ivan.setName("Иван Иванов");
         ivan.setPhone("+79876543210");
-        ivan.setPassword(passwordEncoder.encode("ivan123"));
+        ivan.setPhoneNormalized("+79876543210");
         ivan.setSubscription(subscription1);
+        Memberships.activate(ivan, subscription1.getDurationDays(), now);
         clientRepository.save(ivan);
 
         User client2 = new User();
@@ -121,13 +144,15 @@ public class DataInitializer implements CommandLineRunner {
         client2.setPassword(passwordEncoder.encode("maria123"));
         client2.setRole(Role.CLIENT);
         userRepository.save(client2);
+        registeredUsernameRepository.save(new RegisteredUsername("maria"));
 
         Client maria = new Client();
-        maria.setUsername("maria");
+        maria.setUser(client2);
         maria.setName("Мария Петрова");
         maria.setPhone("+79991234567");
-        maria.setPassword(passwordEncoder.encode("maria123"));
+        maria.setPhoneNormalized("+79991234567");
         maria.setSubscription(subscription2);
+        Memberships.activate(maria, subscription2.getDurationDays(), now);
         clientRepository.save(maria);
     }
 }
\ No newline at end of file
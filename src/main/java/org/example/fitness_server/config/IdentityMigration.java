@@ -0,0 +1,136 @@
+package org.example.fitness_server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fitness_server.model.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Миграция учётных данных клиентов и тренеров в единую таблицу {@code users}.
+ * <p>
+ * До перехода на единую учётную запись каждый клиент и тренер хранил собственные столбцы
+ * {@code username} и {@code password}, дублируя строку {@code users}. Теперь таблицы {@code clients}
+ * и {@code trainers} ссылаются на {@code users} столбцом {@code user_id}, который Hibernate добавляет
+ * при обновлении схемы. Миграция выполняется при запуске, до приёма запросов, и только если
+ * в таблице остался прежний столбец {@code username}; на новой схеме она ничего не делает.
+ * </p>
+ * <p>
+ * Миграция рассчитана на работу без остановки (expand/contract):
+ * <ul>
+ *     <li>с прежних столбцов снимается {@code NOT NULL}, чтобы новые строки вставлялись без них;</li>
+ *     <li>последовательности идентификаторов сдвигаются за {@code max(id)} таблиц ({@code SequenceAlignment}),
+ *     чтобы новые строки не совпали с идентификаторами, выданными прежней версией;</li>
+ *     <li>для строк без учётной записи создаются строки {@code users} и реестра имён с прежним хешем
+ *     пароля; для остальных строк действующим остаётся пароль из {@code users}, по которому
+ *     и раньше выполнялся вход;</li>
+ *     <li>{@code user_id} заполняется по имени пользователя порциями по
+ *     {@code fitness.migration.identity.batch-size} строк, каждая в своей короткой транзакции;</li>
+ *     <li>при {@code fitness.migration.identity.finalize=true}, когда все строки связаны,
+ *     {@code user_id} становится обязательным, а прежние столбцы удаляются.</li>
+ * </ul>
+ * Шаги повторяемы: строки, вставленные экземплярами прежней версии во время обновления,
+ * связываются при следующем запуске.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class IdentityMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceAlignment sequenceAlignment;
+    private final int batchSize;
+    private final boolean finalizeSchema;
+
+    /**
+     * Конструктор для создания экземпляра {@code IdentityMigration}.
+     *
+     * @param jdbcTemplate      шаблон JDBC для выполнения миграции
+     * @param sequenceAlignment выравнивание последовательностей перед вставкой учётных записей
+     * @param batchSize         количество строк, связываемых в одной транзакции
+     * @param finalizeSchema    удалять ли прежние столбцы после связывания всех строк
+     */
+
+    public IdentityMigration(JdbcTemplate jdbcTemplate, SequenceAlignment sequenceAlignment,
+                             @Value("${fitness.migration.identity.batch-size:1000}") int batchSize,
+                             @Value("${fitness.migration.identity.finalize:false}") boolean finalizeSchema) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Размер порции миграции должен быть положительным: " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceAlignment = sequenceAlignment;
+        this.batchSize = batchSize;
+        this.finalizeSchema = finalizeSchema;
+    }
+
+    /**
+     * Переносит учётные данные клиентов и тренеров в таблицу {@code users}.
+     */
+
+    @PostConstruct
+    public void migrate() {
+        migrate("clients", Role.CLIENT);
+        migrate("trainers", Role.TRAINER);
+    }
+
+    private void migrate(String table, Role role) {
+        if (!hasColumn(table, "username")) {
+            return;
+        }
+        // Прежние столбцы больше не заполняются приложением
+        jdbcTemplate.execute("alter table " + table + " alter column username drop not null");
+        jdbcTemplate.execute("alter table " + table + " alter column password drop not null");
+        // Последовательности могли быть только что созданы и начинаться с 1
+        sequenceAlignment.alignSequences();
+
+        jdbcTemplate.update("insert into username_registry (id, username) "
+                + "select nextval('username_registry_seq'), t.username from " + table + " t "
+                + "where t.user_id is null and t.username is not null "
+                + "and not exists (select 1 from username_registry r where r.username = t.username)");
+        int created = jdbcTemplate.update("insert into users (id, username, password, role) "
+                + "select nextval('users_seq'), t.username, t.password, ? from " + table + " t "
+                + "where t.user_id is null and t.username is not null and t.password is not null "
+                + "and not exists (select 1 from users u where u.username = t.username)", role.name());
+
+        int linked = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update("update " + table + " set user_id = "
+                    + "(select u.id from users u where u.username = " + table + ".username) "
+                    + "where id in (select t.id from " + table + " t join users u on u.username = t.username "
+                    + "where t.user_id is null order by t.id limit ?)", batchSize);
+            linked += batch;
+        } while (batch == batchSize);
+
+        Long unlinked = jdbcTemplate.queryForObject(
+                "select count(*) from " + table + " where user_id is null", Long.class);
+        boolean finalized = false;
+        if (finalizeSchema && unlinked != null && unlinked == 0) {
+            jdbcTemplate.execute("alter table " + table + " alter column user_id set not null");
+            jdbcTemplate.execute("alter table " + table + " drop column password");
+            jdbcTemplate.execute("alter table " + table + " drop column username");
+            finalized = true;
+        } else if (finalizeSchema) {
+            log.warn("Identity migration not finalized, rows without account remain: table={}, unlinked={}",
+                    table, unlinked);
+        }
+        log.info("Identity migration: table={}, createdUsers={}, linked={}, unlinked={}, finalized={}",
+                table, created, linked, unlinked, finalized);
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                        + "where lower(table_schema) = lower(current_schema) "
+                        + "and lower(table_name) = ? and lower(column_name) = ?",
+                Long.class, table, column);
+        return count != null && count > 0;
+    }
+}
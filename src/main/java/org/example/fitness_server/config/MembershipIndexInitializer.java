@@ -0,0 +1,70 @@
+package org.example.fitness_server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Создание частичного индекса действующих абонементов в PostgreSQL.
+ * <p>
+ * Списки активных и истекающих клиентов и задача истечения абонементов выбирают строки
+ * в состоянии {@code ACTIVE} по времени окончания абонемента. Частичный индекс
+ * {@code idx_clients_active_expires_at} содержит только такие строки, поэтому остаётся
+ * небольшим, сколько бы истёкших абонементов ни накопилось в таблице. Hibernate не умеет
+ * описывать частичные индексы, поэтому индекс создаётся при запуске, после обновления схемы;
+ * условие индекса совпадает с условием запросов {@code ClientRepository.findActiveMembers},
+ * {@code findExpiringMembers} и {@code findLapsedMemberIds}.
+ * </p>
+ * <p>
+ * На других СУБД частичный индекс не создаётся: запросы используют обычный индекс
+ * {@code idx_clients_subscription_expires_at_id}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class MembershipIndexInitializer {
+
+    private static final String INDEX = "create index if not exists idx_clients_active_expires_at "
+            + "on clients (subscription_expires_at, id) where membership_status = 'ACTIVE'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор для создания экземпляра {@code MembershipIndexInitializer}.
+     *
+     * @param jdbcTemplate шаблон JDBC для создания индекса
+     */
+
+    public MembershipIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Создаёт частичный индекс действующих абонементов, если его ещё нет.
+     */
+
+    @PostConstruct
+    public void createIndex() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute(INDEX);
+        } catch (DataAccessException e) {
+            log.warn("Active membership index not created, membership queries will use "
+                    + "idx_clients_subscription_expires_at_id: {}", e.getMessage());
+        }
+    }
+}
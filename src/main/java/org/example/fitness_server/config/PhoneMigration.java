@@ -0,0 +1,108 @@
+package org.example.fitness_server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fitness_server.util.PhoneNumbers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Заполнение столбца {@code phone_normalized} для клиентов, созданных до его появления.
+ * <p>
+ * Новые и изменённые клиенты получают телефон в формате E.164 в {@code ClientService}
+ * и {@code ClientImportService}. Для прежних строк миграция при запуске читает клиентов
+ * с пустым {@code phone_normalized} порциями по {@code fitness.migration.phone.batch-size}
+ * в порядке идентификатора, приводит телефоны к формату E.164 в Java и записывает их пакетом.
+ * </p>
+ * <p>
+ * Строки, телефон которых не удаётся разобрать или уже принадлежит другому клиенту, остаются
+ * с пустым {@code phone_normalized}: уникальный индекс допускает несколько {@code NULL}.
+ * Их количество пишется в журнал; такие клиенты находятся по телефону после исправления
+ * номера через {@code PUT /api/clients/{id}}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class PhoneMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * Конструктор для создания экземпляра {@code PhoneMigration}.
+     *
+     * @param jdbcTemplate шаблон JDBC для выполнения миграции
+     * @param batchSize    количество строк, обрабатываемых за один пакет
+     */
+
+    public PhoneMigration(JdbcTemplate jdbcTemplate,
+                          @Value("${fitness.migration.phone.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Размер порции миграции должен быть положительным: " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Приводит к формату E.164 телефоны клиентов с пустым {@code phone_normalized}.
+     */
+
+    @PostConstruct
+    public void migrate() {
+        long lastId = 0;
+        int normalized = 0;
+        int skipped = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList("select id, phone from clients "
+                    + "where phone_normalized is null and id > ? order by id limit ?", lastId, batchSize);
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                String phone = PhoneNumbers.normalize((String) row.get("phone"));
+                if (phone == null) {
+                    skipped++;
+                } else {
+                    updates.add(new Object[]{phone, lastId, phone});
+                }
+            }
+            if (updates.isEmpty()) {
+                continue;
+            }
+            try {
+                // Телефон, уже занятый другим клиентом, не записывается
+                int[] counts = jdbcTemplate.batchUpdate("update clients set phone_normalized = ? where id = ? "
+                        + "and not exists (select 1 from clients c where c.phone_normalized = ?)", updates);
+                for (int count : counts) {
+                    if (count != 0) {
+                        normalized++;
+                    } else {
+                        skipped++;
+                    }
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Телефон занят клиентом, созданным параллельно; оставшиеся строки обработает следующий запуск
+                log.warn("Phone migration interrupted by a concurrent write: {}", e.getMostSpecificCause().getMessage());
+                break;
+            }
+        } while (rows.size() == batchSize);
+
+        if (normalized > 0 || skipped > 0) {
+            log.info("Phone migration: normalized={}, skipped={}", normalized, skipped);
+        }
+    }
+}
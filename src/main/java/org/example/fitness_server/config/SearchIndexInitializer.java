@@ -0,0 +1,78 @@
+package org.example.fitness_server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Создание триграммных индексов для поиска клиентов в PostgreSQL.
+ * <p>
+ * Поиск {@code /api/clients/search} сравнивает части имени, имени пользователя и телефона в формате
+ * E.164 условием {@code like '%...%'}, которое обычный B-tree индекс не обслуживает. Индексы GIN
+ * с классом операторов {@code gin_trgm_ops} из расширения {@code pg_trgm} находят такие строки
+ * без полного просмотра таблицы. Hibernate не умеет описывать индексы по выражениям, поэтому они
+ * создаются при запуске, после обновления схемы; выражения совпадают с условиями запроса
+ * {@code ClientRepository.searchSummaries}.
+ * </p>
+ * <p>
+ * На других СУБД и при отсутствии прав на создание расширения индексы не создаются:
+ * поиск продолжает работать, но с просмотром таблицы.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class SearchIndexInitializer {
+
+    private static final List<String> INDEXES = List.of(
+            "create index if not exists idx_clients_name_trgm on clients "
+                    + "using gin ((replace(lower(name), 'ё', 'е')) gin_trgm_ops)",
+            // Прежний индекс по телефону в исходной записи поиском больше не используется
+            "drop index if exists idx_clients_phone_trgm",
+            "create index if not exists idx_clients_phone_normalized_trgm on clients "
+                    + "using gin (phone_normalized gin_trgm_ops)",
+            "create index if not exists idx_users_username_trgm on users using gin ((lower(username)) gin_trgm_ops)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор для создания экземпляра {@code SearchIndexInitializer}.
+     *
+     * @param jdbcTemplate шаблон JDBC для создания индексов
+     */
+
+    public SearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Создаёт расширение {@code pg_trgm} и триграммные индексы, если их ещё нет.
+     */
+
+    @PostConstruct
+    public void createIndexes() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("create extension if not exists pg_trgm");
+            INDEXES.forEach(jdbcTemplate::execute);
+            log.info("Trigram search indexes ready");
+        } catch (DataAccessException e) {
+            log.warn("Trigram search indexes not created, client search will scan the table: {}", e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package org.example.fitness_server.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fitness_server.metrics.TimedPasswordEncoder;
 import org.example.fitness_server.model.User;
 import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.example.fitness_server.security.CachingAuthenticationProvider;
+import org.example.fitness_server.security.ConfinedPasswordEncoder;
+import org.example.fitness_server.security.PasswordEncoders;
+import org.example.fitness_server.security.PasswordHashingExecutor;
+import org.example.fitness_server.security.PasswordUpgradeService;
+import org.example.fitness_server.security.RehashingAuthenticationProvider;
+import org.example.fitness_server.security.TokenAuthenticationFilter;
+import org.example.fitness_server.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-
-import java.util.Collections;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 /**
  * Конфигурационный класс для настройки безопасности приложения фитнес-клуба.
@@ -29,6 +43,7 @@ import java.util.Collections;
  * @since 2025-04-29
  */
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -52,39 +67,52 @@ public class SecurityConfig {
      * <ul>
      *     <li>Эндпоинт {@code /api/clients/me} доступен ролям {@code ADMIN} и {@code CLIENT}.</li>
      *     <li>Эндпоинты {@code /api/auth/**} доступны всем (аутентификация).</li>
+     *     <li>Эндпоинт {@code /actuator/health} доступен всем, остальные эндпоинты Actuator,
+     *         включая {@code /actuator/prometheus}, — только роли {@code ADMIN}.</li>
      *     <li>Эндпоинты {@code /api/users/**}, {@code /api/subscriptions/**}, {@code /api/clients/**}
      *         доступны только роли {@code ADMIN}.</li>
      *     <li>Все остальные запросы требуют аутентификации.</li>
      * </ul>
-     * Использует HTTP Basic-аутентификацию и отключает CSRF-защиту.
+     * Поддерживает HTTP Basic-аутентификацию и аутентификацию по токену из заголовка
+     * {@code Authorization: Bearer}, не создаёт HTTP-сессий и отключает CSRF-защиту.
      *
-     * @param http объект {@code HttpSecurity} для настройки безопасности
+     * @param http         объект {@code HttpSecurity} для настройки безопасности
+     * @param tokenService сервис проверки токенов доступа
      * @return настроенная цепочка фильтров безопасности
      * @throws Exception если произошла ошибка при настройке
      */
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
                         // Клиент может видеть только свои данные
                         .requestMatchers("/api/clients/me").hasAnyRole("ADMIN", "CLIENT")
-                        // Тренер может видеть свои данные
-                        .requestMatchers("/api/trainers/me").hasAnyRole("ADMIN", "TRAINER")
+                        // Тренер может видеть свои данные и список своих клиентов
+                        .requestMatchers("/api/trainers/me", "/api/trainers/me/clients").hasAnyRole("ADMIN", "TRAINER")
                         // Разрешить доступ всем к эндпоинту аутентификации
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Проверка работоспособности доступна всем, метрики — только ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Только ADMIN может управлять пользователями
                         .requestMatchers("/api/users/**").hasRole("ADMIN")
                         // Только ADMIN может управлять абонементами
                         .requestMatchers("/api/subscriptions/**").hasRole("ADMIN")
+                        // Только ADMIN может импортировать клиентов пакетом
+                        .requestMatchers("/api/clients/bulk").hasRole("ADMIN")
 //                        // Только ADMIN может управлять всеми клиентами
                         .requestMatchers("/api/clients/**").hasAnyRole("ADMIN", "TRAINER")
+                        // Отметки посещений принимают ADMIN и TRAINER (стойка администратора, турникеты)
+                        .requestMatchers("/api/visits/**").hasAnyRole("ADMIN", "TRAINER")
                         // Только ADMIN может управлять тренерами
                         .requestMatchers("/api/trainers/**").hasRole("ADMIN")
                         // Все остальные запросы требуют аутентификации
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                 .httpBasic(httpBasic -> httpBasic.realmName("Realm"))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(AbstractHttpConfigurer::disable);
 
         return http.build();
@@ -95,6 +123,8 @@ public class SecurityConfig {
      * <p>
      * Использует {@code UserRepository} для поиска пользователя по имени.
      * Если пользователь не найден, выбрасывается исключение {@code UsernameNotFoundException}.
+     * Возвращается сама сущность {@code User}: она становится principal аутентификации, и при входе
+     * по токенам из неё берутся идентификатор и версия учётных данных без повторного запроса.
      * </p>
      *
      * @return сервис для загрузки данных пользователя
@@ -103,29 +133,78 @@ public class SecurityConfig {
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> {
-            System.out.println("Attempting to load user: " + username);
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> {
-                        System.out.println("User not found: " + username);
+                        log.debug("User not found: username={}", username);
                         return new UsernameNotFoundException("User not found: " + username);
                     });
-            System.out.println("User loaded: " + user.getUsername() + ", Role: " + user.getRole());
-            return new org.springframework.security.core.userdetails.User(
-                    user.getUsername(),
-                    user.getPassword(),
-                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-            );
+            log.debug("User loaded: username={}, role={}", user.getUsername(), user.getRole());
+            return user;
         };
     }
 
     /**
-     * Создаёт кодировщик паролей на основе алгоритма BCrypt.
+     * Создаёт провайдер аутентификации с кэшированием успешных проверок.
+     * <p>
+     * Фактическую проверку выполняет {@code RehashingAuthenticationProvider}, использующий
+     * {@code UserDetailsService} и {@code PasswordEncoder}; устаревшие хеши паролей он
+     * перешифровывает в фоне после успешного входа. Повторные запросы с теми же
+     * учётными данными обслуживаются из {@code AuthenticationCache}.
+     * </p>
+     *
+     * @param userDetailsService     сервис для загрузки данных пользователя
+     * @param passwordEncoder        кодировщик паролей
+     * @param authenticationCache    кэш успешных аутентификаций
+     * @param passwordUpgradeService сервис перешифрования паролей
+     * @return провайдер аутентификации
+     */
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         AuthenticationCache authenticationCache,
+                                                         PasswordUpgradeService passwordUpgradeService) {
+        return new CachingAuthenticationProvider(
+                new RehashingAuthenticationProvider(passwordEncoder, userDetailsService, passwordUpgradeService),
+                authenticationCache);
+    }
+
+    /**
+     * Предоставляет менеджер аутентификации для проверки пароля при входе по токенам.
+     *
+     * @param authenticationConfiguration конфигурация аутентификации Spring Security
+     * @return менеджер аутентификации, использующий {@code authenticationProvider}
+     * @throws Exception если менеджер аутентификации не удалось создать
+     */
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
+        return authenticationConfiguration.getAuthenticationManager();
+    }
+
+    /**
+     * Создаёт кодировщик паролей на основе {@code DelegatingPasswordEncoder}.
+     * <p>
+     * Новые пароли шифруются алгоритмом {@code fitness.security.password-encoder.encode-id}
+     * (по умолчанию BCrypt со стоимостью {@code fitness.security.password-encoder.bcrypt-strength}),
+     * а проверяются хеши любого известного алгоритма, в том числе BCrypt без префикса.
+     * Время шифрования и проверки паролей публикуется в метрике {@code fitness.password.encoder}.
+     * Операции выполняются в ограниченном пуле потоков {@code PasswordHashingExecutor}.
+     * </p>
      *
+     * @param meterRegistry   реестр метрик
+     * @param hashingExecutor пул потоков для операций с паролями
+     * @param encodeId        идентификатор алгоритма для шифрования новых паролей
+     * @param bcryptStrength  целевая стоимость BCrypt
      * @return кодировщик паролей
      */
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry, PasswordHashingExecutor hashingExecutor,
+                                           @Value("${fitness.security.password-encoder.encode-id:bcrypt}") String encodeId,
+                                           @Value("${fitness.security.password-encoder.bcrypt-strength:10}") int bcryptStrength) {
+        return new ConfinedPasswordEncoder(
+                new TimedPasswordEncoder(PasswordEncoders.create(encodeId, bcryptStrength), meterRegistry),
+                hashingExecutor);
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package org.example.fitness_server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Выравнивание последовательностей идентификаторов по уже существующим строкам.
+ * <p>
+ * Идентификаторы сущностей выдаются последовательностями с оптимизатором pooled: Hibernate получает
+ * из последовательности верхнюю границу блока и раздаёт 50 идентификаторов ниже неё. Последовательности
+ * создаются при обновлении схемы и начинаются с 1, а таблицы, заполненные до перехода со столбцов
+ * {@code IDENTITY}, уже содержат строки с этими идентификаторами. Поэтому при запуске, до первой вставки,
+ * каждая последовательность сдвигается так, чтобы следующий блок начинался после {@code max(id)} таблицы.
+ * </p>
+ * <p>
+ * Последовательность только сдвигается вперёд: если она уже опережает таблицу, например после
+ * удаления строк или при запуске второго экземпляра, её значение не меняется.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class SequenceAlignment {
+
+    /**
+     * Размер блока идентификаторов, совпадающий с {@code allocationSize} генераторов сущностей.
+     */
+
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users_seq", "users",
+            "username_registry_seq", "username_registry",
+            "clients_seq", "clients",
+            "trainers_seq", "trainers",
+            "subscriptions_seq", "subscriptions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор для создания экземпляра {@code SequenceAlignment}.
+     *
+     * @param jdbcTemplate шаблон JDBC для выравнивания последовательностей
+     */
+
+    public SequenceAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Сдвигает все последовательности идентификаторов за наибольший идентификатор своей таблицы.
+     */
+
+    @PostConstruct
+    public void alignSequences() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        SEQUENCES.forEach((sequence, table) -> align(sequence, table, "PostgreSQL".equals(database)));
+    }
+
+    private void align(String sequence, String table, boolean postgres) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        // Верхняя граница блока, в который попадает max(id): следующий блок начнётся после неё
+        long aligned = (maxId / ALLOCATION_SIZE + 1) * ALLOCATION_SIZE;
+        if (postgres) {
+            jdbcTemplate.queryForObject("select setval('" + sequence + "', greatest(last_value, ?)) from "
+                    + sequence, Long.class, aligned);
+        } else {
+            // В H2 нет setval: следующее значение задаётся через restart with
+            Long next = jdbcTemplate.queryForObject("select base_value from information_schema.sequences "
+                    + "where lower(sequence_name) = ?", Long.class, sequence);
+            if (next != null && next <= aligned) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (aligned + ALLOCATION_SIZE));
+            }
+        }
+        log.info("Sequence aligned: sequence={}, table={}, maxId={}", sequence, table, maxId);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.fitness_server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.fitness_server.metrics.RequestStatementCounter;
+import org.example.fitness_server.metrics.StatementBudgetInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфигурационный класс для подсчёта SQL-операторов каждого HTTP-запроса.
+ * <p>
+ * Подключает {@code RequestStatementCounter} к Hibernate как {@code StatementInspector}
+ * и регистрирует {@code StatementBudgetInterceptor} для всех эндпоинтов контроллеров.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Configuration
+public class StatementBudgetConfig implements WebMvcConfigurer {
+
+    private final RequestStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Конструктор для создания экземпляра {@code StatementBudgetConfig}.
+     *
+     * @param counter       счётчик операторов текущего запроса
+     * @param meterRegistry реестр метрик
+     */
+
+    public StatementBudgetConfig(RequestStatementCounter counter, MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Передаёт счётчик операторов в настройки Hibernate.
+     *
+     * @return настройщик свойств Hibernate
+     */
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    /**
+     * Регистрирует перехватчик, подсчитывающий операторы запросов.
+     *
+     * @param registry реестр перехватчиков Spring MVC
+     */
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor(counter, meterRegistry));
+    }
+}
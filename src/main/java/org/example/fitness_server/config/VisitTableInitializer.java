@@ -0,0 +1,125 @@
+package org.example.fitness_server.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Создание таблицы посещений {@code visits} и её месячных секций.
+ * <p>
+ * Посещения только добавляются и читаются по периодам, поэтому в PostgreSQL таблица секционирована
+ * по диапазону {@code visited_at}: секция на каждый календарный месяц (UTC) и секция по умолчанию
+ * для отметок вне созданных месяцев. Старые месяцы удаляются отсоединением секции без
+ * {@code delete} по всей таблице. Hibernate не умеет описывать секционированные таблицы, поэтому
+ * таблица создаётся при запуске, после обновления схемы, а секции на текущий и следующие
+ * {@code fitness.visits.partitions-ahead} месяцев создаются заранее при запуске и по расписанию.
+ * </p>
+ * <p>
+ * На других СУБД (H2 в тестах) создаётся обычная таблица с теми же столбцами.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class VisitTableInitializer {
+
+    private static final String COLUMNS = "id bigint not null default nextval('visits_id_seq'), "
+            + "client_id bigint not null references clients (id) on delete cascade, "
+            + "visited_at timestamp with time zone not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionsAhead;
+    private boolean partitioned;
+
+    /**
+     * Конструктор для создания экземпляра {@code VisitTableInitializer}.
+     *
+     * @param jdbcTemplate    шаблон JDBC для создания таблицы и секций
+     * @param partitionsAhead количество месяцев после текущего, для которых секции создаются заранее
+     */
+
+    public VisitTableInitializer(JdbcTemplate jdbcTemplate,
+                                 @Value("${fitness.visits.partitions-ahead:2}") int partitionsAhead) {
+        if (partitionsAhead < 0) {
+            throw new IllegalArgumentException("Количество секций посещений не может быть отрицательным: "
+                    + partitionsAhead);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    /**
+     * Создаёт последовательность, таблицу {@code visits}, её индекс и секции, если их ещё нет.
+     */
+
+    @PostConstruct
+    public void createTable() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        partitioned = "PostgreSQL".equals(database);
+
+        jdbcTemplate.execute("create sequence if not exists visits_id_seq");
+        if (partitioned) {
+            // Первичный ключ секционированной таблицы обязан включать ключ секционирования
+            jdbcTemplate.execute("create table if not exists visits (" + COLUMNS
+                    + ", primary key (id, visited_at)) partition by range (visited_at)");
+            jdbcTemplate.execute("create table if not exists visits_default partition of visits default");
+        } else {
+            jdbcTemplate.execute("create table if not exists visits (" + COLUMNS + ", primary key (id))");
+        }
+        // Индекс на секционированной таблице создаётся во всех её секциях
+        jdbcTemplate.execute("create index if not exists idx_visits_client_id_visited_at "
+                + "on visits (client_id, visited_at)");
+        createPartitions();
+    }
+
+    /**
+     * Создаёт секции на текущий и следующие месяцы, если их ещё нет.
+     * <p>
+     * Выполняется при запуске и по расписанию {@code fitness.visits.partition-check-interval},
+     * чтобы секция следующего месяца существовала до его начала и отметки не попадали
+     * в секцию по умолчанию.
+     * </p>
+     */
+
+    @Scheduled(fixedDelayString = "${fitness.visits.partition-check-interval:12h}",
+            initialDelayString = "${fitness.visits.partition-check-interval:12h}")
+    public void createPartitions() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = "visits_%d_%02d".formatted(month.getYear(), month.getMonthValue());
+            try {
+                jdbcTemplate.execute("create table if not exists " + name + " partition of visits for values from ('"
+                        + startOf(month) + "') to ('" + startOf(month.plusMonths(1)) + "')");
+            } catch (DataAccessException e) {
+                // Например, в секции по умолчанию уже есть отметки этого месяца
+                log.warn("Visit partition {} not created, visits stay in the default partition: {}",
+                        name, e.getMessage());
+            }
+        }
+    }
+
+    private static String startOf(YearMonth month) {
+        LocalDate day = month.atDay(1);
+        return day + " 00:00:00+00";
+    }
+}
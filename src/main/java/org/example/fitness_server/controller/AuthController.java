@@ -0,0 +1,104 @@
+package org.example.fitness_server.controller;
+
+import org.example.fitness_server.dto.LoginRequest;
+import org.example.fitness_server.dto.RefreshRequest;
+import org.example.fitness_server.dto.TokenResponse;
+import org.example.fitness_server.metrics.StatementBudget;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.security.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер для входа в систему по токенам.
+ * <p>
+ * Этот класс предоставляет эндпоинты для получения пары токенов по имени пользователя и паролю,
+ * обновления токенов и их отзыва. Пароль проверяется один раз при входе, а последующие
+ * запросы аутентифицируются по подписанному токену доступа без проверки BCrypt.
+ * </p>
+ * <p>
+ * Базовый путь для всех эндпоинтов: {@code /api/auth}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    /**
+     * Выполняет вход в систему и выдаёт пару токенов.
+     * <p>
+     * Токены выпускаются для учётной записи, загруженной при проверке пароля, поэтому содержат
+     * её идентификатор и текущую версию учётных данных без дополнительного запроса к базе данных.
+     * </p>
+     *
+     * @param request объект {@code LoginRequest} с именем пользователя и паролем
+     * @return объект {@code TokenResponse} с токеном доступа и токеном обновления
+     * @throws BadCredentialsException если имя пользователя или пароль неверны
+     */
+
+    @PostMapping("/login")
+    @StatementBudget(1)
+    public TokenResponse login(@RequestBody LoginRequest request) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(request.username(), request.password()));
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            throw new BadCredentialsException("Учётная запись пользователя не найдена");
+        }
+        return tokenService.issueTokens(user);
+    }
+
+    /**
+     * Обменивает токен обновления на новую пару токенов.
+     *
+     * @param request объект {@code RefreshRequest} с токеном обновления
+     * @return объект {@code TokenResponse} с новой парой токенов
+     * @throws BadCredentialsException если токен обновления недействителен
+     */
+
+    @PostMapping("/refresh")
+    @StatementBudget(1)
+    public TokenResponse refresh(@RequestBody RefreshRequest request) {
+        return tokenService.refresh(request.refreshToken());
+    }
+
+    /**
+     * Отзывает токен обновления и, если передан, токен доступа из заголовка {@code Authorization}.
+     * <p>
+     * Схема {@code Bearer} в заголовке, как и в {@code TokenAuthenticationFilter}, сравнивается без учёта регистра.
+     * </p>
+     *
+     * @param request       объект {@code RefreshRequest} с токеном обновления (может быть {@code null})
+     * @param authorization значение заголовка {@code Authorization} (может быть {@code null})
+     * @return объект {@code ResponseEntity} со статусом 204
+     */
+
+    @PostMapping("/logout")
+    @StatementBudget(0)
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshRequest request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (request != null && request.refreshToken() != null) {
+            tokenService.revoke(request.refreshToken());
+        }
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            tokenService.revoke(authorization.substring(BEARER_PREFIX.length()).trim());
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
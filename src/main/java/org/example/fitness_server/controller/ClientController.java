@@ -1,15 +1,48 @@
 package org.example.fitness_server.controller;
 
+import org.example.fitness_server.dto.BulkImportReport;
+import org.example.fitness_server.dto.ClientCursor;
+import org.example.fitness_server.dto.ClientDetails;
+import org.example.fitness_server.dto.ClientSlice;
+import org.example.fitness_server.dto.ClientSuggestion;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.dto.MemberSlice;
+import org.example.fitness_server.dto.MembershipCursor;
+import org.example.fitness_server.metrics.RequestStatementCounter;
+import org.example.fitness_server.metrics.StatementBudget;
 import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.model.Trainer;
 import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.service.ClientExportService;
+import org.example.fitness_server.service.ClientImportService;
+import org.example.fitness_server.service.ClientSearchService;
 import org.example.fitness_server.service.ClientService;
+import org.example.fitness_server.service.MembershipService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Контроллер для управления клиентами в приложении фитнес-клуба.
@@ -29,8 +62,20 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class ClientController {
 
+    private static final int MAX_SLICE_LIMIT = 500;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_SUGGEST_LIMIT = 50;
+    private static final int MAX_EXPIRING_DAYS = 365;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
     private final ClientService clientService;
     private final ClientRepository clientRepository;
+    private final ClientImportService clientImportService;
+    private final ClientExportService clientExportService;
+    private final ClientSearchService clientSearchService;
+    private final MembershipService membershipService;
+    private final RequestStatementCounter statementCounter;
 
     /**
      * Тестовый эндпоинт для проверки работы API.
@@ -44,18 +89,259 @@ public class ClientController {
     }
 
     /**
-     * Возвращает список всех клиентов.
+     * Возвращает страницу клиентов.
+     * <p>
+     * По умолчанию возвращаются краткие представления {@code ClientSummary} с типом абонемента
+     * и именем тренера, выбранные одним запросом. Параметр {@code expand} со значениями
+     * {@code subscription} и/или {@code trainer} (через запятую) возвращает представления
+     * {@code ClientDetails} с раскрытыми связями, загруженными тем же запросом, что и клиенты.
+     * В обоих случаях страница загружается двумя SQL-запросами независимо от её размера.
+     * </p>
      *
-     * @return список объектов {@code Client}
+     * @param page   номер страницы (начиная с 0)
+     * @param size   размер страницы
+     * @param expand связи для раскрытия: {@code subscription}, {@code trainer} (может быть пустым)
+     * @return страница объектов {@code ClientSummary} или {@code ClientDetails}
      */
 
     @GetMapping
-    public Page<Client> getAllClients(
+    @StatementBudget(2)
+    public Page<?> getAllClients(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Set<String> expand
     ) {
         Pageable pageable = PageRequest.of(page, size);
-        return clientRepository.findAll(pageable);
+        boolean withSubscription = expand != null && expand.contains("subscription");
+        boolean withTrainer = expand != null && expand.contains("trainer");
+
+        if (withSubscription && withTrainer) {
+            return clientRepository.findAllWithSubscriptionAndTrainer(pageable)
+                    .map(client -> ClientDetails.from(client, true, true));
+        }
+        if (withSubscription) {
+            return clientRepository.findAllWithSubscription(pageable)
+                    .map(client -> ClientDetails.from(client, true, false));
+        }
+        if (withTrainer) {
+            return clientRepository.findAllWithTrainer(pageable)
+                    .map(client -> ClientDetails.from(client, false, true));
+        }
+        return clientRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * Возвращает порцию клиентов в режиме курсорной (keyset) пагинации.
+     * <p>
+     * Режим включается параметром {@code limit}. Следующая порция запрашивается с курсором
+     * {@code after} из поля {@code nextCursor} предыдущего ответа. Поиск позиции выполняется
+     * по первичному ключу (или по индексу имени и идентификатора при {@code sort=name}), поэтому
+     * время ответа не растёт с глубиной списка, а общее количество клиентов не подсчитывается.
+     * </p>
+     *
+     * @param limit максимальное количество клиентов в порции (от 1 до 500)
+     * @param after курсор из предыдущего ответа (отсутствует для первой порции)
+     * @param sort  порядок сортировки: {@code id} (по умолчанию) или {@code name}
+     * @return объект {@code ClientSlice} с клиентами и курсором следующей порции
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона или курсор недействителен
+     */
+
+    @GetMapping(params = "limit")
+    @StatementBudget(1)
+    public ClientSlice getClientSlice(
+            @RequestParam int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "id") String sort
+    ) {
+        checkSliceLimit(limit);
+        ClientCursor.Sort order = ClientCursor.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        ClientCursor cursor = after == null ? null : ClientCursor.decode(after, order);
+
+        // Выбираем на одну строку больше, чтобы узнать, есть ли следующая порция
+        Limit probe = Limit.of(limit + 1);
+        List<ClientSummary> rows;
+        if (order == ClientCursor.Sort.NAME) {
+            rows = cursor == null
+                    ? clientRepository.findSummariesOrderByName(probe)
+                    : clientRepository.findSummariesAfterName(cursor.name(), cursor.id(), probe);
+        } else {
+            rows = clientRepository.findSummariesAfterId(cursor == null ? 0L : cursor.id(), probe);
+        }
+
+        if (rows.size() <= limit) {
+            return new ClientSlice(rows, null);
+        }
+        List<ClientSummary> items = rows.subList(0, limit);
+        return new ClientSlice(items, ClientCursor.after(order, items.get(limit - 1)).encode());
+    }
+
+    /**
+     * Ищет клиентов по части имени или телефона.
+     * <p>
+     * Поиск выполняется одним запросом к базе данных, в PostgreSQL — по триграммным индексам.
+     * Результаты упорядочены по релевантности: сначала клиенты, имя которых начинается с запроса.
+     * </p>
+     *
+     * @param q     строка запроса (не короче трёх символов)
+     * @param limit максимальное количество клиентов (от 1 до 100)
+     * @return список объектов {@code ClientSummary}
+     * @throws IllegalArgumentException если запрос слишком короткий или лимит вне допустимого диапазона
+     */
+
+    @GetMapping("/search")
+    @StatementBudget(1)
+    public List<ClientSummary> searchClients(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Параметр limit должен быть от 1 до " + MAX_SEARCH_LIMIT + ".");
+        }
+        return clientSearchService.search(q, limit);
+    }
+
+    /**
+     * Возвращает подсказки для автодополнения при вводе имени, имени пользователя или телефона клиента.
+     * <p>
+     * Подсказки выбираются из префиксного индекса в памяти без обращения к базе данных.
+     * </p>
+     *
+     * @param q     начало имени, имени пользователя или номера телефона
+     * @param limit максимальное количество подсказок (от 1 до 50)
+     * @return список объектов {@code ClientSuggestion}, упорядоченный по релевантности
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона
+     */
+
+    @GetMapping("/autocomplete")
+    @StatementBudget(0)
+    public List<ClientSuggestion> autocompleteClients(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new IllegalArgumentException("Параметр limit должен быть от 1 до " + MAX_SUGGEST_LIMIT + ".");
+        }
+        return clientSearchService.suggest(q, limit);
+    }
+
+    /**
+     * Находит клиента по номеру телефона, например при входе в клуб.
+     * <p>
+     * Номер принимается в свободной форме и приводится к формату E.164. Клиент обычно находится
+     * в таблице телефонов в памяти без обращения к базе данных, иначе — по уникальному индексу.
+     * Если клиент не найден, возвращается HTTP 404.
+     * </p>
+     *
+     * @param phone номер телефона
+     * @return {@code ResponseEntity} с объектом {@code ClientSuggestion} при успехе или HTTP 404 при отсутствии
+     * @throws IllegalArgumentException если номер телефона некорректен
+     */
+
+    @GetMapping("/by-phone")
+    @StatementBudget(1)
+    public ResponseEntity<ClientSuggestion> getClientByPhone(@RequestParam String phone) {
+        return clientSearchService.findByPhone(phone)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Возвращает порцию клиентов с действующим абонементом, начиная с заканчивающихся раньше всех.
+     * <p>
+     * Порция выбирается одним запросом по частичному индексу действующих абонементов. Курсор
+     * следующей порции возвращается в поле {@code nextCursor}.
+     * </p>
+     *
+     * @param limit максимальное количество клиентов в порции (от 1 до 500)
+     * @param after курсор, полученный в предыдущей порции (не указывается для первой порции)
+     * @return объект {@code MemberSlice} с клиентами и курсором следующей порции
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона или курсор недействителен
+     */
+
+    @GetMapping("/memberships/active")
+    @StatementBudget(1)
+    public MemberSlice getActiveMembers(@RequestParam(defaultValue = "50") int limit,
+                                        @RequestParam(required = false) String after) {
+        checkSliceLimit(limit);
+        return membershipService.getActiveMembers(after == null ? null : MembershipCursor.decode(after), limit);
+    }
+
+    /**
+     * Возвращает порцию клиентов, чей абонемент заканчивается в ближайшие {@code days} дней.
+     *
+     * @param days  количество дней от текущего момента (от 1 до 365)
+     * @param limit максимальное количество клиентов в порции (от 1 до 500)
+     * @param after курсор, полученный в предыдущей порции (не указывается для первой порции)
+     * @return объект {@code MemberSlice} с клиентами и курсором следующей порции
+     * @throws IllegalArgumentException если параметры вне допустимого диапазона или курсор недействителен
+     */
+
+    @GetMapping("/memberships/expiring")
+    @StatementBudget(1)
+    public MemberSlice getExpiringMembers(@RequestParam(defaultValue = "7") int days,
+                                          @RequestParam(defaultValue = "50") int limit,
+                                          @RequestParam(required = false) String after) {
+        if (days < 1 || days > MAX_EXPIRING_DAYS) {
+            throw new IllegalArgumentException("Параметр days должен быть от 1 до " + MAX_EXPIRING_DAYS + ".");
+        }
+        checkSliceLimit(limit);
+        return membershipService.getExpiringMembers(days, after == null ? null : MembershipCursor.decode(after), limit);
+    }
+
+    /**
+     * Возвращает порцию клиентов с истёкшим абонементом, начиная с истёкших недавно.
+     *
+     * @param limit максимальное количество клиентов в порции (от 1 до 500)
+     * @param after курсор, полученный в предыдущей порции (не указывается для первой порции)
+     * @return объект {@code MemberSlice} с клиентами и курсором следующей порции
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона или курсор недействителен
+     */
+
+    @GetMapping("/memberships/expired")
+    @StatementBudget(1)
+    public MemberSlice getExpiredMembers(@RequestParam(defaultValue = "50") int limit,
+                                         @RequestParam(required = false) String after) {
+        checkSliceLimit(limit);
+        return membershipService.getExpiredMembers(after == null ? null : MembershipCursor.decode(after), limit);
+    }
+
+    /**
+     * Выгружает всех клиентов одним потоком в формате NDJSON или CSV.
+     * <p>
+     * Формат выбирается по заголовку {@code Accept} ({@code application/x-ndjson} или {@code text/csv},
+     * по умолчанию NDJSON). Строки читаются из базы данных курсором и записываются в ответ по мере
+     * чтения, поэтому расход памяти не зависит от количества клиентов, а подсчёт строк и смещения
+     * не нужны. Если клиент принимает {@code gzip}, ответ сжимается на лету.
+     * </p>
+     *
+     * @param accept         значение заголовка {@code Accept}
+     * @param acceptEncoding значение заголовка {@code Accept-Encoding}
+     * @return потоковое тело ответа
+     */
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportClients(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding
+    ) {
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        boolean csv = rank(acceptedTypes, TEXT_CSV) > rank(acceptedTypes, MediaType.APPLICATION_NDJSON);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+            if (csv) {
+                clientExportService.writeCsv(target);
+            } else {
+                clientExportService.writeNdjson(target);
+            }
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType(TEXT_CSV, StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
@@ -70,6 +356,7 @@ public class ClientController {
      */
 
     @GetMapping("/count")
+    @StatementBudget(1)
     public long getClientCount() {
         return clientRepository.count();
     }
@@ -82,6 +369,7 @@ public class ClientController {
      */
 
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<Client> getClientById(@PathVariable Long id) {
         return clientRepository.findById(id)
                 .map(ResponseEntity::ok)
@@ -96,10 +384,54 @@ public class ClientController {
      */
 
     @PostMapping
+    @StatementBudget(9)
     public Client createClient(@RequestBody Client client, @RequestParam(required = false) Long trainerId) {
         return clientService.createClient(client, trainerId);
     }
 
+    /**
+     * Импортирует клиентов из CSV с заголовком.
+     * <p>
+     * Обязательные столбцы: {@code name}, {@code phone}, {@code username}, {@code password};
+     * необязательные: {@code subscriptionId}, {@code trainerId}. Тело запроса читается потоково
+     * в кодировке UTF-8. Строки с ошибками пропускаются и перечисляются в отчёте.
+     * </p>
+     * <p>
+     * Бюджет SQL-операторов задан на порцию из {@code fitness.import.chunk-size} (1000) строк:
+     * четыре проверочных запроса и для каждой из таблиц реестра имён, пользователей и клиентов
+     * до 21 обращения к последовательности (блоки по 50, первый из которых мог быть начат раньше)
+     * и одна вставка, выполняемая пакетами JDBC. Сервис сообщает о каждой порции обработчиком,
+     * который увеличивает бюджет запроса в {@code RequestStatementCounter}.
+     * </p>
+     *
+     * @param body тело запроса
+     * @return отчёт об импорте
+     * @throws IOException если произошла ошибка чтения тела запроса
+     */
+
+    @PostMapping(value = "/bulk", consumes = TEXT_CSV_VALUE)
+    @StatementBudget(value = 0, perChunk = 70)
+    public BulkImportReport importClientsFromCsv(InputStream body) throws IOException {
+        return clientImportService.importCsv(utf8Reader(body), statementCounter::beginChunk);
+    }
+
+    /**
+     * Импортирует клиентов из NDJSON: по одному JSON-объекту на строку.
+     * <p>
+     * Бюджет SQL-операторов порции тот же, что у импорта из CSV.
+     * </p>
+     *
+     * @param body тело запроса
+     * @return отчёт об импорте
+     * @throws IOException если произошла ошибка чтения тела запроса
+     */
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @StatementBudget(value = 0, perChunk = 70)
+    public BulkImportReport importClientsFromNdjson(InputStream body) throws IOException {
+        return clientImportService.importNdjson(utf8Reader(body), statementCounter::beginChunk);
+    }
+
     /**
      * Обновляет данные клиента по его идентификатору.
      *
@@ -109,6 +441,7 @@ public class ClientController {
      */
 
     @PutMapping("/{id}")
+    @StatementBudget(5)
     public ResponseEntity<Client> updateClient(@PathVariable Long id,
                                                @RequestBody Client client,
                                                @RequestParam(required = false) Long trainerId) {
@@ -120,6 +453,26 @@ public class ClientController {
         }
     }
 
+    /**
+     * Продлевает абонемент клиента на его длительность.
+     * <p>
+     * Действующий абонемент продлевается от времени окончания, истёкший — активируется заново
+     * с текущего момента.
+     * </p>
+     *
+     * @param id идентификатор клиента
+     * @return объект {@code ResponseEntity} с клиентом или статус 404, если клиент не найден
+     * @throws IllegalArgumentException если у клиента нет абонемента
+     */
+
+    @PostMapping("/{id}/membership")
+    @StatementBudget(2)
+    public ResponseEntity<Client> renewMembership(@PathVariable Long id) {
+        return membershipService.renewMembership(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Удаляет клиента по его идентификатору.
      *
@@ -128,6 +481,7 @@ public class ClientController {
      */
 
     @DeleteMapping("/{id}")
+    @StatementBudget(4)
     public ResponseEntity<Void> deleteClient(@PathVariable Long id, Authentication authentication) {
         String currentUsername = authentication.getName();
         Client clientToDelete = clientRepository.findById(id)
@@ -137,8 +491,7 @@ public class ClientController {
             return ResponseEntity.status(403).body(null);
         }
 
-        if (clientRepository.existsById(id)) {
-            clientRepository.deleteById(id);
+        if (clientService.deleteClient(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -146,17 +499,85 @@ public class ClientController {
 
     /**
      * Возвращает данные текущего аутентифицированного клиента.
+     * <p>
+     * Ответ содержит сильный {@code ETag}, составленный из версий клиента, его абонемента и тренера,
+     * версий учётных данных клиента и тренера (имя пользователя хранится в {@code users} и не меняет
+     * версию клиента) и признака действующего абонемента, который меняется с истечением срока
+     * без изменения записи. Если клиент передал совпадающий {@code If-None-Match}, возвращается
+     * статус 304 без тела ответа. {@code Last-Modified} не передаётся: ни смена имени пользователя,
+     * ни истечение абонемента не меняют время изменения записей, а точность заголовка — секунда.
+     * </p>
      *
      * @param authentication объект аутентификации, содержащий имя пользователя
      * @return объект {@code ResponseEntity} с данными клиента, если найден, или статус 404, если не найден
      */
 
     @GetMapping("/me")
+    @StatementBudget(1)
     public ResponseEntity<Client> getCurrentClient(Authentication authentication) {
-        System.out.println("Processing /api/clients/me for user: " + authentication.getName());
         String username = authentication.getName();
         return clientRepository.findByUsername(username)
-                .map(ResponseEntity::ok)
+                .map(client -> ResponseEntity.ok()
+                        .eTag(versionTag(client))
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(client))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    private static void checkSliceLimit(int limit) {
+        if (limit < 1 || limit > MAX_SLICE_LIMIT) {
+            throw new IllegalArgumentException("Параметр limit должен быть от 1 до " + MAX_SLICE_LIMIT + ".");
+        }
+    }
+
+    private static String versionTag(Client client) {
+        StringBuilder tag = new StringBuilder("\"client-")
+                .append(client.getId()).append('-').append(versionOf(client.getVersion()));
+        if (client.getUser() != null) {
+            tag.append("-u").append(client.getUser().getCredentialsVersion());
+        }
+        tag.append(client.isMembershipActive() ? "-a" : "-i");
+        Subscription subscription = client.getSubscription();
+        if (subscription != null) {
+            tag.append("-s").append(subscription.getId()).append('-').append(versionOf(subscription.getVersion()));
+        }
+        Trainer trainer = client.getTrainer();
+        if (trainer != null) {
+            tag.append("-t").append(trainer.getId()).append('-').append(versionOf(trainer.getVersion()));
+            if (trainer.getUser() != null) {
+                tag.append("-u").append(trainer.getUser().getCredentialsVersion());
+            }
+        }
+        return tag.append('"').toString();
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0;
+    }
+
+    private static BufferedReader utf8Reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private static long rank(List<MediaType> acceptedTypes, MediaType type) {
+        long best = -1;
+        for (MediaType accepted : acceptedTypes) {
+            if (accepted.includes(type)) {
+                // Важнее всего качество, при равном качестве явный тип предпочтительнее шаблона
+                long rank = Math.round(accepted.getQualityValue() * 1000) * 2 + (accepted.isWildcardSubtype() ? 0 : 1);
+                best = Math.max(best, rank);
+            }
+        }
+        return best;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+            if (parts.length > 0 && parts[0].equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -1,8 +1,14 @@
 package org.example.fitness_server.controller;
 
-import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.dto.CacheRegionMetrics;
+import org.example.fitness_server.dto.StatisticsBreakdown;
+import org.example.fitness_server.dto.StatisticsSnapshot;
+import org.example.fitness_server.metrics.StatementBudget;
 import org.example.fitness_server.repository.ClientRepository;
 import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.example.fitness_server.service.CacheStatisticsService;
+import org.example.fitness_server.service.StatisticsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,6 +22,7 @@ import java.util.Map;
  * <p>
  * Этот класс предоставляет эндпоинт для получения статистических данных,
  * таких как общее количество клиентов, абонементов и средняя стоимость абонемента.
+ * Статистика поддерживается в памяти сервисом {@code StatisticsService}.
  * </p>
  *
  * @author Милана
@@ -28,41 +35,106 @@ import java.util.Map;
 @RequestMapping("/api/statistics")
 public class StatisticsController {
 
+    private final StatisticsService statisticsService;
     private final ClientRepository clientRepository;
     private final SubscriptionRepository subscriptionRepository;
+    private final AuthenticationCache authenticationCache;
+    private final CacheStatisticsService cacheStatisticsService;
 
     /**
-     * Получает статистические данные о клиентах и абонементах.
+     * Получает статистические данные о клиентах, тренерах и абонементах.
      * <p>
-     * Возвращает следующие показатели:
+     * Данные берутся из снимка {@code StatisticsService}, который поддерживается в памяти,
+     * поэтому запрос не обращается к базе данных. Возвращает следующие показатели:
      * <ul>
      *     <li>{@code totalClients} — общее количество клиентов.</li>
+     *     <li>{@code totalTrainers} — общее количество тренеров.</li>
      *     <li>{@code totalSubscriptions} — общее количество абонементов.</li>
      *     <li>{@code averageSubscriptionCost} — средняя стоимость абонемента (0.0, если абонементов нет).</li>
+     *     <li>{@code minSubscriptionCost} и {@code maxSubscriptionCost} — минимальная и максимальная
+     *     стоимость абонемента ({@code null}, если абонементов нет).</li>
+     *     <li>{@code clientsPerSubscription} — количество клиентов на каждом абонементе.</li>
+     *     <li>{@code clientsPerTrainer} — количество клиентов у каждого тренера.</li>
      * </ul>
      *
-     * @return объект {@code Map} с данными: общее количество клиентов, абонементов и средняя стоимость абонемента
+     * @return объект {@code Map} со статистическими данными
      */
 
     @GetMapping
+    @StatementBudget(0)
     public Map<String, Object> getStatistics() {
+        StatisticsSnapshot snapshot = statisticsService.getSnapshot();
         Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalClients", snapshot.totalClients());
+        statistics.put("totalTrainers", snapshot.totalTrainers());
+        statistics.put("totalSubscriptions", snapshot.totalSubscriptions());
+        statistics.put("averageSubscriptionCost", snapshot.averageSubscriptionCost());
+        statistics.put("minSubscriptionCost", snapshot.minSubscriptionCost());
+        statistics.put("maxSubscriptionCost", snapshot.maxSubscriptionCost());
+        statistics.put("clientsPerSubscription", snapshot.clientsPerSubscription());
+        statistics.put("clientsPerTrainer", snapshot.clientsPerTrainer());
+        return statistics;
+    }
 
-        // Общее количество клиентов
-        long totalClients = clientRepository.count();
-        statistics.put("totalClients", totalClients);
+    /**
+     * Получает расширенную статистику, вычисленную SQL-агрегатами.
+     * <p>
+     * Выполняет три агрегирующих запроса и не загружает сущности:
+     * <ul>
+     *     <li>{@code subscriptions} — количество, средняя, минимальная и максимальная стоимость абонементов.</li>
+     *     <li>{@code clients} — количество клиентов, клиентов без тренера и без абонемента,
+     *     а также выручка по прейскуранту.</li>
+     *     <li>{@code clientsPerTrainer} — количество клиентов у каждого тренера.</li>
+     * </ul>
+     *
+     * @return объект {@code StatisticsBreakdown} с расширенной статистикой
+     */
 
-        // Общее количество абонементов
-        long totalSubscriptions = subscriptionRepository.count();
-        statistics.put("totalSubscriptions", totalSubscriptions);
+    @GetMapping("/breakdown")
+    @StatementBudget(3)
+    public StatisticsBreakdown getStatisticsBreakdown() {
+        return new StatisticsBreakdown(
+                subscriptionRepository.getCostStatistics(),
+                clientRepository.getClientStatistics(),
+                clientRepository.getTrainerLoads());
+    }
 
-        // Средняя стоимость абонемента
-        Double averageCost = subscriptionRepository.findAll().stream()
-                .mapToDouble(Subscription::getCost)
-                .average()
-                .orElse(0.0);
-        statistics.put("averageSubscriptionCost", averageCost);
+    /**
+     * Получает показатели кэша аутентификации.
+     * <p>
+     * Возвращает следующие показатели:
+     * <ul>
+     *     <li>{@code hits} — количество аутентификаций, обслуженных из кэша.</li>
+     *     <li>{@code misses} — количество аутентификаций, потребовавших обращения к базе данных и BCrypt.</li>
+     *     <li>{@code size} — текущее количество записей в кэше.</li>
+     * </ul>
+     *
+     * @return объект {@code Map} с показателями кэша аутентификации
+     */
 
+    @GetMapping("/auth-cache")
+    @StatementBudget(0)
+    public Map<String, Object> getAuthenticationCacheStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("hits", authenticationCache.getHitCount());
+        statistics.put("misses", authenticationCache.getMissCount());
+        statistics.put("size", authenticationCache.getSize());
         return statistics;
     }
+
+    /**
+     * Получает показатели кэша второго уровня Hibernate для абонементов, тренеров и кэша запросов.
+     * <p>
+     * Для каждого региона возвращаются {@code hits}, {@code misses}, {@code puts} и доля попаданий
+     * {@code hitRatio}.
+     * </p>
+     *
+     * @return объект {@code Map} с показателями по именам регионов
+     */
+
+    @GetMapping("/entity-cache")
+    @StatementBudget(0)
+    public Map<String, CacheRegionMetrics> getEntityCacheStatistics() {
+        return cacheStatisticsService.getRegionMetrics();
+    }
 }
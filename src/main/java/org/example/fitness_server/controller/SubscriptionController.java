@@ -1,11 +1,15 @@
 package org.example.fitness_server.controller;
 
+import org.example.fitness_server.metrics.StatementBudget;
 import org.example.fitness_server.model.Subscription;
 import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.service.ResourceVersionRegistry;
 import org.example.fitness_server.service.SubscriptionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,16 +32,29 @@ public class SubscriptionController {
 
     private final SubscriptionRepository subscriptionRepository;
     private final SubscriptionService subscriptionService;
+    private final ResourceVersionRegistry versionRegistry;
 
     /**
      * Возвращает список всех абонементов.
+     * <p>
+     * Ответ содержит заголовок {@code ETag} из {@code ResourceVersionRegistry}. Если версия списка
+     * совпадает с {@code If-None-Match}, возвращается статус 304 без обращения к базе данных и без тела ответа.
+     * </p>
      *
-     * @return список объектов {@code Subscription}
+     * @param request текущий запрос с условными заголовками
+     * @return объект {@code ResponseEntity} со списком объектов {@code Subscription}
+     *         или {@code null}, если ответ 304 уже сформирован
      */
 
     @GetMapping
-    public List<Subscription> getAllSubscriptions() {
-        return subscriptionRepository.findAll();
+    @StatementBudget(1)
+    public ResponseEntity<List<Subscription>> getAllSubscriptions(WebRequest request) {
+        if (request.checkNotModified(versionRegistry.getSubscriptionsETag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(subscriptionRepository.findAll());
     }
 
     /**
@@ -48,6 +65,7 @@ public class SubscriptionController {
      */
 
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<Subscription> getSubscriptionById(@PathVariable Long id) {
         return subscriptionRepository.findById(id)
                 .map(ResponseEntity::ok)
@@ -62,6 +80,7 @@ public class SubscriptionController {
      */
 
     @PostMapping
+    @StatementBudget(2)
     public Subscription createSubscription(@RequestBody Subscription subscription) {
         return subscriptionService.createSubscription(subscription);
     }
@@ -75,6 +94,7 @@ public class SubscriptionController {
      */
 
     @PutMapping("/{id}")
+    @StatementBudget(2)
     public ResponseEntity<Subscription> updateSubscription(@PathVariable Long id, @RequestBody Subscription subscription) {
         try {
             Subscription updated = subscriptionService.updateSubscription(id, subscription);
@@ -92,9 +112,9 @@ public class SubscriptionController {
      */
 
     @DeleteMapping("/{id}")
+    @StatementBudget(2)
     public ResponseEntity<Void> deleteSubscription(@PathVariable Long id) {
-        if (subscriptionRepository.existsById(id)) {
-            subscriptionRepository.deleteById(id);
+        if (subscriptionService.deleteSubscription(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -1,12 +1,19 @@
 package org.example.fitness_server.controller;
 
+import org.example.fitness_server.dto.ClientCursor;
+import org.example.fitness_server.dto.TrainerRoster;
+import org.example.fitness_server.metrics.StatementBudget;
 import org.example.fitness_server.model.Trainer;
 import org.example.fitness_server.repository.TrainerRepository;
+import org.example.fitness_server.service.ResourceVersionRegistry;
+import org.example.fitness_server.service.TrainerRosterService;
 import org.example.fitness_server.service.TrainerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,21 +39,35 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TrainerController {
 
+    private static final int MAX_ROSTER_LIMIT = 500;
+
     private final TrainerService trainerService;
     private final TrainerRepository trainerRepository;
+    private final ResourceVersionRegistry versionRegistry;
+    private final TrainerRosterService rosterService;
 
     /**
      * Возвращает список всех тренеров, зарегистрированных в системе.
      * <p>
-     * Метод выполняет запрос к репозиторию для получения всех записей тренеров.
+     * Метод выполняет запрос к репозиторию для получения всех записей тренеров. Ответ содержит
+     * заголовок {@code ETag} из {@code ResourceVersionRegistry}; если версия списка совпадает
+     * с {@code If-None-Match}, возвращается HTTP 304 без запроса к репозиторию.
      * </p>
      *
-     * @return список объектов {@code Trainer}
+     * @param request текущий запрос с условными заголовками
+     * @return {@code ResponseEntity} со списком объектов {@code Trainer} или {@code null}, если ответ 304
+     *         уже сформирован
      */
 
     @GetMapping
-    public List<Trainer> getAllTrainers() {
-        return trainerRepository.findAll();
+    @StatementBudget(1)
+    public ResponseEntity<List<Trainer>> getAllTrainers(WebRequest request) {
+        if (request.checkNotModified(versionRegistry.getTrainersETag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(trainerRepository.findAll());
     }
 
     /**
@@ -60,6 +81,7 @@ public class TrainerController {
      */
 
     @GetMapping("/{id}")
+    @StatementBudget(1)
     public ResponseEntity<Trainer> getTrainerById(@PathVariable Long id) {
         return trainerRepository.findById(id)
                 .map(ResponseEntity::ok)
@@ -79,6 +101,7 @@ public class TrainerController {
      */
 
     @PostMapping
+    @StatementBudget(6)
     public ResponseEntity<?> createTrainer(@RequestBody Trainer trainer) {
         try {
             Trainer createdTrainer = trainerService.createTrainer(trainer);
@@ -104,6 +127,7 @@ public class TrainerController {
      */
 
     @PutMapping("/{id}")
+    @StatementBudget(4)
     public ResponseEntity<Trainer> updateTrainer(@PathVariable Long id, @RequestBody Trainer trainer) {
         try {
             Trainer updatedTrainer = trainerService.updateTrainer(id, trainer);
@@ -125,9 +149,9 @@ public class TrainerController {
      */
 
     @DeleteMapping("/{id}")
+    @StatementBudget(4)
     public ResponseEntity<Void> deleteTrainer(@PathVariable Long id) {
-        if (trainerRepository.existsById(id)) {
-            trainerRepository.deleteById(id);
+        if (trainerService.deleteTrainer(id)) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -137,7 +161,7 @@ public class TrainerController {
      * Возвращает информацию о текущем авторизованном тренере.
      * <p>
      * Метод использует имя пользователя из объекта аутентификации для поиска тренера в репозитории.
-     * Если тренер не найден, возвращается HTTP 404. Логирует запрос для отладки.
+     * Если тренер не найден, возвращается HTTP 404.
      * </p>
      *
      * @param authentication объект аутентификации, содержащий имя текущего пользователя
@@ -145,11 +169,73 @@ public class TrainerController {
      */
 
     @GetMapping("/me")
+    @StatementBudget(1)
     public ResponseEntity<Trainer> getCurrentTrainer(Authentication authentication) {
-        System.out.println("Processing /api/trainers/me for user: " + authentication.getName());
         String username = authentication.getName();
         return trainerRepository.findByUsername(username)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает порцию списка клиентов тренера по его идентификатору.
+     * <p>
+     * Список выбирается курсорной (keyset) пагинацией по индексу {@code clients(trainer_id, id)};
+     * коллекция клиентов тренера не загружается. Следующая порция запрашивается с курсором
+     * {@code after} из поля {@code nextCursor} предыдущего ответа. Если тренер не найден,
+     * возвращается HTTP 404.
+     * </p>
+     *
+     * @param id    идентификатор тренера
+     * @param limit максимальное количество клиентов в порции (от 1 до 500)
+     * @param after курсор из предыдущего ответа (отсутствует для первой порции)
+     * @return {@code ResponseEntity} с объектом {@code TrainerRoster} при успехе или HTTP 404 при отсутствии
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона или курсор недействителен
+     */
+
+    @GetMapping("/{id}/clients")
+    @StatementBudget(2)
+    public ResponseEntity<TrainerRoster> getTrainerClients(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        return roster(id, limit, after);
+    }
+
+    /**
+     * Возвращает порцию списка клиентов текущего авторизованного тренера.
+     * <p>
+     * Идентификатор тренера определяется по имени пользователя из объекта аутентификации;
+     * если тренер не найден, возвращается HTTP 404.
+     * </p>
+     *
+     * @param authentication объект аутентификации, содержащий имя текущего пользователя
+     * @param limit          максимальное количество клиентов в порции (от 1 до 500)
+     * @param after          курсор из предыдущего ответа (отсутствует для первой порции)
+     * @return {@code ResponseEntity} с объектом {@code TrainerRoster} при успехе или HTTP 404 при отсутствии
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона или курсор недействителен
+     */
+
+    @GetMapping("/me/clients")
+    @StatementBudget(3)
+    public ResponseEntity<TrainerRoster> getCurrentTrainerClients(
+            Authentication authentication,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        return trainerRepository.findIdByUsername(authentication.getName())
+                .map(id -> roster(id, limit, after))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<TrainerRoster> roster(long trainerId, int limit, String after) {
+        if (limit < 1 || limit > MAX_ROSTER_LIMIT) {
+            throw new IllegalArgumentException("Параметр limit должен быть от 1 до " + MAX_ROSTER_LIMIT + ".");
+        }
+        ClientCursor cursor = after == null ? null : ClientCursor.decode(after, ClientCursor.Sort.ID);
+        return rosterService.getRoster(trainerId, cursor, limit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.fitness_server.controller;
+
+import org.example.fitness_server.dto.VisitRequest;
+import org.example.fitness_server.metrics.StatementBudget;
+import org.example.fitness_server.service.VisitIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для приёма отметок посещений клуба.
+ * <p>
+ * Отметки принимаются в буфер {@code VisitIngestionService} и записываются в базу данных
+ * фоновым потоком пакетами, поэтому запрос не обращается к базе данных.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@RestController
+@RequestMapping("/api/visits")
+@RequiredArgsConstructor
+public class VisitController {
+
+    private final VisitIngestionService visitIngestionService;
+
+    /**
+     * Принимает отметку посещения клиента.
+     * <p>
+     * Ответ 202 означает, что отметка принята и будет записана в течение долей секунды.
+     * Если буфер отметок заполнен, возвращается ответ 429 с заголовком {@code Retry-After}.
+     * </p>
+     *
+     * @param request объект {@code VisitRequest} с идентификатором клиента
+     * @return объект {@code ResponseEntity} со статусом 202 или 400, если идентификатор клиента некорректен
+     */
+
+    @PostMapping
+    @StatementBudget(0)
+    public ResponseEntity<Void> recordVisit(@RequestBody VisitRequest request) {
+        visitIngestionService.submit(request.clientId());
+        return ResponseEntity.accepted().build();
+    }
+}
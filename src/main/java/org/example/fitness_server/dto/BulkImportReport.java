@@ -0,0 +1,17 @@
+package org.example.fitness_server.dto;
+
+import java.util.List;
+
+/**
+ * Отчёт о пакетном импорте клиентов.
+ *
+ * @param totalRows    количество прочитанных строк данных
+ * @param importedRows количество импортированных клиентов
+ * @param errors       ошибки по строкам, которые не были импортированы
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record BulkImportReport(long totalRows, long importedRows, List<ImportRowError> errors) {
+}
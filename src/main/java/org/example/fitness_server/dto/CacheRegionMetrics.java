@@ -0,0 +1,30 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Показатели одного региона кэша второго уровня Hibernate.
+ *
+ * @param hits     количество попаданий
+ * @param misses   количество промахов
+ * @param puts     количество записей в регион
+ * @param hitRatio доля попаданий среди обращений (0.0, если обращений не было)
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record CacheRegionMetrics(long hits, long misses, long puts, double hitRatio) {
+
+    /**
+     * Создаёт показатели региона и вычисляет долю попаданий.
+     *
+     * @param hits   количество попаданий
+     * @param misses количество промахов
+     * @param puts   количество записей в регион
+     * @return показатели региона
+     */
+
+    public static CacheRegionMetrics of(long hits, long misses, long puts) {
+        long requests = hits + misses;
+        return new CacheRegionMetrics(hits, misses, puts, requests > 0 ? (double) hits / requests : 0.0);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.fitness_server.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в списке клиентов для курсорной (keyset) пагинации.
+ * <p>
+ * Курсор хранит ключ последней выданной строки: идентификатор клиента и, при сортировке
+ * по имени, имя клиента. Для клиента API курсор непрозрачен — это строка в кодировке Base64URL.
+ * </p>
+ *
+ * @param sort порядок сортировки, для которого выдан курсор
+ * @param id   идентификатор последнего выданного клиента
+ * @param name имя последнего выданного клиента (только для сортировки по имени)
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientCursor(Sort sort, long id, String name) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Порядок сортировки списка клиентов.
+     */
+
+    public enum Sort {
+
+        /**
+         * Сортировка по идентификатору клиента.
+         */
+
+        ID,
+
+        /**
+         * Сортировка по имени клиента, а при совпадении имён — по идентификатору.
+         */
+
+        NAME
+    }
+
+    /**
+     * Создаёт курсор, указывающий на позицию после указанного клиента.
+     *
+     * @param sort    порядок сортировки
+     * @param summary последний выданный клиент
+     * @return курсор
+     */
+
+    public static ClientCursor after(Sort sort, ClientSummary summary) {
+        return new ClientCursor(sort, summary.id(), sort == Sort.NAME ? summary.name() : null);
+    }
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return курсор в кодировке Base64URL
+     */
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + (sort == Sort.NAME ? SEPARATOR + name : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор из строки, полученной от клиента API.
+     *
+     * @param cursor        курсор в кодировке Base64URL
+     * @param expectedSort  порядок сортировки текущего запроса
+     * @return декодированный курсор
+     * @throws IllegalArgumentException если курсор повреждён или выдан для другого порядка сортировки
+     */
+
+    public static ClientCursor decode(String cursor, Sort expectedSort) {
+        ClientCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            Sort sort = Sort.valueOf(parts[0]);
+            decoded = new ClientCursor(sort, Long.parseLong(parts[1]), sort == Sort.NAME ? parts[2] : null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Недействительный курсор.", e);
+        }
+        if (decoded.sort() != expectedSort) {
+            throw new IllegalArgumentException("Курсор выдан для другого порядка сортировки.");
+        }
+        return decoded;
+    }
+}
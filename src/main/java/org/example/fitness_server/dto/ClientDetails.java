@@ -0,0 +1,74 @@
+package org.example.fitness_server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.model.Trainer;
+
+/**
+ * Представление клиента с раскрытыми связями для списков с параметром {@code expand}.
+ * <p>
+ * Абонемент и тренер включаются только если они были запрошены и загружены вместе
+ * с клиентом одним запросом. Пароль клиента и тренера в представление не попадает.
+ * </p>
+ *
+ * @param id           идентификатор клиента
+ * @param name         имя клиента
+ * @param phone        телефон клиента
+ * @param username     имя пользователя клиента
+ * @param subscription абонемент клиента (отсутствует, если не запрошен)
+ * @param trainer      тренер клиента (отсутствует, если не запрошен)
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ClientDetails(Long id, String name, String phone, String username,
+                            SubscriptionInfo subscription, TrainerInfo trainer) {
+
+    /**
+     * Создаёт представление клиента с запрошенными связями.
+     *
+     * @param client           клиент с загруженными связями
+     * @param withSubscription включать ли абонемент
+     * @param withTrainer      включать ли тренера
+     * @return представление клиента
+     */
+
+    public static ClientDetails from(Client client, boolean withSubscription, boolean withTrainer) {
+        Subscription subscription = withSubscription ? client.getSubscription() : null;
+        Trainer trainer = withTrainer ? client.getTrainer() : null;
+        return new ClientDetails(
+                client.getId(),
+                client.getName(),
+                client.getPhone(),
+                client.getUsername(),
+                subscription == null ? null : new SubscriptionInfo(subscription.getId(), subscription.getType(),
+                        subscription.getCost(), subscription.getDurationDays()),
+                trainer == null ? null : new TrainerInfo(trainer.getId(), trainer.getName(), trainer.getUsername()));
+    }
+
+    /**
+     * Сведения об абонементе клиента.
+     *
+     * @param id           идентификатор абонемента
+     * @param type         тип абонемента
+     * @param cost         стоимость абонемента
+     * @param durationDays длительность абонемента в днях
+     */
+
+    public record SubscriptionInfo(Long id, String type, double cost, int durationDays) {
+    }
+
+    /**
+     * Сведения о тренере клиента.
+     *
+     * @param id       идентификатор тренера
+     * @param name     имя тренера
+     * @param username имя пользователя тренера
+     */
+
+    public record TrainerInfo(Long id, String name, String username) {
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Строка пакетного импорта клиентов.
+ * <p>
+ * Соответствует одной записи CSV (столбцы {@code name}, {@code phone}, {@code username},
+ * {@code password}, {@code subscriptionId}, {@code trainerId}) или одной строке NDJSON
+ * с теми же полями.
+ * </p>
+ *
+ * @param name           имя клиента
+ * @param phone          телефон клиента
+ * @param username       имя пользователя клиента
+ * @param password       пароль клиента в открытом виде
+ * @param subscriptionId идентификатор абонемента (может быть {@code null})
+ * @param trainerId      идентификатор тренера (может быть {@code null})
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientImportRow(String name, String phone, String username, String password,
+                              Long subscriptionId, Long trainerId) {
+}
@@ -0,0 +1,20 @@
+package org.example.fitness_server.dto;
+
+import java.util.List;
+
+/**
+ * Порция клиентов, выбранная курсорной (keyset) пагинацией.
+ * <p>
+ * В отличие от {@code Page}, не содержит общего количества клиентов, поэтому её получение
+ * не требует запроса {@code count(*)}.
+ * </p>
+ *
+ * @param items      клиенты текущей порции
+ * @param nextCursor непрозрачный курсор для запроса следующей порции или {@code null}, если порция последняя
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientSlice(List<ClientSummary> items, String nextCursor) {
+}
@@ -0,0 +1,21 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Агрегаты по клиентам, вычисленные одним SQL-запросом.
+ * <p>
+ * Выручка по прейскуранту — сумма стоимостей абонементов, назначенных клиентам
+ * через {@code clients.subscription_id}.
+ * </p>
+ *
+ * @param totalClients               общее количество клиентов
+ * @param clientsWithoutTrainer      количество клиентов без тренера
+ * @param clientsWithoutSubscription количество клиентов без абонемента
+ * @param revenueAtListPrice         выручка по прейскуранту
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientStatistics(Long totalClients, Long clientsWithoutTrainer, Long clientsWithoutSubscription,
+                               Double revenueAtListPrice) {
+}
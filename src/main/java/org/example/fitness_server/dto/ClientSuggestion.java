@@ -0,0 +1,19 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Подсказка автодополнения при поиске клиента.
+ * <p>
+ * Формируется из поискового индекса в памяти {@code ClientSearchIndex} без обращения к базе данных.
+ * </p>
+ *
+ * @param id       идентификатор клиента
+ * @param name     имя клиента
+ * @param phone    телефон клиента
+ * @param username имя пользователя клиента
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientSuggestion(Long id, String name, String phone, String username) {
+}
@@ -0,0 +1,27 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Краткое представление клиента для списков.
+ * <p>
+ * Заполняется одним SQL-запросом с соединением таблиц {@code clients}, {@code users},
+ * {@code subscriptions} и {@code trainers} через конструкторное выражение JPQL, поэтому не требует загрузки
+ * связанных сущностей и не содержит пароля клиента.
+ * </p>
+ *
+ * @param id               идентификатор клиента
+ * @param name             имя клиента
+ * @param phone            телефон клиента
+ * @param username         имя пользователя клиента
+ * @param subscriptionId   идентификатор абонемента (может быть {@code null})
+ * @param subscriptionType тип абонемента (может быть {@code null})
+ * @param trainerId        идентификатор тренера (может быть {@code null})
+ * @param trainerName      имя тренера (может быть {@code null})
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientSummary(Long id, String name, String phone, String username,
+                            Long subscriptionId, String subscriptionType,
+                            Long trainerId, String trainerName) {
+}
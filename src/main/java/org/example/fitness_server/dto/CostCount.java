@@ -0,0 +1,18 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Количество абонементов с одинаковой стоимостью.
+ * <p>
+ * Используется при сверке статистики: по этим данным восстанавливаются количество абонементов,
+ * сумма, минимальная и максимальная стоимость.
+ * </p>
+ *
+ * @param cost  стоимость абонемента
+ * @param count количество абонементов с такой стоимостью
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record CostCount(Double cost, Long count) {
+}
@@ -0,0 +1,14 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Нарушение правила валидации для одного поля.
+ *
+ * @param field   имя поля (например, {@code name} или {@code username})
+ * @param message сообщение об ошибке
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record FieldViolation(String field, String message) {
+}
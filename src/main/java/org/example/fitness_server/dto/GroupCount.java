@@ -0,0 +1,18 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Количество строк в группе, вычисленное SQL-агрегатом {@code count(...) ... group by}.
+ * <p>
+ * Используется при сверке статистики, например для подсчёта клиентов на каждом абонементе
+ * или у каждого тренера.
+ * </p>
+ *
+ * @param id    идентификатор группы (абонемента или тренера)
+ * @param count количество строк в группе
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record GroupCount(Long id, Long count) {
+}
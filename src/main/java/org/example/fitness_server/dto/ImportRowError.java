@@ -0,0 +1,17 @@
+package org.example.fitness_server.dto;
+
+import java.util.List;
+
+/**
+ * Ошибки одной строки пакетного импорта.
+ *
+ * @param row      номер строки данных (для CSV — номер записи без учёта заголовка, для NDJSON — номер строки)
+ * @param username имя пользователя из строки (может быть {@code null})
+ * @param errors   нарушения, из-за которых строка не импортирована
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ImportRowError(long row, String username, List<FieldViolation> errors) {
+}
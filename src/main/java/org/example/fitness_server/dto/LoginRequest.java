@@ -0,0 +1,14 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Запрос на вход в систему по имени пользователя и паролю.
+ *
+ * @param username имя пользователя
+ * @param password пароль в открытом виде
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record LoginRequest(String username, String password) {
+}
@@ -0,0 +1,29 @@
+package org.example.fitness_server.dto;
+
+import org.example.fitness_server.model.MembershipStatus;
+
+import java.time.Instant;
+
+/**
+ * Клиент в списках активных, истекающих и истёкших абонементов.
+ * <p>
+ * Заполняется одним SQL-запросом с соединением таблиц {@code clients} и {@code subscriptions}
+ * через конструкторное выражение JPQL.
+ * </p>
+ *
+ * @param id               идентификатор клиента
+ * @param name             имя клиента
+ * @param phone            телефон клиента
+ * @param subscriptionId   идентификатор абонемента (может быть {@code null}, если абонемент удалён)
+ * @param subscriptionType тип абонемента (может быть {@code null}, если абонемент удалён)
+ * @param activatedAt      время активации абонемента
+ * @param expiresAt        время окончания абонемента
+ * @param status           состояние абонемента в базе данных
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record MemberEntry(Long id, String name, String phone, Long subscriptionId, String subscriptionType,
+                          Instant activatedAt, Instant expiresAt, MembershipStatus status) {
+}
@@ -0,0 +1,16 @@
+package org.example.fitness_server.dto;
+
+import java.util.List;
+
+/**
+ * Порция списка клиентов по сроку абонемента, выбранная курсорной (keyset) пагинацией.
+ *
+ * @param items      клиенты текущей порции
+ * @param nextCursor непрозрачный курсор для запроса следующей порции или {@code null}, если порция последняя
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record MemberSlice(List<MemberEntry> items, String nextCursor) {
+}
@@ -0,0 +1,65 @@
+package org.example.fitness_server.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Позиция в списке клиентов, упорядоченном по времени окончания абонемента.
+ * <p>
+ * Курсор хранит ключ последней выданной строки: время окончания абонемента и идентификатор клиента.
+ * Для клиента API курсор непрозрачен — это строка в кодировке Base64URL.
+ * </p>
+ *
+ * @param expiresAt время окончания абонемента последнего выданного клиента
+ * @param id        идентификатор последнего выданного клиента
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record MembershipCursor(Instant expiresAt, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Создаёт курсор, указывающий на позицию после указанного клиента.
+     *
+     * @param entry последний выданный клиент
+     * @return курсор
+     */
+
+    public static MembershipCursor after(MemberEntry entry) {
+        return new MembershipCursor(entry.expiresAt(), entry.id());
+    }
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return курсор в кодировке Base64URL
+     */
+
+    public String encode() {
+        String raw = expiresAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор из строки, полученной от клиента API.
+     *
+     * @param cursor курсор в кодировке Base64URL
+     * @return декодированный курсор
+     * @throws IllegalArgumentException если курсор повреждён
+     */
+
+    public static MembershipCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            return new MembershipCursor(Instant.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new IllegalArgumentException("Недействительный курсор.", e);
+        }
+    }
+}
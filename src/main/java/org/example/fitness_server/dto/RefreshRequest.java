@@ -0,0 +1,13 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Запрос на обновление или отзыв токенов.
+ *
+ * @param refreshToken токен обновления, выданный при входе в систему
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record RefreshRequest(String refreshToken) {
+}
@@ -0,0 +1,24 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Клиент в списке клиентов тренера.
+ * <p>
+ * Заполняется конструкторным выражением JPQL по индексу {@code clients(trainer_id, id)}
+ * с соединением учётной записи и абонемента, без загрузки сущностей и коллекции
+ * {@code Trainer.clients}.
+ * </p>
+ *
+ * @param id               идентификатор клиента
+ * @param name             имя клиента
+ * @param phone            телефон клиента
+ * @param username         имя пользователя клиента
+ * @param subscriptionId   идентификатор абонемента (может быть {@code null})
+ * @param subscriptionType тип абонемента (может быть {@code null})
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record RosterEntry(Long id, String name, String phone, String username,
+                          Long subscriptionId, String subscriptionType) {
+}
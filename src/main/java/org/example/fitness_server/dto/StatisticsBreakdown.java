@@ -0,0 +1,18 @@
+package org.example.fitness_server.dto;
+
+import java.util.List;
+
+/**
+ * Расширенная статистика фитнес-клуба для {@code GET /api/statistics/breakdown}.
+ *
+ * @param subscriptions     агрегаты стоимости абонементов
+ * @param clients           агрегаты по клиентам
+ * @param clientsPerTrainer количество клиентов у каждого тренера, включая тренеров без клиентов
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record StatisticsBreakdown(SubscriptionCostStatistics subscriptions, ClientStatistics clients,
+                                  List<TrainerLoad> clientsPerTrainer) {
+}
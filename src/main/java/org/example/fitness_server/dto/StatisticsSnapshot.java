@@ -0,0 +1,38 @@
+package org.example.fitness_server.dto;
+
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок статистики фитнес-клуба.
+ * <p>
+ * Формируется сервисом {@code StatisticsService} после каждого изменения клиентов, тренеров
+ * или абонементов и публикуется целиком, поэтому читатели всегда видят согласованный набор
+ * показателей без обращения к базе данных.
+ * </p>
+ *
+ * @param totalClients            общее количество клиентов
+ * @param totalTrainers           общее количество тренеров
+ * @param totalSubscriptions      общее количество абонементов
+ * @param totalSubscriptionCost   сумма стоимостей всех абонементов
+ * @param averageSubscriptionCost средняя стоимость абонемента (0.0, если абонементов нет)
+ * @param minSubscriptionCost     минимальная стоимость абонемента или {@code null}, если абонементов нет
+ * @param maxSubscriptionCost     максимальная стоимость абонемента или {@code null}, если абонементов нет
+ * @param clientsPerSubscription  количество клиентов по идентификаторам абонементов
+ * @param clientsPerTrainer       количество клиентов по идентификаторам тренеров
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record StatisticsSnapshot(long totalClients, long totalTrainers, long totalSubscriptions,
+                                 double totalSubscriptionCost, double averageSubscriptionCost,
+                                 Double minSubscriptionCost, Double maxSubscriptionCost,
+                                 Map<Long, Long> clientsPerSubscription, Map<Long, Long> clientsPerTrainer) {
+
+    /**
+     * Пустой снимок, используемый до первой сверки с базой данных.
+     */
+
+    public static final StatisticsSnapshot EMPTY =
+            new StatisticsSnapshot(0, 0, 0, 0.0, 0.0, null, null, Map.of(), Map.of());
+}
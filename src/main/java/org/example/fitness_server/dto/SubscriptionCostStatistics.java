@@ -0,0 +1,16 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Агрегаты стоимости абонементов, вычисленные одним SQL-запросом.
+ *
+ * @param count       общее количество абонементов
+ * @param averageCost средняя стоимость абонемента или {@code null}, если абонементов нет
+ * @param minCost     минимальная стоимость абонемента или {@code null}, если абонементов нет
+ * @param maxCost     максимальная стоимость абонемента или {@code null}, если абонементов нет
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record SubscriptionCostStatistics(Long count, Double averageCost, Double minCost, Double maxCost) {
+}
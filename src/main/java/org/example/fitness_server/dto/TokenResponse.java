@@ -0,0 +1,16 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Ответ с парой токенов, выдаваемый при входе в систему и при обновлении токенов.
+ *
+ * @param accessToken  токен доступа для заголовка {@code Authorization: Bearer}
+ * @param refreshToken токен обновления для эндпоинта {@code /api/auth/refresh}
+ * @param tokenType    тип токена (всегда {@code Bearer})
+ * @param expiresIn    время жизни токена доступа в секундах
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record TokenResponse(String accessToken, String refreshToken, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,15 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Количество клиентов у тренера.
+ *
+ * @param trainerId   идентификатор тренера
+ * @param trainerName имя тренера
+ * @param clients     количество клиентов тренера
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record TrainerLoad(Long trainerId, String trainerName, Long clients) {
+}
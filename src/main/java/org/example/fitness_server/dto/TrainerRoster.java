@@ -0,0 +1,23 @@
+package org.example.fitness_server.dto;
+
+import java.util.List;
+
+/**
+ * Порция списка клиентов тренера, выбранная курсорной (keyset) пагинацией.
+ * <p>
+ * Общее количество клиентов тренера берётся из статистики в памяти, которая заполняется одним
+ * групповым запросом и обновляется по событиям изменения клиентов, поэтому не требует
+ * запроса {@code count(*)} на каждую порцию.
+ * </p>
+ *
+ * @param trainerId    идентификатор тренера
+ * @param totalClients общее количество клиентов тренера
+ * @param items        клиенты текущей порции
+ * @param nextCursor   непрозрачный курсор для запроса следующей порции или {@code null}, если порция последняя
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record TrainerRoster(Long trainerId, long totalClients, List<RosterEntry> items, String nextCursor) {
+}
@@ -0,0 +1,13 @@
+package org.example.fitness_server.dto;
+
+/**
+ * Запрос на отметку посещения клуба клиентом.
+ *
+ * @param clientId идентификатор клиента, прошедшего в клуб
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record VisitRequest(Long clientId) {
+}
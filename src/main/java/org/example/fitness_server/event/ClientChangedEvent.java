@@ -0,0 +1,57 @@
+package org.example.fitness_server.event;
+
+import org.example.fitness_server.model.Client;
+
+/**
+ * Событие изменения клиента, публикуемое сервисом {@code ClientService}.
+ * <p>
+ * Содержит состояние клиента до и после изменения. При создании клиента состояние {@code before}
+ * равно {@code null}, при удалении — состояние {@code after}. Слушатели получают событие после
+ * фиксации транзакции, поэтому откаченные изменения до них не доходят.
+ * </p>
+ *
+ * @param before состояние клиента до изменения или {@code null}, если клиент создан
+ * @param after  состояние клиента после изменения или {@code null}, если клиент удалён
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record ClientChangedEvent(ClientState before, ClientState after) {
+
+    /**
+     * Снимок полей клиента, влияющих на статистику и поисковый индекс.
+     *
+     * @param id             идентификатор клиента
+     * @param subscriptionId идентификатор абонемента клиента или {@code null}
+     * @param trainerId      идентификатор тренера клиента или {@code null}
+     * @param name           имя клиента
+     * @param phone          телефон клиента
+     * @param username       имя пользователя клиента
+     */
+
+    public record ClientState(Long id, Long subscriptionId, Long trainerId,
+                              String name, String phone, String username) {
+
+        /**
+         * Создаёт снимок состояния клиента.
+         * <p>
+         * Идентификаторы связанных сущностей читаются без инициализации ленивых прокси;
+         * учётная запись клиента должна быть загружена.
+         * </p>
+         *
+         * @param client клиент
+         * @return снимок состояния клиента
+         */
+
+        public static ClientState of(Client client) {
+            return new ClientState(
+                    client.getId(),
+                    client.getSubscription() != null ? client.getSubscription().getId() : null,
+                    client.getTrainer() != null ? client.getTrainer().getId() : null,
+                    client.getName(),
+                    client.getPhone(),
+                    client.getUsername());
+        }
+    }
+}
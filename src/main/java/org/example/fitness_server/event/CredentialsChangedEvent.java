@@ -0,0 +1,20 @@
+package org.example.fitness_server.event;
+
+/**
+ * Событие изменения учётных данных пользователя, публикуемое сервисами {@code ClientService}
+ * и {@code TrainerService}.
+ * <p>
+ * Публикуется при смене имени пользователя или пароля и при удалении учётной записи. Обработчики
+ * вызываются после фиксации транзакции, когда прежние учётные данные уже нельзя прочитать
+ * из базы данных.
+ * </p>
+ *
+ * @param userId   идентификатор учётной записи {@code User}
+ * @param username имя пользователя до изменения
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record CredentialsChangedEvent(Long userId, String username) {
+}
@@ -0,0 +1,41 @@
+package org.example.fitness_server.event;
+
+import org.example.fitness_server.model.Subscription;
+
+/**
+ * Событие изменения абонемента, публикуемое сервисом {@code SubscriptionService}.
+ * <p>
+ * Содержит состояние абонемента до и после изменения. При создании абонемента состояние
+ * {@code before} равно {@code null}, при удалении — состояние {@code after}.
+ * </p>
+ *
+ * @param before состояние абонемента до изменения или {@code null}, если абонемент создан
+ * @param after  состояние абонемента после изменения или {@code null}, если абонемент удалён
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record SubscriptionChangedEvent(SubscriptionState before, SubscriptionState after) {
+
+    /**
+     * Снимок полей абонемента, влияющих на статистику.
+     *
+     * @param id   идентификатор абонемента
+     * @param cost стоимость абонемента
+     */
+
+    public record SubscriptionState(Long id, double cost) {
+
+        /**
+         * Создаёт снимок состояния абонемента.
+         *
+         * @param subscription абонемент
+         * @return снимок состояния абонемента
+         */
+
+        public static SubscriptionState of(Subscription subscription) {
+            return new SubscriptionState(subscription.getId(), subscription.getCost());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.fitness_server.event;
+
+/**
+ * Событие изменения тренера, публикуемое сервисом {@code TrainerService}.
+ * <p>
+ * Содержит идентификатор тренера до и после изменения. При создании тренера значение {@code before}
+ * равно {@code null}, при удалении — значение {@code after}.
+ * </p>
+ *
+ * @param before идентификатор тренера до изменения или {@code null}, если тренер создан
+ * @param after  идентификатор тренера после изменения или {@code null}, если тренер удалён
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record TrainerChangedEvent(Long before, Long after) {
+}
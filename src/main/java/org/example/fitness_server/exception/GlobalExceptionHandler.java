@@ -1,11 +1,17 @@
 package org.example.fitness_server.exception;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -13,7 +19,12 @@ import java.util.Map;
  * <p>
  * Этот класс перехватывает исключения типа {@code IllegalArgumentException},
  * возникающие в REST-контроллерах, и возвращает HTTP-ответ с кодом 400 (Bad Request),
- * содержащий сообщение об ошибке.
+ * содержащий сообщение об ошибке. Для {@code ValidationException} в ответ добавляется список
+ * нарушений по полям. Ошибки аутентификации {@code AuthenticationException}
+ * преобразуются в ответ с кодом 401 (Unauthorized), а конфликты версий
+ * {@code OptimisticLockingFailureException} — в ответ с кодом 409 (Conflict). Если свободное
+ * соединение с базой данных не удалось получить, возвращается ответ с кодом 503 (Service Unavailable),
+ * а если заполнена очередь шифрования паролей или буфер посещений — ответ с кодом 429 (Too Many Requests).
  * </p>
  *
  * @author Милана
@@ -54,4 +65,155 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.BAD_REQUEST)
                 .body(errorResponse);
     }
+
+    /**
+     * Обрабатывает исключения типа {@code ValidationException}.
+     * <p>
+     * Формирует HTTP-ответ с кодом 400 (Bad Request) и телом, содержащим поля:
+     * <ul>
+     *     <li>{@code error}: фиксированное значение "Validation failed".</li>
+     *     <li>{@code message}: сообщения всех нарушений.</li>
+     *     <li>{@code fieldErrors}: список нарушений с именем поля и сообщением.</li>
+     * </ul>
+     *
+     * @param ex исключение типа {@code ValidationException}
+     * @return объект {@code ResponseEntity} с сообщением об ошибке и списком нарушений
+     */
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationException(ValidationException ex) {
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("error", "Validation failed");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("fieldErrors", ex.getViolations());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(errorResponse);
+    }
+
+    /**
+     * Обрабатывает исключения типа {@code AuthenticationException}.
+     * <p>
+     * Формирует HTTP-ответ с кодом 401 (Unauthorized) и телом, содержащим поля:
+     * <ul>
+     *     <li>{@code error}: фиксированное значение "Authentication failed".</li>
+     *     <li>{@code message}: текст сообщения исключения.</li>
+     * </ul>
+     *
+     * @param ex исключение типа {@code AuthenticationException}
+     * @return объект {@code ResponseEntity} с сообщением об ошибке
+     */
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleAuthenticationException(AuthenticationException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Authentication failed");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(errorResponse);
+    }
+
+    /**
+     * Обрабатывает исключения типа {@code OptimisticLockingFailureException}.
+     * <p>
+     * Возникает, когда запись была изменена другим запросом после её чтения. Формирует HTTP-ответ
+     * с кодом 409 (Conflict) и телом, содержащим поля:
+     * <ul>
+     *     <li>{@code error}: фиксированное значение "Conflict".</li>
+     *     <li>{@code message}: текст сообщения исключения.</li>
+     * </ul>
+     *
+     * @param ex исключение типа {@code OptimisticLockingFailureException}
+     * @return объект {@code ResponseEntity} с сообщением об ошибке
+     */
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Conflict");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(errorResponse);
+    }
+
+    /**
+     * Обрабатывает ошибки получения соединения с базой данных.
+     * <p>
+     * Возникают, когда все соединения пула заняты дольше {@code spring.datasource.hikari.connection-timeout}
+     * (например, при виртуальных потоках, когда одновременных запросов намного больше, чем соединений)
+     * или база данных недоступна. Формирует HTTP-ответ с кодом 503 (Service Unavailable), заголовком
+     * {@code Retry-After} и телом, содержащим поля:
+     * <ul>
+     *     <li>{@code error}: фиксированное значение "Service unavailable".</li>
+     *     <li>{@code message}: текст сообщения исключения.</li>
+     * </ul>
+     *
+     * @param ex исключение типа {@code CannotCreateTransactionException} или {@code DataAccessResourceFailureException}
+     * @return объект {@code ResponseEntity} с сообщением об ошибке
+     */
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, String>> handleConnectionUnavailable(RuntimeException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Service unavailable");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * Обрабатывает исключения типа {@code PasswordHashingRejectedException}.
+     * <p>
+     * Возникают, когда очередь шифрования паролей заполнена (всплеск регистраций). Формирует
+     * HTTP-ответ с кодом 429 (Too Many Requests), заголовком {@code Retry-After} и телом,
+     * содержащим поля:
+     * <ul>
+     *     <li>{@code error}: фиксированное значение "Too many requests".</li>
+     *     <li>{@code message}: текст сообщения исключения.</li>
+     * </ul>
+     *
+     * @param ex исключение типа {@code PasswordHashingRejectedException}
+     * @return объект {@code ResponseEntity} с сообщением об ошибке
+     */
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too many requests");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * Обрабатывает исключения типа {@code VisitRejectedException}.
+     * <p>
+     * Возникают, когда буфер посещений заполнен (запись в базу данных отстаёт от входящего потока
+     * отметок) или приложение останавливается. Формирует HTTP-ответ с кодом 429 (Too Many Requests),
+     * заголовком {@code Retry-After} и телом, содержащим поля:
+     * <ul>
+     *     <li>{@code error}: фиксированное значение "Too many requests".</li>
+     *     <li>{@code message}: текст сообщения исключения.</li>
+     * </ul>
+     *
+     * @param ex исключение типа {@code VisitRejectedException}
+     * @return объект {@code ResponseEntity} с сообщением об ошибке
+     */
+
+    @ExceptionHandler(VisitRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleVisitRejectedException(VisitRejectedException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too many requests");
+        errorResponse.put("message", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
 }
@@ -0,0 +1,26 @@
+package org.example.fitness_server.exception;
+
+/**
+ * Исключение, выбрасываемое, когда очередь шифрования паролей заполнена.
+ * <p>
+ * Выбрасывается {@code PasswordHashingExecutor}, чтобы всплеск регистраций получал быстрый отказ
+ * с кодом 429 (Too Many Requests), а не ожидал в очереди, занимая поток запроса.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    /**
+     * Конструктор для создания исключения с описанием заполненной очереди.
+     *
+     * @param queueCapacity вместимость очереди шифрования паролей
+     */
+
+    public PasswordHashingRejectedException(int queueCapacity) {
+        super("Очередь шифрования паролей заполнена (" + queueCapacity + "), повторите запрос позже.");
+    }
+}
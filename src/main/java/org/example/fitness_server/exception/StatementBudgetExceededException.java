@@ -0,0 +1,29 @@
+package org.example.fitness_server.exception;
+
+/**
+ * Исключение, выбрасываемое при превышении бюджета SQL-операторов запроса.
+ * <p>
+ * Выбрасывается {@code RequestStatementCounter} только в режиме
+ * {@code fitness.sql.statement-budget.enforce=true}, чтобы тест, вызвавший эндпоинт с
+ * регрессией N+1, завершился ошибкой на том операторе, который превысил бюджет.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+    /**
+     * Конструктор для создания исключения с описанием превышения.
+     *
+     * @param budget     объявленный бюджет операторов
+     * @param statements количество операторов с учётом текущего
+     * @param sql        оператор, превысивший бюджет
+     */
+
+    public StatementBudgetExceededException(int budget, int statements, String sql) {
+        super("Превышен бюджет SQL-операторов: " + statements + " > " + budget + ", оператор: " + sql);
+    }
+}
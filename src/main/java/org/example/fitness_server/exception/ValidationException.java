@@ -0,0 +1,44 @@
+package org.example.fitness_server.exception;
+
+import org.example.fitness_server.dto.FieldViolation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Исключение, содержащее все нарушения правил валидации, найденные за один проход.
+ * <p>
+ * Наследуется от {@code IllegalArgumentException}, поэтому существующие обработчики продолжают
+ * работать, а сообщение исключения состоит из сообщений всех нарушений.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class ValidationException extends IllegalArgumentException {
+
+    private final List<FieldViolation> violations;
+
+    /**
+     * Конструктор для создания экземпляра {@code ValidationException}.
+     *
+     * @param violations список нарушений (не пустой)
+     */
+
+    public ValidationException(List<FieldViolation> violations) {
+        super(violations.stream().map(FieldViolation::message).collect(Collectors.joining(" ")));
+        this.violations = List.copyOf(violations);
+    }
+
+    /**
+     * Возвращает список нарушений.
+     *
+     * @return неизменяемый список нарушений
+     */
+
+    public List<FieldViolation> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.fitness_server.exception;
+
+/**
+ * Исключение, выбрасываемое, когда отметка посещения не может быть принята в буфер записи.
+ * <p>
+ * Выбрасывается {@code VisitIngestionService}, когда буфер посещений заполнен (запись в базу
+ * данных отстаёт от входящего потока) или приложение останавливается. Запрос получает ответ 429
+ * (Too Many Requests) с заголовком {@code Retry-After}, и терминал повторяет отметку позже.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class VisitRejectedException extends RuntimeException {
+
+    /**
+     * Конструктор для создания исключения с описанием причины отказа.
+     *
+     * @param message описание причины отказа
+     */
+
+    public VisitRejectedException(String message) {
+        super(message);
+    }
+}
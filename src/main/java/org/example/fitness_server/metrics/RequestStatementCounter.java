@@ -0,0 +1,139 @@
+package org.example.fitness_server.metrics;
+
+import org.example.fitness_server.exception.StatementBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счётчик SQL-операторов, выполненных при обработке текущего HTTP-запроса.
+ * <p>
+ * Подключается к Hibernate как {@code StatementInspector} и видит каждый подготавливаемый
+ * оператор. Подсчёт ведётся в потоке, обрабатывающем запрос, между вызовами {@link #begin(int)}
+ * и {@link #end()}, которые выполняет {@code StatementBudgetInterceptor}. Операторы вне запросов
+ * (инициализация данных, задачи по расписанию, потоки выгрузки) не учитываются.
+ * </p>
+ * <p>
+ * В режиме {@code fitness.sql.statement-budget.enforce=true} оператор, превысивший бюджет,
+ * не выполняется: выбрасывается {@code StatementBudgetExceededException}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Component
+public class RequestStatementCounter implements StatementInspector {
+
+    /**
+     * Значение бюджета для эндпоинтов без аннотации {@code @StatementBudget}.
+     */
+
+    public static final int UNLIMITED = -1;
+
+    private final ThreadLocal<Tracking> current = new ThreadLocal<>();
+    private final boolean enforce;
+
+    /**
+     * Конструктор для создания экземпляра {@code RequestStatementCounter}.
+     *
+     * @param enforce прерывать ли запрос при превышении бюджета
+     */
+
+    public RequestStatementCounter(@Value("${fitness.sql.statement-budget.enforce:false}") boolean enforce) {
+        this.enforce = enforce;
+    }
+
+    /**
+     * Начинает подсчёт операторов в текущем потоке.
+     *
+     * @param budget   бюджет операторов или {@link #UNLIMITED}
+     * @param perChunk бюджет операторов одной порции пакетной обработки
+     */
+
+    public void begin(int budget, int perChunk) {
+        current.set(new Tracking(budget, perChunk));
+    }
+
+    /**
+     * Увеличивает бюджет текущего запроса на бюджет одной порции пакетной обработки.
+     * <p>
+     * Вызывается контроллером из обработчика порций, который он передаёт сервису пакетной
+     * обработки. Вне подсчёта и для эндпоинтов без бюджета ничего не делает.
+     * </p>
+     */
+
+    public void beginChunk() {
+        Tracking tracking = current.get();
+        if (tracking != null && tracking.budget != UNLIMITED) {
+            tracking.budget += tracking.perChunk;
+        }
+    }
+
+    /**
+     * Возвращает бюджет текущего запроса с учётом начатых порций.
+     *
+     * @return бюджет операторов или {@link #UNLIMITED}, если подсчёт не начат или бюджет не объявлен
+     */
+
+    public int budget() {
+        Tracking tracking = current.get();
+        return tracking != null ? tracking.budget : UNLIMITED;
+    }
+
+    /**
+     * Возвращает количество операторов, выполненных в текущем потоке с начала подсчёта.
+     *
+     * @return количество операторов или {@code -1}, если подсчёт не начат
+     */
+
+    public int current() {
+        Tracking tracking = current.get();
+        return tracking != null ? tracking.statements : -1;
+    }
+
+    /**
+     * Завершает подсчёт операторов в текущем потоке.
+     *
+     * @return количество операторов или {@code -1}, если подсчёт не был начат
+     */
+
+    public int end() {
+        Tracking tracking = current.get();
+        current.remove();
+        return tracking != null ? tracking.statements : -1;
+    }
+
+    /**
+     * Учитывает оператор, подготавливаемый Hibernate, и возвращает его без изменений.
+     *
+     * @param sql текст SQL-оператора
+     * @return тот же текст SQL-оператора
+     * @throws StatementBudgetExceededException если бюджет превышен в режиме {@code enforce}
+     */
+
+    @Override
+    public String inspect(String sql) {
+        Tracking tracking = current.get();
+        if (tracking != null) {
+            tracking.statements++;
+            if (enforce && tracking.budget != UNLIMITED && tracking.statements > tracking.budget) {
+                throw new StatementBudgetExceededException(tracking.budget, tracking.statements, sql);
+            }
+        }
+        return sql;
+    }
+
+    private static final class Tracking {
+
+        private final int perChunk;
+        private int budget;
+        private int statements;
+
+        private Tracking(int budget, int perChunk) {
+            this.budget = budget;
+            this.perChunk = perChunk;
+        }
+    }
+}
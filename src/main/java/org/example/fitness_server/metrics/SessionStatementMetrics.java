@@ -0,0 +1,60 @@
+package org.example.fitness_server.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Слушатель событий сессии Hibernate, публикующий количество обращений к базе данных за сессию.
+ * <p>
+ * Подключается настройкой {@code hibernate.session.events.auto}; Hibernate создаёт отдельный
+ * экземпляр для каждой сессии. При закрытии сессии количество выполненных операторов
+ * и пакетов JDBC записывается в распределение {@value #METRIC_NAME}. Так как включён режим
+ * open-in-view, HTTP-запрос обслуживается одной сессией, и метрика показывает число
+ * обращений к базе данных на запрос.
+ * </p>
+ * <p>
+ * Hibernate создаёт слушатель без участия Spring, поэтому метрика регистрируется в глобальном
+ * реестре {@code Metrics.globalRegistry}, в который Spring Boot добавляет реестр приложения.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class SessionStatementMetrics extends BaseSessionEventListener {
+
+    static final String METRIC_NAME = "hibernate.session.statements";
+
+    private static final DistributionSummary STATEMENTS = DistributionSummary.builder(METRIC_NAME)
+            .description("Количество операторов и пакетов JDBC за одну сессию Hibernate")
+            .baseUnit("statements")
+            .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+            .register(Metrics.globalRegistry);
+
+    private int statements;
+
+    /**
+     * Конструктор по умолчанию.
+     * <p>
+     * Используется Hibernate при открытии каждой сессии.
+     */
+    public SessionStatementMetrics() {
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statements++;
+    }
+
+    @Override
+    public void end() {
+        STATEMENTS.record(statements);
+    }
+}
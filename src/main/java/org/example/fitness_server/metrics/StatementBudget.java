@@ -0,0 +1,53 @@
+package org.example.fitness_server.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Объявляет максимальное количество SQL-операторов, которое может выполнить эндпоинт за один запрос.
+ * <p>
+ * Операторы подсчитываются {@code RequestStatementCounter} от вызова метода контроллера до конца
+ * обработки запроса, включая ленивую загрузку связей при сериализации ответа. Превышение бюджета
+ * записывается в метрику {@code fitness.http.statements.budget.exceeded} и в журнал, а при
+ * {@code fitness.sql.statement-budget.enforce=true} (в тестах) прерывает запрос исключением
+ * {@code StatementBudgetExceededException}.
+ * </p>
+ * <p>
+ * Эндпоинты пакетной обработки, число операторов которых растёт с размером тела запроса, объявляют
+ * дополнительно бюджет одной порции {@link #perChunk()}: каждая порция, начатая вызовом
+ * {@code RequestStatementCounter.beginChunk()}, увеличивает бюджет запроса на это значение.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    /**
+     * Максимальное количество SQL-операторов за запрос.
+     *
+     * @return бюджет операторов
+     */
+
+    int value();
+
+    /**
+     * Максимальное количество SQL-операторов на одну порцию пакетной обработки.
+     * <p>
+     * Значение рассчитывается на полную порцию при настройках по умолчанию: порция меньшего
+     * размера выполняет не больше операторов.
+     * </p>
+     *
+     * @return бюджет операторов порции или {@code 0}, если эндпоинт не обрабатывает данные порциями
+     */
+
+    int perChunk() default 0;
+}
@@ -0,0 +1,100 @@
+package org.example.fitness_server.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Перехватчик, подсчитывающий SQL-операторы каждого запроса к контроллерам.
+ * <p>
+ * Перед вызовом метода контроллера запускает {@code RequestStatementCounter} с бюджетом из
+ * аннотации {@code @StatementBudget} (если она есть). После завершения запроса записывает
+ * количество операторов в распределение {@code fitness.http.statements} с тегами {@code method}
+ * и {@code uri} (шаблон пути) и, если бюджет превышен, увеличивает счётчик
+ * {@code fitness.http.statements.budget.exceeded} и пишет предупреждение в журнал.
+ * </p>
+ * <p>
+ * Для асинхронных ответов (например, потоковой выгрузки) учитываются только операторы,
+ * выполненные до начала асинхронной обработки.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final RequestStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Конструктор для создания экземпляра {@code StatementBudgetInterceptor}.
+     *
+     * @param counter       счётчик операторов текущего запроса
+     * @param meterRegistry реестр метрик
+     */
+
+    public StatementBudgetInterceptor(RequestStatementCounter counter, MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+            if (budget != null) {
+                counter.begin(budget.value(), budget.perChunk());
+            } else {
+                counter.begin(RequestStatementCounter.UNLIMITED, 0);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        int budget = counter.budget();
+        int statements = counter.end();
+        if (statements < 0) {
+            return;
+        }
+        String uri = uriOf(request);
+        DistributionSummary.builder("fitness.http.statements")
+                .description("Количество SQL-операторов за HTTP-запрос")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (budget != RequestStatementCounter.UNLIMITED && statements > budget) {
+            meterRegistry.counter("fitness.http.statements.budget.exceeded",
+                    "method", request.getMethod(), "uri", uri).increment();
+            log.warn("SQL statement budget exceeded: method={}, uri={}, statements={}, budget={}",
+                    request.getMethod(), uri, statements, budget);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Поток возвращается в пул до завершения ответа: подсчёт в нём прекращается
+        counter.end();
+    }
+
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.fitness_server.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Добавляет к ответам контроллеров заголовок {@value #HEADER} с количеством SQL-операторов запроса.
+ * <p>
+ * Включается настройкой {@code fitness.sql.statement-budget.expose-header=true} и предназначен для
+ * сред разработки и тестирования. Заголовок записывается непосредственно перед сериализацией тела,
+ * поэтому операторы ленивой загрузки во время сериализации в нём не учитываются — их видит
+ * только метрика {@code fitness.http.statements}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ControllerAdvice
+@ConditionalOnProperty(name = "fitness.sql.statement-budget.expose-header", havingValue = "true")
+public class StatementCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Имя заголовка с количеством SQL-операторов.
+     */
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private final RequestStatementCounter counter;
+
+    /**
+     * Конструктор для создания экземпляра {@code StatementCountHeaderAdvice}.
+     *
+     * @param counter счётчик операторов текущего запроса
+     */
+
+    public StatementCountHeaderAdvice(RequestStatementCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int statements = counter.current();
+        if (statements >= 0) {
+            response.getHeaders().set(HEADER, Integer.toString(statements));
+        }
+        return body;
+    }
+}
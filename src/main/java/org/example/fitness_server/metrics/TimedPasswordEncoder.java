@@ -0,0 +1,87 @@
+package org.example.fitness_server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Кодировщик паролей, измеряющий время работы делегата.
+ * <p>
+ * Шифрование и проверка паролей BCrypt — самые дорогие операции при создании пользователей
+ * и аутентификации, поэтому их длительность публикуется отдельным таймером
+ * {@value #METRIC_NAME} с тегом {@code operation} ({@code encode} или {@code matches})
+ * и гистограммой для расчёта процентилей.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    static final String METRIC_NAME = "fitness.password.encoder";
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    /**
+     * Конструктор для создания экземпляра {@code TimedPasswordEncoder}.
+     *
+     * @param delegate      кодировщик, выполняющий шифрование и проверку паролей
+     * @param meterRegistry реестр метрик
+     */
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer("encode", meterRegistry);
+        this.matchesTimer = timer("matches", meterRegistry);
+    }
+
+    /**
+     * Шифрует пароль, измеряя время шифрования.
+     *
+     * @param rawPassword пароль в открытом виде
+     * @return зашифрованный пароль
+     */
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Проверяет пароль, измеряя время проверки.
+     *
+     * @param rawPassword     пароль в открытом виде
+     * @param encodedPassword зашифрованный пароль
+     * @return {@code true}, если пароль совпадает
+     */
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    /**
+     * Проверяет, нужно ли перешифровать пароль. Не измеряется: проверка не вычисляет хеш.
+     *
+     * @param encodedPassword зашифрованный пароль
+     * @return {@code true}, если пароль следует перешифровать
+     */
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder(METRIC_NAME)
+                .description("Время шифрования и проверки паролей")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
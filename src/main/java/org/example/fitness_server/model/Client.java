@@ -1,14 +1,21 @@
 package org.example.fitness_server.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 /**
  * Сущность, представляющая клиента фитнес-клуба.
  * <p>
  * Этот класс является JPA-сущностью, которая отображается на таблицу {@code clients} в базе данных.
- * Содержит информацию о клиенте, такую как имя, телефон, имя пользователя, пароль и связанный абонемент.
+ * Содержит информацию о клиенте, такую как имя, телефон и связанный абонемент. Учётные данные
+ * (имя пользователя и пароль) хранятся в связанной сущности {@code User}.
  * </p>
  *
  * @author Милана
@@ -19,9 +26,20 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+        @Index(name = "idx_clients_name_id", columnList = "name, id"),
+        @Index(name = "idx_clients_trainer_id_id", columnList = "trainer_id, id"),
+        @Index(name = Client.PHONE_NORMALIZED_INDEX, columnList = "phone_normalized", unique = true),
+        @Index(name = "idx_clients_subscription_expires_at_id", columnList = "subscription_expires_at, id")
+})
 public class Client implements UserEntity{
 
+    /**
+     * Имя уникального индекса телефона в формате E.164.
+     */
+
+    public static final String PHONE_NORMALIZED_INDEX = "uk_clients_phone_normalized";
+
     /**
      * Конструктор по умолчанию.
      * <p>
@@ -33,12 +51,15 @@ public class Client implements UserEntity{
     /**
      * Уникальный идентификатор клиента.
      * <p>
-     * Генерируется автоматически с использованием стратегии {@code GenerationType.IDENTITY}.
+     * Генерируется последовательностью {@code clients_seq} с оптимизатором pooled: Hibernate резервирует
+     * блок из 50 идентификаторов за одно обращение к последовательности, поэтому вставки
+     * могут объединяться в пакеты JDBC.
      * </p>
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -62,37 +83,179 @@ public class Client implements UserEntity{
     private String phone;
 
     /**
-     * Имя пользователя клиента.
+     * Телефон клиента в формате E.164 (например, {@code +79876543210}).
+     * <p>
+     * Вычисляется из {@link #phone} при создании и изменении клиента в {@code ClientService}
+     * и {@code ClientImportService} и уникален среди клиентов. Поиск клиента по телефону
+     * выполняется по уникальному индексу {@code uk_clients_phone_normalized}. Для строк,
+     * созданных до появления столбца, значение заполняет {@code PhoneMigration}.
+     * </p>
+     */
+
+    @Column(name = "phone_normalized")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String phoneNormalized;
+
+    /**
+     * Учётная запись клиента.
      * <p>
-     * Должно быть уникальным в таблице {@code clients}.
+     * Имя пользователя, хеш пароля и роль хранятся только в таблице {@code users}; клиент ссылается
+     * на неё внешним ключом {@code user_id} с уникальным индексом. Загружается лениво; запросы,
+     * которым нужно имя пользователя, подгружают учётную запись через {@code @EntityGraph} или
+     * {@code join fetch}.
      * </p>
      */
 
-    @Column(unique = true)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", unique = true, foreignKey = @ForeignKey(name = "fk_clients_user"))
+    @JsonIgnore
+    private User user;
+
+    /**
+     * Имя пользователя из тела запроса.
+     * <p>
+     * Не сохраняется в таблице {@code clients}: у сохранённого клиента имя пользователя берётся
+     * из учётной записи {@code user}.
+     * </p>
+     */
+
+    @Transient
+    @Getter(AccessLevel.NONE)
     private String username;
 
     /**
-     * Пароль клиента.
+     * Пароль из тела запроса.
      * <p>
-     * Не может быть {@code null}.
+     * Не сохраняется в таблице {@code clients}: у сохранённого клиента хеш пароля берётся
+     * из учётной записи {@code user}. Принимается из JSON, но не включается в ответы.
      * </p>
      */
 
-    @Column(nullable = false)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     /**
      * Абонемент, связанный с клиентом.
      * <p>
-     * Связь типа "многие-к-одному" с сущностью {@code Subscription}.
+     * Связь типа "многие-к-одному" с сущностью {@code Subscription}. Загружается лениво;
+     * запросы, которым нужен абонемент, подгружают его явно через {@code @EntityGraph}.
      * </p>
      */
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subscription_id")
     private Subscription subscription;
 
-    @ManyToOne
+    /**
+     * Время активации абонемента клиента.
+     * <p>
+     * Заполняется при назначении абонемента и при его продлении после окончания срока.
+     * У клиентов, созданных до появления столбца, не заполнено, пока абонемент не будет продлён.
+     * </p>
+     */
+
+    @Column(name = "subscription_activated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant subscriptionActivatedAt;
+
+    /**
+     * Время окончания абонемента клиента.
+     * <p>
+     * Равно времени активации плюс {@code Subscription.durationDays} дней; при продлении действующего
+     * абонемента сдвигается на его длительность. Списки активных, истекающих и истёкших клиентов
+     * выбираются по индексу на этом столбце.
+     * </p>
+     */
+
+    @Column(name = "subscription_expires_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant subscriptionExpiresAt;
+
+    /**
+     * Состояние абонемента клиента.
+     * <p>
+     * Переводится в {@code EXPIRED} порциями задачей {@code MembershipService.expireMemberships()}
+     * после наступления {@link #subscriptionExpiresAt}. У клиента без абонемента не задано.
+     * </p>
+     */
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "membership_status", length = 16)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private MembershipStatus membershipStatus;
+
+    /**
+     * Тренер, закреплённый за клиентом.
+     * <p>
+     * Связь типа "многие-к-одному" с сущностью {@code Trainer}. Загружается лениво;
+     * запросы, которым нужен тренер, подгружают его явно через {@code @EntityGraph}.
+     * </p>
+     */
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trainer_id")
     private Trainer trainer;
+
+    /**
+     * Версия записи клиента.
+     * <p>
+     * Увеличивается Hibernate при каждом изменении и используется для оптимистической блокировки
+     * и для вычисления {@code ETag}. Не передаётся в JSON.
+     * </p>
+     */
+
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Время последнего изменения записи клиента.
+     * <p>
+     * Заполняется Hibernate при создании и каждом изменении. Не передаётся в JSON.
+     * </p>
+     */
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    @JsonIgnore
+    private Instant lastModified;
+
+    /**
+     * Проверяет, действует ли абонемент клиента в текущий момент.
+     * <p>
+     * Не зависит от того, успела ли задача истечения абонементов изменить {@link #membershipStatus}.
+     * </p>
+     *
+     * @return {@code true}, если абонемент активирован и срок его действия не истёк
+     */
+
+    @JsonProperty(value = "membershipActive", access = JsonProperty.Access.READ_ONLY)
+    public boolean isMembershipActive() {
+        return membershipStatus == MembershipStatus.ACTIVE && subscriptionExpiresAt != null
+                && subscriptionExpiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * Возвращает имя пользователя клиента.
+     *
+     * @return имя пользователя из учётной записи, а до её создания — из тела запроса
+     */
+
+    @Override
+    public String getUsername() {
+        return user != null ? user.getUsername() : username;
+    }
+
+    /**
+     * Возвращает пароль клиента.
+     *
+     * @return хеш пароля из учётной записи, а до её создания — пароль из тела запроса
+     */
+
+    @Override
+    public String getPassword() {
+        return user != null ? user.getPassword() : password;
+    }
 }
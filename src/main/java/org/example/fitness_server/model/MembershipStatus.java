@@ -0,0 +1,33 @@
+package org.example.fitness_server.model;
+
+/**
+ * Перечисление состояний абонемента клиента.
+ * <p>
+ * Состояние хранится в столбце {@code clients.membership_status}. У клиента без абонемента
+ * состояние не задано ({@code null}).
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public enum MembershipStatus {
+
+    /**
+     * Абонемент активирован и действует до {@code subscriptionExpiresAt}.
+     * <p>
+     * Истёкший, но ещё не переведённый в {@link #EXPIRED} абонемент остаётся в этом состоянии
+     * до ближайшего запуска {@code MembershipService.expireMemberships()}; запросы активных
+     * клиентов дополнительно сравнивают время окончания с текущим.
+     * </p>
+     */
+
+    ACTIVE,
+
+    /**
+     * Срок абонемента истёк.
+     */
+
+    EXPIRED
+}
@@ -0,0 +1,73 @@
+package org.example.fitness_server.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Сущность, представляющая занятое имя пользователя.
+ * <p>
+ * Этот класс является JPA-сущностью, которая отображается на таблицу {@code username_registry}.
+ * Таблица содержит по одной записи на каждое имя пользователя, используемое пользователями,
+ * клиентами и тренерами, и защищена уникальным индексом. Проверка уникальности имени выполняется
+ * одним индексным запросом к этой таблице вместо трёх запросов к таблицам {@code users},
+ * {@code clients} и {@code trainers}, а одновременная регистрация одного имени отсекается
+ * ограничением уникальности.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Entity
+@Getter
+@Setter
+@Table(name = "username_registry",
+        uniqueConstraints = @UniqueConstraint(name = "uk_username_registry_username", columnNames = "username"))
+public class RegisteredUsername {
+
+    /**
+     * Конструктор по умолчанию.
+     * <p>
+     * Требуется для JPA при создании экземпляров сущности.
+     * </p>
+     */
+
+    public RegisteredUsername() {
+    }
+
+    /**
+     * Конструктор для регистрации указанного имени пользователя.
+     *
+     * @param username занимаемое имя пользователя
+     */
+
+    public RegisteredUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Уникальный идентификатор записи.
+     * <p>
+     * Генерируется последовательностью {@code username_registry_seq} с оптимизатором pooled: Hibernate резервирует
+     * блок из 50 идентификаторов за одно обращение к последовательности, поэтому вставки
+     * могут объединяться в пакеты JDBC.
+     * </p>
+     */
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "username_registry_seq")
+    @SequenceGenerator(name = "username_registry_seq", sequenceName = "username_registry_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Занятое имя пользователя.
+     * <p>
+     * Не может быть {@code null} и уникально в пределах таблицы.
+     * </p>
+     */
+
+    @Column(nullable = false)
+    private String username;
+}
@@ -1,10 +1,15 @@
 package org.example.fitness_server.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -13,6 +18,10 @@ import java.util.List;
  * Этот класс является JPA-сущностью, которая отображается на таблицу {@code subscriptions} в базе данных.
  * Содержит информацию об абонементе, такую как тип, стоимость, длительность и список связанных клиентов.
  * </p>
+ * <p>
+ * Абонементы — справочные данные, которые читаются часто и меняются редко, поэтому сущность
+ * хранится в кэше второго уровня Hibernate. Записи кэша обновляются при изменении абонемента.
+ * </p>
  *
  * @author Милана
  * @version 1.0
@@ -23,6 +32,9 @@ import java.util.List;
 @Getter
 @Setter
 @Table(name = "subscriptions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Subscription {
 
     /**
@@ -38,12 +50,15 @@ public class Subscription {
     /**
      * Уникальный идентификатор абонемента.
      * <p>
-     * Генерируется автоматически с использованием стратегии {@code GenerationType.IDENTITY}.
+     * Генерируется последовательностью {@code subscriptions_seq} с оптимизатором pooled: Hibernate резервирует
+     * блок из 50 идентификаторов за одно обращение к последовательности, поэтому вставки
+     * могут объединяться в пакеты JDBC.
      * </p>
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_seq")
+    @SequenceGenerator(name = "subscriptions_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -87,4 +102,28 @@ public class Subscription {
     @OneToMany(mappedBy = "subscription")
     @JsonIgnore
     private List<Client> clients;
+
+    /**
+     * Версия записи абонемента.
+     * <p>
+     * Увеличивается Hibernate при каждом изменении и используется для оптимистической блокировки
+     * и для вычисления {@code ETag}. Не передаётся в JSON.
+     * </p>
+     */
+
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Время последнего изменения записи абонемента.
+     * <p>
+     * Заполняется Hibernate при создании и каждом изменении. Не передаётся в JSON.
+     * </p>
+     */
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    @JsonIgnore
+    private Instant lastModified;
 }
@@ -1,10 +1,17 @@
 package org.example.fitness_server.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,7 +20,12 @@ import java.util.List;
  * <p>
  * Этот класс представляет модель данных для тренеров, хранящихся в базе данных.
  * Таблица в базе данных называется {@code trainers}. Класс реализует интерфейс
- * {@code UserEntity} для унификации работы с пользовательскими данными.
+ * {@code UserEntity} для унификации работы с пользовательскими данными; сами учётные данные
+ * (имя пользователя и пароль) хранятся в связанной сущности {@code User}.
+ * </p>
+ * <p>
+ * Тренер загружается при каждом создании и изменении клиента, поэтому сущность хранится
+ * в кэше второго уровня Hibernate. Список клиентов тренера не кэшируется.
  * </p>
  *
  * @author Милана
@@ -25,17 +37,23 @@ import java.util.List;
 @Getter
 @Setter
 @Table(name = "trainers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Trainer implements UserEntity{
 
     /**
      * Уникальный идентификатор тренера.
      * <p>
-     * Генерируется автоматически с использованием стратегии {@code GenerationType.IDENTITY}.
+     * Генерируется последовательностью {@code trainers_seq} с оптимизатором pooled: Hibernate резервирует
+     * блок из 50 идентификаторов за одно обращение к последовательности, поэтому вставки
+     * могут объединяться в пакеты JDBC.
      * </p>
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainers_seq")
+    @SequenceGenerator(name = "trainers_seq", sequenceName = "trainers_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -49,23 +67,43 @@ public class Trainer implements UserEntity{
     private String name;
 
     /**
-     * Имя пользователя тренера.
+     * Учётная запись тренера.
+     * <p>
+     * Имя пользователя, хеш пароля и роль хранятся только в таблице {@code users}; тренер ссылается
+     * на неё внешним ключом {@code user_id} с уникальным индексом. Загружается лениво; запросы,
+     * которым нужно имя пользователя, подгружают учётную запись через {@code @EntityGraph} или
+     * {@code join fetch}.
+     * </p>
+     */
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", unique = true, foreignKey = @ForeignKey(name = "fk_trainers_user"))
+    @JsonIgnore
+    private User user;
+
+    /**
+     * Имя пользователя из тела запроса.
      * <p>
-     * Должно быть уникальным в таблице {@code trainers} и не может быть {@code null}.
+     * Не сохраняется в таблице {@code trainers}: у сохранённого тренера имя пользователя берётся
+     * из учётной записи {@code user}.
      * </p>
      */
 
-    @Column(nullable = false, unique = true)
+    @Transient
+    @Getter(AccessLevel.NONE)
     private String username;
 
     /**
-     * Пароль тренера.
+     * Пароль из тела запроса.
      * <p>
-     * Не может быть {@code null}. Хранится в зашифрованном виде.
+     * Не сохраняется в таблице {@code trainers}: у сохранённого тренера хеш пароля берётся
+     * из учётной записи {@code user}. Принимается из JSON, но не включается в ответы.
      * </p>
      */
 
-    @Column(nullable = false)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     /**
@@ -80,6 +118,30 @@ public class Trainer implements UserEntity{
     @JsonIgnore
     private List<Client> clients = new ArrayList<>();
 
+    /**
+     * Версия записи тренера.
+     * <p>
+     * Увеличивается Hibernate при каждом изменении и используется для оптимистической блокировки
+     * и для вычисления {@code ETag}. Не передаётся в JSON.
+     * </p>
+     */
+
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Время последнего изменения записи тренера.
+     * <p>
+     * Заполняется Hibernate при создании и каждом изменении. Не передаётся в JSON.
+     * </p>
+     */
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    @JsonIgnore
+    private Instant lastModified;
+
     /**
      * Конструктор по умолчанию.
      * <p>
@@ -89,4 +151,26 @@ public class Trainer implements UserEntity{
 
     public Trainer() {
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает имя пользователя тренера.
+     *
+     * @return имя пользователя из учётной записи, а до её создания — из тела запроса
+     */
+
+    @Override
+    public String getUsername() {
+        return user != null ? user.getUsername() : username;
+    }
+
+    /**
+     * Возвращает пароль тренера.
+     *
+     * @return хеш пароля из учётной записи, а до её создания — пароль из тела запроса
+     */
+
+    @Override
+    public String getPassword() {
+        return user != null ? user.getPassword() : password;
+    }
+}
@@ -2,6 +2,7 @@ package org.example.fitness_server.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -38,12 +39,15 @@ public class User implements UserDetails {
     /**
      * Уникальный идентификатор пользователя.
      * <p>
-     * Генерируется автоматически с использованием стратегии {@code GenerationType.IDENTITY}.
+     * Генерируется последовательностью {@code users_seq} с оптимизатором pooled: Hibernate резервирует
+     * блок из 50 идентификаторов за одно обращение к последовательности, поэтому вставки
+     * могут объединяться в пакеты JDBC.
      * </p>
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -78,6 +82,20 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Role role;
 
+    /**
+     * Версия учётных данных пользователя.
+     * <p>
+     * Увеличивается при каждой смене имени пользователя или пароля и записывается в выпускаемые
+     * токены, поэтому токены, выданные до смены, перестают приниматься. Фоновое перешифрование
+     * пароля тем же паролем версию не меняет. Для строк, созданных до появления столбца,
+     * используется значение по умолчанию {@code 0}.
+     * </p>
+     */
+
+    @ColumnDefault("0")
+    @Column(name = "credentials_version", nullable = false)
+    private int credentialsVersion;
+
     /**
      * Возвращает роли пользователя для Spring Security.
      * <p>
@@ -7,6 +7,11 @@ package org.example.fitness_server.model;
  * такими как имя, имя пользователя и пароль. Реализуется классами, представляющими
  * сущности с пользовательскими учётными данными, например, {@code Client} и {@code Trainer}.
  * </p>
+ * <p>
+ * Учётные данные хранятся в одной таблице {@code users}: сущность ссылается на свой объект
+ * {@code User}, а имя пользователя и пароль возвращает из него. До создания учётной записи
+ * (в теле запроса) они возвращают значения, переданные клиентом API.
+ * </p>
  *
  * @author Милана
  * @version 1.0
@@ -85,4 +90,20 @@ public interface UserEntity {
      */
 
     void setPassword(String password);
-}
\ No newline at end of file
+
+    /**
+     * Возвращает учётную запись пользователя.
+     *
+     * @return связанный объект {@code User} или {@code null}, если учётная запись ещё не создана
+     */
+
+    User getUser();
+
+    /**
+     * Связывает сущность с учётной записью пользователя.
+     *
+     * @param user учётная запись пользователя
+     */
+
+    void setUser(User user);
+}
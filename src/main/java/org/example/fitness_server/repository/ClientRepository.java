@@ -1,16 +1,44 @@
 package org.example.fitness_server.repository;
 
+import org.example.fitness_server.dto.ClientStatistics;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.dto.GroupCount;
+import org.example.fitness_server.dto.MemberEntry;
+import org.example.fitness_server.dto.RosterEntry;
+import org.example.fitness_server.dto.TrainerLoad;
 import org.example.fitness_server.model.Client;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Репозиторий для работы с клиентами в приложении фитнес-клуба.
  * <p>
  * Этот интерфейс расширяет {@code JpaRepository}, предоставляя стандартные методы
- * для операций CRUD с сущностью {@code Client}, а также дополнительный метод
- * для поиска клиента по имени пользователя.
+ * для операций CRUD с сущностью {@code Client}, а также дополнительные методы
+ * для поиска клиента по имени пользователя, для постраничной выборки списков клиентов
+ * без дополнительных запросов на каждую строку и для курсорной (keyset) пагинации.
+ * </p>
+ * <p>
+ * Имя пользователя хранится в учётной записи {@code User}, поэтому запросы, которым оно нужно,
+ * соединяют клиентов с таблицей {@code users} по уникальному индексу {@code user_id}.
  * </p>
  *
  * @author Милана
@@ -21,11 +49,401 @@ import java.util.Optional;
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
     /**
-     * Находит клиента по имени пользователя.
+     * Находит клиента по идентификатору вместе с учётной записью, абонементом и тренером.
+     *
+     * @param id идентификатор клиента
+     * @return объект {@code Optional}, содержащий клиента, если он найден, или пустой, если не найден
+     */
+
+    @Override
+    @EntityGraph(attributePaths = {"user", "subscription", "trainer", "trainer.user"})
+    Optional<Client> findById(Long id);
+
+    /**
+     * Находит клиента по имени пользователя вместе с абонементом и тренером.
+     * <p>
+     * Клиент находится одним соединением с учётной записью: поиск по уникальному индексу
+     * {@code users.username}, затем переход по уникальному индексу {@code clients.user_id}.
+     * </p>
      *
      * @param username имя пользователя для поиска
      * @return объект {@code Optional}, содержащий клиента, если он найден, или пустой, если не найден
      */
 
-    Optional<Client> findByUsername(String username);
+    @Query("select c from Client c join fetch c.user u left join fetch c.subscription "
+            + "left join fetch c.trainer t left join fetch t.user where u.username = :username")
+    Optional<Client> findByUsername(@Param("username") String username);
+
+    /**
+     * Находит клиента по телефону в формате E.164 вместе с учётной записью.
+     * <p>
+     * Поиск выполняется по уникальному индексу {@code uk_clients_phone_normalized}.
+     * </p>
+     *
+     * @param phoneNormalized телефон в формате E.164
+     * @return объект {@code Optional}, содержащий клиента, если он найден, или пустой, если не найден
+     */
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Client> findByPhoneNormalized(String phoneNormalized);
+
+    /**
+     * Возвращает те телефоны из переданного набора, которые уже заняты клиентами.
+     * <p>
+     * Проверяет весь набор одним запросом по уникальному индексу вместо отдельного запроса на каждый телефон.
+     * </p>
+     *
+     * @param phones проверяемые телефоны в формате E.164
+     * @return множество занятых телефонов
+     */
+
+    @Query("select c.phoneNormalized from Client c where c.phoneNormalized in :phones")
+    Set<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    /**
+     * Возвращает страницу кратких представлений клиентов.
+     * <p>
+     * Тип абонемента и имя тренера выбираются тем же SQL-запросом через левые соединения,
+     * поэтому страница загружается двумя запросами: выборкой строк и подсчётом количества.
+     * </p>
+     *
+     * @param pageable параметры страницы
+     * @return страница объектов {@code ClientSummary}
+     */
+
+    @Query(value = "select new org.example.fitness_server.dto.ClientSummary("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type, t.id, t.name) "
+            + "from Client c left join c.user u left join c.subscription s left join c.trainer t order by c.id",
+            countQuery = "select count(c) from Client c")
+    Page<ClientSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Возвращает всех клиентов в порядке возрастания идентификатора в виде потока.
+     * <p>
+     * Строки читаются курсором порциями по 500 ({@code fetch size}) и не попадают в контекст
+     * персистентности, поэтому расход памяти не зависит от количества клиентов. Поток должен
+     * потребляться внутри транзакции и закрываться после использования.
+     * </p>
+     *
+     * @return поток объектов {@code ClientSummary}
+     */
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new org.example.fitness_server.dto.ClientSummary("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type, t.id, t.name) "
+            + "from Client c left join c.user u left join c.subscription s left join c.trainer t order by c.id")
+    Stream<ClientSummary> streamAllSummaries();
+
+    /**
+     * Возвращает страницу клиентов вместе с учётной записью, абонементом и тренером.
+     *
+     * @param pageable параметры страницы
+     * @return страница объектов {@code Client} с загруженными связями
+     */
+
+    @EntityGraph(attributePaths = {"user", "subscription", "trainer", "trainer.user"})
+    @Query(value = "select c from Client c order by c.id", countQuery = "select count(c) from Client c")
+    Page<Client> findAllWithSubscriptionAndTrainer(Pageable pageable);
+
+    /**
+     * Возвращает страницу клиентов вместе с учётной записью и абонементом.
+     *
+     * @param pageable параметры страницы
+     * @return страница объектов {@code Client} с загруженным абонементом
+     */
+
+    @EntityGraph(attributePaths = {"user", "subscription"})
+    @Query(value = "select c from Client c order by c.id", countQuery = "select count(c) from Client c")
+    Page<Client> findAllWithSubscription(Pageable pageable);
+
+    /**
+     * Возвращает страницу клиентов вместе с учётной записью и тренером.
+     *
+     * @param pageable параметры страницы
+     * @return страница объектов {@code Client} с загруженным тренером
+     */
+
+    @EntityGraph(attributePaths = {"user", "trainer", "trainer.user"})
+    @Query(value = "select c from Client c order by c.id", countQuery = "select count(c) from Client c")
+    Page<Client> findAllWithTrainer(Pageable pageable);
+
+    /**
+     * Возвращает клиентов с идентификатором больше указанного в порядке возрастания идентификатора.
+     * <p>
+     * Запрос использует первичный ключ как ключ поиска, поэтому его стоимость не зависит от того,
+     * насколько далеко от начала списка находится позиция, и не требует подсчёта строк.
+     * </p>
+     *
+     * @param afterId идентификатор последнего выданного клиента (0 для первой порции)
+     * @param limit   максимальное количество строк
+     * @return список объектов {@code ClientSummary}
+     */
+
+    @Query("select new org.example.fitness_server.dto.ClientSummary("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type, t.id, t.name) "
+            + "from Client c left join c.user u left join c.subscription s left join c.trainer t "
+            + "where c.id > :afterId order by c.id")
+    List<ClientSummary> findSummariesAfterId(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Возвращает порцию клиентов тренера после указанного идентификатора.
+     * <p>
+     * Выборка идёт по индексу {@code idx_clients_trainer_id_id} в порядке возрастания идентификатора
+     * и не загружает коллекцию {@code Trainer.clients}.
+     * </p>
+     *
+     * @param trainerId идентификатор тренера
+     * @param afterId   идентификатор последнего выданного клиента (0 для первой порции)
+     * @param limit     максимальное количество строк
+     * @return список объектов {@code RosterEntry}
+     */
+
+    @Query("select new org.example.fitness_server.dto.RosterEntry("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type) "
+            + "from Client c left join c.user u left join c.subscription s "
+            + "where c.trainer.id = :trainerId and c.id > :afterId order by c.id")
+    List<RosterEntry> findRosterAfterId(@Param("trainerId") long trainerId, @Param("afterId") long afterId,
+                                        Limit limit);
+
+    /**
+     * Возвращает первую порцию клиентов в порядке возрастания имени и идентификатора.
+     *
+     * @param limit максимальное количество строк
+     * @return список объектов {@code ClientSummary}
+     */
+
+    @Query("select new org.example.fitness_server.dto.ClientSummary("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type, t.id, t.name) "
+            + "from Client c left join c.user u left join c.subscription s left join c.trainer t "
+            + "order by c.name, c.id")
+    List<ClientSummary> findSummariesOrderByName(Limit limit);
+
+    /**
+     * Возвращает клиентов, следующих за указанной позицией в порядке возрастания имени и идентификатора.
+     * <p>
+     * Запрос использует составной индекс {@code idx_clients_name_id}.
+     * </p>
+     *
+     * @param name    имя последнего выданного клиента
+     * @param afterId идентификатор последнего выданного клиента
+     * @param limit   максимальное количество строк
+     * @return список объектов {@code ClientSummary}
+     */
+
+    @Query("select new org.example.fitness_server.dto.ClientSummary("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type, t.id, t.name) "
+            + "from Client c left join c.user u left join c.subscription s left join c.trainer t "
+            + "where c.name > :name or (c.name = :name and c.id > :afterId) "
+            + "order by c.name, c.id")
+    List<ClientSummary> findSummariesAfterName(@Param("name") String name, @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Возвращает клиентов с действующим абонементом, следующих за указанной позицией в порядке
+     * возрастания времени окончания абонемента и идентификатора.
+     * <p>
+     * Выборка идёт по частичному индексу {@code idx_clients_active_expires_at} (только строки
+     * в состоянии {@code ACTIVE}), который создаёт {@code MembershipIndexInitializer}. Для первой
+     * порции передаются текущий момент и {@code Long.MAX_VALUE}: так в список не попадают абонементы,
+     * истёкшие, но ещё не переведённые в состояние {@code EXPIRED}.
+     * </p>
+     *
+     * @param afterExpiresAt время окончания абонемента последнего выданного клиента
+     * @param afterId        идентификатор последнего выданного клиента
+     * @param limit          максимальное количество строк
+     * @return список объектов {@code MemberEntry}
+     */
+
+    @Query("select new org.example.fitness_server.dto.MemberEntry(c.id, c.name, c.phone, s.id, s.type, "
+            + "c.subscriptionActivatedAt, c.subscriptionExpiresAt, c.membershipStatus) "
+            + "from Client c left join c.subscription s "
+            + "where c.membershipStatus = org.example.fitness_server.model.MembershipStatus.ACTIVE "
+            + "and (c.subscriptionExpiresAt > :afterExpiresAt "
+            + "or (c.subscriptionExpiresAt = :afterExpiresAt and c.id > :afterId)) "
+            + "order by c.subscriptionExpiresAt, c.id")
+    List<MemberEntry> findActiveMembers(@Param("afterExpiresAt") Instant afterExpiresAt,
+                                        @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Возвращает клиентов, чей действующий абонемент заканчивается не позже указанного момента,
+     * в порядке возрастания времени окончания абонемента и идентификатора.
+     * <p>
+     * Выборка идёт по частичному индексу {@code idx_clients_active_expires_at} как диапазон
+     * по времени окончания. Позиция задаётся так же, как в {@link #findActiveMembers}.
+     * </p>
+     *
+     * @param afterExpiresAt время окончания абонемента последнего выданного клиента
+     * @param afterId        идентификатор последнего выданного клиента
+     * @param until          верхняя граница времени окончания абонемента
+     * @param limit          максимальное количество строк
+     * @return список объектов {@code MemberEntry}
+     */
+
+    @Query("select new org.example.fitness_server.dto.MemberEntry(c.id, c.name, c.phone, s.id, s.type, "
+            + "c.subscriptionActivatedAt, c.subscriptionExpiresAt, c.membershipStatus) "
+            + "from Client c left join c.subscription s "
+            + "where c.membershipStatus = org.example.fitness_server.model.MembershipStatus.ACTIVE "
+            + "and (c.subscriptionExpiresAt > :afterExpiresAt "
+            + "or (c.subscriptionExpiresAt = :afterExpiresAt and c.id > :afterId)) "
+            + "and c.subscriptionExpiresAt <= :until "
+            + "order by c.subscriptionExpiresAt, c.id")
+    List<MemberEntry> findExpiringMembers(@Param("afterExpiresAt") Instant afterExpiresAt,
+                                          @Param("afterId") long afterId, @Param("until") Instant until,
+                                          Limit limit);
+
+    /**
+     * Возвращает клиентов с истёкшим абонементом, следующих за указанной позицией в порядке
+     * убывания времени окончания абонемента и идентификатора (сначала истёкшие недавно).
+     * <p>
+     * Выборка идёт по индексу {@code idx_clients_subscription_expires_at_id}. Для первой порции
+     * передаются текущий момент и {@code Long.MAX_VALUE}, поэтому в список попадают и абонементы,
+     * истёкшие, но ещё не переведённые в состояние {@code EXPIRED}.
+     * </p>
+     *
+     * @param beforeExpiresAt время окончания абонемента последнего выданного клиента
+     * @param beforeId        идентификатор последнего выданного клиента
+     * @param limit           максимальное количество строк
+     * @return список объектов {@code MemberEntry}
+     */
+
+    @Query("select new org.example.fitness_server.dto.MemberEntry(c.id, c.name, c.phone, s.id, s.type, "
+            + "c.subscriptionActivatedAt, c.subscriptionExpiresAt, c.membershipStatus) "
+            + "from Client c left join c.subscription s "
+            + "where c.membershipStatus is not null "
+            + "and (c.subscriptionExpiresAt < :beforeExpiresAt "
+            + "or (c.subscriptionExpiresAt = :beforeExpiresAt and c.id < :beforeId)) "
+            + "order by c.subscriptionExpiresAt desc, c.id desc")
+    List<MemberEntry> findExpiredMembers(@Param("beforeExpiresAt") Instant beforeExpiresAt,
+                                         @Param("beforeId") long beforeId, Limit limit);
+
+    /**
+     * Возвращает идентификаторы клиентов, абонемент которых истёк, но ещё находится в состоянии
+     * {@code ACTIVE}, начиная с истёкших раньше всех.
+     * <p>
+     * Выборка идёт по частичному индексу {@code idx_clients_active_expires_at}.
+     * </p>
+     *
+     * @param now   текущий момент
+     * @param limit максимальное количество идентификаторов
+     * @return список идентификаторов клиентов
+     */
+
+    @Query("select c.id from Client c "
+            + "where c.membershipStatus = org.example.fitness_server.model.MembershipStatus.ACTIVE "
+            + "and c.subscriptionExpiresAt <= :now order by c.subscriptionExpiresAt")
+    List<Long> findLapsedMemberIds(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Переводит истёкшие абонементы указанных клиентов в состояние {@code EXPIRED}.
+     * <p>
+     * Условие повторяет {@link #findLapsedMemberIds}, поэтому абонемент, продлённый между выборкой
+     * идентификаторов и обновлением, не изменяется. Версия записи увеличивается, чтобы изменение
+     * клиента, загруженного до обновления, завершилось конфликтом версий, а не вернуло прежнее состояние.
+     * </p>
+     *
+     * @param ids идентификаторы клиентов
+     * @param now текущий момент
+     * @return количество изменённых строк
+     */
+
+    @Modifying
+    @Query("update Client c set c.membershipStatus = org.example.fitness_server.model.MembershipStatus.EXPIRED, "
+            + "c.version = c.version + 1, c.lastModified = :now "
+            + "where c.id in :ids "
+            + "and c.membershipStatus = org.example.fitness_server.model.MembershipStatus.ACTIVE "
+            + "and c.subscriptionExpiresAt <= :now")
+    int expireMembers(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Ищет клиентов по части имени, имени пользователя или телефона.
+     * <p>
+     * Имя сравнивается в нижнем регистре с заменой «ё» на «е», имя пользователя — в нижнем регистре,
+     * телефон — по цифрам в формате E.164 ({@code phone_normalized}), поэтому не зависит от того,
+     * как номер был введён. В PostgreSQL условия {@code like} с шаблоном {@code %...%} обслуживаются
+     * триграммными индексами {@code idx_clients_name_trgm}, {@code idx_users_username_trgm}
+     * и {@code idx_clients_phone_normalized_trgm} (расширение {@code pg_trgm}), которые создаёт
+     * {@code SearchIndexInitializer}. Результаты упорядочены по релевантности: сначала имена,
+     * начинающиеся с запроса, затем имена, в которых с запроса начинается одно из слов,
+     * затем остальные совпадения; внутри группы — по имени и идентификатору.
+     * </p>
+     *
+     * @param pattern           шаблон {@code like} для нормализованного имени и имени пользователя
+     * @param prefix            шаблон начала имени
+     * @param wordPrefix        шаблон начала слова в имени
+     * @param phonePattern      шаблон {@code like} для телефона в формате E.164 или {@code null},
+     *                          если запрос содержит меньше трёх цифр
+     * @param localPhonePattern шаблон {@code like} для телефона по цифрам запроса без кода страны
+     *                          ({@code 8} или {@code 7}) или {@code null}
+     * @param limit             максимальное количество строк
+     * @return список объектов {@code ClientSummary}
+     */
+
+    @Query("select new org.example.fitness_server.dto.ClientSummary("
+            + "c.id, c.name, c.phone, u.username, s.id, s.type, t.id, t.name) "
+            + "from Client c left join c.user u left join c.subscription s left join c.trainer t "
+            + "where replace(lower(c.name), 'ё', 'е') like :pattern escape '\\' "
+            + "or lower(u.username) like :pattern escape '\\' "
+            + "or c.phoneNormalized like :phonePattern "
+            + "or c.phoneNormalized like :localPhonePattern "
+            + "order by case when replace(lower(c.name), 'ё', 'е') like :prefix escape '\\' then 0 "
+            + "when replace(lower(c.name), 'ё', 'е') like :wordPrefix escape '\\' then 1 else 2 end, "
+            + "c.name, c.id")
+    List<ClientSummary> searchSummaries(@Param("pattern") String pattern, @Param("prefix") String prefix,
+                                        @Param("wordPrefix") String wordPrefix,
+                                        @Param("phonePattern") String phonePattern,
+                                        @Param("localPhonePattern") String localPhonePattern, Limit limit);
+
+    /**
+     * Подсчитывает клиентов на каждом абонементе одним агрегирующим запросом.
+     * <p>
+     * Клиенты без абонемента не учитываются.
+     * </p>
+     *
+     * @return список пар «идентификатор абонемента — количество клиентов»
+     */
+
+    @Query("select new org.example.fitness_server.dto.GroupCount(c.subscription.id, count(c)) "
+            + "from Client c where c.subscription is not null group by c.subscription.id")
+    List<GroupCount> countClientsPerSubscription();
+
+    /**
+     * Подсчитывает клиентов у каждого тренера одним агрегирующим запросом.
+     * <p>
+     * Клиенты без тренера не учитываются.
+     * </p>
+     *
+     * @return список пар «идентификатор тренера — количество клиентов»
+     */
+
+    @Query("select new org.example.fitness_server.dto.GroupCount(c.trainer.id, count(c)) "
+            + "from Client c where c.trainer is not null group by c.trainer.id")
+    List<GroupCount> countClientsPerTrainer();
+
+    /**
+     * Вычисляет количество клиентов, клиентов без тренера и без абонемента, а также выручку
+     * по прейскуранту одним агрегирующим запросом.
+     *
+     * @return агрегаты по клиентам
+     */
+
+    @Query("select new org.example.fitness_server.dto.ClientStatistics("
+            + "count(c), count(c) - count(c.trainer.id), count(c) - count(s.id), coalesce(sum(s.cost), 0.0)) "
+            + "from Client c left join c.subscription s")
+    ClientStatistics getClientStatistics();
+
+    /**
+     * Подсчитывает клиентов у каждого тренера, включая тренеров без клиентов.
+     * <p>
+     * Тренеры упорядочены по убыванию количества клиентов.
+     * </p>
+     *
+     * @return список тренеров с количеством клиентов
+     */
+
+    @Query("select new org.example.fitness_server.dto.TrainerLoad(t.id, t.name, count(c)) "
+            + "from Trainer t left join Client c on c.trainer = t "
+            + "group by t.id, t.name order by count(c) desc, t.id")
+    List<TrainerLoad> getTrainerLoads();
 }
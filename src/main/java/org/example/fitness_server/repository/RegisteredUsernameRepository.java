@@ -0,0 +1,62 @@
+package org.example.fitness_server.repository;
+
+import org.example.fitness_server.model.RegisteredUsername;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Репозиторий для работы с реестром занятых имён пользователей.
+ * <p>
+ * Этот интерфейс расширяет {@code JpaRepository}, предоставляя стандартные методы
+ * для операций CRUD с сущностью {@code RegisteredUsername}, а также методы для проверки
+ * занятости имени без загрузки сущностей и для освобождения имени.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public interface RegisteredUsernameRepository extends JpaRepository<RegisteredUsername, Long> {
+
+    /**
+     * Проверяет, занято ли имя пользователя.
+     * <p>
+     * Выполняет один запрос по уникальному индексу и не загружает сущность.
+     * </p>
+     *
+     * @param username имя пользователя для проверки
+     * @return {@code true}, если имя уже зарегистрировано
+     */
+
+    boolean existsByUsername(String username);
+
+    /**
+     * Освобождает имя пользователя, удаляя его из реестра.
+     *
+     * @param username имя пользователя для освобождения
+     * @return количество удалённых записей
+     */
+
+    @Modifying
+    @Query("delete from RegisteredUsername r where r.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    /**
+     * Возвращает те имена из переданного набора, которые уже заняты.
+     * <p>
+     * Проверяет весь набор одним запросом по уникальному индексу вместо отдельного запроса на каждое имя.
+     * </p>
+     *
+     * @param usernames проверяемые имена пользователей
+     * @return множество занятых имён
+     */
+
+    @Query("select r.username from RegisteredUsername r where r.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+}
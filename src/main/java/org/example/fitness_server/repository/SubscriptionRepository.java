@@ -1,7 +1,16 @@
 package org.example.fitness_server.repository;
 
+import org.example.fitness_server.dto.CostCount;
+import org.example.fitness_server.dto.SubscriptionCostStatistics;
 import org.example.fitness_server.model.Subscription;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
 
 /**
  * Репозиторий для работы с абонементами в приложении фитнес-клуба.
@@ -16,4 +25,38 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+
+    /**
+     * Возвращает все абонементы.
+     * <p>
+     * Результат кэшируется в кэше запросов Hibernate и сбрасывается при любом изменении
+     * таблицы {@code subscriptions}.
+     * </p>
+     *
+     * @return список всех абонементов
+     */
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Subscription> findAll();
+
+    /**
+     * Подсчитывает абонементы с каждой стоимостью одним агрегирующим запросом.
+     *
+     * @return список пар «стоимость — количество абонементов»
+     */
+
+    @Query("select new org.example.fitness_server.dto.CostCount(s.cost, count(s)) from Subscription s group by s.cost")
+    List<CostCount> countSubscriptionsPerCost();
+
+    /**
+     * Вычисляет количество, среднюю, минимальную и максимальную стоимость абонементов
+     * одним агрегирующим запросом без загрузки сущностей.
+     *
+     * @return агрегаты стоимости абонементов
+     */
+
+    @Query("select new org.example.fitness_server.dto.SubscriptionCostStatistics("
+            + "count(s), avg(s.cost), min(s.cost), max(s.cost)) from Subscription s")
+    SubscriptionCostStatistics getCostStatistics();
 }
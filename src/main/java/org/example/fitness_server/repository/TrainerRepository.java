@@ -1,9 +1,19 @@
 package org.example.fitness_server.repository;
 
 import org.example.fitness_server.model.Trainer;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
 
 /**
  * Репозиторий для работы с данными тренеров фитнес-клуба.
@@ -13,6 +23,10 @@ import java.util.Optional;
  * для поиска тренера по имени пользователя. Все операции выполняются над таблицей
  * {@code trainers} в базе данных.
  * </p>
+ * <p>
+ * Имя пользователя хранится в учётной записи {@code User}, поэтому запросы, возвращающие
+ * тренеров, сразу соединяют их с таблицей {@code users} по уникальному индексу {@code user_id}.
+ * </p>
  *
  * @author Милана
  * @version 1.0
@@ -21,16 +35,79 @@ import java.util.Optional;
 
 public interface TrainerRepository extends JpaRepository<Trainer, Long> {
 
+    /**
+     * Возвращает всех тренеров вместе с учётными записями.
+     * <p>
+     * Результат хранится в кэше запросов Hibernate, а сами тренеры — в кэше второго уровня,
+     * поэтому повторные вызовы не обращаются к базе данных, пока таблица {@code trainers}
+     * не изменится.
+     * </p>
+     *
+     * @return список всех тренеров
+     */
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select t from Trainer t join fetch t.user")
+    List<Trainer> findAll();
+
+    /**
+     * Находит тренера по идентификатору вместе с учётной записью.
+     *
+     * @param id идентификатор тренера
+     * @return объект {@code Optional}, содержащий тренера, если он найден, или пустой, если не найден
+     */
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Trainer> findById(Long id);
+
     /**
      * Находит тренера по указанному имени пользователя.
      * <p>
      * Метод возвращает объект {@code Optional}, содержащий тренера, если он найден,
      * или пустой {@code Optional}, если тренер с таким именем пользователя отсутствует.
+     * Тренер находится одним соединением с учётной записью по уникальным индексам
+     * {@code users.username} и {@code trainers.user_id}.
      * </p>
      *
      * @param username имя пользователя для поиска
      * @return {@code Optional} с объектом {@code Trainer} или пустой {@code Optional}
      */
 
-    Optional<Trainer> findByUsername(String username);
-}
\ No newline at end of file
+    @Query("select t from Trainer t join fetch t.user u where u.username = :username")
+    Optional<Trainer> findByUsername(@Param("username") String username);
+
+    /**
+     * Находит идентификатор тренера по имени пользователя без загрузки сущности.
+     *
+     * @param username имя пользователя для поиска
+     * @return {@code Optional} с идентификатором тренера или пустой {@code Optional}
+     */
+
+    @Query("select t.id from Trainer t join t.user u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Возвращает те идентификаторы из переданного набора, для которых существуют тренеры.
+     *
+     * @param ids проверяемые идентификаторы
+     * @return множество существующих идентификаторов
+     */
+
+    @Query("select t.id from Trainer t where t.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает количество клиентов тренера, если тренер существует.
+     * <p>
+     * Проверка существования и подсчёт выполняются одним запросом.
+     * </p>
+     *
+     * @param id идентификатор тренера
+     * @return {@code Optional} с количеством клиентов или пустой {@code Optional}, если тренер не найден
+     */
+
+    @Query("select (select count(c) from Client c where c.trainer.id = t.id) from Trainer t where t.id = :id")
+    Optional<Long> countClientsById(@Param("id") long id);
+}
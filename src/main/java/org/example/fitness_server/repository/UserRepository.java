@@ -2,6 +2,9 @@ package org.example.fitness_server.repository;
 
 import org.example.fitness_server.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -28,4 +31,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
 
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * Заменяет хеш пароля пользователя, если пароль не менялся с момента чтения.
+     * <p>
+     * Используется при перешифровании пароля после входа: если пароль успели изменить,
+     * новое значение не перезаписывается старым паролем.
+     * </p>
+     *
+     * @param username    имя пользователя
+     * @param oldPassword хеш пароля, прочитанный при аутентификации
+     * @param newPassword новый хеш того же пароля
+     * @return количество изменённых строк (0 или 1)
+     */
+
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.username = :username and u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("username") String username, @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+}
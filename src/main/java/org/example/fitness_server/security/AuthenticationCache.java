@@ -0,0 +1,160 @@
+package org.example.fitness_server.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.fitness_server.event.CredentialsChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Кэш успешных аутентификаций для HTTP Basic-запросов.
+ * <p>
+ * Ключом записи служит пара из имени пользователя и HMAC-отпечатка предъявленного пароля,
+ * поэтому повторный запрос с теми же учётными данными не обращается ни к базе данных,
+ * ни к {@code BCryptPasswordEncoder}. Ключ HMAC генерируется случайно при старте приложения,
+ * так что отпечатки паролей нельзя сопоставить между узлами или перезапусками.
+ * </p>
+ * <p>
+ * Кэш ограничен по размеру и по времени жизни записи. Записи пользователя удаляются
+ * методом {@link #evict(String)} при смене имени пользователя или пароля, а также при удалении
+ * клиента или тренера, и повторно — после фиксации транзакции по событию {@code CredentialsChangedEvent}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Component
+public class AuthenticationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<CacheKey, Authentication> cache;
+    private final SecretKeySpec fingerprintKey;
+
+    /**
+     * Конструктор для создания экземпляра {@code AuthenticationCache}.
+     *
+     * @param maximumSize максимальное количество записей в кэше
+     * @param timeToLive  время жизни записи с момента добавления
+     */
+
+    public AuthenticationCache(@Value("${fitness.security.auth-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${fitness.security.auth-cache.time-to-live:5m}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.fingerprintKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Возвращает ранее сохранённую аутентификацию для указанных учётных данных.
+     *
+     * @param username    имя пользователя
+     * @param rawPassword предъявленный пароль в открытом виде
+     * @return сохранённый объект {@code Authentication} или {@code null}, если записи нет
+     */
+
+    public Authentication get(String username, String rawPassword) {
+        return cache.getIfPresent(new CacheKey(username, fingerprint(rawPassword)));
+    }
+
+    /**
+     * Сохраняет успешную аутентификацию для указанных учётных данных.
+     *
+     * @param username       имя пользователя
+     * @param rawPassword    предъявленный пароль в открытом виде
+     * @param authentication результат успешной аутентификации
+     */
+
+    public void put(String username, String rawPassword, Authentication authentication) {
+        cache.put(new CacheKey(username, fingerprint(rawPassword)), authentication);
+    }
+
+    /**
+     * Удаляет из кэша все записи указанного пользователя.
+     *
+     * @param username имя пользователя
+     */
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.asMap().keySet().removeIf(key -> key.username().equals(username));
+        }
+    }
+
+    /**
+     * Повторно удаляет записи пользователя после фиксации транзакции, изменившей его учётные данные.
+     * <p>
+     * {@link #evict(String)} вызывается внутри транзакции, до её фиксации. Вход, выполненный в этот
+     * промежуток, читает прежний хеш пароля и снова сохраняет аутентификацию в кэше на всё время
+     * жизни записи, поэтому без повторного удаления прежний пароль продолжал бы действовать.
+     * </p>
+     *
+     * @param event событие изменения учётных данных
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(CredentialsChangedEvent event) {
+        evict(event.username());
+    }
+
+    /**
+     * Возвращает количество попаданий в кэш с момента запуска приложения.
+     *
+     * @return количество попаданий
+     */
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Возвращает количество промахов кэша с момента запуска приложения.
+     *
+     * @return количество промахов
+     */
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Возвращает приблизительное количество записей в кэше.
+     *
+     * @return количество записей
+     */
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private String fingerprint(String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(fingerprintKey);
+            byte[] digest = mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось вычислить отпечаток пароля", e);
+        }
+    }
+
+    private record CacheKey(String username, String secretFingerprint) {
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.fitness_server.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Провайдер аутентификации, обращающийся к {@code AuthenticationCache} перед делегатом.
+ * <p>
+ * При попадании в кэш возвращает ранее полученный результат аутентификации без обращения
+ * к базе данных и без проверки BCrypt. При промахе вызывает делегат (обычно
+ * {@code DaoAuthenticationProvider}) и сохраняет успешный результат в кэш.
+ * Неуспешные попытки не кэшируются.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache authenticationCache;
+
+    /**
+     * Конструктор для создания экземпляра {@code CachingAuthenticationProvider}.
+     *
+     * @param delegate            провайдер, выполняющий фактическую проверку учётных данных
+     * @param authenticationCache кэш успешных аутентификаций
+     */
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCache authenticationCache) {
+        this.delegate = delegate;
+        this.authenticationCache = authenticationCache;
+    }
+
+    /**
+     * Выполняет аутентификацию, используя кэш успешных результатов.
+     *
+     * @param authentication запрос на аутентификацию с именем пользователя и паролем
+     * @return аутентифицированный объект {@code Authentication}
+     * @throws AuthenticationException если учётные данные неверны
+     */
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || !(credentials instanceof String rawPassword)) {
+            return delegate.authenticate(authentication);
+        }
+
+        Authentication cached = authenticationCache.get(username, rawPassword);
+        if (cached != null) {
+            return cached;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            authenticationCache.put(username, rawPassword, result);
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, поддерживает ли провайдер указанный тип аутентификации.
+     *
+     * @param authentication тип объекта аутентификации
+     * @return {@code true} для {@code UsernamePasswordAuthenticationToken}
+     */
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication)
+                && delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.fitness_server.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Кодировщик паролей, выполняющий шифрование и проверку в {@code PasswordHashingExecutor}.
+ * <p>
+ * Позволяет передавать кодировщик в {@code DaoAuthenticationProvider}, сервисы и утилиты без
+ * изменений: где именно вычисляется хеш, решает {@code PasswordHashingExecutor}. Шифрование при
+ * заполненной очереди отклоняется исключением {@code PasswordHashingRejectedException}, а проверка
+ * пароля при аутентификации ждёт места в очереди.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class ConfinedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor hashingExecutor;
+
+    /**
+     * Конструктор для создания экземпляра {@code ConfinedPasswordEncoder}.
+     *
+     * @param delegate        кодировщик, выполняющий шифрование и проверку паролей
+     * @param hashingExecutor пул потоков для операций с паролями
+     */
+
+    public ConfinedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor hashingExecutor) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    /**
+     * Шифрует пароль в пуле потоков шифрования.
+     *
+     * @param rawPassword пароль в открытом виде
+     * @return зашифрованный пароль
+     * @throws org.example.fitness_server.exception.PasswordHashingRejectedException если очередь заполнена
+     */
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.call(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Проверяет пароль в пуле потоков шифрования, при заполненной очереди ожидая в ней места.
+     *
+     * @param rawPassword     пароль в открытом виде
+     * @param encodedPassword зашифрованный пароль
+     * @return {@code true}, если пароль совпадает
+     * @throws AuthenticationServiceException если место в очереди не освободилось вовремя
+     */
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.callOrWait(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Проверяет, нужно ли перешифровать пароль. Выполняется в вызывающем потоке: хеш не вычисляется.
+     *
+     * @param encodedPassword зашифрованный пароль
+     * @return {@code true}, если пароль следует перешифровать
+     */
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.fitness_server.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Утилитный класс для создания кодировщика паролей и распознавания зашифрованных паролей.
+ * <p>
+ * Кодировщик строится на {@code DelegatingPasswordEncoder}: хеш хранится с префиксом алгоритма,
+ * например {@code {bcrypt}$2a$12$...}, поэтому алгоритм и стоимость BCrypt можно менять
+ * без сброса паролей. Новые пароли шифруются алгоритмом {@code encodeId}; хеши без префикса,
+ * сохранённые до перехода на префиксы, проверяются как BCrypt и считаются требующими
+ * перешифрования.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public final class PasswordEncoders {
+
+    /**
+     * Идентификатор BCrypt.
+     */
+
+    public static final String BCRYPT = "bcrypt";
+
+    /**
+     * Идентификатор PBKDF2 с параметрами Spring Security 5.8.
+     */
+
+    public static final String PBKDF2 = "pbkdf2@SpringSecurity_v5_8";
+
+    private static final Pattern PREFIXED = Pattern.compile("^\\{([^{}]+)}(.+)$", Pattern.DOTALL);
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./0-9A-Za-z]{53}$");
+    // Соль 16 байт и хеш 32 байта в шестнадцатеричной записи
+    private static final Pattern PBKDF2_HASH = Pattern.compile("^[0-9a-f]{96}$");
+    private static final Map<String, Pattern> HASH_FORMATS = Map.of(
+            BCRYPT, BCRYPT_HASH,
+            PBKDF2, PBKDF2_HASH);
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * Создаёт кодировщик паролей с поддержкой всех известных алгоритмов.
+     *
+     * @param encodeId       идентификатор алгоритма для шифрования новых паролей
+     * @param bcryptStrength целевая стоимость BCrypt (от 4 до 31)
+     * @return кодировщик паролей
+     * @throws IllegalArgumentException если алгоритм неизвестен или стоимость вне допустимого диапазона
+     */
+
+    public static DelegatingPasswordEncoder create(String encodeId, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(encodeId)) {
+            throw new IllegalArgumentException("Неизвестный алгоритм шифрования паролей: " + encodeId
+                    + ". Допустимые значения: " + encoders.keySet());
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodeId, encoders);
+        // Хеши без префикса сохранены BCrypt до перехода на DelegatingPasswordEncoder
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Проверяет, является ли значение уже зашифрованным паролем.
+     * <p>
+     * Зашифрованным считается значение с префиксом известного алгоритма ({@code {bcrypt}},
+     * {@code {pbkdf2@SpringSecurity_v5_8}}), за которым следует хеш в формате этого алгоритма,
+     * или хеш BCrypt без префикса любой версии ({@code $2$}, {@code $2a$}, {@code $2b$}, {@code $2y$}).
+     * Значение с префиксом, но с хешем другого формата, например {@code {bcrypt}secret}, считается
+     * паролем в открытом виде.
+     * </p>
+     *
+     * @param value проверяемое значение (может быть {@code null})
+     * @return {@code true}, если значение — зашифрованный пароль
+     */
+
+    public static boolean isEncoded(String value) {
+        if (value == null) {
+            return false;
+        }
+        Matcher prefixed = PREFIXED.matcher(value);
+        if (prefixed.matches()) {
+            Pattern format = HASH_FORMATS.get(prefixed.group(1));
+            return format != null && format.matcher(prefixed.group(2)).matches();
+        }
+        return BCRYPT_HASH.matcher(value).matches();
+    }
+}
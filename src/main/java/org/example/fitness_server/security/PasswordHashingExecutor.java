@@ -0,0 +1,307 @@
+package org.example.fitness_server.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.fitness_server.exception.PasswordHashingRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный пул потоков для шифрования и проверки паролей.
+ * <p>
+ * Вычисление BCrypt занимает процессор на десятки и сотни миллисекунд, поэтому все операции
+ * с паролями выполняются в фиксированном пуле из {@code fitness.security.password-hashing.threads}
+ * платформенных потоков (по умолчанию по числу процессоров) с очередью на
+ * {@code fitness.security.password-hashing.queue-capacity} задач. Всплеск регистраций больше
+ * не занимает потоки Tomcat и носители виртуальных потоков: сверх вместимости очереди
+ * {@link #call(Supplier)} выбрасывает {@code PasswordHashingRejectedException}, и запрос получает
+ * ответ 429 с заголовком {@code Retry-After}. Проверка пароля при аутентификации и пакетный импорт
+ * при заполненной очереди не вычисляют хеш в вызывающем потоке, а ждут места в очереди не дольше
+ * {@code fitness.security.password-hashing.queue-timeout}.
+ * </p>
+ * <p>
+ * Метрики:
+ * <ul>
+ *     <li>{@code fitness.password.hashing.queue} — количество задач в очереди;</li>
+ *     <li>{@code fitness.password.hashing.active} — количество занятых потоков;</li>
+ *     <li>{@code fitness.password.hashing.wait} — время ожидания задачи в очереди;</li>
+ *     <li>{@code fitness.password.hashing.rejected} — количество отказов;</li>
+ *     <li>{@code fitness.password.hashing.fallback} — количество операций, ожидавших места
+ *     в заполненной очереди.</li>
+ * </ul>
+ * Время самого вычисления хеша публикует {@code TimedPasswordEncoder}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Component
+public class PasswordHashingExecutor {
+
+    /**
+     * Признак выполнения операции с паролем в текущем потоке: вложенные операции (например, импорт
+     * через кодировщик паролей) выполняются сразу, без постановки в собственную очередь.
+     */
+
+    private static final ThreadLocal<Boolean> HASHING = ThreadLocal.withInitial(() -> false);
+
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final int queueCapacity;
+    private final Duration queueTimeout;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final Counter fallbackCounter;
+
+    /**
+     * Конструктор для создания экземпляра {@code PasswordHashingExecutor}.
+     *
+     * @param threads       количество потоков пула (0 — по числу процессоров)
+     * @param queueCapacity вместимость очереди задач
+     * @param queueTimeout  наибольшее время ожидания места в заполненной очереди
+     * @param meterRegistry реестр метрик
+     */
+
+    public PasswordHashingExecutor(@Value("${fitness.security.password-hashing.threads:0}") int threads,
+                                   @Value("${fitness.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${fitness.security.password-hashing.queue-timeout:5s}") Duration queueTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.queueTimeout = queueTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("fitness.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Количество задач шифрования паролей в очереди")
+                .register(meterRegistry);
+        Gauge.builder("fitness.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Количество потоков, занятых шифрованием паролей")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("fitness.password.hashing.wait")
+                .description("Время ожидания задачи шифрования паролей в очереди")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("fitness.password.hashing.rejected")
+                .description("Количество отказов из-за заполненной очереди шифрования паролей")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("fitness.password.hashing.fallback")
+                .description("Количество операций с паролями, ожидавших места в заполненной очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет операцию с паролем в пуле и ожидает результат.
+     *
+     * @param task операция шифрования или проверки пароля
+     * @param <T>  тип результата
+     * @return результат операции
+     * @throws PasswordHashingRejectedException если очередь заполнена
+     * @throws IllegalStateException            если ожидание результата было прервано
+     */
+
+    public <T> T call(Supplier<T> task) {
+        if (HASHING.get()) {
+            return task.get();
+        }
+        return await(submit(task));
+    }
+
+    /**
+     * Выполняет операцию с паролем в пуле, а если очередь заполнена — ждёт в ней места.
+     * <p>
+     * Используется для проверки паролей при аутентификации: ответ 429 в фильтре HTTP Basic
+     * выглядел бы для клиента как неверный пароль, а вычисление хеша в вызывающем потоке заняло бы
+     * поток Tomcat или носитель виртуального потока. Если место в очереди не освободилось
+     * за {@code fitness.security.password-hashing.queue-timeout}, аутентификация завершается ошибкой сервиса.
+     * </p>
+     *
+     * @param task операция проверки пароля
+     * @param <T>  тип результата
+     * @return результат операции
+     * @throws AuthenticationServiceException если место в очереди не освободилось вовремя
+     * @throws IllegalStateException          если ожидание результата было прервано
+     */
+
+    public <T> T callOrWait(Supplier<T> task) {
+        if (HASHING.get()) {
+            return task.get();
+        }
+        Future<T> future = submitOrWait(task);
+        if (future == null) {
+            throw new AuthenticationServiceException("Очередь проверки паролей заполнена, повторите попытку позже");
+        }
+        return await(future);
+    }
+
+    /**
+     * Выполняет серию операций с паролями для пакетной обработки и возвращает результаты в том же порядке.
+     * <p>
+     * Одновременно в пуле находится не больше задач серии, чем потоков, поэтому пакетный импорт
+     * не вытесняет из очереди одиночные регистрации. Если очередь всё же заполнена, серия ждёт
+     * в ней места, как и {@link #callOrWait(Supplier)}.
+     * </p>
+     *
+     * @param tasks операции шифрования паролей
+     * @param <T>   тип результата
+     * @return результаты операций
+     * @throws PasswordHashingRejectedException если место в очереди не освободилось вовремя
+     * @throws IllegalStateException            если ожидание результата было прервано
+     */
+
+    public <T> List<T> callAll(List<? extends Supplier<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i >= poolSize) {
+                await(futures.get(i - poolSize));
+            }
+            Future<T> future = submitOrWait(tasks.get(i));
+            if (future == null) {
+                throw new PasswordHashingRejectedException(queueCapacity);
+            }
+            futures.add(future);
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Ставит фоновую операцию с паролем в очередь, если очередь заполнена меньше чем наполовину.
+     * <p>
+     * Используется для необязательной работы (перешифрования паролей после входа): она не должна
+     * вытеснять регистрации и приводить к ответам 429. Если операция не принята, её можно
+     * повторить позже.
+     * </p>
+     *
+     * @param task фоновая операция
+     * @return {@code true}, если операция поставлена в очередь
+     */
+
+    public boolean tryExecute(Runnable task) {
+        if (executor.getQueue().size() >= queueCapacity / 2) {
+            return false;
+        }
+        try {
+            executor.execute(() -> runHere(() -> {
+                task.run();
+                return null;
+            }));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Останавливает пул потоков при завершении работы приложения.
+     */
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> Future<T> submit(Supplier<T> task) {
+        FutureTask<T> future = newTask(task);
+        try {
+            executor.execute(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException(queueCapacity);
+        }
+    }
+
+    /**
+     * Ставит операцию в пул, а если очередь заполнена — ждёт в ней места.
+     *
+     * @return задача или {@code null}, если место не освободилось за {@code queueTimeout}
+     */
+
+    private <T> Future<T> submitOrWait(Supplier<T> task) {
+        FutureTask<T> future = newTask(task);
+        try {
+            executor.execute(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            fallbackCounter.increment();
+        }
+        try {
+            // Очередь заполнена, значит, все потоки пула уже запущены и заберут задачу из очереди
+            if (!executor.isShutdown()
+                    && executor.getQueue().offer(future, queueTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                    && !(executor.isShutdown() && executor.remove(future))) {
+                return future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание очереди шифрования паролей прервано", e);
+        }
+        rejectedCounter.increment();
+        return null;
+    }
+
+    private <T> FutureTask<T> newTask(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        return new FutureTask<>(() -> {
+            waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            return runHere(task);
+        });
+    }
+
+    private static <T> T runHere(Supplier<T> task) {
+        HASHING.set(true);
+        try {
+            return task.get();
+        } finally {
+            HASHING.remove();
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание шифрования пароля прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
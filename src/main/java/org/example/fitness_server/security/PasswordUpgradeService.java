@@ -0,0 +1,122 @@
+package org.example.fitness_server.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fitness_server.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис перешифрования паролей после успешного входа.
+ * <p>
+ * Если хеш пароля пользователя сохранён другим алгоритмом или с меньшей стоимостью BCrypt,
+ * чем задано в {@code fitness.security.password-encoder}, то после успешной проверки пароля
+ * он шифруется заново в фоне, в пуле {@code PasswordHashingExecutor}: ответ на вход
+ * не ждёт второго вычисления хеша. Новый хеш записывается в {@code User} (единственное место
+ * хранения пароля), только если пароль не изменился за это время.
+ * </p>
+ * <p>
+ * Перешифрование необязательно: если пул занят, задача не ставится в очередь и будет
+ * предложена при следующем входе. Результаты публикуются в счётчике
+ * {@code fitness.password.upgrades} с тегом {@code result} ({@code upgraded}, {@code stale},
+ * {@code deferred}, {@code failed}).
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Service
+public class PasswordUpgradeService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Конструктор для создания экземпляра {@code PasswordUpgradeService}.
+     *
+     * @param userRepository      репозиторий для работы с пользователями
+     * @param passwordEncoder     кодировщик паролей для шифрования
+     * @param hashingExecutor     пул потоков для операций с паролями
+     * @param transactionTemplate шаблон транзакций для записи нового хеша
+     * @param meterRegistry       реестр метрик
+     * @param enabled             включено ли перешифрование после входа
+     */
+
+    public PasswordUpgradeService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                  PasswordHashingExecutor hashingExecutor, TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${fitness.security.password-encoder.upgrade-on-login:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Проверяет, нужно ли перешифровать пароль с указанным хешем.
+     *
+     * @param encodedPassword текущий хеш пароля
+     * @return {@code true}, если перешифрование включено и хеш устарел
+     */
+
+    public boolean needsUpgrade(String encodedPassword) {
+        return enabled && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Ставит перешифрование пароля в очередь пула шифрования.
+     * <p>
+     * Для одного имени пользователя одновременно выполняется не больше одной задачи.
+     * </p>
+     *
+     * @param username        имя пользователя
+     * @param rawPassword     проверенный пароль в открытом виде
+     * @param encodedPassword хеш пароля, с которым выполнена проверка
+     */
+
+    public void upgradeInBackground(String username, String rawPassword, String encodedPassword) {
+        if (!inProgress.add(username)) {
+            return;
+        }
+        boolean submitted = hashingExecutor.tryExecute(() -> {
+            try {
+                record(upgrade(username, rawPassword, encodedPassword) ? "upgraded" : "stale");
+            } catch (RuntimeException e) {
+                record("failed");
+                log.warn("Password upgrade failed: username={}", username, e);
+            } finally {
+                inProgress.remove(username);
+            }
+        });
+        if (!submitted) {
+            inProgress.remove(username);
+            record("deferred");
+        }
+    }
+
+    private boolean upgrade(String username, String rawPassword, String encodedPassword) {
+        String upgraded = passwordEncoder.encode(rawPassword);
+        Integer updated = transactionTemplate.execute(status ->
+                userRepository.updatePasswordIfUnchanged(username, encodedPassword, upgraded));
+        return updated != null && updated > 0;
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("fitness.password.upgrades", "result", result).increment();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.fitness_server.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Провайдер аутентификации, перешифровывающий устаревшие хеши паролей после успешного входа.
+ * <p>
+ * Стандартный {@code DaoAuthenticationProvider} с {@code UserDetailsPasswordService} шифрует
+ * пароль заново прямо в потоке запроса, удваивая время входа. Этот провайдер передаёт
+ * перешифрование в {@code PasswordUpgradeService}, который выполняет его в фоне.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordUpgradeService passwordUpgradeService;
+
+    /**
+     * Конструктор для создания экземпляра {@code RehashingAuthenticationProvider}.
+     *
+     * @param passwordEncoder        кодировщик паролей для проверки
+     * @param userDetailsService     сервис для загрузки данных пользователя
+     * @param passwordUpgradeService сервис перешифрования паролей
+     */
+
+    public RehashingAuthenticationProvider(PasswordEncoder passwordEncoder, UserDetailsService userDetailsService,
+                                           PasswordUpgradeService passwordUpgradeService) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.passwordUpgradeService = passwordUpgradeService;
+    }
+
+    /**
+     * Создаёт результат успешной аутентификации и при необходимости ставит перешифрование
+     * пароля в очередь.
+     *
+     * @param principal      аутентифицированный пользователь
+     * @param authentication исходный запрос на аутентификацию
+     * @param user           данные пользователя с текущим хешем пароля
+     * @return аутентифицированный объект {@code Authentication}
+     */
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        if (authentication.getCredentials() instanceof String rawPassword
+                && passwordUpgradeService.needsUpgrade(user.getPassword())) {
+            passwordUpgradeService.upgradeInBackground(user.getUsername(), rawPassword, user.getPassword());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.fitness_server.security;
+
+import org.example.fitness_server.model.Role;
+
+/**
+ * Содержимое подписанного токена доступа или обновления.
+ * <p>
+ * Экземпляры создаются сервисом {@code TokenService} при выпуске токена и при успешной
+ * проверке его подписи.
+ * </p>
+ *
+ * @param type               тип токена ({@code ACCESS} или {@code REFRESH})
+ * @param userId             идентификатор пользователя, которому выдан токен
+ * @param username           имя пользователя, которому выдан токен
+ * @param role               роль пользователя на момент выпуска токена
+ * @param credentialsVersion версия учётных данных пользователя на момент выпуска токена
+ * @param issuedAt           время выпуска токена в секундах с начала эпохи
+ * @param expiresAt          время истечения токена в секундах с начала эпохи
+ * @param tokenId            уникальный идентификатор токена, используемый для отзыва
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public record TokenClaims(TokenType type, long userId, String username, Role role, int credentialsVersion,
+                          long issuedAt, long expiresAt, String tokenId) {
+
+    /**
+     * Тип токена.
+     */
+
+    public enum TokenType {
+
+        /**
+         * Короткоживущий токен доступа, предъявляемый в заголовке {@code Authorization: Bearer}.
+         */
+
+        ACCESS,
+
+        /**
+         * Токен обновления, обмениваемый на новую пару токенов.
+         */
+
+        REFRESH
+    }
+}
@@ -0,0 +1,325 @@
+package org.example.fitness_server.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.example.fitness_server.dto.TokenResponse;
+import org.example.fitness_server.event.CredentialsChangedEvent;
+import org.example.fitness_server.model.Role;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис выпуска и проверки подписанных токенов доступа.
+ * <p>
+ * Токен имеет вид {@code <данные>.<подпись>}, где данные — строка в кодировке Base64URL,
+ * а подпись — HMAC-SHA256 от этой строки. Проверка токена сводится к вычислению одной
+ * подписи и не требует обращения к BCrypt. Отозванные токены хранятся в памяти до истечения
+ * срока их действия и удаляются из списка отзыва автоматически.
+ * </p>
+ * <p>
+ * Токен содержит идентификатор пользователя и версию его учётных данных. Версия увеличивается при
+ * смене имени пользователя или пароля, поэтому токены, выпущенные до смены, отклоняются. Текущие
+ * версии пользователей кэшируются на короткое время: к базе данных обращается только проверка,
+ * не нашедшая пользователя в кэше. Запись пользователя удаляется из кэша после фиксации транзакции,
+ * изменившей его учётные данные, а обмен токена обновления всегда сверяется с базой данных.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Service
+public class TokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String FORMAT_VERSION = "v2";
+    private static final String SEPARATOR = "|";
+
+    private final UserRepository userRepository;
+    private final SecretKeySpec signingKey;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+    private final Cache<String, Long> revokedTokens;
+    private final Cache<Long, Credentials> credentials;
+
+    /**
+     * Конструктор для создания экземпляра {@code TokenService}.
+     * <p>
+     * Если секрет не задан, ключ подписи генерируется случайно при старте. В этом случае токены
+     * перестают действовать после перезапуска и не принимаются другими узлами.
+     * </p>
+     *
+     * @param userRepository       репозиторий для работы с пользователями
+     * @param secret               секрет для подписи токенов в кодировке Base64 (может быть пустым)
+     * @param accessTokenTtl       время жизни токена доступа
+     * @param refreshTokenTtl      время жизни токена обновления
+     * @param credentialsCacheSize максимальное количество пользователей в кэше версий учётных данных
+     * @param credentialsCacheTtl  время жизни записи кэша версий учётных данных
+     */
+
+    public TokenService(UserRepository userRepository,
+                        @Value("${fitness.security.token.secret:}") String secret,
+                        @Value("${fitness.security.token.access-token-ttl:15m}") Duration accessTokenTtl,
+                        @Value("${fitness.security.token.refresh-token-ttl:8h}") Duration refreshTokenTtl,
+                        @Value("${fitness.security.token.credentials-cache.maximum-size:10000}") long credentialsCacheSize,
+                        @Value("${fitness.security.token.credentials-cache.time-to-live:30s}") Duration credentialsCacheTtl) {
+        this.userRepository = userRepository;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new RevocationExpiry())
+                .build();
+        this.credentials = Caffeine.newBuilder()
+                .maximumSize(credentialsCacheSize)
+                .expireAfterWrite(credentialsCacheTtl)
+                .build();
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        this.signingKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Выпускает пару токенов доступа и обновления для пользователя.
+     * <p>
+     * В токены записываются идентификатор, имя, роль и текущая версия учётных данных пользователя.
+     * </p>
+     *
+     * @param user пользователь, которому выдаются токены
+     * @return ответ с токеном доступа, токеном обновления и временем жизни токена доступа
+     */
+
+    public TokenResponse issueTokens(User user) {
+        long now = Instant.now().getEpochSecond();
+        String accessToken = sign(new TokenClaims(TokenClaims.TokenType.ACCESS, user.getId(), user.getUsername(),
+                user.getRole(), user.getCredentialsVersion(), now, now + accessTokenTtl.toSeconds(),
+                UUID.randomUUID().toString()));
+        String refreshToken = sign(new TokenClaims(TokenClaims.TokenType.REFRESH, user.getId(), user.getUsername(),
+                user.getRole(), user.getCredentialsVersion(), now, now + refreshTokenTtl.toSeconds(),
+                UUID.randomUUID().toString()));
+        return new TokenResponse(accessToken, refreshToken, "Bearer", accessTokenTtl.toSeconds());
+    }
+
+    /**
+     * Проверяет токен доступа и возвращает его содержимое.
+     * <p>
+     * Версия учётных данных из токена сверяется с кэшированной версией пользователя; при промахе
+     * кэша пользователь загружается из базы данных.
+     * </p>
+     *
+     * @param token токен доступа
+     * @return содержимое токена
+     * @throws BadCredentialsException если подпись неверна, токен истёк, отозван, имеет другой тип
+     *                                 или учётные данные пользователя изменились после его выпуска
+     */
+
+    public TokenClaims verifyAccessToken(String token) {
+        TokenClaims claims = verify(token, TokenClaims.TokenType.ACCESS);
+        Credentials current = credentials.get(claims.userId(),
+                userId -> userRepository.findById(userId).map(Credentials::of).orElse(null));
+        checkCredentials(claims, current);
+        return claims;
+    }
+
+    /**
+     * Обменивает токен обновления на новую пару токенов.
+     * <p>
+     * Предъявленный токен обновления отзывается. Пользователь перечитывается из базы данных по
+     * идентификатору из токена, минуя кэш, поэтому удалённый пользователь или пользователь, сменивший
+     * имя или пароль после выпуска токена, не сможет продлить сессию.
+     * </p>
+     *
+     * @param refreshToken токен обновления
+     * @return новая пара токенов
+     * @throws BadCredentialsException если токен недействителен, пользователь больше не существует
+     *                                 или его учётные данные изменились после выпуска токена
+     */
+
+    public TokenResponse refresh(String refreshToken) {
+        TokenClaims claims = verify(refreshToken, TokenClaims.TokenType.REFRESH);
+        User user = userRepository.findById(claims.userId()).orElse(null);
+        checkCredentials(claims, user == null ? null : Credentials.of(user));
+        revoke(claims);
+        return issueTokens(user);
+    }
+
+    /**
+     * Отзывает токен до истечения срока его действия.
+     * <p>
+     * Недействительные токены игнорируются.
+     * </p>
+     *
+     * @param token токен доступа или обновления
+     */
+
+    public void revoke(String token) {
+        TokenClaims claims = parse(token);
+        if (claims != null) {
+            revoke(claims);
+        }
+    }
+
+    /**
+     * Возвращает количество отозванных, но ещё не истёкших токенов.
+     *
+     * @return размер списка отзыва
+     */
+
+    public long getRevokedTokenCount() {
+        revokedTokens.cleanUp();
+        return revokedTokens.estimatedSize();
+    }
+
+    /**
+     * Удаляет из кэша версию учётных данных пользователя после фиксации транзакции, изменившей их.
+     * <p>
+     * Следующая проверка токена этого пользователя прочитает новую версию из базы данных и отклонит
+     * токены, выпущенные до изменения.
+     * </p>
+     *
+     * @param event событие изменения учётных данных
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(CredentialsChangedEvent event) {
+        if (event.userId() != null) {
+            credentials.invalidate(event.userId());
+        }
+    }
+
+    private void revoke(TokenClaims claims) {
+        revokedTokens.put(claims.tokenId(), claims.expiresAt());
+    }
+
+    private void checkCredentials(TokenClaims claims, Credentials current) {
+        if (current == null) {
+            throw new BadCredentialsException("Пользователь не найден: " + claims.username());
+        }
+        if (current.version() != claims.credentialsVersion() || !current.username().equals(claims.username())) {
+            throw new BadCredentialsException("Учётные данные пользователя изменились после выпуска токена");
+        }
+    }
+
+    private TokenClaims verify(String token, TokenClaims.TokenType expectedType) {
+        TokenClaims claims = parse(token);
+        if (claims == null) {
+            throw new BadCredentialsException("Недействительный токен");
+        }
+        if (claims.type() != expectedType) {
+            throw new BadCredentialsException("Неверный тип токена");
+        }
+        if (claims.expiresAt() <= Instant.now().getEpochSecond()) {
+            throw new BadCredentialsException("Срок действия токена истёк");
+        }
+        if (revokedTokens.getIfPresent(claims.tokenId()) != null) {
+            throw new BadCredentialsException("Токен отозван");
+        }
+        return claims;
+    }
+
+    private String sign(TokenClaims claims) {
+        String payload = String.join(SEPARATOR, FORMAT_VERSION, claims.type().name(),
+                Long.toString(claims.userId()), claims.username(), claims.role().name(),
+                Integer.toString(claims.credentialsVersion()), Long.toString(claims.issuedAt()),
+                Long.toString(claims.expiresAt()), claims.tokenId());
+        String encodedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(encodedPayload));
+    }
+
+    private TokenClaims parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        String encodedPayload = token.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, hmac(encodedPayload))) {
+                return null;
+            }
+            String payload = new String(Base64.getUrlDecoder().decode(encodedPayload), StandardCharsets.UTF_8);
+            String[] parts = payload.split("\\" + SEPARATOR, -1);
+            if (parts.length != 9 || !FORMAT_VERSION.equals(parts[0])) {
+                return null;
+            }
+            return new TokenClaims(TokenClaims.TokenType.valueOf(parts[1]), Long.parseLong(parts[2]), parts[3],
+                    Role.valueOf(parts[4]), Integer.parseInt(parts[5]), Long.parseLong(parts[6]),
+                    Long.parseLong(parts[7]), parts[8]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] hmac(String data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось вычислить подпись токена", e);
+        }
+    }
+
+    /**
+     * Политика истечения записей списка отзыва: каждый отозванный токен хранится ровно до истечения
+     * срока его действия.
+     */
+
+    private static final class RevocationExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Long expiresAt, long currentTime) {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, expiresAt - Instant.now().getEpochSecond()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Long expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Имя пользователя и версия его учётных данных, с которыми сверяются токены.
+     *
+     * @param username имя пользователя
+     * @param version  версия учётных данных
+     */
+
+    private record Credentials(String username, int version) {
+
+        static Credentials of(User user) {
+            return new Credentials(user.getUsername(), user.getCredentialsVersion());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.fitness_server.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.fitness_server.dto.CacheRegionMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сервис показателей кэша второго уровня и кэша запросов Hibernate.
+ * <p>
+ * Показатели берутся из статистики {@code SessionFactory}, которая собирается при включённом
+ * свойстве {@code hibernate.generate_statistics}. Регионы сущностей называются по именам классов
+ * ({@code org.example.fitness_server.model.Subscription}, {@code ...Trainer}), результаты
+ * кэшируемых запросов хранятся в регионе {@code default-query-results-region}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Service
+public class CacheStatisticsService {
+
+    private final Statistics statistics;
+
+    /**
+     * Конструктор для создания экземпляра {@code CacheStatisticsService}.
+     *
+     * @param entityManagerFactory фабрика менеджеров сущностей Hibernate
+     */
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Возвращает показатели всех регионов кэша, упорядоченные по имени региона.
+     *
+     * @return отображение «имя региона — показатели»
+     */
+
+    public Map<String, CacheRegionMetrics> getRegionMetrics() {
+        Map<String, CacheRegionMetrics> metrics = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                metrics.put(region, CacheRegionMetrics.of(regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+            }
+        }
+        return metrics;
+    }
+}
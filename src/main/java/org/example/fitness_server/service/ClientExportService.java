@@ -0,0 +1,146 @@
+package org.example.fitness_server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.annotation.Timed;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.util.CsvWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Сервис потоковой выгрузки всех клиентов в NDJSON и CSV.
+ * <p>
+ * Клиенты читаются одним запросом {@code ClientRepository.streamAllSummaries()} в транзакции
+ * только для чтения и сразу записываются в выходной поток, поэтому в памяти одновременно
+ * находится не больше одной порции курсора. Каждые {@value #FLUSH_EVERY} строк поток
+ * сбрасывается, чтобы получатель начинал обработку, не дожидаясь окончания выгрузки.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Timed(value = "fitness.service", histogram = true)
+@Service
+public class ClientExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ClientRepository clientRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Конструктор для создания экземпляра {@code ClientExportService}.
+     *
+     * @param clientRepository репозиторий для работы с клиентами
+     * @param objectMapper     объект для сериализации строк NDJSON
+     */
+
+    public ClientExportService(ClientRepository clientRepository, ObjectMapper objectMapper) {
+        this.clientRepository = clientRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Записывает всех клиентов в формате NDJSON: по одному объекту {@code ClientSummary} на строку.
+     *
+     * @param out выходной поток (не закрывается)
+     * @throws IOException если произошла ошибка записи
+     */
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        Writer writer = utf8Writer(out);
+        try (Stream<ClientSummary> clients = clientRepository.streamAllSummaries();
+             SequenceWriter sequence = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer)) {
+            long rows = 0;
+            for (Iterator<ClientSummary> it = clients.iterator(); it.hasNext(); ) {
+                sequence.write(it.next());
+                if (++rows % FLUSH_EVERY == 0) {
+                    sequence.flush();
+                }
+            }
+            sequence.flush();
+            if (rows > 0) {
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Записывает всех клиентов в формате CSV с заголовком.
+     *
+     * @param out выходной поток (не закрывается)
+     * @throws IOException если произошла ошибка записи
+     */
+
+    @Transactional(readOnly = true)
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = utf8Writer(out);
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord("id", "name", "phone", "username",
+                "subscriptionId", "subscriptionType", "trainerId", "trainerName");
+        try (Stream<ClientSummary> clients = clientRepository.streamAllSummaries()) {
+            long rows = 0;
+            for (Iterator<ClientSummary> it = clients.iterator(); it.hasNext(); ) {
+                ClientSummary client = it.next();
+                csv.writeRecord(client.id(), client.name(), client.phone(), client.username(),
+                        client.subscriptionId(), client.subscriptionType(), client.trainerId(), client.trainerName());
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static Writer utf8Writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(new NonClosingOutputStream(out), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Обёртка, не закрывающая исходный поток: его закрывает вызывающая сторона.
+     */
+
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        private final OutputStream target;
+
+        private NonClosingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.flush();
+        }
+    }
+}
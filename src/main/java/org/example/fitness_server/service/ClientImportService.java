@@ -0,0 +1,446 @@
+package org.example.fitness_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.example.fitness_server.dto.BulkImportReport;
+import org.example.fitness_server.dto.ClientImportRow;
+import org.example.fitness_server.dto.FieldViolation;
+import org.example.fitness_server.dto.ImportRowError;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.RegisteredUsername;
+import org.example.fitness_server.model.Role;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.PasswordHashingExecutor;
+import org.example.fitness_server.util.CsvReader;
+import org.example.fitness_server.util.Memberships;
+import org.example.fitness_server.util.PhoneNumbers;
+import org.example.fitness_server.util.TextRules;
+import org.example.fitness_server.util.UserEntityValidator;
+import org.example.fitness_server.util.ValidationErrors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Сервис пакетного импорта клиентов из CSV и NDJSON.
+ * <p>
+ * Строки читаются потоково и обрабатываются порциями по {@code fitness.import.chunk-size}.
+ * Для каждой порции:
+ * <ul>
+ *     <li>строки проверяются {@code UserEntityValidator}, телефоны приводятся к формату E.164,
+ *     повторы имён пользователей и телефонов внутри файла отсекаются множествами в памяти;</li>
+ *     <li>занятые имена и телефоны, а также несуществующие абонементы и тренеры определяются
+ *     четырьмя запросами {@code ... in (...)} на всю порцию;</li>
+ *     <li>пароли шифруются один раз на строку параллельно в общем пуле {@code PasswordHashingExecutor};</li>
+ *     <li>записи реестра имён, пользователи и клиенты вставляются в одной транзакции пакетами JDBC,
+ *     что возможно благодаря идентификаторам из последовательностей.</li>
+ * </ul>
+ * Строки с ошибками не прерывают импорт и попадают в отчёт. Перед каждой порцией вызывается
+ * переданный вызывающим кодом обработчик: контроллер увеличивает в нём бюджет SQL-операторов запроса.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Timed(value = "fitness.service", histogram = true)
+@Service
+public class ClientImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "phone", "username", "password");
+
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final RegisteredUsernameRepository registeredUsernameRepository;
+    private final TrainerRepository trainerRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final int chunkSize;
+
+    /**
+     * Конструктор для создания экземпляра {@code ClientImportService}.
+     *
+     * @param clientRepository             репозиторий для работы с клиентами
+     * @param userRepository               репозиторий для работы с пользователями
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
+     * @param trainerRepository            репозиторий для работы с тренерами
+     * @param subscriptionRepository       репозиторий для работы с абонементами
+     * @param passwordEncoder              кодировщик паролей для шифрования
+     * @param hashingExecutor              пул потоков для шифрования паролей
+     * @param transactionTemplate          шаблон транзакций для сохранения порций
+     * @param eventPublisher               публикатор событий изменения клиентов
+     * @param objectMapper                 объект для разбора строк NDJSON
+     * @param chunkSize                    количество строк в одной порции
+     */
+
+    public ClientImportService(ClientRepository clientRepository, UserRepository userRepository,
+                               RegisteredUsernameRepository registeredUsernameRepository,
+                               TrainerRepository trainerRepository, SubscriptionRepository subscriptionRepository,
+                               PasswordEncoder passwordEncoder, PasswordHashingExecutor hashingExecutor,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                               @Value("${fitness.import.chunk-size:1000}") int chunkSize) {
+        this.clientRepository = clientRepository;
+        this.userRepository = userRepository;
+        this.registeredUsernameRepository = registeredUsernameRepository;
+        this.trainerRepository = trainerRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Импортирует клиентов из CSV.
+     * <p>
+     * Первая запись — заголовок. Обязательные столбцы: {@code name}, {@code phone}, {@code username},
+     * {@code password}; необязательные: {@code subscriptionId}, {@code trainerId}. Порядок столбцов
+     * и регистр их имён не важны.
+     * </p>
+     *
+     * @param reader  источник данных CSV
+     * @param onChunk обработчик, вызываемый перед сохранением каждой порции
+     * @return отчёт об импорте
+     * @throws IOException              если произошла ошибка чтения
+     * @throws IllegalArgumentException если в заголовке нет обязательного столбца
+     */
+
+    public BulkImportReport importCsv(Reader reader, Runnable onChunk) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        ImportSession session = new ImportSession(onChunk);
+        if (header == null) {
+            return session.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("﻿", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("В заголовке CSV нет столбца " + column + ".");
+            }
+        }
+
+        long row = 0;
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            row++;
+            String username = column(record, columns, "username");
+            ValidationErrors errors = new ValidationErrors();
+            Long subscriptionId = parseId(column(record, columns, "subscriptionid"), "subscriptionId", errors);
+            Long trainerId = parseId(column(record, columns, "trainerid"), "trainerId", errors);
+            if (errors.hasErrors()) {
+                session.rejectUnread(row, username, errors.getViolations());
+                continue;
+            }
+            session.add(row, new ClientImportRow(column(record, columns, "name"), column(record, columns, "phone"),
+                    username, column(record, columns, "password"), subscriptionId, trainerId));
+        }
+        return session.finish();
+    }
+
+    /**
+     * Импортирует клиентов из NDJSON: по одному объекту {@code ClientImportRow} на строку.
+     * <p>
+     * Пустые строки пропускаются, некорректный JSON попадает в отчёт как ошибка строки.
+     * </p>
+     *
+     * @param reader  источник данных NDJSON
+     * @param onChunk обработчик, вызываемый перед сохранением каждой порции
+     * @return отчёт об импорте
+     * @throws IOException если произошла ошибка чтения
+     */
+
+    public BulkImportReport importNdjson(Reader reader, Runnable onChunk) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        ImportSession session = new ImportSession(onChunk);
+        long row = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            row++;
+            if (TextRules.isBlank(line)) {
+                continue;
+            }
+            try {
+                session.add(row, objectMapper.readValue(line, ClientImportRow.class));
+            } catch (JsonProcessingException e) {
+                session.rejectUnread(row, null, List.of(new FieldViolation("row",
+                        "Некорректная строка JSON: " + e.getOriginalMessage())));
+            }
+        }
+        return session.finish();
+    }
+
+    private void processChunk(List<PendingRow> chunk, ImportSession session) {
+        session.onChunk.run();
+        // Проверка полей и повторов внутри файла
+        List<PendingRow> candidates = new ArrayList<>(chunk.size());
+        Set<Long> subscriptionIds = new HashSet<>();
+        Set<Long> trainerIds = new HashSet<>();
+        for (PendingRow pending : chunk) {
+            ValidationErrors errors = pending.errors;
+            UserEntityValidator.validateUserEntity(pending.client, "клиента", true, errors);
+            String phone = PhoneNumbers.normalize(pending.client.getPhone());
+            if (TextRules.isBlank(pending.client.getPhone())) {
+                errors.reject("phone", "Телефон не может быть пустым.");
+            } else if (phone == null) {
+                errors.reject("phone", "Некорректный номер телефона.");
+            } else if (!session.seenPhones.add(phone)) {
+                errors.reject("phone", "Телефон повторяется в файле.");
+            }
+            pending.client.setPhoneNormalized(phone);
+            String username = pending.client.getUsername();
+            if (username != null && TextRules.isUsername(username) && !session.seenUsernames.add(username)) {
+                errors.reject("username", "Имя пользователя повторяется в файле.");
+            }
+            if (errors.hasErrors()) {
+                session.reject(pending.row, username, errors.getViolations());
+                continue;
+            }
+            candidates.add(pending);
+            if (pending.subscriptionId != null) {
+                subscriptionIds.add(pending.subscriptionId);
+            }
+            if (pending.trainerId != null) {
+                trainerIds.add(pending.trainerId);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Проверка по базе данных: по одному запросу на порцию
+        Set<String> takenUsernames = registeredUsernameRepository.findExistingUsernames(
+                candidates.stream().map(pending -> pending.client.getUsername()).toList());
+        Set<String> takenPhones = clientRepository.findExistingPhones(
+                candidates.stream().map(pending -> pending.client.getPhoneNormalized()).toList());
+        Map<Long, Integer> subscriptionDurations = new HashMap<>();
+        if (!subscriptionIds.isEmpty()) {
+            subscriptionRepository.findAllById(subscriptionIds).forEach(subscription ->
+                    subscriptionDurations.put(subscription.getId(), subscription.getDurationDays()));
+        }
+        Set<Long> existingTrainers = trainerIds.isEmpty() ? Set.of() : trainerRepository.findExistingIds(trainerIds);
+
+        List<PendingRow> accepted = new ArrayList<>(candidates.size());
+        Instant now = Instant.now();
+        for (PendingRow pending : candidates) {
+            if (takenUsernames.contains(pending.client.getUsername())) {
+                pending.errors.reject("username", "Имя пользователя уже занято.");
+            }
+            if (takenPhones.contains(pending.client.getPhoneNormalized())) {
+                pending.errors.reject("phone", "Телефон уже используется другим клиентом.");
+            }
+            if (pending.subscriptionId != null && !subscriptionDurations.containsKey(pending.subscriptionId)) {
+                pending.errors.reject("subscriptionId", "Абонемент с ID " + pending.subscriptionId + " не найден.");
+            }
+            if (pending.trainerId != null && !existingTrainers.contains(pending.trainerId)) {
+                pending.errors.reject("trainerId", "Тренер с ID " + pending.trainerId + " не найден.");
+            }
+            if (pending.errors.hasErrors()) {
+                session.reject(pending.row, pending.client.getUsername(), pending.errors.getViolations());
+            } else {
+                if (pending.subscriptionId != null) {
+                    Memberships.activate(pending.client, subscriptionDurations.get(pending.subscriptionId), now);
+                }
+                accepted.add(pending);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Шифрование паролей: один раз на строку, параллельно в общем пуле
+        List<String> hashes = hashingExecutor.callAll(accepted.stream()
+                .<Supplier<String>>map(pending -> () -> passwordEncoder.encode(pending.client.getPassword()))
+                .toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).client.setPassword(hashes.get(i));
+        }
+
+        // Пакетная вставка в одной транзакции
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(accepted));
+            session.imported += accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // Имя или телефон строки порции заняты параллельным запросом: сохраняем строки по одной
+            persistRowByRow(accepted, session);
+        }
+    }
+
+    private void persistRowByRow(List<PendingRow> accepted, ImportSession session) {
+        for (PendingRow pending : accepted) {
+            // Идентификаторы, выданные в откаченной транзакции, не должны попасть в повторную вставку
+            pending.client.setId(null);
+            pending.client.setVersion(null);
+            // Каждая повторная вставка — отдельная порция из одной строки
+            session.onChunk.run();
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(pending)));
+                session.imported++;
+            } catch (DataIntegrityViolationException e) {
+                session.reject(pending.row, pending.client.getUsername(), List.of(new FieldViolation("username",
+                        "Строка не сохранена: имя пользователя или телефон заняты параллельным запросом.")));
+            }
+        }
+    }
+
+    private void persist(List<PendingRow> accepted) {
+        List<RegisteredUsername> registrations = new ArrayList<>(accepted.size());
+        List<User> users = new ArrayList<>(accepted.size());
+        List<Client> clients = new ArrayList<>(accepted.size());
+        for (PendingRow pending : accepted) {
+            Client client = pending.client;
+            registrations.add(new RegisteredUsername(client.getUsername()));
+
+            User user = new User();
+            user.setUsername(client.getUsername());
+            user.setPassword(client.getPassword());
+            user.setRole(Role.CLIENT);
+            users.add(user);
+            client.setUser(user);
+
+            if (pending.subscriptionId != null) {
+                client.setSubscription(subscriptionRepository.getReferenceById(pending.subscriptionId));
+            }
+            if (pending.trainerId != null) {
+                client.setTrainer(trainerRepository.getReferenceById(pending.trainerId));
+            }
+            clients.add(client);
+        }
+        // Сущности сохраняются по типам, чтобы вставки одной таблицы шли подряд и объединялись в пакеты
+        registeredUsernameRepository.saveAll(registrations);
+        userRepository.saveAll(users);
+        clientRepository.saveAll(clients);
+        clientRepository.flush();
+        clients.forEach(client -> eventPublisher.publishEvent(new ClientChangedEvent(null, ClientState.of(client))));
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Long parseId(String value, String field, ValidationErrors errors) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            errors.reject(field, "Некорректный идентификатор: " + value + ".");
+            return null;
+        }
+    }
+
+    /**
+     * Строка, ожидающая обработки в составе порции.
+     */
+
+    private static final class PendingRow {
+
+        private final long row;
+        private final Client client;
+        private final Long subscriptionId;
+        private final Long trainerId;
+        private final ValidationErrors errors = new ValidationErrors();
+
+        private PendingRow(long row, ClientImportRow source) {
+            this.row = row;
+            this.client = new Client();
+            this.client.setName(source.name());
+            this.client.setPhone(source.phone());
+            this.client.setUsername(source.username());
+            this.client.setPassword(source.password());
+            this.subscriptionId = source.subscriptionId();
+            this.trainerId = source.trainerId();
+        }
+    }
+
+    /**
+     * Состояние одного импорта: текущая порция, уже встреченные имена и телефоны и накопленный отчёт.
+     */
+
+    private final class ImportSession {
+
+        private final Runnable onChunk;
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenPhones = new HashSet<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        private long total;
+        private long imported;
+
+        private ImportSession(Runnable onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        private void add(long row, ClientImportRow source) {
+            total++;
+            chunk.add(new PendingRow(row, source));
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        private void reject(long row, String username, List<FieldViolation> violations) {
+            errors.add(new ImportRowError(row, username, violations));
+        }
+
+        // Строка отклонена при разборе и в порцию не попадёт, поэтому учитывается в total здесь
+        private void rejectUnread(long row, String username, List<FieldViolation> violations) {
+            total++;
+            reject(row, username, violations);
+        }
+
+        private void flushChunk() {
+            if (!chunk.isEmpty()) {
+                List<PendingRow> current = chunk;
+                chunk = new ArrayList<>(chunkSize);
+                processChunk(current, this);
+            }
+        }
+
+        private BulkImportReport finish() {
+            flushChunk();
+            errors.sort((left, right) -> Long.compare(left.row(), right.row()));
+            return new BulkImportReport(total, imported, errors);
+        }
+    }
+}
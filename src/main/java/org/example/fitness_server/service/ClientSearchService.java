@@ -0,0 +1,416 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.dto.ClientSuggestion;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.util.PhoneNumbers;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Сервис поиска клиентов по имени, телефону и имени пользователя.
+ * <p>
+ * Полнотекстовый поиск {@link #search(String, int)} выполняется в базе данных по части имени, имени
+ * пользователя или телефона в формате E.164; в PostgreSQL его обслуживают триграммные индексы,
+ * которые создаёт {@code SearchIndexInitializer}.
+ * </p>
+ * <p>
+ * Автодополнение {@link #suggest(String, int)} отвечает из префиксного индекса в памяти без
+ * обращения к базе данных. Индекс — упорядоченное множество слов имени, имён пользователей и цифр
+ * телефона; поиск по префиксу — диапазон этого множества. Индекс строится одним потоковым
+ * запросом после запуска приложения и затем обновляется инкрементально по событиям
+ * {@code ClientChangedEvent}, которые {@code ClientService} и {@code ClientImportService} публикуют
+ * после фиксации транзакции. Изменения в обход сервисов учитываются при периодической
+ * перестройке ({@code fitness.search.rebuild-interval}); события, пришедшие во время
+ * перестройки, применяются к новому индексу перед его публикацией.
+ * </p>
+ * <p>
+ * Вместе с префиксным индексом поддерживается таблица «телефон в формате E.164 — клиент»,
+ * поэтому поиск клиента по телефону {@link #findByPhone(String)} при входе в клуб обычно
+ * не обращается к базе данных. Если телефона в таблице нет (например, клиент создан другим
+ * экземпляром приложения после последней перестройки), клиент ищется по уникальному индексу
+ * {@code uk_clients_phone_normalized}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Service
+public class ClientSearchService {
+
+    private static final int MIN_SEARCH_LENGTH = 3;
+    private static final int MAX_SCANNED_TOKENS = 1000;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[\\s\\-]+");
+
+    private static final int NAME = 0;
+    private static final int USERNAME = 1;
+    private static final int PHONE = 2;
+
+    private static final Comparator<Token> TOKEN_ORDER = Comparator.comparing(Token::key)
+            .thenComparingLong(Token::clientId)
+            .thenComparingInt(Token::kind);
+    private static final Comparator<Candidate> CANDIDATE_ORDER = Comparator.comparingInt(Candidate::score)
+            .thenComparing(candidate -> candidate.client().name())
+            .thenComparing(candidate -> candidate.client().id());
+
+    private final ClientRepository clientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object lock = new Object();
+    private volatile PrefixIndex index = new PrefixIndex();
+    private List<ClientChangedEvent> pendingEvents;
+
+    /**
+     * Конструктор для создания экземпляра {@code ClientSearchService}.
+     *
+     * @param clientRepository    репозиторий для работы с клиентами
+     * @param transactionTemplate шаблон транзакций для потокового чтения клиентов
+     */
+
+    public ClientSearchService(ClientRepository clientRepository, TransactionTemplate transactionTemplate) {
+        this.clientRepository = clientRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Ищет клиентов по части имени, имени пользователя или телефона в базе данных.
+     * <p>
+     * Имя сравнивается без учёта регистра и различия «ё» и «е», имя пользователя — без учёта
+     * регистра. Телефон сравнивается по цифрам запроса с номером в формате E.164, как полностью,
+     * так и без кода страны ({@code 8} или {@code 7}), как в автодополнении. Первыми идут клиенты,
+     * имя которых начинается с запроса, затем клиенты, у которых с запроса начинается одно из слов имени.
+     * </p>
+     *
+     * @param query строка запроса (не короче трёх символов)
+     * @param limit максимальное количество клиентов
+     * @return список найденных клиентов
+     * @throws IllegalArgumentException если запрос короче трёх символов
+     */
+
+    public List<ClientSummary> search(String query, int limit) {
+        String text = normalize(query);
+        if (text.length() < MIN_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Запрос для поиска должен содержать не менее "
+                    + MIN_SEARCH_LENGTH + " символов.");
+        }
+        String escaped = escapeLike(text);
+        List<String> phoneVariants = phoneVariants(digits(text)).stream()
+                .filter(variant -> variant.length() >= MIN_SEARCH_LENGTH)
+                .map(variant -> "%" + variant + "%")
+                .toList();
+        String phonePattern = phoneVariants.isEmpty() ? null : phoneVariants.get(0);
+        String localPhonePattern = phoneVariants.size() > 1 ? phoneVariants.get(1) : null;
+        return clientRepository.searchSummaries("%" + escaped + "%", escaped + "%", "% " + escaped + "%",
+                phonePattern, localPhonePattern, Limit.of(limit));
+    }
+
+    /**
+     * Возвращает подсказки автодополнения из индекса в памяти.
+     * <p>
+     * Каждое слово запроса должно быть началом слова имени, имени пользователя или номера
+     * телефона клиента. Запрос из цифр и символов {@code +-()} сравнивается с номером телефона
+     * как с полным номером, так и без кода страны ({@code 8} или {@code 7}). Выше ранжируются
+     * совпадения по имени, затем по имени пользователя и по телефону, а полные совпадения слова —
+     * выше совпадений по началу.
+     * </p>
+     *
+     * @param query строка запроса
+     * @param limit максимальное количество подсказок
+     * @return список подсказок, упорядоченный по релевантности
+     */
+
+    public List<ClientSuggestion> suggest(String query, int limit) {
+        PrefixIndex current = index;
+        Map<Long, Integer> scores = null;
+        for (List<String> variants : queryTerms(query)) {
+            Map<Long, Integer> matches = current.match(variants);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+        return scores.entrySet().stream()
+                .map(entry -> new Candidate(current.get(entry.getKey()), entry.getValue()))
+                .filter(candidate -> candidate.client() != null)
+                .sorted(CANDIDATE_ORDER)
+                .limit(limit)
+                .map(Candidate::client)
+                .toList();
+    }
+
+    /**
+     * Находит клиента по номеру телефона.
+     * <p>
+     * Номер приводится к формату E.164, поэтому {@code 8 (987) 654-32-10} и {@code +79876543210}
+     * находят одного и того же клиента.
+     * </p>
+     *
+     * @param phone номер телефона в свободной форме
+     * @return объект {@code Optional} с найденным клиентом или пустой, если клиент не найден
+     * @throws IllegalArgumentException если номер телефона некорректен
+     */
+
+    public Optional<ClientSuggestion> findByPhone(String phone) {
+        String phoneNormalized = PhoneNumbers.normalize(phone);
+        if (phoneNormalized == null) {
+            throw new IllegalArgumentException("Некорректный номер телефона.");
+        }
+        ClientSuggestion client = index.getByPhone(phoneNormalized);
+        if (client != null) {
+            return Optional.of(client);
+        }
+        return clientRepository.findByPhoneNormalized(phoneNormalized)
+                .map(found -> new ClientSuggestion(found.getId(), found.getName(), found.getPhone(),
+                        found.getUsername()));
+    }
+
+    /**
+     * Обновляет индекс автодополнения после создания, изменения или удаления клиента.
+     *
+     * @param event событие изменения клиента
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        synchronized (lock) {
+            apply(index, event);
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        }
+    }
+
+    /**
+     * Перестраивает индекс автодополнения по всем клиентам базы данных.
+     * <p>
+     * Клиенты читаются одним потоковым запросом в новый индекс, пока запросы обслуживает прежний.
+     * События, применённые за время чтения, повторно применяются к новому индексу, после чего
+     * он заменяет прежний.
+     * </p>
+     */
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${fitness.search.rebuild-interval:1h}",
+            initialDelayString = "${fitness.search.rebuild-interval:1h}")
+    public void rebuild() {
+        synchronized (lock) {
+            if (pendingEvents != null) {
+                return;
+            }
+            pendingEvents = new ArrayList<>();
+        }
+
+        PrefixIndex rebuilt = new PrefixIndex();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ClientSummary> clients = clientRepository.streamAllSummaries()) {
+                    clients.forEach(client -> rebuilt.put(new ClientState(client.id(), client.subscriptionId(),
+                            client.trainerId(), client.name(), client.phone(), client.username())));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pendingEvents = null;
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            pendingEvents.forEach(event -> apply(rebuilt, event));
+            pendingEvents = null;
+            index = rebuilt;
+        }
+    }
+
+    private static void apply(PrefixIndex target, ClientChangedEvent event) {
+        if (event.after() != null) {
+            target.put(event.after());
+        } else if (event.before() != null) {
+            target.remove(event.before().id());
+        }
+    }
+
+    private static List<List<String>> queryTerms(String query) {
+        String text = normalize(query);
+        List<List<String>> terms = new ArrayList<>();
+        if (isPhoneQuery(text)) {
+            terms.add(phoneVariants(digits(text)));
+            return terms;
+        }
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (!word.isEmpty()) {
+                terms.add(List.of(word));
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> phoneVariants(String digits) {
+        // Номер, набранный с кодом страны 8 или 7, ищется и без него
+        if (digits.length() > 1 && (digits.charAt(0) == '7' || digits.charAt(0) == '8')) {
+            return List.of(digits, digits.substring(1));
+        }
+        return List.of(digits);
+    }
+
+    private static List<Token> tokens(ClientState client) {
+        List<Token> tokens = new ArrayList<>();
+        if (client.name() != null) {
+            for (String word : WORD_SEPARATOR.split(normalize(client.name()))) {
+                if (!word.isEmpty()) {
+                    tokens.add(new Token(word, client.id(), NAME));
+                }
+            }
+        }
+        if (client.username() != null) {
+            tokens.add(new Token(client.username().toLowerCase(Locale.ROOT), client.id(), USERNAME));
+        }
+        if (client.phone() != null) {
+            String digits = digits(client.phone());
+            if (!digits.isEmpty()) {
+                tokens.add(new Token(digits, client.id(), PHONE));
+            }
+            if (digits.length() > 10) {
+                // Номер без кода страны: ищется и по «8 987...», и по «987...»
+                tokens.add(new Token(digits.substring(digits.length() - 10), client.id(), PHONE));
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private static boolean isPhoneQuery(String text) {
+        boolean hasDigit = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (c != '+' && c != '-' && c != '(' && c != ')' && c != ' ') {
+                return false;
+            }
+        }
+        return hasDigit;
+    }
+
+    private static String digits(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Префиксный индекс: упорядоченное множество слов со ссылками на клиентов
+     * и таблица телефонов в формате E.164.
+     * <p>
+     * Чтение не блокируется и может выполняться одновременно с изменениями,
+     * которые выполняются только под блокировкой сервиса.
+     * </p>
+     */
+
+    private static final class PrefixIndex {
+
+        private final ConcurrentSkipListSet<Token> tokens = new ConcurrentSkipListSet<>(TOKEN_ORDER);
+        private final Map<Long, Indexed> clients = new ConcurrentHashMap<>();
+        private final Map<String, Long> phones = new ConcurrentHashMap<>();
+
+        ClientSuggestion get(Long id) {
+            Indexed indexed = clients.get(id);
+            return indexed != null ? indexed.client() : null;
+        }
+
+        ClientSuggestion getByPhone(String phoneNormalized) {
+            Long id = phones.get(phoneNormalized);
+            return id != null ? get(id) : null;
+        }
+
+        void put(ClientState state) {
+            remove(state.id());
+            List<Token> clientTokens = tokens(state);
+            String phoneNormalized = PhoneNumbers.normalize(state.phone());
+            clients.put(state.id(), new Indexed(
+                    new ClientSuggestion(state.id(), state.name(), state.phone(), state.username()),
+                    clientTokens, phoneNormalized));
+            tokens.addAll(clientTokens);
+            if (phoneNormalized != null) {
+                phones.put(phoneNormalized, state.id());
+            }
+        }
+
+        void remove(Long id) {
+            Indexed indexed = clients.remove(id);
+            if (indexed != null) {
+                indexed.tokens().forEach(tokens::remove);
+                if (indexed.phoneNormalized() != null) {
+                    phones.remove(indexed.phoneNormalized(), id);
+                }
+            }
+        }
+
+        Map<Long, Integer> match(List<String> prefixes) {
+            Map<Long, Integer> matches = new HashMap<>();
+            int scanned = 0;
+            for (String prefix : prefixes) {
+                Token from = new Token(prefix, Long.MIN_VALUE, NAME);
+                Token to = new Token(prefix + Character.MAX_VALUE, Long.MIN_VALUE, NAME);
+                for (Token token : tokens.subSet(from, to)) {
+                    if (++scanned > MAX_SCANNED_TOKENS) {
+                        return matches;
+                    }
+                    int score = token.kind() * 2 + (token.key().length() == prefix.length() ? 0 : 1);
+                    matches.merge(token.clientId(), score, Math::min);
+                }
+            }
+            return matches;
+        }
+    }
+
+    private record Token(String key, long clientId, int kind) {
+    }
+
+    private record Indexed(ClientSuggestion client, List<Token> tokens, String phoneNormalized) {
+    }
+
+    private record Candidate(ClientSuggestion client, int score) {
+    }
+}
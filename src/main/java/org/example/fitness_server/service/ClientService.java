@@ -1,21 +1,42 @@
 package org.example.fitness_server.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.event.CredentialsChangedEvent;
 import org.example.fitness_server.model.Client;
 import org.example.fitness_server.model.Role;
+import org.example.fitness_server.model.Subscription;
 import org.example.fitness_server.model.Trainer;
+import org.example.fitness_server.model.User;
 import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
 import org.example.fitness_server.repository.TrainerRepository;
 import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.example.fitness_server.util.Memberships;
+import org.example.fitness_server.util.PhoneNumbers;
+import org.example.fitness_server.util.TextRules;
 import org.example.fitness_server.util.UserEntityValidator;
 import org.example.fitness_server.util.UserUtil;
+import org.example.fitness_server.util.ValidationErrors;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 /**
  * Сервис для управления клиентами фитнес-клуба.
  * <p>
  * Этот класс предоставляет методы для создания и обновления данных клиентов,
- * включая валидацию, синхронизацию с сущностью {@code User} и назначение тренеров.
+ * включая валидацию, создание и обновление учётной записи {@code User} и назначение тренеров.
  * Использует репозитории {@code ClientRepository}, {@code UserRepository} и
  * {@code TrainerRepository}, а также утилиты {@code UserUtil} и {@code UserEntityValidator}
  * для общей логики.
@@ -26,13 +47,19 @@ import org.springframework.stereotype.Service;
  * @since 2025-04-29
  */
 
+@Timed(value = "fitness.service", histogram = true)
 @Service
 public class ClientService {
 
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
     private final TrainerRepository trainerRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final RegisteredUsernameRepository registeredUsernameRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationCache authenticationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Конструктор сервиса для инициализации зависимостей.
@@ -43,14 +70,27 @@ public class ClientService {
      * @param clientRepository   репозиторий для работы с клиентами
      * @param userRepository     репозиторий для работы с пользователями
      * @param trainerRepository  репозиторий для работы с тренерами
+     * @param subscriptionRepository репозиторий для работы с абонементами
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
      * @param passwordEncoder    кодировщик паролей для шифрования
+     * @param authenticationCache кэш успешных аутентификаций
+     * @param eventPublisher     публикатор событий изменения клиентов
+     * @param transactionTemplate шаблон транзакций для создания и обновления клиентов
      */
 
-    public ClientService(ClientRepository clientRepository, UserRepository userRepository, TrainerRepository trainerRepository, PasswordEncoder passwordEncoder) {
+    public ClientService(ClientRepository clientRepository, UserRepository userRepository, TrainerRepository trainerRepository,
+                         SubscriptionRepository subscriptionRepository, RegisteredUsernameRepository registeredUsernameRepository,
+                         PasswordEncoder passwordEncoder, AuthenticationCache authenticationCache,
+                         ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
         this.clientRepository = clientRepository;
         this.userRepository = userRepository;
         this.trainerRepository = trainerRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.registeredUsernameRepository = registeredUsernameRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -58,62 +98,84 @@ public class ClientService {
      * <p>
      * Выполняет валидацию данных клиента, проверяет уникальность имени пользователя,
      * создаёт связанного пользователя с ролью {@code CLIENT} и шифрует пароль.
-     * Если указан {@code trainerId}, назначает тренера клиенту.
+     * Если указан {@code trainerId}, назначает тренера клиенту. Абонемент клиента загружается
+     * по идентификатору из {@code client.subscription.id}.
+     * </p>
+     * <p>
+     * Пароль шифруется один раз до начала транзакции и сохраняется только в {@code User}, на которую
+     * ссылается клиент: на время вычисления BCrypt соединение с базой данных не занято.
      * </p>
      *
      * @param client    объект {@code Client} с данными нового клиента
      * @param trainerId идентификатор тренера (опционально, может быть {@code null})
      * @return созданный объект {@code Client}
-     * @throws IllegalArgumentException если данные не прошли валидацию или имя пользователя занято
+     * @throws IllegalArgumentException если данные не прошли валидацию, имя пользователя или телефон заняты
+     * @throws org.example.fitness_server.exception.PasswordHashingRejectedException если очередь шифрования паролей заполнена
      */
 
     public Client createClient(Client client, Long trainerId) {
         validateClient(client, true);
 
-        // Используем утилитный метод для проверки имени и создания User
-        UserUtil.checkUsernameAndCreateUser(
-                client,
-                Role.CLIENT,
-                userRepository,
-                clientRepository,
-                trainerRepository,
-                passwordEncoder);
-
-        if (trainerId != null) {
-            Trainer trainer = trainerRepository.findById(trainerId)
-                    .orElseThrow(() -> new IllegalArgumentException("Тренер с ID " + trainerId + " не найден."));
-            client.setTrainer(trainer);
-        }
-
-        // Шифрование пароля клиента
+        // Шифрование пароля вне транзакции; хеш хранится только в User
         client.setPassword(passwordEncoder.encode(client.getPassword()));
-        return clientRepository.save(client);
+
+        return withUniquePhone(() -> transactionTemplate.execute(status -> {
+            // Используем утилитный метод для проверки имени, создания User и связи с клиентом
+            UserUtil.checkUsernameAndCreateUser(
+                    client,
+                    Role.CLIENT,
+                    userRepository,
+                    registeredUsernameRepository);
+
+            if (trainerId != null) {
+                Trainer trainer = trainerRepository.findById(trainerId)
+                        .orElseThrow(() -> new IllegalArgumentException("Тренер с ID " + trainerId + " не найден."));
+                client.setTrainer(trainer);
+            }
+            Subscription subscription = resolveSubscription(client.getSubscription());
+            client.setSubscription(subscription);
+            assignMembership(client, null, subscription);
+
+            Client saved = clientRepository.save(client);
+            eventPublisher.publishEvent(new ClientChangedEvent(null, ClientState.of(saved)));
+            return saved;
+        }));
     }
 
     /**
      * Обновляет данные существующего клиента по указанному идентификатору.
      * <p>
-     * Выполняет валидацию данных, обновляет имя пользователя и пароль в связанном
-     * объекте {@code User}, а также назначает или удаляет тренера при необходимости.
+     * Выполняет валидацию данных, обновляет имя пользователя и пароль в учётной записи
+     * {@code User}, загруженной вместе с клиентом, а также назначает или удаляет тренера при необходимости.
+     * Новый пароль шифруется один раз до начала транзакции. Если телефон не передан, у клиента
+     * остаётся прежний телефон.
      * </p>
      *
      * @param id        идентификатор клиента для обновления
      * @param client    объект {@code Client} с новыми данными
      * @param trainerId идентификатор тренера (опционально, может быть {@code null})
      * @return обновлённый объект {@code Client}
-     * @throws IllegalArgumentException если клиент не найден или имя пользователя занято
+     * @throws IllegalArgumentException если клиент не найден, имя пользователя или телефон заняты
+     * @throws org.example.fitness_server.exception.PasswordHashingRejectedException если очередь шифрования паролей заполнена
      */
 
     public Client updateClient(Long id, Client client, Long trainerId) {
-        return clientRepository.findById(id)
+        validateClient(client, false);
+
+        // Шифрование нового пароля вне транзакции
+        boolean passwordChanged = UserUtil.encodeChangedPassword(client, passwordEncoder);
+
+        return withUniquePhone(() -> transactionTemplate.execute(status -> clientRepository.findById(id)
                 .map(existing -> {
-                    validateClient(client, false);
+                    ClientState before = ClientState.of(existing);
+                    String previousUsername = existing.getUser().getUsername();
 
                     // Обновление имени пользователя и пароля для User
-                    UserUtil.updateUserIfNeeded(existing, client, userRepository, clientRepository, trainerRepository, passwordEncoder);
+                    boolean credentialsChanged = UserUtil.updateUserIfNeeded(existing, client, passwordChanged,
+                            registeredUsernameRepository, authenticationCache);
 
                     // Обновление полей клиента
-                    UserUtil.updateEntity(existing, client, passwordEncoder, () -> {
+                    UserUtil.updateEntity(existing, client, () -> {
                         if (trainerId != null) {
                             Trainer trainer = trainerRepository.findById(trainerId)
                                     .orElseThrow(() -> new IllegalArgumentException("Тренер с ID " + trainerId + " не найден."));
@@ -123,19 +185,131 @@ public class ClientService {
                         }
                     });
 
-                    existing.setPhone(client.getPhone());
-                    existing.setSubscription(client.getSubscription());
+                    // Телефон не передан: сохраняется прежний
+                    if (client.getPhoneNormalized() != null) {
+                        existing.setPhone(client.getPhone());
+                        existing.setPhoneNormalized(client.getPhoneNormalized());
+                    }
+                    Subscription subscription = resolveSubscription(client.getSubscription());
+                    assignMembership(existing, existing.getSubscription(), subscription);
+                    existing.setSubscription(subscription);
+
+                    Client saved = clientRepository.save(existing);
+                    eventPublisher.publishEvent(new ClientChangedEvent(before, ClientState.of(saved)));
+                    if (credentialsChanged) {
+                        eventPublisher.publishEvent(new CredentialsChangedEvent(saved.getUser().getId(), previousUsername));
+                    }
+                    return saved;
+                })
+                .orElseThrow(() -> new IllegalArgumentException("Клиент с ID " + id + " не найден."))));
+    }
+
+    /**
+     * Удаляет клиента по указанному идентификатору.
+     * <p>
+     * Вместе с клиентом удаляется связанный пользователь с ролью {@code CLIENT} и освобождается
+     * имя пользователя в реестре, а кэшированные аутентификации клиента сбрасываются, чтобы
+     * удалённый клиент больше не мог войти в систему.
+     * </p>
+     *
+     * @param id идентификатор клиента для удаления
+     * @return {@code true}, если клиент был удалён, или {@code false}, если клиент не найден
+     */
 
-                    return clientRepository.save(existing);
+    @Transactional
+    public boolean deleteClient(Long id) {
+        return clientRepository.findById(id)
+                .map(existing -> {
+                    User user = existing.getUser();
+                    clientRepository.delete(existing);
+                    if (user.getRole() == Role.CLIENT) {
+                        userRepository.delete(user);
+                        registeredUsernameRepository.deleteByUsername(user.getUsername());
+                    }
+                    authenticationCache.evict(user.getUsername());
+                    eventPublisher.publishEvent(new ClientChangedEvent(ClientState.of(existing), null));
+                    eventPublisher.publishEvent(new CredentialsChangedEvent(user.getId(), user.getUsername()));
+                    return true;
                 })
-                .orElseThrow(() -> new IllegalArgumentException("Клиент с ID " + id + " не найден."));
+                .orElse(false);
+    }
+
+    /**
+     * Активирует абонемент клиента, если абонемент назначен или заменён другим.
+     * <p>
+     * Повторная передача того же абонемента при изменении клиента не продлевает его:
+     * продление выполняет {@code MembershipService.renewMembership}. Если абонемент снят,
+     * сроки абонемента удаляются.
+     * </p>
+     *
+     * @param client   клиент
+     * @param previous прежний абонемент клиента (может быть {@code null})
+     * @param current  новый абонемент клиента (может быть {@code null})
+     */
+
+    private static void assignMembership(Client client, Subscription previous, Subscription current) {
+        if (current == null) {
+            Memberships.clear(client);
+        } else if (previous == null || !previous.getId().equals(current.getId())) {
+            Memberships.activate(client, current.getDurationDays(), Instant.now());
+        }
+    }
+
+    /**
+     * Загружает абонемент, переданный в запросе только идентификатором.
+     * <p>
+     * Абонементы версионируются, поэтому объект из тела запроса нельзя сохранять как связь:
+     * в нём нет версии, и Hibernate считает его устаревшей копией.
+     * </p>
+     *
+     * @param subscription абонемент из тела запроса (может быть {@code null})
+     * @return управляемый абонемент или {@code null}, если абонемент не указан
+     * @throws IllegalArgumentException если идентификатор не указан или абонемент не найден
+     */
+
+    private Subscription resolveSubscription(Subscription subscription) {
+        if (subscription == null) {
+            return null;
+        }
+        if (subscription.getId() == null) {
+            throw new IllegalArgumentException("Абонемент должен быть указан идентификатором.");
+        }
+        Long subscriptionId = subscription.getId();
+        return subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new IllegalArgumentException("Абонемент с ID " + subscriptionId + " не найден."));
+    }
+
+    /**
+     * Выполняет транзакцию создания или изменения клиента, сообщая о занятом телефоне.
+     * <p>
+     * Уникальность телефона обеспечивает индекс {@code uk_clients_phone_normalized}: отдельный
+     * запрос для проверки не нужен, а нарушение индекса при фиксации транзакции превращается
+     * в ошибку валидации.
+     * </p>
+     *
+     * @param action транзакция создания или изменения клиента
+     * @return результат транзакции
+     * @throws IllegalArgumentException если телефон уже принадлежит другому клиенту
+     */
+
+    private static Client withUniquePhone(Supplier<Client> action) {
+        try {
+            return action.get();
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(Client.PHONE_NORMALIZED_INDEX)) {
+                throw new IllegalArgumentException("Телефон уже используется другим клиентом.", e);
+            }
+            throw e;
+        }
     }
 
     /**
      * Выполняет валидацию данных клиента перед созданием или обновлением.
      * <p>
      * Использует утилиту {@code UserEntityValidator} для общей валидации и добавляет
-     * проверки специфические для клиента (номер телефона и абонемент).
+     * проверку номера телефона. Телефон обязателен только при создании клиента; переданный
+     * телефон должен быть корректным, приводится к формату E.164 и сохраняется в {@code phoneNormalized}.
      * </p>
      *
      * @param client клиент для валидации
@@ -144,7 +318,19 @@ public class ClientService {
      */
 
     private void validateClient(Client client, boolean isNew) {
+        ValidationErrors errors = new ValidationErrors();
         // Общая валидация для UserEntity
-        UserEntityValidator.validateUserEntity(client, "клиента", isNew);
+        UserEntityValidator.validateUserEntity(client, "клиента", isNew, errors);
+
+        String phoneNormalized = PhoneNumbers.normalize(client.getPhone());
+        if (TextRules.isBlank(client.getPhone())) {
+            if (isNew) {
+                errors.reject("phone", "Телефон не может быть пустым.");
+            }
+        } else if (phoneNormalized == null) {
+            errors.reject("phone", "Некорректный номер телефона.");
+        }
+        errors.throwIfAny();
+        client.setPhoneNormalized(phoneNormalized);
     }
-}
\ No newline at end of file
+}
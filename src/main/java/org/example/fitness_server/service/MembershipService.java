@@ -0,0 +1,184 @@
+package org.example.fitness_server.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fitness_server.dto.MemberEntry;
+import org.example.fitness_server.dto.MemberSlice;
+import org.example.fitness_server.dto.MembershipCursor;
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.util.Memberships;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Сервис сроков абонементов клиентов.
+ * <p>
+ * Абонемент активируется при назначении клиенту в {@code ClientService} и действует
+ * {@code Subscription.durationDays} дней. Сервис выдаёт порции списков активных, истекающих
+ * и истёкших абонементов курсорной (keyset) пагинацией по времени окончания, продлевает абонементы
+ * и по расписанию {@code fitness.membership.expiry-interval} переводит истёкшие абонементы
+ * в состояние {@code EXPIRED}.
+ * </p>
+ * <p>
+ * Перевод выполняется порциями по {@code fitness.membership.expiry-chunk-size} клиентов: идентификаторы
+ * выбираются по частичному индексу, а обновление {@code where id in (...)} выполняется в отдельной
+ * короткой транзакции. Поэтому блокировки строк {@code clients} удерживаются только на время одной
+ * порции, сколько бы абонементов ни истекло одновременно.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Timed(value = "fitness.service", histogram = true)
+@Service
+public class MembershipService {
+
+    private final ClientRepository clientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int expiryChunkSize;
+
+    /**
+     * Конструктор для создания экземпляра {@code MembershipService}.
+     *
+     * @param clientRepository    репозиторий для работы с клиентами
+     * @param transactionTemplate шаблон транзакций для коротких транзакций обновления
+     * @param expiryChunkSize     количество абонементов, переводимых в {@code EXPIRED} в одной транзакции
+     */
+
+    public MembershipService(ClientRepository clientRepository, TransactionTemplate transactionTemplate,
+                             @Value("${fitness.membership.expiry-chunk-size:500}") int expiryChunkSize) {
+        if (expiryChunkSize < 1) {
+            throw new IllegalArgumentException("Размер порции истечения абонементов должен быть положительным: "
+                    + expiryChunkSize);
+        }
+        this.clientRepository = clientRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expiryChunkSize = expiryChunkSize;
+    }
+
+    /**
+     * Возвращает порцию клиентов с действующим абонементом, начиная с заканчивающихся раньше всех.
+     *
+     * @param cursor курсор последней выданной порции или {@code null} для первой порции
+     * @param limit  максимальное количество клиентов в порции
+     * @return порция списка
+     */
+
+    public MemberSlice getActiveMembers(MembershipCursor cursor, int limit) {
+        List<MemberEntry> rows = cursor == null
+                ? clientRepository.findActiveMembers(Instant.now(), Long.MAX_VALUE, Limit.of(limit + 1))
+                : clientRepository.findActiveMembers(cursor.expiresAt(), cursor.id(), Limit.of(limit + 1));
+        return toSlice(rows, limit);
+    }
+
+    /**
+     * Возвращает порцию клиентов, чей абонемент заканчивается в ближайшие дни.
+     *
+     * @param days   количество дней от текущего момента
+     * @param cursor курсор последней выданной порции или {@code null} для первой порции
+     * @param limit  максимальное количество клиентов в порции
+     * @return порция списка
+     */
+
+    public MemberSlice getExpiringMembers(int days, MembershipCursor cursor, int limit) {
+        Instant now = Instant.now();
+        Instant until = now.plus(Duration.ofDays(days));
+        List<MemberEntry> rows = cursor == null
+                ? clientRepository.findExpiringMembers(now, Long.MAX_VALUE, until, Limit.of(limit + 1))
+                : clientRepository.findExpiringMembers(cursor.expiresAt(), cursor.id(), until, Limit.of(limit + 1));
+        return toSlice(rows, limit);
+    }
+
+    /**
+     * Возвращает порцию клиентов с истёкшим абонементом, начиная с истёкших недавно.
+     *
+     * @param cursor курсор последней выданной порции или {@code null} для первой порции
+     * @param limit  максимальное количество клиентов в порции
+     * @return порция списка
+     */
+
+    public MemberSlice getExpiredMembers(MembershipCursor cursor, int limit) {
+        List<MemberEntry> rows = cursor == null
+                ? clientRepository.findExpiredMembers(Instant.now(), Long.MAX_VALUE, Limit.of(limit + 1))
+                : clientRepository.findExpiredMembers(cursor.expiresAt(), cursor.id(), Limit.of(limit + 1));
+        return toSlice(rows, limit);
+    }
+
+    /**
+     * Продлевает абонемент клиента на его длительность.
+     * <p>
+     * Действующий абонемент продлевается от времени окончания, истёкший — активируется заново
+     * с текущего момента.
+     * </p>
+     *
+     * @param id идентификатор клиента
+     * @return клиент с продлённым абонементом или пустой {@code Optional}, если клиент не найден
+     * @throws IllegalArgumentException если у клиента нет абонемента
+     */
+
+    public Optional<Client> renewMembership(Long id) {
+        return transactionTemplate.execute(status -> clientRepository.findById(id)
+                .map(client -> {
+                    if (client.getSubscription() == null) {
+                        throw new IllegalArgumentException("У клиента с ID " + id + " нет абонемента.");
+                    }
+                    Memberships.renew(client, client.getSubscription().getDurationDays(), Instant.now());
+                    return clientRepository.save(client);
+                }));
+    }
+
+    /**
+     * Переводит истёкшие абонементы в состояние {@code EXPIRED} порциями.
+     * <p>
+     * Выполняется по расписанию. Каждая порция — отдельная транзакция из выборки идентификаторов
+     * по частичному индексу и обновления по первичному ключу. Если порция не изменила ни одной строки
+     * (все абонементы продлены параллельно), перевод завершается до следующего запуска.
+     * </p>
+     *
+     * @return количество абонементов, переведённых в {@code EXPIRED}
+     */
+
+    @Scheduled(fixedDelayString = "${fitness.membership.expiry-interval:1m}",
+            initialDelayString = "${fitness.membership.expiry-interval:1m}")
+    public int expireMemberships() {
+        Instant now = Instant.now();
+        int expired = 0;
+        ChunkResult chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = clientRepository.findLapsedMemberIds(now, Limit.of(expiryChunkSize));
+                return new ChunkResult(ids.size(), ids.isEmpty() ? 0 : clientRepository.expireMembers(ids, now));
+            });
+            expired += chunk.updated();
+        } while (chunk.selected() == expiryChunkSize && chunk.updated() > 0);
+
+        if (expired > 0) {
+            log.info("Memberships expired: {}", expired);
+        }
+        return expired;
+    }
+
+    private static MemberSlice toSlice(List<MemberEntry> rows, int limit) {
+        // Выбрано на одну строку больше, чтобы узнать, есть ли следующая порция
+        if (rows.size() <= limit) {
+            return new MemberSlice(List.copyOf(rows), null);
+        }
+        List<MemberEntry> items = List.copyOf(rows.subList(0, limit));
+        return new MemberSlice(items, MembershipCursor.after(items.get(limit - 1)).encode());
+    }
+
+    private record ChunkResult(int selected, int updated) {
+    }
+}
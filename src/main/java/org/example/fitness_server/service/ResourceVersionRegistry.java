@@ -0,0 +1,102 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.event.SubscriptionChangedEvent;
+import org.example.fitness_server.event.TrainerChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реестр версий списков абонементов и тренеров для условных запросов HTTP.
+ * <p>
+ * Для каждого списка хранится номер поколения, который увеличивается по событиям
+ * {@code SubscriptionChangedEvent} и {@code TrainerChangedEvent} после фиксации транзакции.
+ * По нему строится сильный {@code ETag}, поэтому ответ 304 на {@code If-None-Match} формируется
+ * без обращения к базе данных.
+ * </p>
+ * <p>
+ * {@code Last-Modified} для списков не передаётся: заголовок имеет точность до секунды, и второе
+ * изменение в ту же секунду дало бы ответ 304 клиенту, который передаёт только {@code If-Modified-Since}.
+ * </p>
+ * <p>
+ * В {@code ETag} входит метка запуска приложения: изменения, выполненные в обход сервисов
+ * до запуска (например, начальное заполнение базы данных), не дают совпадения со старыми
+ * значениями. Версию нужно получать до чтения данных: тогда изменение, зафиксированное во время
+ * чтения, приводит лишь к лишней повторной загрузке, но не к устаревшему кэшу у клиента.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Service
+public class ResourceVersionRegistry {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Resource subscriptions = new Resource("subscriptions");
+    private final Resource trainers = new Resource("trainers");
+
+    /**
+     * Возвращает текущий {@code ETag} списка абонементов.
+     *
+     * @return сильный {@code ETag} в кавычках
+     */
+
+    public String getSubscriptionsETag() {
+        return subscriptions.etag;
+    }
+
+    /**
+     * Возвращает текущий {@code ETag} списка тренеров.
+     *
+     * @return сильный {@code ETag} в кавычках
+     */
+
+    public String getTrainersETag() {
+        return trainers.etag;
+    }
+
+    /**
+     * Увеличивает версию списка абонементов после изменения абонемента.
+     *
+     * @param event событие изменения абонемента
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        subscriptions.bump();
+    }
+
+    /**
+     * Увеличивает версию списка тренеров после изменения тренера.
+     *
+     * @param event событие изменения тренера
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerChanged(TrainerChangedEvent event) {
+        trainers.bump();
+    }
+
+    private final class Resource {
+
+        private final String name;
+        private final AtomicLong generation = new AtomicLong();
+        private volatile String etag;
+
+        private Resource(String name) {
+            this.name = name;
+            this.etag = etag(0);
+        }
+
+        private synchronized void bump() {
+            etag = etag(generation.incrementAndGet());
+        }
+
+        private String etag(long value) {
+            return "\"" + name + "-" + epoch + "-" + value + "\"";
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package org.example.fitness_server.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.fitness_server.dto.CostCount;
+import org.example.fitness_server.dto.GroupCount;
+import org.example.fitness_server.dto.StatisticsSnapshot;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.SubscriptionChangedEvent;
+import org.example.fitness_server.event.TrainerChangedEvent;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сервис статистики, поддерживающий агрегаты в памяти.
+ * <p>
+ * Количество клиентов, тренеров и абонементов, сумма, минимум и максимум стоимости абонементов,
+ * а также распределение клиентов по абонементам и тренерам обновляются инкрементально по событиям
+ * {@code ClientChangedEvent}, {@code TrainerChangedEvent} и {@code SubscriptionChangedEvent},
+ * которые публикуют сервисы после фиксации транзакции. После каждого изменения формируется
+ * неизменяемый {@code StatisticsSnapshot}, поэтому чтение статистики выполняется за O(1)
+ * без обращения к базе данных.
+ * </p>
+ * <p>
+ * Изменения, выполненные в обход сервисов (например, начальное заполнение базы данных),
+ * учитываются при периодической сверке с SQL-агрегатами. Первая сверка выполняется
+ * сразу после запуска приложения. События, пришедшие во время сверки, применяются к текущему
+ * состоянию и запоминаются, а после замены состояния результатом сверки применяются к нему повторно.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Timed(value = "fitness.service", histogram = true)
+@Service
+public class StatisticsService {
+
+    /**
+     * Количество попыток сверки, после которых результат принимается, даже если во время чтения
+     * приходили события.
+     */
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final ClientRepository clientRepository;
+    private final TrainerRepository trainerRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final Object lock = new Object();
+    private final TreeMap<Double, Long> subscriptionsPerCost = new TreeMap<>();
+    private final Map<Long, Long> clientsPerSubscription = new HashMap<>();
+    private final Map<Long, Long> clientsPerTrainer = new HashMap<>();
+    private long clientCount;
+    private long trainerCount;
+    private long subscriptionCount;
+    private double subscriptionCostSum;
+    private List<Object> pendingEvents;
+
+    private volatile StatisticsSnapshot snapshot = StatisticsSnapshot.EMPTY;
+
+    /**
+     * Конструктор для создания экземпляра {@code StatisticsService}.
+     *
+     * @param clientRepository       репозиторий для работы с клиентами
+     * @param trainerRepository      репозиторий для работы с тренерами
+     * @param subscriptionRepository репозиторий для работы с абонементами
+     * @param transactionManager     менеджер транзакций для чтения SQL-агрегатов при сверке
+     */
+
+    public StatisticsService(ClientRepository clientRepository, TrainerRepository trainerRepository,
+                             SubscriptionRepository subscriptionRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.clientRepository = clientRepository;
+        this.trainerRepository = trainerRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Возвращает текущий снимок статистики.
+     *
+     * @return неизменяемый снимок статистики
+     */
+
+    public StatisticsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Учитывает создание, изменение или удаление клиента.
+     *
+     * @param event событие изменения клиента
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        synchronized (lock) {
+            apply(event);
+            remember(event);
+            publish();
+        }
+    }
+
+    /**
+     * Учитывает создание или удаление тренера.
+     *
+     * @param event событие изменения тренера
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerChanged(TrainerChangedEvent event) {
+        synchronized (lock) {
+            apply(event);
+            remember(event);
+            publish();
+        }
+    }
+
+    /**
+     * Учитывает создание, изменение стоимости или удаление абонемента.
+     *
+     * @param event событие изменения абонемента
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        synchronized (lock) {
+            apply(event);
+            remember(event);
+            publish();
+        }
+    }
+
+    /**
+     * Сверяет агрегаты в памяти с SQL-агрегатами базы данных.
+     * <p>
+     * Выполняет пять агрегирующих запросов в одной транзакции только для чтения с уровнем
+     * изоляции {@code REPEATABLE_READ}, поэтому все они видят один снимок базы данных, и заменяет
+     * состояние целиком. События, пришедшие во время чтения, запоминаются: если такие были,
+     * сверка повторяется, а после {@value #RECONCILE_ATTEMPTS} попыток результат принимается
+     * и запомненные события применяются к нему повторно. Событие, транзакция которого
+     * зафиксирована до начала чтения, а обработчик вызван после, при этом учитывается дважды;
+     * такое расхождение устраняет следующая сверка.
+     * </p>
+     */
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${fitness.statistics.reconcile-interval:5m}",
+            initialDelayString = "${fitness.statistics.reconcile-interval:5m}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            synchronized (lock) {
+                if (pendingEvents != null) {
+                    // Сверка уже выполняется в другом потоке
+                    return;
+                }
+                pendingEvents = new ArrayList<>();
+            }
+
+            Aggregates aggregates;
+            try {
+                aggregates = readTransaction.execute(status -> new Aggregates(
+                        clientRepository.count(),
+                        trainerRepository.count(),
+                        subscriptionRepository.countSubscriptionsPerCost(),
+                        clientRepository.countClientsPerSubscription(),
+                        clientRepository.countClientsPerTrainer()));
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    pendingEvents = null;
+                }
+                throw e;
+            }
+
+            synchronized (lock) {
+                List<Object> events = pendingEvents;
+                pendingEvents = null;
+                if (events.isEmpty() || attempt == RECONCILE_ATTEMPTS) {
+                    reset(aggregates);
+                    events.forEach(this::apply);
+                    publish();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof ClientChangedEvent clientEvent) {
+            apply(clientEvent);
+        } else if (event instanceof TrainerChangedEvent trainerEvent) {
+            apply(trainerEvent);
+        } else if (event instanceof SubscriptionChangedEvent subscriptionEvent) {
+            apply(subscriptionEvent);
+        }
+    }
+
+    private void apply(ClientChangedEvent event) {
+        if (event.before() != null) {
+            clientCount--;
+            decrement(clientsPerSubscription, event.before().subscriptionId());
+            decrement(clientsPerTrainer, event.before().trainerId());
+        }
+        if (event.after() != null) {
+            clientCount++;
+            increment(clientsPerSubscription, event.after().subscriptionId());
+            increment(clientsPerTrainer, event.after().trainerId());
+        }
+    }
+
+    private void apply(TrainerChangedEvent event) {
+        if (event.before() != null) {
+            trainerCount--;
+            if (event.after() == null) {
+                clientsPerTrainer.remove(event.before());
+            }
+        }
+        if (event.after() != null) {
+            trainerCount++;
+        }
+    }
+
+    private void apply(SubscriptionChangedEvent event) {
+        if (event.before() != null) {
+            subscriptionCount--;
+            subscriptionCostSum -= event.before().cost();
+            decrement(subscriptionsPerCost, event.before().cost());
+            if (event.after() == null) {
+                clientsPerSubscription.remove(event.before().id());
+            }
+        }
+        if (event.after() != null) {
+            subscriptionCount++;
+            subscriptionCostSum += event.after().cost();
+            increment(subscriptionsPerCost, event.after().cost());
+        }
+    }
+
+    private void remember(Object event) {
+        if (pendingEvents != null) {
+            pendingEvents.add(event);
+        }
+    }
+
+    private void reset(Aggregates aggregates) {
+        clientCount = aggregates.clients();
+        trainerCount = aggregates.trainers();
+        subscriptionsPerCost.clear();
+        subscriptionCount = 0;
+        subscriptionCostSum = 0.0;
+        for (CostCount cost : aggregates.costs()) {
+            subscriptionsPerCost.put(cost.cost(), cost.count());
+            subscriptionCount += cost.count();
+            subscriptionCostSum += cost.cost() * cost.count();
+        }
+        clientsPerSubscription.clear();
+        aggregates.perSubscription().forEach(group -> clientsPerSubscription.put(group.id(), group.count()));
+        clientsPerTrainer.clear();
+        aggregates.perTrainer().forEach(group -> clientsPerTrainer.put(group.id(), group.count()));
+    }
+
+    private void publish() {
+        snapshot = new StatisticsSnapshot(
+                clientCount,
+                trainerCount,
+                subscriptionCount,
+                subscriptionCostSum,
+                subscriptionCount > 0 ? subscriptionCostSum / subscriptionCount : 0.0,
+                subscriptionsPerCost.isEmpty() ? null : subscriptionsPerCost.firstKey(),
+                subscriptionsPerCost.isEmpty() ? null : subscriptionsPerCost.lastKey(),
+                Map.copyOf(clientsPerSubscription),
+                Map.copyOf(clientsPerTrainer));
+    }
+
+    private static <K> void increment(Map<K, Long> counts, K key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private static <K> void decrement(Map<K, Long> counts, K key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * SQL-агрегаты, прочитанные при сверке.
+     *
+     * @param clients         количество клиентов
+     * @param trainers        количество тренеров
+     * @param costs           количество абонементов по стоимости
+     * @param perSubscription количество клиентов по абонементам
+     * @param perTrainer      количество клиентов по тренерам
+     */
+
+    private record Aggregates(long clients, long trainers, List<CostCount> costs,
+                              List<GroupCount> perSubscription, List<GroupCount> perTrainer) {
+    }
+}
@@ -1,13 +1,21 @@
 package org.example.fitness_server.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.fitness_server.event.SubscriptionChangedEvent;
+import org.example.fitness_server.event.SubscriptionChangedEvent.SubscriptionState;
+import org.example.fitness_server.exception.ValidationException;
 import org.example.fitness_server.model.Subscription;
 import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.util.TextRules;
+import org.example.fitness_server.util.ValidationErrors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Сервис для управления абонементами в приложении фитнес-клуба.
  * <p>
- * Этот класс предоставляет методы для создания и обновления абонементов,
+ * Этот класс предоставляет методы для создания, обновления и удаления абонементов,
  * включая валидацию данных перед сохранением.
  * </p>
  *
@@ -16,19 +24,23 @@ import org.springframework.stereotype.Service;
  * @since 2025-04-29
  */
 
+@Timed(value = "fitness.service", histogram = true)
 @Service
 public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Конструктор для создания экземпляра {@code SubscriptionService}.
      *
      * @param subscriptionRepository репозиторий для работы с абонементами
+     * @param eventPublisher         публикатор событий изменения абонементов
      */
 
-    public SubscriptionService(SubscriptionRepository subscriptionRepository) {
+    public SubscriptionService(SubscriptionRepository subscriptionRepository, ApplicationEventPublisher eventPublisher) {
         this.subscriptionRepository = subscriptionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -42,9 +54,12 @@ public class SubscriptionService {
      * @throws IllegalArgumentException если данные абонемента не прошли валидацию
      */
 
+    @Transactional
     public Subscription createSubscription(Subscription subscription) {
         validateSubscription(subscription);
-        return subscriptionRepository.save(subscription);
+        Subscription saved = subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(new SubscriptionChangedEvent(null, SubscriptionState.of(saved)));
+        return saved;
     }
 
     /**
@@ -59,18 +74,40 @@ public class SubscriptionService {
      * @throws IllegalArgumentException если абонемент с указанным ID не найден или данные не прошли валидацию
      */
 
+    @Transactional
     public Subscription updateSubscription(Long id, Subscription subscription) {
         return subscriptionRepository.findById(id)
                 .map(existing -> {
                     validateSubscription(subscription);
+                    SubscriptionState before = SubscriptionState.of(existing);
                     existing.setType(subscription.getType());
                     existing.setCost(subscription.getCost());
                     existing.setDurationDays(subscription.getDurationDays());
-                    return subscriptionRepository.save(existing);
+                    Subscription saved = subscriptionRepository.save(existing);
+                    eventPublisher.publishEvent(new SubscriptionChangedEvent(before, SubscriptionState.of(saved)));
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Абонемент с ID " + id + " не найден."));
     }
 
+    /**
+     * Удаляет абонемент по его идентификатору.
+     *
+     * @param id идентификатор абонемента
+     * @return {@code true}, если абонемент был удалён, или {@code false}, если абонемент не найден
+     */
+
+    @Transactional
+    public boolean deleteSubscription(Long id) {
+        return subscriptionRepository.findById(id)
+                .map(existing -> {
+                    subscriptionRepository.delete(existing);
+                    eventPublisher.publishEvent(new SubscriptionChangedEvent(SubscriptionState.of(existing), null));
+                    return true;
+                })
+                .orElse(false);
+    }
+
     /**
      * Проверяет данные абонемента на соответствие правилам.
      * <p>
@@ -80,32 +117,38 @@ public class SubscriptionService {
      *     <li>Стоимость: больше 0.</li>
      *     <li>Длительность: больше 0 и не более 365 дней.</li>
      * </ul>
-     * Также форматирует тип абонемента, удаляя лишние пробелы.
+     * Также форматирует тип абонемента, удаляя лишние пробелы. Проверяются все поля,
+     * а найденные нарушения сообщаются одним исключением.
      * </p>
      *
      * @param subscription объект {@code Subscription} для проверки
-     * @throws IllegalArgumentException если данные не соответствуют правилам
+     * @throws ValidationException если данные не соответствуют правилам
      */
 
     private void validateSubscription(Subscription subscription) {
-        if (subscription.getType() == null || subscription.getType().trim().isEmpty()) {
-            throw new IllegalArgumentException("Тип абонемента не может быть пустым.");
-        }
-        String cleanedType = subscription.getType().trim();
-        if (cleanedType.length() < 2 || cleanedType.length() > 50) {
-            throw new IllegalArgumentException("Тип абонемента должен содержать от 2 до 50 символов.");
+        ValidationErrors errors = new ValidationErrors();
+
+        if (TextRules.isBlank(subscription.getType())) {
+            errors.reject("type", "Тип абонемента не может быть пустым.");
+        } else {
+            String cleanedType = subscription.getType().trim();
+            if (cleanedType.length() < 2 || cleanedType.length() > 50) {
+                errors.reject("type", "Тип абонемента должен содержать от 2 до 50 символов.");
+            } else {
+                subscription.setType(cleanedType);
+            }
         }
-        subscription.setType(cleanedType);
 
         if (subscription.getCost() <= 0) {
-            throw new IllegalArgumentException("Стоимость абонемента должна быть больше 0.");
+            errors.reject("cost", "Стоимость абонемента должна быть больше 0.");
         }
 
         if (subscription.getDurationDays() <= 0) {
-            throw new IllegalArgumentException("Длительность абонемента должна быть больше 0 дней.");
-        }
-        if (subscription.getDurationDays() > 365) {
-            throw new IllegalArgumentException("Длительность абонемента не может превышать 365 дней.");
+            errors.reject("durationDays", "Длительность абонемента должна быть больше 0 дней.");
+        } else if (subscription.getDurationDays() > 365) {
+            errors.reject("durationDays", "Длительность абонемента не может превышать 365 дней.");
         }
+
+        errors.throwIfAny();
     }
-}
\ No newline at end of file
+}
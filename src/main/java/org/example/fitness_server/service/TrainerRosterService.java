@@ -0,0 +1,170 @@
+package org.example.fitness_server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.fitness_server.dto.ClientCursor;
+import org.example.fitness_server.dto.RosterEntry;
+import org.example.fitness_server.dto.TrainerRoster;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.event.SubscriptionChangedEvent;
+import org.example.fitness_server.event.TrainerChangedEvent;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис списков клиентов тренеров.
+ * <p>
+ * Порции списка выбираются курсорной (keyset) пагинацией по индексу {@code clients(trainer_id, id)}
+ * в виде проекций {@code RosterEntry}; коллекция {@code Trainer.clients} не загружается.
+ * Общее количество клиентов тренера подсчитывается тем же запросом, которым проверяется
+ * существование тренера.
+ * </p>
+ * <p>
+ * Количество клиентов и выбранные порции хранятся в одной записи кэша по тренерам с коротким временем
+ * жизни ({@code fitness.roster.cache.time-to-live}), поэтому количество и порции выбраны после одного
+ * и того же изменения списка. Запись тренера удаляется из кэша после фиксации
+ * изменения любого его клиента, в том числе при переводе клиента к другому тренеру в
+ * {@code ClientService.updateClient}: сбрасываются списки и прежнего, и нового тренера.
+ * Порции, выбранные во время изменения, сохраняются в уже удалённую запись кэша и не выдаются
+ * следующим запросам.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Service
+public class TrainerRosterService {
+
+    private static final int MAX_CACHED_PAGES_PER_TRAINER = 16;
+
+    private final ClientRepository clientRepository;
+    private final TrainerRepository trainerRepository;
+    private final Cache<Long, CachedRoster> cache;
+
+    /**
+     * Конструктор для создания экземпляра {@code TrainerRosterService}.
+     *
+     * @param clientRepository  репозиторий для работы с клиентами
+     * @param trainerRepository репозиторий для работы с тренерами
+     * @param maximumSize       максимальное количество тренеров в кэше
+     * @param timeToLive        время жизни порций в кэше
+     */
+
+    public TrainerRosterService(ClientRepository clientRepository, TrainerRepository trainerRepository,
+                                @Value("${fitness.roster.cache.maximum-size:1000}") long maximumSize,
+                                @Value("${fitness.roster.cache.time-to-live:30s}") Duration timeToLive) {
+        this.clientRepository = clientRepository;
+        this.trainerRepository = trainerRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    /**
+     * Возвращает порцию списка клиентов тренера.
+     *
+     * @param trainerId идентификатор тренера
+     * @param cursor    курсор последней выданной порции или {@code null} для первой порции
+     * @param limit     максимальное количество клиентов в порции
+     * @return порция списка или пустой {@code Optional}, если тренер не найден
+     */
+
+    public Optional<TrainerRoster> getRoster(long trainerId, ClientCursor cursor, int limit) {
+        CachedRoster roster = cache.getIfPresent(trainerId);
+        if (roster == null) {
+            Optional<Long> totalClients = trainerRepository.countClientsById(trainerId);
+            if (totalClients.isEmpty()) {
+                return Optional.empty();
+            }
+            roster = cache.get(trainerId, id -> new CachedRoster(totalClients.get(), new ConcurrentHashMap<>()));
+        }
+        Map<PageKey, RosterPage> pages = roster.pages();
+
+        long afterId = cursor == null ? 0L : cursor.id();
+        PageKey key = new PageKey(afterId, limit);
+        RosterPage page = pages.get(key);
+        if (page == null) {
+            page = loadPage(trainerId, afterId, limit);
+            if (pages.size() < MAX_CACHED_PAGES_PER_TRAINER) {
+                pages.putIfAbsent(key, page);
+            }
+        }
+        return Optional.of(new TrainerRoster(trainerId, roster.totalClients(), page.items(), page.nextCursor()));
+    }
+
+    /**
+     * Удаляет из кэша списки прежнего и нового тренера изменённого клиента.
+     *
+     * @param event событие изменения клиента
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        evict(event.before());
+        evict(event.after());
+    }
+
+    /**
+     * Удаляет из кэша список удалённого тренера.
+     *
+     * @param event событие изменения тренера
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerChanged(TrainerChangedEvent event) {
+        if (event.after() == null && event.before() != null) {
+            cache.invalidate(event.before());
+        }
+    }
+
+    /**
+     * Очищает кэш после изменения абонемента: тип абонемента входит в списки всех тренеров.
+     *
+     * @param event событие изменения абонемента
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private RosterPage loadPage(long trainerId, long afterId, int limit) {
+        // Выбираем на одну строку больше, чтобы узнать, есть ли следующая порция
+        List<RosterEntry> rows = clientRepository.findRosterAfterId(trainerId, afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new RosterPage(List.copyOf(rows), null);
+        }
+        List<RosterEntry> items = List.copyOf(rows.subList(0, limit));
+        String nextCursor = new ClientCursor(ClientCursor.Sort.ID, items.get(limit - 1).id(), null).encode();
+        return new RosterPage(items, nextCursor);
+    }
+
+    private void evict(ClientState state) {
+        if (state != null && state.trainerId() != null) {
+            cache.invalidate(state.trainerId());
+        }
+    }
+
+    private record CachedRoster(long totalClients, Map<PageKey, RosterPage> pages) {
+    }
+
+    private record PageKey(long afterId, int limit) {
+    }
+
+    private record RosterPage(List<RosterEntry> items, String nextCursor) {
+    }
+}
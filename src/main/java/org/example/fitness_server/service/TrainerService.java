@@ -1,22 +1,30 @@
 package org.example.fitness_server.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.fitness_server.event.CredentialsChangedEvent;
+import org.example.fitness_server.event.TrainerChangedEvent;
 import org.example.fitness_server.model.Role;
 import org.example.fitness_server.model.Trainer;
-import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
 import org.example.fitness_server.repository.TrainerRepository;
 import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.AuthenticationCache;
 import org.example.fitness_server.util.UserEntityValidator;
 import org.example.fitness_server.util.UserUtil;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Сервис для управления тренерами фитнес-клуба.
  * <p>
  * Этот класс предоставляет методы для создания и обновления данных тренеров,
- * включая валидацию, синхронизацию с сущностью {@code User} и шифрование паролей.
+ * включая валидацию, создание и обновление учётной записи {@code User} и шифрование паролей.
  * Использует репозитории {@code TrainerRepository}, {@code UserRepository} и
- * {@code ClientRepository}, а также утилиты {@code UserUtil} и {@code UserEntityValidator}
+ * {@code RegisteredUsernameRepository}, а также утилиты {@code UserUtil} и {@code UserEntityValidator}
  * для общей логики.
  * </p>
  *
@@ -25,12 +33,16 @@ import org.springframework.stereotype.Service;
  * @since 2025-04-29
  */
 
+@Timed(value = "fitness.service", histogram = true)
 @Service
 public class TrainerService {
-    private final ClientRepository clientRepository;
     private final TrainerRepository trainerRepository;
     private final UserRepository userRepository;
+    private final RegisteredUsernameRepository registeredUsernameRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationCache authenticationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Конструктор сервиса для инициализации зависимостей.
@@ -38,17 +50,26 @@ public class TrainerService {
      * Принимает репозитории и кодировщик паролей для использования в методах сервиса.
      * </p>
      *
-     * @param clientRepository   репозиторий для работы с клиентами
      * @param trainerRepository  репозиторий для работы с тренерами
      * @param userRepository     репозиторий для работы с пользователями
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
      * @param passwordEncoder    кодировщик паролей для шифрования
+     * @param authenticationCache кэш успешных аутентификаций
+     * @param eventPublisher     публикатор событий изменения тренеров
+     * @param transactionTemplate шаблон транзакций для создания и обновления тренеров
      */
 
-    public TrainerService(ClientRepository clientRepository, TrainerRepository trainerRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.clientRepository = clientRepository;
+    public TrainerService(TrainerRepository trainerRepository, UserRepository userRepository,
+                          RegisteredUsernameRepository registeredUsernameRepository,
+                          PasswordEncoder passwordEncoder, AuthenticationCache authenticationCache,
+                          ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
         this.trainerRepository = trainerRepository;
         this.userRepository = userRepository;
+        this.registeredUsernameRepository = registeredUsernameRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -56,56 +77,106 @@ public class TrainerService {
      * <p>
      * Выполняет валидацию данных тренера, проверяет уникальность имени пользователя,
      * создаёт связанного пользователя с ролью {@code TRAINER} и шифрует пароль.
+     * Пароль шифруется один раз до начала транзакции и сохраняется только в {@code User},
+     * на которую ссылается тренер.
      * </p>
      *
      * @param trainer объект {@code Trainer} с данными нового тренера
      * @return созданный объект {@code Trainer}
      * @throws IllegalArgumentException если данные не прошли валидацию или имя пользователя занято
+     * @throws org.example.fitness_server.exception.PasswordHashingRejectedException если очередь шифрования паролей заполнена
      */
 
     public Trainer createTrainer(Trainer trainer) {
         validateTrainer(trainer, true);
 
-        // Используем утилитный метод для проверки имени и создания User
-        UserUtil.checkUsernameAndCreateUser(trainer, Role.TRAINER, userRepository, clientRepository, trainerRepository, passwordEncoder);
-
+        // Шифрование пароля вне транзакции; хеш хранится только в User
         trainer.setPassword(passwordEncoder.encode(trainer.getPassword()));
-        return trainerRepository.save(trainer);
+
+        return transactionTemplate.execute(status -> {
+            // Используем утилитный метод для проверки имени, создания User и связи с тренером
+            UserUtil.checkUsernameAndCreateUser(trainer, Role.TRAINER, userRepository, registeredUsernameRepository);
+
+            Trainer saved = trainerRepository.save(trainer);
+            eventPublisher.publishEvent(new TrainerChangedEvent(null, saved.getId()));
+            return saved;
+        });
     }
 
     /**
      * Обновляет данные существующего тренера по указанному идентификатору.
      * <p>
-     * Выполняет валидацию данных, обновляет имя пользователя и пароль в связанном
-     * объекте {@code User}, а также обновляет остальные поля тренера.
+     * Выполняет валидацию данных, обновляет имя пользователя и пароль в учётной записи
+     * {@code User}, загруженной вместе с тренером, а также обновляет остальные поля тренера. Новый пароль шифруется
+     * один раз до начала транзакции.
      * </p>
      *
      * @param id      идентификатор тренера для обновления
      * @param trainer объект {@code Trainer} с новыми данными
      * @return обновлённый объект {@code Trainer}
      * @throws IllegalArgumentException если тренер с указанным ID не найден или имя пользователя занято
+     * @throws org.example.fitness_server.exception.PasswordHashingRejectedException если очередь шифрования паролей заполнена
      */
 
     public Trainer updateTrainer(Long id, Trainer trainer) {
-        return trainerRepository.findById(id)
+        validateTrainer(trainer, false);
+
+        // Шифрование нового пароля вне транзакции
+        boolean passwordChanged = UserUtil.encodeChangedPassword(trainer, passwordEncoder);
+
+        return transactionTemplate.execute(status -> trainerRepository.findById(id)
                 .map(existing -> {
-                    validateTrainer(trainer, false);
+                    String previousUsername = existing.getUser().getUsername();
 
                     // Обновление имени пользователя и пароля для User
-                    UserUtil.updateUserIfNeeded(
+                    boolean credentialsChanged = UserUtil.updateUserIfNeeded(
                             existing,
                             trainer,
-                            userRepository,
-                            clientRepository,
-                            trainerRepository,
-                            passwordEncoder);
+                            passwordChanged,
+                            registeredUsernameRepository,
+                            authenticationCache);
 
                     // Обновление полей тренера
-                    UserUtil.updateEntity(existing, trainer, passwordEncoder, null);
+                    UserUtil.updateEntity(existing, trainer, null);
+
+                    Trainer saved = trainerRepository.save(existing);
+                    eventPublisher.publishEvent(new TrainerChangedEvent(saved.getId(), saved.getId()));
+                    if (credentialsChanged) {
+                        eventPublisher.publishEvent(new CredentialsChangedEvent(saved.getUser().getId(), previousUsername));
+                    }
+                    return saved;
+                })
+                .orElseThrow(() -> new IllegalArgumentException("Тренер с ID " + id + " не найден.")));
+    }
 
-                    return trainerRepository.save(existing);
+    /**
+     * Удаляет тренера по указанному идентификатору.
+     * <p>
+     * Вместе с тренером удаляется связанный пользователь с ролью {@code TRAINER} и освобождается
+     * имя пользователя в реестре, а кэшированные аутентификации тренера сбрасываются, чтобы
+     * удалённый тренер больше не мог войти в систему.
+     * </p>
+     *
+     * @param id идентификатор тренера для удаления
+     * @return {@code true}, если тренер был удалён, или {@code false}, если тренер не найден
+     */
+
+    @Transactional
+    public boolean deleteTrainer(Long id) {
+        return trainerRepository.findById(id)
+                .map(existing -> {
+                    User user = existing.getUser();
+                    trainerRepository.delete(existing);
+                    if (user.getRole() == Role.TRAINER) {
+                        userRepository.delete(user);
+                        registeredUsernameRepository.deleteByUsername(user.getUsername());
+                    }
+                    authenticationCache.evict(user.getUsername());
+                    eventPublisher.publishEvent(new TrainerChangedEvent(existing.getId(), null));
+                    eventPublisher.publishEvent(new CredentialsChangedEvent(user.getId(), user.getUsername()));
+                    return true;
                 })
-                .orElseThrow(() -> new IllegalArgumentException("Тренер с ID " + id + " не найден."));
+                .orElse(false);
     }
 
     /**
@@ -0,0 +1,331 @@
+package org.example.fitness_server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fitness_server.exception.VisitRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис приёма отметок посещений с отложенной пакетной записью.
+ * <p>
+ * В утренний пик турникеты присылают тысячи отметок в секунду, и отдельная транзакция на каждую
+ * отметку заняла бы соединения пула, нужные остальным запросам. Поэтому {@link #submit(Long)}
+ * не обращается к базе данных: отметка с временем приёма помещается в ограниченный кольцевой
+ * буфер ({@code ArrayBlockingQueue} на {@code fitness.visits.buffer-capacity} отметок), и запрос
+ * сразу получает ответ 202. Если буфер заполнен, отметка не принимается: {@code VisitRejectedException}
+ * превращается в ответ 429 с заголовком {@code Retry-After}, и терминал повторяет её позже.
+ * </p>
+ * <p>
+ * Единственный фоновый поток {@code visit-writer} забирает из буфера всё накопившееся, но не больше
+ * {@code fitness.visits.batch-size} отметок, и записывает их одним многострочным
+ * {@code insert into visits ... values (?, ?), (?, ?), ...} через одно соединение. При низкой нагрузке
+ * пакеты маленькие и отметка записывается почти сразу, при высокой — пакеты растут сами,
+ * без искусственной задержки. Если в пакете есть отметка удалённого клиента, пакет записывается
+ * построчно, и отбрасывается только она. При других ошибках (например, база данных недоступна)
+ * пакет повторяется через {@code fitness.visits.retry-delay}, а буфер тем временем заполняется
+ * и включает ответы 429.
+ * </p>
+ * <p>
+ * Сервис останавливается после веб-сервера: поток записи дописывает всё, что осталось в буфере,
+ * и лишь по истечении {@code fitness.visits.shutdown-timeout} прерывается; количество
+ * незаписанных отметок пишется в журнал и в метрику {@code fitness.visits.failed}.
+ * </p>
+ * <p>
+ * Метрики:
+ * <ul>
+ *     <li>{@code fitness.visits.accepted} — количество принятых отметок;</li>
+ *     <li>{@code fitness.visits.rejected} — количество отказов из-за заполненного буфера;</li>
+ *     <li>{@code fitness.visits.written} — количество записанных отметок (скорость записи);</li>
+ *     <li>{@code fitness.visits.failed} — количество отброшенных отметок;</li>
+ *     <li>{@code fitness.visits.buffer} — количество отметок в буфере;</li>
+ *     <li>{@code fitness.visits.batch.size} — размер записанных пакетов;</li>
+ *     <li>{@code fitness.visits.flush} — время записи пакета;</li>
+ *     <li>{@code fitness.visits.lag} — время от приёма самой старой отметки пакета до её записи.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@Slf4j
+@Service
+public class VisitIngestionService implements SmartLifecycle {
+
+    /**
+     * Фаза остановки: ниже фазы веб-сервера ({@code DEFAULT_PHASE - 2048}), поэтому буфер
+     * дописывается, когда новые запросы уже не принимаются.
+     */
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArrayBlockingQueue<PendingVisit> buffer;
+    private final int bufferCapacity;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration shutdownTimeout;
+    private final String[] statements;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Конструктор для создания экземпляра {@code VisitIngestionService}.
+     *
+     * @param jdbcTemplate    шаблон JDBC для записи посещений
+     * @param bufferCapacity  вместимость буфера отметок
+     * @param batchSize       максимальное количество отметок в одном операторе {@code insert}
+     * @param retryDelay      пауза перед повторной записью пакета после ошибки
+     * @param shutdownTimeout максимальное время дописывания буфера при остановке
+     * @param meterRegistry   реестр метрик
+     */
+
+    public VisitIngestionService(JdbcTemplate jdbcTemplate,
+                                 @Value("${fitness.visits.buffer-capacity:65536}") int bufferCapacity,
+                                 @Value("${fitness.visits.batch-size:500}") int batchSize,
+                                 @Value("${fitness.visits.retry-delay:1s}") Duration retryDelay,
+                                 @Value("${fitness.visits.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                 MeterRegistry meterRegistry) {
+        if (bufferCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Вместимость буфера и размер пакета посещений должны быть "
+                    + "положительными: " + bufferCapacity + ", " + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.bufferCapacity = bufferCapacity;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.shutdownTimeout = shutdownTimeout;
+        this.statements = new String[batchSize + 1];
+
+        this.acceptedCounter = Counter.builder("fitness.visits.accepted")
+                .description("Количество принятых отметок посещений")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("fitness.visits.rejected")
+                .description("Количество отказов из-за заполненного буфера посещений")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("fitness.visits.written")
+                .description("Количество посещений, записанных в базу данных")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("fitness.visits.failed")
+                .description("Количество принятых, но не записанных посещений")
+                .register(meterRegistry);
+        Gauge.builder("fitness.visits.buffer", buffer, Collection::size)
+                .description("Количество отметок посещений, ожидающих записи")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("fitness.visits.batch.size")
+                .description("Количество посещений в одном операторе insert")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("fitness.visits.flush")
+                .description("Время записи пакета посещений")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("fitness.visits.lag")
+                .description("Время от приёма отметки посещения до её записи в базу данных")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Принимает отметку посещения в буфер записи.
+     * <p>
+     * Временем посещения считается время приёма отметки. Существование клиента не проверяется:
+     * отметка удалённого клиента отбрасывается при записи.
+     * </p>
+     *
+     * @param clientId идентификатор клиента
+     * @throws IllegalArgumentException если идентификатор клиента не задан или не положителен
+     * @throws VisitRejectedException   если буфер заполнен или приём остановлен
+     */
+
+    public void submit(Long clientId) {
+        if (clientId == null || clientId < 1) {
+            throw new IllegalArgumentException("Идентификатор клиента должен быть положительным.");
+        }
+        if (!running) {
+            throw new VisitRejectedException("Приём посещений остановлен, повторите запрос позже.");
+        }
+        if (!buffer.offer(new PendingVisit(clientId, Instant.now(), System.nanoTime()))) {
+            rejectedCounter.increment();
+            throw new VisitRejectedException("Буфер посещений заполнен (" + bufferCapacity
+                    + "), повторите запрос позже.");
+        }
+        acceptedCounter.increment();
+    }
+
+    /**
+     * Запускает поток записи посещений.
+     */
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "visit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Прекращает приём отметок и ожидает, пока поток записи допишет буфер.
+     */
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+            if (writer.isAlive()) {
+                writer.interrupt();
+                writer.join(POLL_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Отметки, принятые одновременно с остановкой или не дописанные за отведённое время
+        int remaining = buffer.size();
+        if (remaining > 0) {
+            failedCounter.increment(remaining);
+            log.error("Visit buffer not drained on shutdown, {} visits not written", remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<PendingVisit> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !buffer.isEmpty()) {
+                PendingVisit first = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            failedCounter.increment(batch.size());
+            log.error("Visit writer interrupted on shutdown, {} visits not written", batch.size());
+        }
+    }
+
+    private void flush(List<PendingVisit> batch) throws InterruptedException {
+        boolean rowByRow = false;
+        while (!batch.isEmpty()) {
+            try {
+                if (rowByRow) {
+                    writeRowByRow(batch);
+                } else {
+                    write(batch);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // В пакете есть отметка удалённого клиента: записываем отметки по одной
+                rowByRow = true;
+            } catch (RuntimeException e) {
+                log.warn("Visit batch of {} not written, retrying in {}: {}", batch.size(), retryDelay, e.getMessage());
+                Thread.sleep(retryDelay.toMillis());
+            }
+        }
+    }
+
+    private void write(List<PendingVisit> batch) {
+        long started = System.nanoTime();
+        jdbcTemplate.update(statement(batch.size()), ps -> bind(ps, batch));
+        long finished = System.nanoTime();
+        flushTimer.record(finished - started, TimeUnit.NANOSECONDS);
+        lagTimer.record(finished - batch.get(0).acceptedAt(), TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(batch.size());
+        writtenCounter.increment(batch.size());
+        batch.clear();
+    }
+
+    private void writeRowByRow(List<PendingVisit> batch) {
+        // С конца списка, чтобы удаление записанной отметки не сдвигало остальные
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            List<PendingVisit> row = batch.subList(i, i + 1);
+            try {
+                write(new ArrayList<>(row));
+            } catch (DataIntegrityViolationException e) {
+                failedCounter.increment();
+                log.warn("Visit of client {} dropped: {}", row.get(0).clientId(), e.getMostSpecificCause().getMessage());
+            }
+            row.clear();
+        }
+    }
+
+    private String statement(int size) {
+        String statement = statements[size];
+        if (statement == null) {
+            StringBuilder sql = new StringBuilder("insert into visits (client_id, visited_at) values (?, ?)");
+            for (int i = 1; i < size; i++) {
+                sql.append(", (?, ?)");
+            }
+            statement = sql.toString();
+            statements[size] = statement;
+        }
+        return statement;
+    }
+
+    private static void bind(PreparedStatement ps, List<PendingVisit> batch) throws SQLException {
+        int index = 1;
+        for (PendingVisit visit : batch) {
+            ps.setLong(index++, visit.clientId());
+            ps.setObject(index++, OffsetDateTime.ofInstant(visit.visitedAt(), ZoneOffset.UTC));
+        }
+    }
+
+    /**
+     * Отметка посещения, ожидающая записи.
+     *
+     * @param clientId   идентификатор клиента
+     * @param visitedAt  время посещения
+     * @param acceptedAt момент приёма по {@code System.nanoTime()} для метрики задержки записи
+     */
+
+    private record PendingVisit(long clientId, Instant visitedAt, long acceptedAt) {
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.fitness_server.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение записей CSV.
+ * <p>
+ * Разделитель — запятая. Поля в двойных кавычках могут содержать запятые, переводы строк
+ * и экранированные кавычки ({@code ""}). Записи разделяются {@code \n} или {@code \r\n}.
+ * Пустые строки пропускаются. Читатель хранит в памяти только текущую запись.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class CsvReader {
+
+    private final Reader reader;
+    private int pending = -2;
+
+    /**
+     * Конструктор для создания экземпляра {@code CsvReader}.
+     *
+     * @param reader источник символов (рекомендуется буферизованный)
+     */
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Читает следующую запись.
+     *
+     * @return список полей записи или {@code null}, если данные закончились
+     * @throws IOException              если произошла ошибка чтения
+     * @throws IllegalArgumentException если кавычки в записи не закрыты
+     */
+
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                if (fields.isEmpty() && field.isEmpty() && !fieldStarted) {
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытые кавычки в конце файла CSV.");
+        }
+        if (fields.isEmpty() && field.isEmpty() && !fieldStarted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.fitness_server.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Потоковая запись записей CSV.
+ * <p>
+ * Формат совместим с {@code CsvReader}: разделитель — запятая, записи завершаются {@code \r\n}.
+ * Поля, содержащие запятую, кавычку или перевод строки, заключаются в двойные кавычки,
+ * кавычки внутри поля удваиваются. Значение {@code null} записывается как пустое поле.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class CsvWriter {
+
+    private final Writer writer;
+
+    /**
+     * Конструктор для создания экземпляра {@code CsvWriter}.
+     *
+     * @param writer приёмник символов (рекомендуется буферизованный)
+     */
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Записывает одну запись.
+     *
+     * @param values значения полей
+     * @throws IOException если произошла ошибка записи
+     */
+
+    public void writeRecord(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.fitness_server.util;
+
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.MembershipStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Расчёт сроков абонемента клиента.
+ * <p>
+ * Используется при назначении абонемента в {@code ClientService} и {@code ClientImportService},
+ * при продлении в {@code MembershipService} и при заполнении начальных данных, чтобы время
+ * активации, время окончания и состояние абонемента вычислялись одинаково.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public final class Memberships {
+
+    private Memberships() {
+    }
+
+    /**
+     * Активирует абонемент клиента с указанного момента.
+     *
+     * @param client       клиент
+     * @param durationDays длительность абонемента в днях
+     * @param now          момент активации
+     */
+
+    public static void activate(Client client, int durationDays, Instant now) {
+        client.setSubscriptionActivatedAt(now);
+        client.setSubscriptionExpiresAt(now.plus(Duration.ofDays(durationDays)));
+        client.setMembershipStatus(MembershipStatus.ACTIVE);
+    }
+
+    /**
+     * Продлевает абонемент клиента на его длительность.
+     * <p>
+     * Действующий абонемент продлевается от времени окончания, время активации сохраняется.
+     * Истёкший или ещё не активированный абонемент активируется заново с указанного момента.
+     * </p>
+     *
+     * @param client       клиент
+     * @param durationDays длительность абонемента в днях
+     * @param now          текущий момент
+     */
+
+    public static void renew(Client client, int durationDays, Instant now) {
+        Instant expiresAt = client.getSubscriptionExpiresAt();
+        if (client.getMembershipStatus() == MembershipStatus.ACTIVE && expiresAt != null && expiresAt.isAfter(now)) {
+            client.setSubscriptionExpiresAt(expiresAt.plus(Duration.ofDays(durationDays)));
+        } else {
+            activate(client, durationDays, now);
+        }
+    }
+
+    /**
+     * Удаляет сроки абонемента у клиента, у которого больше нет абонемента.
+     *
+     * @param client клиент
+     */
+
+    public static void clear(Client client) {
+        client.setSubscriptionActivatedAt(null);
+        client.setSubscriptionExpiresAt(null);
+        client.setMembershipStatus(null);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.fitness_server.util;
+
+/**
+ * Приведение номеров телефонов к формату E.164.
+ * <p>
+ * Телефон клиента вводится в свободной форме: {@code +7 (987) 654-32-10}, {@code 89876543210},
+ * {@code 987 654 32 10}. Для поиска по индексу все варианты приводятся к одному каноническому
+ * виду {@code +79876543210}. Номер без знака {@code +} считается российским: ведущая {@code 8}
+ * заменяется кодом страны {@code 7}, а к десятизначному номеру код страны добавляется.
+ * Номер со знаком {@code +} сохраняет указанный код страны.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public final class PhoneNumbers {
+
+    private static final int MIN_INTERNATIONAL_DIGITS = 8;
+    private static final int MAX_INTERNATIONAL_DIGITS = 15;
+    private static final int NATIONAL_DIGITS = 10;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Приводит номер телефона к формату E.164.
+     * <p>
+     * Пробелы, дефисы, скобки и точки между цифрами игнорируются; любые другие символы,
+     * а также номер с недопустимым количеством цифр делают номер некорректным.
+     * </p>
+     *
+     * @param phone номер телефона в свободной форме (может быть {@code null})
+     * @return номер в формате E.164 или {@code null}, если номер не задан или некорректен
+     */
+
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String value = phone.trim();
+        boolean international = value.startsWith("+");
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = international ? 1 : 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != ' ' && c != '-' && c != '(' && c != ')' && c != '.') {
+                return null;
+            }
+        }
+
+        int length = digits.length();
+        if (international) {
+            boolean valid = length >= MIN_INTERNATIONAL_DIGITS && length <= MAX_INTERNATIONAL_DIGITS
+                    && digits.charAt(0) != '0';
+            return valid ? "+" + digits : null;
+        }
+        if (length == NATIONAL_DIGITS) {
+            return "+7" + digits;
+        }
+        if (length == NATIONAL_DIGITS + 1 && (digits.charAt(0) == '8' || digits.charAt(0) == '7')) {
+            return "+7" + digits.substring(1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.fitness_server.util;
+
+/**
+ * Посимвольные проверки строк для валидаторов.
+ * <p>
+ * Заменяют регулярные выражения, которые {@code String.matches} и {@code String.replaceAll}
+ * компилируют при каждом вызове. Проверки проходят строку один раз и не выделяют память,
+ * кроме случая, когда {@link #normalizeSpaces(String)} действительно изменяет строку.
+ * Пробельными считаются те же символы, что и в классе {@code \s} регулярных выражений Java:
+ * пробел, табуляции, перевод строки, перевод страницы и возврат каретки.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public final class TextRules {
+
+    private TextRules() {
+    }
+
+    /**
+     * Проверяет, что строка равна {@code null} или пуста после {@code String.trim()}.
+     *
+     * @param value проверяемая строка
+     * @return {@code true}, если строка пустая
+     */
+
+    public static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Обрезает пробелы по краям и заменяет каждую последовательность пробельных символов одним пробелом.
+     * <p>
+     * Эквивалентно {@code value.trim().replaceAll("\\s+", " ")}. Если строка уже нормализована,
+     * возвращается тот же экземпляр.
+     * </p>
+     *
+     * @param value исходная строка (не {@code null})
+     * @return нормализованная строка
+     */
+
+    public static String normalizeSpaces(String value) {
+        String trimmed = value.trim();
+        int length = trimmed.length();
+        boolean changed = false;
+        for (int i = 0; i < length; i++) {
+            char c = trimmed.charAt(i);
+            if (isSpace(c) && (c != ' ' || isSpace(trimmed.charAt(i + 1)))) {
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) {
+            return trimmed;
+        }
+        StringBuilder builder = new StringBuilder(length);
+        boolean previousSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = trimmed.charAt(i);
+            if (isSpace(c)) {
+                if (!previousSpace) {
+                    builder.append(' ');
+                }
+                previousSpace = true;
+            } else {
+                builder.append(c);
+                previousSpace = false;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Проверяет, что строка состоит только из латинских и русских букв, пробельных символов и дефисов.
+     * <p>
+     * Эквивалентно {@code value.matches("^[a-zA-Zа-яА-ЯёЁ\\s-]+$")}.
+     * </p>
+     *
+     * @param value проверяемая строка (не {@code null})
+     * @return {@code true}, если строка непустая и содержит только допустимые символы
+     */
+
+    public static boolean isPersonName(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= 'а' && c <= 'я') || (c >= 'А' && c <= 'Я') || c == 'ё' || c == 'Ё'
+                    || c == '-' || isSpace(c);
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет формат имени пользователя: от 3 до 20 латинских букв, цифр или подчёркиваний.
+     * <p>
+     * Эквивалентно {@code value.matches("^[a-zA-Z0-9_]{3,20}$")}.
+     * </p>
+     *
+     * @param value проверяемая строка (не {@code null})
+     * @return {@code true}, если имя пользователя имеет допустимый формат
+     */
+
+    public static boolean isUsername(String value) {
+        int length = value.length();
+        if (length < 3 || length > 20) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\013' || c == '\f' || c == '\r';
+    }
+}
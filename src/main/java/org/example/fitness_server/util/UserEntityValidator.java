@@ -1,5 +1,6 @@
 package org.example.fitness_server.util;
 
+import org.example.fitness_server.exception.ValidationException;
 import org.example.fitness_server.model.UserEntity;
 
 /**
@@ -8,6 +9,7 @@ import org.example.fitness_server.model.UserEntity;
  * Этот класс предоставляет методы для проверки данных пользователей, таких как имя,
  * имя пользователя и пароль, перед их созданием или обновлением. Используется в
  * сервисах для унификации валидации сущностей, таких как {@code Client} и {@code Trainer}.
+ * Строки проверяются посимвольно через {@code TextRules}, без регулярных выражений.
  * </p>
  *
  * @author Милана
@@ -22,47 +24,66 @@ public class UserEntityValidator {
      * <p>
      * Выполняет валидацию имени, имени пользователя и пароля (для новых сущностей).
      * Имя очищается от лишних пробелов и проверяется на соответствие формату.
-     * Имя пользователя должно быть уникальным и соответствовать заданному шаблону.
-     * Пароль проверяется только при создании новой сущности.
+     * Имя пользователя должно соответствовать заданному шаблону.
+     * Пароль проверяется только при создании новой сущности. Проверяются все поля,
+     * а найденные нарушения сообщаются одним исключением.
      * </p>
      *
      * @param entity     сущность для валидации, реализующая {@code UserEntity}
      * @param entityType тип сущности (например, "клиента" или "тренера") для формирования сообщений об ошибках
      * @param isNew      флаг, указывающий, создаётся ли новая сущность ({@code true}) или обновляется ({@code false})
-     * @throws IllegalArgumentException если данные не соответствуют требованиям
+     * @throws ValidationException если данные не соответствуют требованиям
      */
 
     public static void validateUserEntity(UserEntity entity, String entityType, boolean isNew) {
+        ValidationErrors errors = new ValidationErrors();
+        validateUserEntity(entity, entityType, isNew, errors);
+        errors.throwIfAny();
+    }
+
+    /**
+     * Проверяет данные сущности, реализующей {@code UserEntity}, и добавляет нарушения в накопитель.
+     * <p>
+     * Используется там, где ошибки нужно собрать без исключения, например при пакетном импорте.
+     * Если имя корректно, оно сохраняется в сущность в нормализованном виде.
+     * </p>
+     *
+     * @param entity     сущность для валидации, реализующая {@code UserEntity}
+     * @param entityType тип сущности (например, "клиента" или "тренера") для формирования сообщений об ошибках
+     * @param isNew      флаг, указывающий, создаётся ли новая сущность ({@code true}) или обновляется ({@code false})
+     * @param errors     накопитель нарушений
+     */
+
+    public static void validateUserEntity(UserEntity entity, String entityType, boolean isNew, ValidationErrors errors) {
         // Валидация имени
-        if (entity.getName() == null || entity.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Имя не может быть пустым.");
-        }
-        String cleanedName = entity.getName().trim().replaceAll("\\s+", " ");
-        if (cleanedName.length() < 2 || cleanedName.length() > 50) {
-            throw new IllegalArgumentException("Имя должно содержать от 2 до 50 символов.");
-        }
-        if (!cleanedName.matches("^[a-zA-Zа-яА-ЯёЁ\\s-]+$")) {
-            throw new IllegalArgumentException("Имя может содержать только буквы, пробелы и дефисы.");
+        if (TextRules.isBlank(entity.getName())) {
+            errors.reject("name", "Имя не может быть пустым.");
+        } else {
+            String cleanedName = TextRules.normalizeSpaces(entity.getName());
+            if (cleanedName.length() < 2 || cleanedName.length() > 50) {
+                errors.reject("name", "Имя должно содержать от 2 до 50 символов.");
+            } else if (!TextRules.isPersonName(cleanedName)) {
+                errors.reject("name", "Имя может содержать только буквы, пробелы и дефисы.");
+            } else {
+                entity.setName(cleanedName);
+            }
         }
-        entity.setName(cleanedName);
 
         // Валидация имени пользователя
-        if (entity.getUsername() == null || entity.getUsername().trim().isEmpty()) {
-            throw new IllegalArgumentException("Имя пользователя не может быть пустым.");
-        }
-        if (!entity.getUsername().matches("^[a-zA-Z0-9_]{3,20}$")) {
-            throw new IllegalArgumentException("Имя пользователя должно содержать 3–20 символов (буквы, цифры, подчёркивание).");
+        if (TextRules.isBlank(entity.getUsername())) {
+            errors.reject("username", "Имя пользователя не может быть пустым.");
+        } else if (!TextRules.isUsername(entity.getUsername())) {
+            errors.reject("username", "Имя пользователя должно содержать 3–20 символов (буквы, цифры, подчёркивание).");
         }
 
         // Валидация пароля
         if (isNew) {
             String password = entity.getPassword();
-            if (password == null || password.trim().isEmpty()) {
-                throw new IllegalArgumentException("Пароль не может быть пустым при создании " + entityType + ".");
-            }
-            if (password.length() < 6) {
-                throw new IllegalArgumentException("Пароль должен содержать минимум 6 символов.");
+            if (TextRules.isBlank(password)) {
+                errors.reject("password", "Пароль не может быть пустым при создании " + entityType + ".");
+            } else if (password.length() < 6) {
+                errors.reject("password", "Пароль должен содержать минимум 6 символов.");
             }
         }
     }
-}
\ No newline at end of file
+}
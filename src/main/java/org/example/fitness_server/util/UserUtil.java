@@ -1,11 +1,14 @@
 package org.example.fitness_server.util;
 
+import org.example.fitness_server.model.RegisteredUsername;
 import org.example.fitness_server.model.Role;
 import org.example.fitness_server.model.User;
 import org.example.fitness_server.model.UserEntity;
-import org.example.fitness_server.repository.ClientRepository;
-import org.example.fitness_server.repository.TrainerRepository;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
 import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.example.fitness_server.security.PasswordEncoders;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
@@ -13,7 +16,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  * <p>
  * Этот класс предоставляет методы для проверки уникальности имени пользователя,
  * создания и обновления связанных объектов {@code User}, а также обновления полей
- * сущностей. Используется в сервисах, таких как {@code ClientService} и {@code TrainerService},
+ * сущностей. Имя пользователя и пароль хранятся только в {@code User}, поэтому при обновлении
+ * изменяется одна запись, без синхронизации копий в клиенте или тренере. Используется в сервисах, таких как {@code ClientService} и {@code TrainerService},
  * для унификации логики работы с пользовательскими данными.
  * </p>
  *
@@ -25,104 +29,140 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class UserUtil {
 
     /**
-     * Проверяет уникальность имени пользователя и создаёт связанный объект {@code User}.
+     * Проверяет уникальность имени пользователя, создаёт объект {@code User} и связывает с ним сущность.
      * <p>
-     * Проверяет, не занято ли имя пользователя в таблицах пользователей, клиентов или тренеров.
-     * Если имя свободно, создаётся новый объект {@code User} с указанной ролью, зашифрованным
-     * паролем и сохраняется в репозитории.
+     * Занимает имя пользователя в реестре {@code RegisteredUsername}: сначала выполняется один
+     * индексный запрос на существование, затем имя вставляется в реестр. Окончательное решение
+     * принимает ограничение уникальности, поэтому одновременная регистрация одного имени
+     * не приводит к дубликатам. Если имя свободно, создаётся новый объект {@code User}
+     * с указанной ролью и сохраняется в репозитории. Пароль сущности к этому моменту уже
+     * зашифрован и записывается в {@code User} без повторного шифрования; сама сущность
+     * хранит только ссылку на учётную запись.
      * </p>
      *
-     * @param entity            сущность, реализующая {@code UserEntity}, с данными пользователя
-     * @param role              роль пользователя ({@code Role.CLIENT} или {@code Role.TRAINER})
-     * @param userRepository    репозиторий для работы с пользователями
-     * @param clientRepository  репозиторий для работы с клиентами
-     * @param trainerRepository репозиторий для работы с тренерами
-     * @param passwordEncoder   кодировщик паролей для шифрования
+     * @param entity                       сущность, реализующая {@code UserEntity}, с зашифрованным паролем
+     * @param role                         роль пользователя ({@code Role.CLIENT} или {@code Role.TRAINER})
+     * @param userRepository               репозиторий для работы с пользователями
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
      * @throws IllegalArgumentException если имя пользователя уже занято
      */
 
-    public static void checkUsernameAndCreateUser(UserEntity entity, Role role, 
-            UserRepository userRepository, ClientRepository clientRepository, 
-            TrainerRepository trainerRepository, PasswordEncoder passwordEncoder) {
+    public static void checkUsernameAndCreateUser(UserEntity entity, Role role,
+            UserRepository userRepository, RegisteredUsernameRepository registeredUsernameRepository) {
         // Проверка уникальности имени пользователя
-        if (userRepository.findByUsername(entity.getUsername()).isPresent() ||
-                clientRepository.findByUsername(entity.getUsername()).isPresent() ||
-                trainerRepository.findByUsername(entity.getUsername()).isPresent()) {
-            throw new IllegalArgumentException("Имя пользователя уже занято.");
-        }
+        registerUsername(entity.getUsername(), registeredUsernameRepository);
 
         // Создание User
         User user = new User();
         user.setUsername(entity.getUsername());
-        user.setPassword(passwordEncoder.encode(entity.getPassword()));
+        user.setPassword(entity.getPassword());
         user.setRole(role);
-        userRepository.save(user);
+        entity.setUser(userRepository.save(user));
+    }
+
+    /**
+     * Шифрует новый пароль обновлённой сущности, если он передан в открытом виде.
+     * <p>
+     * Вызывается один раз до начала транзакции: полученный хеш затем записывается в {@code User}.
+     * Пустой или уже зашифрованный пароль (любым алгоритмом, см.
+     * {@code PasswordEncoders.isEncoded}) означает, что пароль не меняется.
+     * </p>
+     *
+     * @param updated         обновлённая сущность с новыми данными
+     * @param passwordEncoder кодировщик паролей для шифрования
+     * @return {@code true}, если пароль изменился и был зашифрован
+     */
+
+    public static boolean encodeChangedPassword(UserEntity updated, PasswordEncoder passwordEncoder) {
+        if (updated.getPassword() == null || PasswordEncoders.isEncoded(updated.getPassword())) {
+            return false;
+        }
+        updated.setPassword(passwordEncoder.encode(updated.getPassword()));
+        return true;
     }
 
     /**
      * Обновляет связанный объект {@code User}, если изменились имя пользователя или пароль.
      * <p>
-     * Если имя пользователя изменилось, проверяет его уникальность и обновляет данные в
-     * объекте {@code User}. Если пароль изменился и не зашифрован, шифрует его и обновляет.
+     * Если имя пользователя изменилось, занимает новое имя в реестре, освобождает прежнее и
+     * обновляет имя в объекте {@code User}. Если пароль изменился, записывает в {@code User}
+     * хеш, полученный {@link #encodeChangedPassword}. Учётная запись загружена вместе с сущностью,
+     * поэтому изменения сохраняются при фиксации транзакции без отдельного поиска по имени.
+     * В обоих случаях версия учётных данных увеличивается, что отзывает выпущенные ранее токены,
+     * а кэшированные аутентификации прежнего имени пользователя сбрасываются; после
+     * фиксации транзакции их сбрасывает повторно обработчик {@code CredentialsChangedEvent}, которое
+     * публикует вызывающий сервис.
      * </p>
      *
-     * @param existing          текущая сущность, реализующая {@code UserEntity}
-     * @param updated           обновлённая сущность с новыми данными
-     * @param userRepository    репозиторий для работы с пользователями
-     * @param clientRepository  репозиторий для работы с клиентами
-     * @param trainerRepository репозиторий для работы с тренерами
-     * @param passwordEncoder   кодировщик паролей для шифрования
+     * @param existing                     текущая сущность, реализующая {@code UserEntity}
+     * @param updated                      обновлённая сущность с новыми данными
+     * @param passwordChanged              изменился ли пароль
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
+     * @param authenticationCache          кэш успешных аутентификаций
+     * @return {@code true}, если изменились имя пользователя или пароль
      * @throws IllegalArgumentException если новое имя пользователя уже занято
      */
 
-    public static void updateUserIfNeeded(UserEntity existing, UserEntity updated,
-                                          UserRepository userRepository, ClientRepository clientRepository,
-                                          TrainerRepository trainerRepository, PasswordEncoder passwordEncoder) {
-        if (!existing.getUsername().equals(updated.getUsername())) {
-            if (userRepository.findByUsername(updated.getUsername()).isPresent() ||
-                    clientRepository.findByUsername(updated.getUsername()).isPresent() ||
-                    trainerRepository.findByUsername(updated.getUsername()).isPresent()) {
-                throw new IllegalArgumentException("Имя пользователя уже занято.");
-            }
-            userRepository.findByUsername(existing.getUsername())
-                    .ifPresent(user -> {
-                        user.setUsername(updated.getUsername());
-                        if (updated.getPassword() != null && !updated.getPassword().startsWith("$2a$")) {
-                            user.setPassword(passwordEncoder.encode(updated.getPassword()));
-                        }
-                        userRepository.save(user);
-                    });
-        } else if (updated.getPassword() != null && !updated.getPassword().startsWith("$2a$")) {
-            userRepository.findByUsername(existing.getUsername())
-                    .ifPresent(user -> {
-                        user.setPassword(passwordEncoder.encode(updated.getPassword()));
-                        userRepository.save(user);
-                    });
+    public static boolean updateUserIfNeeded(UserEntity existing, UserEntity updated, boolean passwordChanged,
+                                          RegisteredUsernameRepository registeredUsernameRepository,
+                                          AuthenticationCache authenticationCache) {
+        User user = existing.getUser();
+        String previousUsername = user.getUsername();
+        boolean usernameChanged = !previousUsername.equals(updated.getUsername());
+        if (usernameChanged) {
+            registerUsername(updated.getUsername(), registeredUsernameRepository);
+            registeredUsernameRepository.deleteByUsername(previousUsername);
+            user.setUsername(updated.getUsername());
+        }
+        if (passwordChanged) {
+            user.setPassword(updated.getPassword());
+        }
+        if (usernameChanged || passwordChanged) {
+            user.setCredentialsVersion(user.getCredentialsVersion() + 1);
+            authenticationCache.evict(previousUsername);
+        }
+        return usernameChanged || passwordChanged;
+    }
+
+    /**
+     * Занимает имя пользователя в реестре.
+     * <p>
+     * Быстрая проверка {@code existsByUsername} отсекает заведомо занятые имена, а гонку
+     * одновременных регистраций разрешает уникальный индекс таблицы реестра.
+     * </p>
+     *
+     * @param username                     имя пользователя
+     * @param registeredUsernameRepository репозиторий реестра занятых имён пользователей
+     * @throws IllegalArgumentException если имя пользователя уже занято
+     */
+
+    public static void registerUsername(String username, RegisteredUsernameRepository registeredUsernameRepository) {
+        if (registeredUsernameRepository.existsByUsername(username)) {
+            throw new IllegalArgumentException("Имя пользователя уже занято.");
+        }
+        try {
+            registeredUsernameRepository.saveAndFlush(new RegisteredUsername(username));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Имя пользователя уже занято.", e);
         }
     }
 
     /**
      * Обновляет поля сущности на основе данных обновлённой сущности.
      * <p>
-     * Обновляет имя, имя пользователя и пароль (при необходимости шифрует).
+     * Обновляет имя; имя пользователя и пароль обновляет {@link #updateUserIfNeeded}.
      * Если передан {@code trainerLogic}, выполняет дополнительную логику (например,
      * назначение тренера для клиента).
      * </p>
      *
-     * @param existing      текущая сущность, реализующая {@code UserEntity}
-     * @param updated       обновлённая сущность с новыми данными
-     * @param passwordEncoder кодировщик паролей для шифрования
-     * @param trainerLogic  дополнительная логика для выполнения (может быть {@code null})
-     * @param <T>           тип сущности, расширяющий {@code UserEntity}
+     * @param existing     текущая сущность, реализующая {@code UserEntity}
+     * @param updated      обновлённая сущность с новыми данными
+     * @param trainerLogic дополнительная логика для выполнения (может быть {@code null})
+     * @param <T>          тип сущности, расширяющий {@code UserEntity}
      */
 
-    public static <T extends UserEntity> void updateEntity(T existing, T updated,
-                                                           PasswordEncoder passwordEncoder, Runnable trainerLogic) {
+    public static <T extends UserEntity> void updateEntity(T existing, T updated, Runnable trainerLogic) {
         existing.setName(updated.getName());
-        existing.setUsername(updated.getUsername());
-        if (updated.getPassword() != null && !updated.getPassword().startsWith("$2a$")) {
-            existing.setPassword(passwordEncoder.encode(updated.getPassword()));
-        }
         if (trainerLogic != null) {
             trainerLogic.run();
         }
@@ -0,0 +1,78 @@
+package org.example.fitness_server.util;
+
+import org.example.fitness_server.dto.FieldViolation;
+import org.example.fitness_server.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Накопитель нарушений правил валидации.
+ * <p>
+ * Валидаторы проверяют все поля и добавляют нарушения в накопитель вместо того, чтобы
+ * выбрасывать исключение на первой ошибке. Список нарушений создаётся только при первой
+ * ошибке, поэтому проверка корректных данных не выделяет память.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+public class ValidationErrors {
+
+    private List<FieldViolation> violations;
+
+    /**
+     * Конструктор по умолчанию.
+     */
+
+    public ValidationErrors() {
+    }
+
+    /**
+     * Добавляет нарушение для поля.
+     *
+     * @param field   имя поля
+     * @param message сообщение об ошибке
+     */
+
+    public void reject(String field, String message) {
+        if (violations == null) {
+            violations = new ArrayList<>(2);
+        }
+        violations.add(new FieldViolation(field, message));
+    }
+
+    /**
+     * Проверяет, найдены ли нарушения.
+     *
+     * @return {@code true}, если найдено хотя бы одно нарушение
+     */
+
+    public boolean hasErrors() {
+        return violations != null;
+    }
+
+    /**
+     * Возвращает найденные нарушения.
+     *
+     * @return список нарушений (пустой, если нарушений нет)
+     */
+
+    public List<FieldViolation> getViolations() {
+        return violations == null ? List.of() : violations;
+    }
+
+    /**
+     * Выбрасывает исключение со всеми найденными нарушениями, если они есть.
+     *
+     * @throws ValidationException если найдено хотя бы одно нарушение
+     */
+
+    public void throwIfAny() {
+        if (violations != null) {
+            throw new ValidationException(violations);
+        }
+    }
+}
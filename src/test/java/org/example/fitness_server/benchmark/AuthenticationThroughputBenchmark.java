@@ -0,0 +1,128 @@
+package org.example.fitness_server.benchmark;
+
+import org.example.fitness_server.controller.ClientController;
+import org.example.fitness_server.metrics.RequestStatementCounter;
+import org.example.fitness_server.model.Role;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.example.fitness_server.security.CachingAuthenticationProvider;
+import org.example.fitness_server.security.TokenAuthenticationFilter;
+import org.example.fitness_server.security.TokenService;
+import org.example.fitness_server.service.ClientExportService;
+import org.example.fitness_server.service.ClientImportService;
+import org.example.fitness_server.service.ClientSearchService;
+import org.example.fitness_server.service.ClientService;
+import org.example.fitness_server.service.MembershipService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Сравнение пропускной способности запросов при HTTP Basic-аутентификации и при аутентификации по токену.
+ * <p>
+ * Каждый вариант прогоняет запросы к {@code GET /api/clients/test} через {@code MockMvc} с соответствующим
+ * фильтром аутентификации и выводит количество запросов в секунду. Сравниваются три варианта:
+ * Basic с проверкой BCrypt на каждый запрос, Basic с {@code AuthenticationCache} и токен доступа.
+ * </p>
+ * <p>
+ * Тест выполняется только при запуске с {@code -Dbenchmark=true}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AuthenticationThroughputBenchmark {
+
+    private static final Duration WARM_UP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    /**
+     * Измеряет и выводит количество запросов в секунду для каждого варианта аутентификации.
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void compareBasicAndTokenAuthentication() throws Exception {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        InMemoryUserDetailsManager userDetailsService = new InMemoryUserDetailsManager(User.withUsername("ivan")
+                .password(passwordEncoder.encode("ivan123"))
+                .roles("CLIENT")
+                .build());
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoProvider.setUserDetailsService(userDetailsService);
+        AuthenticationProvider cachingProvider = new CachingAuthenticationProvider(
+                daoProvider, new AuthenticationCache(10_000, Duration.ofMinutes(5)));
+        org.example.fitness_server.model.User account = new org.example.fitness_server.model.User();
+        account.setId(1L);
+        account.setUsername("ivan");
+        account.setRole(Role.CLIENT);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(account));
+        TokenService tokenService = new TokenService(userRepository, "",
+                Duration.ofMinutes(15), Duration.ofHours(8), 10_000, Duration.ofSeconds(30));
+
+        String basicHeader = "Basic " + Base64.getEncoder()
+                .encodeToString("ivan:ivan123".getBytes(StandardCharsets.UTF_8));
+        String bearerHeader = "Bearer " + tokenService.issueTokens(account).accessToken();
+
+        report("Basic (BCrypt на каждый запрос)",
+                measure(new BasicAuthenticationFilter(new ProviderManager(daoProvider)), basicHeader));
+        report("Basic (AuthenticationCache)",
+                measure(new BasicAuthenticationFilter(new ProviderManager(cachingProvider)), basicHeader));
+        report("Bearer (подписанный токен)",
+                measure(new TokenAuthenticationFilter(tokenService), bearerHeader));
+    }
+
+    private double measure(Filter authenticationFilter, String authorizationHeader) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new ClientController(mock(ClientService.class), mock(ClientRepository.class),
+                        mock(ClientImportService.class), mock(ClientExportService.class),
+                        mock(ClientSearchService.class), mock(MembershipService.class),
+                        mock(RequestStatementCounter.class)))
+                .addFilters(authenticationFilter)
+                .build();
+        run(mockMvc, authorizationHeader, WARM_UP);
+        return run(mockMvc, authorizationHeader, MEASUREMENT) / (double) MEASUREMENT.toSeconds();
+    }
+
+    private long run(MockMvc mockMvc, String authorizationHeader, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long requests = 0;
+        while (System.nanoTime() < deadline) {
+            mockMvc.perform(get("/api/clients/test").header("Authorization", authorizationHeader))
+                    .andExpect(status().isOk());
+            SecurityContextHolder.clearContext();
+            requests++;
+        }
+        return requests;
+    }
+
+    private void report(String variant, double requestsPerSecond) {
+        System.out.printf("%-35s %12.1f запросов/с%n", variant, requestsPerSecond);
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.fitness_server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.fitness_server.dto.TokenResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный тест обработки запросов в режиме платформенных и виртуальных потоков.
+ * <p>
+ * Приложение запускается на случайном порту с базой данных H2. {@code benchmark.concurrency}
+ * клиентов (по умолчанию 200) в течение {@code benchmark.seconds} секунд (по умолчанию 20)
+ * без пауз отправляют запросы: 90% — {@code GET /api/clients?limit=20} (JDBC), 10% —
+ * {@code POST /api/clients} (шифрование пароля BCrypt). Запросы аутентифицируются токеном,
+ * чтобы BCrypt вызывался только при создании клиентов. Выводятся пропускная способность,
+ * медиана и 99-й процентиль времени ответа и количество неуспешных ответов по кодам статуса.
+ * </p>
+ * <p>
+ * Тест выполняется только при запуске с {@code -Dbenchmark=true}. Режим задаётся свойством
+ * {@code spring.threads.virtual.enabled}:
+ * <ul>
+ *     <li>платформенные потоки: {@code mvn test -Dtest=RequestModeLoadBenchmark -Dbenchmark=true};</li>
+ *     <li>виртуальные потоки (JDK 21): {@code mvn -Pjava21 test -Dtest=RequestModeLoadBenchmark
+ *     -Dbenchmark=true -Dspring.threads.virtual.enabled=true}.</li>
+ * </ul>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"})
+class RequestModeLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 20));
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicInteger clientNumber = new AtomicInteger();
+
+    /**
+     * Запускает нагрузку и выводит результаты для текущего режима.
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void measureThroughputAndLatency() throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(4))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(http);
+
+        run(http, token, WARM_UP);
+        Result result = run(http, token, MEASUREMENT);
+
+        System.out.printf("Режим: %s, клиентов: %d, запросов: %d, ошибок: %s%n",
+                virtualThreads ? "виртуальные потоки" : "платформенные потоки",
+                CONCURRENCY, result.latencies.length, result.errors);
+        System.out.printf("Пропускная способность: %.1f запросов/с, p50: %.1f мс, p99: %.1f мс%n",
+                result.latencies.length / (MEASUREMENT.toMillis() / 1000.0),
+                percentile(result.latencies, 0.50) / 1e6, percentile(result.latencies, 0.99) / 1e6);
+    }
+
+    private Result run(HttpClient http, String token, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService users = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(CONCURRENCY);
+            Map<Integer, LongAdder> errors = new ConcurrentSkipListMap<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(users.submit(() -> userLoop(http, token, deadline, errors)));
+            }
+            List<long[]> perUser = new ArrayList<>(CONCURRENCY);
+            for (Future<long[]> future : futures) {
+                perUser.add(future.get());
+            }
+            long[] latencies = perUser.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, errors);
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    private long[] userLoop(HttpClient http, String token, long deadline, Map<Integer, LongAdder> errors) throws Exception {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = ThreadLocalRandom.current().nextInt(10) == 0
+                    ? createClientRequest(token)
+                    : HttpRequest.newBuilder(uri("/api/clients?limit=20"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() / 100 != 2) {
+                errors.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = elapsed;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private HttpRequest createClientRequest(String token) {
+        int n = clientNumber.incrementAndGet();
+        String body = """
+                {"name": "Клиент Нагрузочный", "username": "load_%d", "password": "secret123", "phone": "+7930%d"}
+                """.formatted(n, 1_000_000 + n);
+        return HttpRequest.newBuilder(uri("/api/clients"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private String login(HttpClient http) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\": \"admin\", \"password\": \"admin123\"}"))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readValue(response.body(), TokenResponse.class).accessToken();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private record Result(long[] latencies, Map<Integer, LongAdder> errors) {
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.fitness_server.benchmark;
+
+import org.example.fitness_server.controller.StatisticsController;
+import org.example.fitness_server.dto.ClientStatistics;
+import org.example.fitness_server.dto.StatisticsBreakdown;
+import org.example.fitness_server.dto.SubscriptionCostStatistics;
+import org.example.fitness_server.dto.TrainerLoad;
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.model.Trainer;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение расширенной статистики на SQL-агрегатах с расчётом в Java по загруженным сущностям.
+ * <p>
+ * База данных H2 заполняется набором из {@code benchmark.clients} клиентов (по умолчанию 1 000 000),
+ * 200 тренеров и 20 абонементов. Вариант «Java» загружает все сущности через {@code findAll()} и
+ * считает показатели потоками, как это делал прежний {@code StatisticsController}. Вариант «SQL»
+ * вызывает {@code GET /api/statistics/breakdown}, который выполняет три агрегирующих запроса.
+ * Перед замером результаты обоих вариантов сверяются.
+ * </p>
+ * <p>
+ * Тест выполняется только при запуске с {@code -Dbenchmark=true}. Для варианта «Java» на 1 000 000
+ * клиентов требуется увеличенная куча, например {@code -DargLine=-Xmx3g}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:breakdown;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"})
+class StatisticsBreakdownBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1_000_000);
+    private static final int TRAINERS = 200;
+    private static final int SUBSCRIPTIONS = 20;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    private StatisticsController statisticsController;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Заполняет базу данных, сверяет результаты и выводит среднее время расчёта для каждого варианта.
+     */
+
+    @Test
+    void compareSqlAggregatesWithJavaStreaming() {
+        seed();
+
+        StatisticsBreakdown sql = statisticsController.getStatisticsBreakdown();
+        StatisticsBreakdown java = transactionTemplate.execute(status -> computeInJava());
+        assertEquals(sql.clients().totalClients(), java.clients().totalClients());
+        assertEquals(sql.clients().clientsWithoutTrainer(), java.clients().clientsWithoutTrainer());
+        assertEquals(sql.clients().revenueAtListPrice(), java.clients().revenueAtListPrice(), 0.01);
+        assertEquals(sql.clientsPerTrainer().get(0).clients(), java.clientsPerTrainer().get(0).clients());
+
+        System.out.printf("Клиентов: %d%n", CLIENTS);
+        report("SQL-агрегаты (/breakdown)", measure(statisticsController::getStatisticsBreakdown, 5));
+        report("Java (findAll + потоки)",
+                measure(() -> transactionTemplate.execute(status -> computeInJava()), 3));
+    }
+
+    private StatisticsBreakdown computeInJava() {
+        List<Subscription> subscriptions = subscriptionRepository.findAll();
+        List<Trainer> trainers = trainerRepository.findAll();
+        List<Client> clients = clientRepository.findAll();
+
+        SubscriptionCostStatistics subscriptionStatistics = new SubscriptionCostStatistics(
+                (long) subscriptions.size(),
+                subscriptions.stream().mapToDouble(Subscription::getCost).average().orElse(0.0),
+                subscriptions.stream().mapToDouble(Subscription::getCost).min().orElse(0.0),
+                subscriptions.stream().mapToDouble(Subscription::getCost).max().orElse(0.0));
+
+        long withoutTrainer = 0;
+        long withoutSubscription = 0;
+        double revenue = 0.0;
+        Map<Long, Long> perTrainer = new HashMap<>();
+        for (Client client : clients) {
+            if (client.getTrainer() == null) {
+                withoutTrainer++;
+            } else {
+                perTrainer.merge(client.getTrainer().getId(), 1L, Long::sum);
+            }
+            if (client.getSubscription() == null) {
+                withoutSubscription++;
+            } else {
+                revenue += client.getSubscription().getCost();
+            }
+        }
+
+        List<TrainerLoad> loads = new ArrayList<>();
+        for (Trainer trainer : trainers) {
+            loads.add(new TrainerLoad(trainer.getId(), trainer.getName(), perTrainer.getOrDefault(trainer.getId(), 0L)));
+        }
+        loads.sort(Comparator.comparing(TrainerLoad::clients).reversed().thenComparing(TrainerLoad::trainerId));
+
+        return new StatisticsBreakdown(subscriptionStatistics,
+                new ClientStatistics((long) clients.size(), withoutTrainer, withoutSubscription, revenue), loads);
+    }
+
+    private void seed() {
+        for (int i = 1; i <= SUBSCRIPTIONS; i++) {
+            jdbcTemplate.update("insert into subscriptions (id, type, cost, duration_days) "
+                    + "values (nextval('subscriptions_seq'), ?, ?, ?)", "Абонемент " + i, 1000.0 * i, 30);
+        }
+        for (int i = 1; i <= TRAINERS; i++) {
+            jdbcTemplate.update("insert into trainers (id, name, username, password) "
+                    + "values (nextval('trainers_seq'), ?, ?, ?)", "Тренер " + i, "bench-trainer-" + i, "{noop}secret");
+        }
+        List<Long> subscriptionIds = jdbcTemplate.queryForList("select id from subscriptions order by id", Long.class);
+        List<Long> trainerIds = jdbcTemplate.queryForList("select id from trainers order by id", Long.class);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < CLIENTS; i++) {
+            Long subscriptionId = i % 10 == 0 ? null : subscriptionIds.get(i % subscriptionIds.size());
+            Long trainerId = i % 3 == 0 ? null : trainerIds.get(i % trainerIds.size());
+            // Идентификаторы выдаются вне диапазона последовательности clients_seq
+            batch.add(new Object[]{-(i + 1L), "Клиент " + i, "bench-client-" + i, "{noop}secret",
+                    String.format("+7999%07d", i), subscriptionId, trainerId});
+            if (batch.size() == BATCH_SIZE) {
+                insertClients(batch);
+                batch.clear();
+            }
+        }
+        insertClients(batch);
+    }
+
+    private void insertClients(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into clients (id, name, username, password, phone, subscription_id, trainer_id) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private double measure(Supplier<StatisticsBreakdown> variant, int iterations) {
+        variant.get();
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            variant.get();
+        }
+        return (System.nanoTime() - started) / 1_000_000.0 / iterations;
+    }
+
+    private void report(String variant, double millis) {
+        System.out.printf("%-35s %12.1f мс на запрос%n", variant, millis);
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.fitness_server.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестовый класс для проверки миграции учётных данных в таблицу {@code users}.
+ * <p>
+ * Схема до миграции воспроизводится добавлением прежних столбцов {@code username} и {@code password}
+ * в таблицы {@code clients} и {@code trainers}, созданные Hibernate. Миграция выполняется порциями
+ * по одной строке, чтобы проверить связывание в несколько транзакций.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:identity_migration;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdentityMigrationTest {
+
+    private static final String IVAN_HASH = "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3DOGWpDWh1y1Px5b6A2Tn3a";
+    private static final String LEGACY_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Воспроизводит схему и данные до перехода на единую учётную запись.
+     * <p>
+     * У клиента {@code ivan} есть строка {@code users}, у клиента {@code orphan} и тренера {@code petr} — нет.
+     * </p>
+     */
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("delete from clients");
+        jdbcTemplate.execute("delete from trainers");
+        jdbcTemplate.execute("delete from users");
+        jdbcTemplate.execute("delete from username_registry");
+        for (String table : new String[]{"clients", "trainers"}) {
+            jdbcTemplate.execute("alter table " + table + " add column if not exists username varchar(255)");
+            jdbcTemplate.execute("alter table " + table + " add column if not exists password varchar(255)");
+            jdbcTemplate.execute("alter table " + table + " alter column password set not null");
+        }
+        jdbcTemplate.update("insert into users (id, username, password, role) values (nextval('users_seq'), 'ivan', ?, 'CLIENT')", IVAN_HASH);
+        jdbcTemplate.update("insert into clients (id, name, phone, username, password, version) "
+                + "values (1, 'Иван Иванов', '+79876543210', 'ivan', ?, 0)", LEGACY_HASH);
+        jdbcTemplate.update("insert into clients (id, name, phone, username, password, version) "
+                + "values (2, 'Ольга Петрова', '+79991234567', 'orphan', ?, 0)", LEGACY_HASH);
+        jdbcTemplate.update("insert into trainers (id, name, username, password, version) "
+                + "values (1, 'Пётр Сидоров', 'petr', ?, 0)", LEGACY_HASH);
+    }
+
+    /**
+     * Тестирует миграцию прежней схемы без завершения.
+     * <p>
+     * Проверяет, что клиент связывается с существующей учётной записью без изменения её пароля,
+     * для клиента и тренера без учётной записи создаются строки {@code users} с прежним хешем
+     * и нужной ролью, а прежние столбцы остаются, но перестают быть обязательными.
+     * </p>
+     */
+
+    @Test
+    void migrate_LegacyColumns_LinksRowsAndCreatesMissingUsers() {
+        migration(false).migrate();
+
+        Map<String, Object> ivan = account("clients", 1);
+        assertEquals("ivan", ivan.get("username"));
+        assertEquals(IVAN_HASH, ivan.get("password"));
+        assertEquals("CLIENT", ivan.get("role"));
+
+        Map<String, Object> orphan = account("clients", 2);
+        assertEquals("orphan", orphan.get("username"));
+        assertEquals(LEGACY_HASH, orphan.get("password"));
+        assertEquals("CLIENT", orphan.get("role"));
+
+        Map<String, Object> petr = account("trainers", 1);
+        assertEquals("petr", petr.get("username"));
+        assertEquals("TRAINER", petr.get("role"));
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from username_registry "
+                + "where username in ('orphan', 'petr')", Integer.class));
+        assertEquals("YES", nullable("clients", "password"));
+        assertEquals("YES", nullable("trainers", "username"));
+    }
+
+    /**
+     * Тестирует повторную миграцию с завершением.
+     * <p>
+     * Проверяет, что повторный запуск не создаёт учётные записи повторно, столбец {@code user_id}
+     * становится обязательным, а прежние столбцы удаляются.
+     * </p>
+     */
+
+    @Test
+    void migrate_Finalize_DropsLegacyColumns() {
+        migration(false).migrate();
+        migration(true).migrate();
+
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+        for (String table : new String[]{"clients", "trainers"}) {
+            assertEquals("NO", nullable(table, "user_id"));
+            assertNull(nullable(table, "username"));
+            assertNull(nullable(table, "password"));
+        }
+        assertFalse(jdbcTemplate.queryForList("select id from clients where user_id is null").iterator().hasNext());
+
+        // На новой схеме миграция ничего не делает
+        migration(true).migrate();
+        jdbcTemplate.execute("alter table clients alter column user_id drop not null");
+        jdbcTemplate.execute("alter table trainers alter column user_id drop not null");
+    }
+
+    /**
+     * Тестирует миграцию, когда последовательности созданы заново, а таблицы содержат прежние идентификаторы.
+     * <p>
+     * Учётная запись и запись реестра клиента {@code ivan} занимают идентификатор 1, а последовательности
+     * {@code users_seq} и {@code username_registry_seq} начинаются с 1. Проверяет, что новые строки
+     * получают идентификаторы после существующих, а прежняя учётная запись не изменяется.
+     * </p>
+     */
+
+    @Test
+    void migrate_FreshSequences_SkipsLegacyIds() {
+        jdbcTemplate.execute("delete from users");
+        jdbcTemplate.update("insert into users (id, username, password, role) values (1, 'ivan', ?, 'CLIENT')", IVAN_HASH);
+        jdbcTemplate.update("insert into username_registry (id, username) values (1, 'ivan')");
+        jdbcTemplate.execute("alter sequence users_seq restart with 1");
+        jdbcTemplate.execute("alter sequence username_registry_seq restart with 1");
+
+        migration(false).migrate();
+
+        assertEquals(1L, jdbcTemplate.queryForObject("select user_id from clients where id = 1", Long.class));
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject("select min(id) from users where username <> 'ivan'", Long.class) > 1);
+        assertTrue(jdbcTemplate.queryForObject("select min(id) from username_registry where username <> 'ivan'", Long.class) > 1);
+    }
+
+    private IdentityMigration migration(boolean finalizeSchema) {
+        return new IdentityMigration(jdbcTemplate, new SequenceAlignment(jdbcTemplate), 1, finalizeSchema);
+    }
+
+    private Map<String, Object> account(String table, long id) {
+        return jdbcTemplate.queryForMap("select u.username as username, u.password as password, u.role as role "
+                + "from " + table + " t join users u on u.id = t.user_id where t.id = ?", id);
+    }
+
+    private String nullable(String table, String column) {
+        return jdbcTemplate.queryForList("select is_nullable from information_schema.columns "
+                        + "where lower(table_name) = ? and lower(column_name) = ?", String.class, table, column)
+                .stream().findFirst().orElse(null);
+    }
+}
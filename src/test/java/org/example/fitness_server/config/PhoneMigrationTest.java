@@ -0,0 +1,72 @@
+package org.example.fitness_server.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Тестовый класс для проверки заполнения столбца {@code phone_normalized} у прежних клиентов.
+ * <p>
+ * Клиенты вставляются напрямую через JDBC с пустым {@code phone_normalized}, как строки,
+ * созданные до появления столбца. Миграция выполняется порциями по одной строке.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:phone_migration;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PhoneMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Тестирует миграцию телефонов в разных форматах.
+     * <p>
+     * Проверяет, что российские номера с {@code 8} и без кода страны и номер с другим кодом
+     * страны приводятся к формату E.164, а повторяющийся и некорректный номера остаются
+     * без {@code phone_normalized} и не прерывают миграцию. Повторный запуск ничего не меняет.
+     * </p>
+     */
+
+    @Test
+    void migrate_LegacyPhones_NormalizesUniqueValidNumbers() {
+        jdbcTemplate.execute("delete from clients");
+        insertClient(1, "8 (987) 654-32-10");
+        insertClient(2, "+7 987 654 32 10");
+        insertClient(3, "не указан");
+        insertClient(4, "999 123-45-67");
+        insertClient(5, "+44 20 7946 0958");
+
+        new PhoneMigration(jdbcTemplate, 1).migrate();
+        new PhoneMigration(jdbcTemplate, 1).migrate();
+
+        assertEquals("+79876543210", phoneNormalized(1));
+        assertNull(phoneNormalized(2));
+        assertNull(phoneNormalized(3));
+        assertEquals("+79991234567", phoneNormalized(4));
+        assertEquals("+442079460958", phoneNormalized(5));
+    }
+
+    private void insertClient(long id, String phone) {
+        jdbcTemplate.update("insert into clients (id, name, phone, version) values (?, 'Клиент Прежний', ?, 0)",
+                id, phone);
+    }
+
+    private String phoneNormalized(long id) {
+        return jdbcTemplate.queryForObject("select phone_normalized from clients where id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.fitness_server.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.fitness_server.dto.LoginRequest;
+import org.example.fitness_server.dto.RefreshRequest;
+import org.example.fitness_server.dto.TokenResponse;
+import org.example.fitness_server.exception.GlobalExceptionHandler;
+import org.example.fitness_server.model.Role;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тестовый класс для контроллера {@code AuthController}.
+ * <p>
+ * Этот класс содержит юнит-тесты для проверки входа в систему по токенам,
+ * обновления токенов и их отзыва. Использует Mockito для мок-объектов и
+ * Spring Test для симуляции HTTP-запросов.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private TokenService tokenService;
+
+    @InjectMocks
+    private AuthController authController;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private TokenResponse tokens;
+
+    /**
+     * Инициализирует тестовую среду перед каждым тестом.
+     * <p>
+     * Настраивает {@code MockMvc} с глобальным обработчиком исключений и создаёт
+     * тестовую пару токенов.
+     * </p>
+     */
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        objectMapper = new ObjectMapper();
+        tokens = new TokenResponse("access", "refresh", "Bearer", 900);
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/auth/login} с верными учётными данными.
+     * <p>
+     * Проверяет, что возвращается пара токенов, выпущенная для аутентифицированной учётной записи.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void login_ValidCredentials_ReturnsTokens() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("ivan");
+        user.setRole(Role.CLIENT);
+        when(authenticationManager.authenticate(any())).thenReturn(UsernamePasswordAuthenticationToken.authenticated(
+                user, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+        when(tokenService.issueTokens(user)).thenReturn(tokens);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("ivan", "ivan123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("access")))
+                .andExpect(jsonPath("$.refreshToken", is("refresh")))
+                .andExpect(jsonPath("$.tokenType", is("Bearer")));
+
+        verify(tokenService).issueTokens(user);
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/auth/login} с неверным паролем.
+     * <p>
+     * Проверяет, что возвращается статус 401 и токены не выпускаются.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void login_InvalidCredentials_Returns401() throws Exception {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("ivan", "wrong"))))
+                .andExpect(status().isUnauthorized());
+
+        verify(tokenService, never()).issueTokens(any());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/auth/refresh}.
+     * <p>
+     * Проверяет, что токен обновления обменивается на новую пару токенов.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void refresh_ValidToken_ReturnsNewTokens() throws Exception {
+        when(tokenService.refresh("refresh")).thenReturn(tokens);
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("refresh"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("access")));
+
+        verify(tokenService).refresh("refresh");
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/auth/logout}.
+     * <p>
+     * Проверяет, что отзываются и токен обновления, и токен доступа из заголовка.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void logout_RevokesBothTokens() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer access")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequest("refresh"))))
+                .andExpect(status().isNoContent());
+
+        verify(tokenService).revoke("refresh");
+        verify(tokenService).revoke("access");
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/auth/logout} со схемой авторизации в нижнем регистре.
+     * <p>
+     * Проверяет, что схема {@code bearer} распознаётся так же, как в фильтре аутентификации,
+     * и токен доступа отзывается.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void logout_LowercaseBearerScheme_RevokesAccessToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "bearer access"))
+                .andExpect(status().isNoContent());
+
+        verify(tokenService).revoke("access");
+    }
+}
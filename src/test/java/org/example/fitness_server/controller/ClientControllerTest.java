@@ -1,17 +1,36 @@
 package org.example.fitness_server.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.fitness_server.dto.BulkImportReport;
+import org.example.fitness_server.dto.ClientSuggestion;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.dto.FieldViolation;
+import org.example.fitness_server.dto.ImportRowError;
+import org.example.fitness_server.dto.MemberEntry;
+import org.example.fitness_server.dto.MemberSlice;
+import org.example.fitness_server.dto.MembershipCursor;
+import org.example.fitness_server.exception.GlobalExceptionHandler;
+import org.example.fitness_server.exception.PasswordHashingRejectedException;
+import org.example.fitness_server.metrics.RequestStatementCounter;
 import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.MembershipStatus;
 import org.example.fitness_server.model.Subscription;
 import org.example.fitness_server.model.Trainer;
+import org.example.fitness_server.model.User;
 import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.service.ClientExportService;
+import org.example.fitness_server.service.ClientImportService;
+import org.example.fitness_server.service.ClientSearchService;
 import org.example.fitness_server.service.ClientService;
+import org.example.fitness_server.service.MembershipService;
+import org.example.fitness_server.util.UserEntityValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -19,12 +38,23 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -54,6 +84,21 @@ class ClientControllerTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private ClientImportService clientImportService;
+
+    @Mock
+    private ClientExportService clientExportService;
+
+    @Mock
+    private ClientSearchService clientSearchService;
+
+    @Mock
+    private MembershipService membershipService;
+
+    @Mock
+    private RequestStatementCounter statementCounter;
+
     @InjectMocks
     private ClientController clientController;
 
@@ -111,9 +156,11 @@ class ClientControllerTest {
     @Test
     void getAllClients_ReturnsPagedClients() throws Exception {
         Pageable pageable = PageRequest.of(0, 50);
-        Page<Client> clientPage = new PageImpl<>(Collections.singletonList(client), pageable, 1);
+        ClientSummary summary = new ClientSummary(1L, "Иван Иванов", "+79876543210", "ivan",
+                1L, "Месячный", 1L, "Тренер Иванов");
+        Page<ClientSummary> clientPage = new PageImpl<>(Collections.singletonList(summary), pageable, 1);
 
-        when(clientRepository.findAll(pageable)).thenReturn(clientPage);
+        when(clientRepository.findAllSummaries(pageable)).thenReturn(clientPage);
 
         mockMvc.perform(get("/api/clients")
                         .param("page", "0")
@@ -121,9 +168,255 @@ class ClientControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id", is(1)))
                 .andExpect(jsonPath("$.content[0].name", is("Иван Иванов")))
-                .andExpect(jsonPath("$.content[0].username", is("ivan")));
+                .andExpect(jsonPath("$.content[0].username", is("ivan")))
+                .andExpect(jsonPath("$.content[0].subscriptionType", is("Месячный")))
+                .andExpect(jsonPath("$.content[0].trainerName", is("Тренер Иванов")))
+                .andExpect(jsonPath("$.content[0].password").doesNotExist());
+
+        verify(clientRepository).findAllSummaries(pageable);
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients} с параметром {@code expand}.
+     * <p>
+     * Проверяет, что при раскрытии только тренера используется соответствующий план загрузки,
+     * тренер включается в ответ, а абонемент и пароли — нет.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getAllClients_ExpandTrainer_ReturnsClientsWithTrainer() throws Exception {
+        Pageable pageable = PageRequest.of(0, 50);
+        Page<Client> clientPage = new PageImpl<>(Collections.singletonList(client), pageable, 1);
+
+        when(clientRepository.findAllWithTrainer(pageable)).thenReturn(clientPage);
+
+        mockMvc.perform(get("/api/clients")
+                        .param("expand", "trainer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].trainer.name", is("Тренер Иванов")))
+                .andExpect(jsonPath("$.content[0].trainer.password").doesNotExist())
+                .andExpect(jsonPath("$.content[0].subscription").doesNotExist())
+                .andExpect(jsonPath("$.content[0].password").doesNotExist());
+
+        verify(clientRepository).findAllWithTrainer(pageable);
+        verify(clientRepository, never()).findAllSummaries(any());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients} в режиме курсора.
+     * <p>
+     * Проверяет, что при наличии следующей страницы возвращается курсор, а по этому курсору
+     * запрашиваются записи с идентификатором больше последнего возвращённого.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getClientSlice_MoreRowsAvailable_ReturnsNextCursor() throws Exception {
+        ClientSummary first = new ClientSummary(1L, "Иван Иванов", "+79876543210", "ivan",
+                null, null, null, null);
+        ClientSummary second = new ClientSummary(2L, "Мария Петрова", "+79991234567", "maria",
+                null, null, null, null);
+        when(clientRepository.findSummariesAfterId(eq(0L), any(Limit.class))).thenReturn(List.of(first, second));
+
+        String body = mockMvc.perform(get("/api/clients")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()", is(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        when(clientRepository.findSummariesAfterId(eq(1L), any(Limit.class))).thenReturn(List.of(second));
+
+        mockMvc.perform(get("/api/clients")
+                        .param("limit", "1")
+                        .param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(2)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(clientRepository, never()).findAllSummaries(any());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/search}.
+     * <p>
+     * Проверяет, что запрос и лимит по умолчанию передаются в сервис поиска,
+     * а найденные клиенты возвращаются в порядке, заданном сервисом.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void searchClients_ValidQuery_ReturnsSummaries() throws Exception {
+        ClientSummary summary = new ClientSummary(1L, "Иван Иванов", "+79876543210", "ivan",
+                null, null, null, null);
+        when(clientSearchService.search("иван", 20)).thenReturn(List.of(summary));
+
+        mockMvc.perform(get("/api/clients/search")
+                        .param("q", "иван"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].username", is("ivan")));
+
+        verify(clientSearchService).search("иван", 20);
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/autocomplete}.
+     * <p>
+     * Проверяет, что подсказки берутся из сервиса поиска, а лимит больше допустимого
+     * отклоняется со статусом 400 без обращения к сервису.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void autocompleteClients_ReturnsSuggestionsAndRejectsLargeLimit() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(clientController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(clientSearchService.suggest("ив", 10))
+                .thenReturn(List.of(new ClientSuggestion(1L, "Иван Иванов", "+79876543210", "ivan")));
+
+        mockMvcWithAdvice.perform(get("/api/clients/autocomplete")
+                        .param("q", "ив"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Иван Иванов")));
+
+        mockMvcWithAdvice.perform(get("/api/clients/autocomplete")
+                        .param("q", "ив")
+                        .param("limit", "51"))
+                .andExpect(status().isBadRequest());
+
+        verify(clientSearchService, times(1)).suggest(anyString(), anyInt());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/by-phone}.
+     * <p>
+     * Проверяет, что найденный по телефону клиент возвращается со статусом 200,
+     * а для неизвестного номера возвращается статус 404.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getClientByPhone_KnownAndUnknownPhone_Returns200And404() throws Exception {
+        when(clientSearchService.findByPhone("8 987 654-32-10"))
+                .thenReturn(Optional.of(new ClientSuggestion(1L, "Иван Иванов", "+79876543210", "ivan")));
+        when(clientSearchService.findByPhone("+79990000000")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/clients/by-phone")
+                        .param("phone", "8 987 654-32-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        mockMvc.perform(get("/api/clients/by-phone")
+                        .param("phone", "+79990000000"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/memberships/expiring}.
+     * <p>
+     * Проверяет, что количество дней и лимит передаются сервису абонементов, а порция
+     * возвращается со статусом 200 и курсором следующей порции.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getExpiringMembers_ValidParameters_ReturnsSlice() throws Exception {
+        Instant expiresAt = Instant.parse("2026-10-20T10:00:00Z");
+        MemberEntry entry = new MemberEntry(1L, "Иван Иванов", "+79876543210", 1L, "Месячный",
+                expiresAt.minus(Duration.ofDays(30)), expiresAt, MembershipStatus.ACTIVE);
+        String next = new MembershipCursor(expiresAt, 1L).encode();
+        when(membershipService.getExpiringMembers(3, null, 1)).thenReturn(new MemberSlice(List.of(entry), next));
+
+        mockMvc.perform(get("/api/clients/memberships/expiring")
+                        .param("days", "3")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("ACTIVE")))
+                .andExpect(jsonPath("$.nextCursor", is(next)));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/export} с заголовком {@code Accept: text/csv}.
+     * <p>
+     * Проверяет, что выбирается выгрузка в CSV, а ответ передаётся потоком
+     * с типом содержимого {@code text/csv}.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void exportClients_AcceptCsv_StreamsCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("id,name\r\n1,Иван Иванов\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(clientExportService).writeCsv(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/clients/export").accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,name\r\n1,Иван Иванов\r\n"));
+
+        verify(clientExportService, never()).writeNdjson(any());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/export} с заголовком {@code Accept-Encoding: gzip}.
+     * <p>
+     * Проверяет, что по умолчанию выбирается NDJSON, а ответ сжимается gzip
+     * и содержит заголовок {@code Content-Encoding}.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
 
-        verify(clientRepository).findAll(pageable);
+    @Test
+    void exportClients_AcceptGzip_StreamsCompressedNdjson() throws Exception {
+        String ndjson = "{\"id\":1,\"name\":\"Иван Иванов\"}\n";
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(ndjson.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(clientExportService).writeNdjson(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/clients/export").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult completed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] compressed = completed.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(ndjson, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
     }
 
     /**
@@ -221,6 +514,100 @@ class ClientControllerTest {
         verify(clientService).createClient(any(Client.class), any());
     }
 
+    /**
+     * Тестирует эндпоинт {@code POST /api/clients} с несколькими некорректными полями.
+     * <p>
+     * Проверяет, что возвращается статус 400, а в ответе перечислены нарушения
+     * для всех некорректных полей, а не только для первого.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void createClient_InvalidFields_Returns400WithAllFieldErrors() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(clientController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        Client invalidClient = new Client();
+        invalidClient.setName("И1");
+        invalidClient.setUsername("ab");
+        invalidClient.setPassword("123");
+        invalidClient.setPhone("+79876543210");
+
+        when(clientService.createClient(any(Client.class), isNull())).thenAnswer(invocation -> {
+            UserEntityValidator.validateUserEntity(invocation.getArgument(0), "клиента", true);
+            return invocation.getArgument(0);
+        });
+
+        mockMvcWithAdvice.perform(post("/api/clients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidClient)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.length()", is(3)))
+                .andExpect(jsonPath("$.fieldErrors[0].field", is("name")))
+                .andExpect(jsonPath("$.fieldErrors[1].field", is("username")))
+                .andExpect(jsonPath("$.fieldErrors[2].field", is("password")));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/clients} при заполненной очереди шифрования паролей.
+     * <p>
+     * Проверяет, что возвращается статус 429 с заголовком {@code Retry-After}.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void createClient_HashingQueueFull_Returns429() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(clientController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(clientService.createClient(any(Client.class), isNull()))
+                .thenThrow(new PasswordHashingRejectedException(64));
+
+        mockMvcWithAdvice.perform(post("/api/clients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(client)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("Too many requests")));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/clients/bulk} с телом в формате CSV.
+     * <p>
+     * Проверяет, что тело запроса передаётся сервису импорта целиком,
+     * а отчёт с количеством строк и ошибками возвращается со статусом 200.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void importClientsFromCsv_ValidBody_ReturnsReport() throws Exception {
+        String csv = "name,phone,username,password\n"
+                + "Иван Иванов,+79876543210,ivan_ivanov,ivan123\n"
+                + "Пётр Петров,+79876543211,ab,petr123\n";
+        BulkImportReport report = new BulkImportReport(2, 1, List.of(new ImportRowError(2, "ab",
+                List.of(new FieldViolation("username", "Имя пользователя должно содержать 3–20 символов (буквы, цифры, подчёркивание).")))));
+
+        when(clientImportService.importCsv(any(Reader.class), any(Runnable.class))).thenAnswer(invocation -> {
+            BufferedReader reader = invocation.getArgument(0);
+            return reader.lines().count() == 3 ? report : null;
+        });
+
+        mockMvc.perform(post("/api/clients/bulk")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows", is(2)))
+                .andExpect(jsonPath("$.importedRows", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[0].errors[0].field", is("username")));
+    }
+
     /**
      * Тестирует эндпоинт {@code PUT /api/clients/{id}} при наличии клиента.
      * <p>
@@ -297,13 +684,13 @@ class ClientControllerTest {
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("admin");
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(clientRepository.existsById(1L)).thenReturn(true);
+        when(clientService.deleteClient(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/api/clients/1")
                         .principal(auth))
                 .andExpect(status().isOk());
 
-        verify(clientRepository).deleteById(1L);
+        verify(clientService).deleteClient(1L);
     }
 
     /**
@@ -321,7 +708,7 @@ class ClientControllerTest {
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("admin");
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(clientRepository.existsById(1L)).thenReturn(false);
+        when(clientService.deleteClient(1L)).thenReturn(false);
 
         mockMvc.perform(delete("/api/clients/1")
                         .principal(auth))
@@ -350,7 +737,7 @@ class ClientControllerTest {
                         .principal(auth))
                 .andExpect(status().isForbidden());
 
-        verify(clientRepository, never()).deleteById(1L);
+        verify(clientService, never()).deleteClient(1L);
     }
 
     /**
@@ -378,6 +765,82 @@ class ClientControllerTest {
         verify(clientRepository).findByUsername("ivan");
     }
 
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/me} с совпадающим {@code If-None-Match}.
+     * <p>
+     * Проверяет, что {@code ETag} строится по версиям клиента, абонемента и тренера, а при совпадении возвращается
+     * статус 304 без тела. После изменения версии клиента возвращаются новые данные.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getCurrentClient_MatchingETag_Returns304() throws Exception {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("ivan");
+        when(clientRepository.findByUsername("ivan")).thenReturn(Optional.of(client));
+        client.setVersion(3L);
+
+        mockMvc.perform(get("/api/clients/me")
+                        .principal(auth)
+                        .header("If-None-Match", "\"client-1-3-i-s1-0-t1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        client.setVersion(4L);
+
+        mockMvc.perform(get("/api/clients/me")
+                        .principal(auth)
+                        .header("If-None-Match", "\"client-1-3-i-s1-0-t1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"client-1-4-i-s1-0-t1-0\""))
+                .andExpect(jsonPath("$.name", is("Иван Иванов")));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/clients/me} после смены имени пользователя и истечения абонемента.
+     * <p>
+     * Ни одно из этих изменений не меняет версию клиента. Проверяет, что {@code ETag} всё равно
+     * меняется и прежнее значение {@code If-None-Match} не даёт ответа 304, а {@code Last-Modified}
+     * не передаётся.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getCurrentClient_UsernameChangedOrMembershipLapsed_ReturnsNewETag() throws Exception {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("ivan");
+        when(clientRepository.findByUsername("ivan")).thenReturn(Optional.of(client));
+        User user = new User();
+        user.setUsername("ivan");
+        client.setUser(user);
+        client.setVersion(3L);
+        client.setMembershipStatus(MembershipStatus.ACTIVE);
+        client.setSubscriptionExpiresAt(Instant.now().plus(Duration.ofDays(1)));
+
+        String etag = mockMvc.perform(get("/api/clients/me").principal(auth))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"client-1-3-u0-a-s1-0-t1-0\""))
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        user.setUsername("ivan_new");
+        user.setCredentialsVersion(1);
+        etag = mockMvc.perform(get("/api/clients/me").principal(auth).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is("ivan_new")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        client.setSubscriptionExpiresAt(Instant.now().minusSeconds(1));
+        mockMvc.perform(get("/api/clients/me").principal(auth).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"client-1-3-u1-i-s1-0-t1-0\""))
+                .andExpect(jsonPath("$.membershipActive", is(false)));
+    }
+
     /**
      * Тестирует эндпоинт {@code GET /api/clients/me} при отсутствии клиента.
      * <p>
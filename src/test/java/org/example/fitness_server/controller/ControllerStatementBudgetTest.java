@@ -0,0 +1,365 @@
+package org.example.fitness_server.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.fitness_server.dto.TokenResponse;
+import org.example.fitness_server.metrics.StatementBudget;
+import org.example.fitness_server.metrics.StatementCountHeaderAdvice;
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.model.Trainer;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.service.ClientService;
+import org.example.fitness_server.service.TrainerService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тестовый класс для проверки бюджетов SQL-операторов эндпоинтов всех контроллеров.
+ * <p>
+ * Приложение запускается целиком на базе данных H2 в режиме
+ * {@code fitness.sql.statement-budget.enforce=true}: оператор, превышающий бюджет
+ * {@code @StatementBudget}, прерывает запрос, и тест завершается ошибкой. Перед каждым тестом
+ * кэш второго уровня и кэш запросов очищаются, поэтому проверяется худший случай. Для каждого запроса
+ * дополнительно проверяется, что у эндпоинта объявлен бюджет и что заголовок
+ * {@code X-SQL-Statement-Count} не превышает его; бюджет пакетного импорта считается по числу порций.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "fitness.sql.statement-budget.enforce=true",
+        "fitness.sql.statement-budget.expose-header=true",
+        "fitness.import.chunk-size=2"})
+@AutoConfigureMockMvc
+class ControllerStatementBudgetTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final RequestPostProcessor ADMIN = httpBasic("admin", "admin123");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    private Trainer trainer;
+    private String trainerUsername;
+    private Client client;
+    private Subscription subscription;
+
+    /**
+     * Создаёт тренера и клиента с тренером и абонементом и очищает кэш второго уровня и кэш запросов.
+     */
+
+    @BeforeEach
+    void setUp() {
+        int n = SEQUENCE.incrementAndGet();
+        subscription = subscriptionRepository.findAll().get(0);
+
+        Trainer newTrainer = new Trainer();
+        newTrainer.setName("Тренер Бюджетов");
+        newTrainer.setUsername("budget_trainer_" + n);
+        newTrainer.setPassword("secret123");
+        trainer = trainerService.createTrainer(newTrainer);
+        trainerUsername = newTrainer.getUsername();
+
+        Client newClient = new Client();
+        newClient.setName("Клиент Бюджетов");
+        newClient.setUsername("budget_client_" + n);
+        newClient.setPassword("secret123");
+        newClient.setPhone("+7910" + (1_000_000 + n));
+        newClient.setSubscription(subscription);
+        client = clientService.createClient(newClient, trainer.getId());
+
+        evictCaches();
+    }
+
+    /**
+     * Тестирует эндпоинты чтения {@code ClientController}.
+     * <p>
+     * Проверяет страницы клиентов с раскрытием связей и без, курсорную порцию, количество
+     * клиентов, клиента по ID вместе с тренером и абонементом, текущего клиента, поиск
+     * и автодополнение, в которое созданный клиент попадает по событию без обращения к базе данных,
+     * поиск клиента по телефону, а также списки абонементов, в которых созданный клиент
+     * с месячным абонементом оказывается среди истекающих.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void clientReads_ColdCache_StayWithinBudget() throws Exception {
+        perform(get("/api/clients").with(ADMIN));
+        perform(get("/api/clients").param("expand", "subscription,trainer").with(ADMIN));
+        perform(get("/api/clients").param("limit", "10").with(ADMIN));
+        perform(get("/api/clients/count").with(ADMIN));
+        perform(get("/api/clients/{id}", client.getId()).with(ADMIN));
+        perform(get("/api/clients/me").with(httpBasic("ivan", "ivan123")));
+        perform(get("/api/clients/search").param("q", "бюджет").with(ADMIN));
+
+        MvcResult suggestions = perform(get("/api/clients/autocomplete").param("q", client.getUsername()).with(ADMIN));
+        assertTrue(suggestions.getResponse().getContentAsString().contains("\"id\":" + client.getId()));
+        perform(get("/api/clients/by-phone").param("phone", client.getPhone()).with(ADMIN));
+        perform(get("/api/clients/memberships/active").with(ADMIN));
+        MvcResult expiring = perform(get("/api/clients/memberships/expiring").param("days", "31").with(ADMIN));
+        assertTrue(expiring.getResponse().getContentAsString().contains("\"id\":" + client.getId()));
+        perform(get("/api/clients/memberships/expired").with(ADMIN));
+    }
+
+    /**
+     * Тестирует эндпоинты изменения {@code ClientController}.
+     * <p>
+     * Проверяет создание клиента с тренером и абонементом, его обновление, продление абонемента и удаление.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void clientWrites_ColdCache_StayWithinBudget() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        String body = """
+                {"name": "Клиент Новый", "username": "budget_new_%d", "password": "secret123",
+                 "phone": "+7920%07d", "subscription": {"id": %d}}
+                """.formatted(n, 1_000_000 + n, subscription.getId());
+        MvcResult created = perform(post("/api/clients").param("trainerId", trainer.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON).content(body).with(ADMIN));
+        Long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        evictCaches();
+
+        perform(put("/api/clients/{id}", id).param("trainerId", trainer.getId().toString())
+                .contentType(MediaType.APPLICATION_JSON).content(body.replace("Клиент Новый", "Клиент Изменённый"))
+                .with(ADMIN));
+        evictCaches();
+
+        perform(post("/api/clients/{id}/membership", id).with(ADMIN));
+        evictCaches();
+
+        perform(delete("/api/clients/{id}", id).with(ADMIN));
+    }
+
+    /**
+     * Тестирует эндпоинты пакетного импорта {@code ClientController}.
+     * <p>
+     * Импортирует по три клиента с тренером и абонементом из CSV и NDJSON. Размер порции в тесте —
+     * две строки, поэтому каждый импорт состоит из двух порций и проверяет рост бюджета с каждой порцией.
+     * Четвёртая строка каждого файла отклоняется при разборе и учитывается в общем числе строк.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void clientImport_ColdCache_StayWithinBudget() throws Exception {
+        StringBuilder csv = new StringBuilder("name,phone,username,password,subscriptionId,trainerId\n");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            int n = SEQUENCE.incrementAndGet();
+            csv.append("Клиент Импорта,+7930%07d,budget_csv_%d,secret123,%d,%d\n"
+                    .formatted(1_000_000 + n, n, subscription.getId(), trainer.getId()));
+            ndjson.append(("{\"name\": \"Клиент Импорта\", \"phone\": \"+7940%07d\", \"username\": \"budget_ndjson_%d\", "
+                    + "\"password\": \"secret123\", \"subscriptionId\": %d, \"trainerId\": %d}\n")
+                    .formatted(1_000_000 + n, n, subscription.getId(), trainer.getId()));
+        }
+
+        csv.append("Клиент Импорта,+79300000000,budget_csv_bad,secret123,abc,\n");
+        ndjson.append("{\"name\": \"Клиент Импорта\"\n");
+
+        MvcResult fromCsv = perform(post("/api/clients/bulk").contentType("text/csv").content(csv.toString())
+                .with(ADMIN), 2);
+        assertTrue(fromCsv.getResponse().getContentAsString().contains("\"totalRows\":4,\"importedRows\":3"));
+        evictCaches();
+
+        MvcResult fromNdjson = perform(post("/api/clients/bulk").contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson.toString()).with(ADMIN), 2);
+        assertTrue(fromNdjson.getResponse().getContentAsString().contains("\"totalRows\":4,\"importedRows\":3"));
+    }
+
+    /**
+     * Тестирует эндпоинты {@code SubscriptionController}.
+     * <p>
+     * Проверяет получение списка и абонемента по ID, создание, обновление и удаление абонемента.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void subscriptionEndpoints_ColdCache_StayWithinBudget() throws Exception {
+        perform(get("/api/subscriptions").with(ADMIN));
+        perform(get("/api/subscriptions/{id}", subscription.getId()).with(ADMIN));
+
+        String body = """
+                {"type": "Квартальный", "cost": 12000, "durationDays": 90}
+                """;
+        MvcResult created = perform(post("/api/subscriptions")
+                .contentType(MediaType.APPLICATION_JSON).content(body).with(ADMIN));
+        Long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        evictCaches();
+
+        perform(put("/api/subscriptions/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content(body.replace("12000", "11000")).with(ADMIN));
+        evictCaches();
+
+        perform(delete("/api/subscriptions/{id}", id).with(ADMIN));
+    }
+
+    /**
+     * Тестирует эндпоинты {@code TrainerController}.
+     * <p>
+     * Проверяет получение списка, тренера по ID и текущего тренера, списков клиентов тренера
+     * по ID и текущего тренера, создание, обновление и удаление тренера.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void trainerEndpoints_ColdCache_StayWithinBudget() throws Exception {
+        perform(get("/api/trainers").with(ADMIN));
+        perform(get("/api/trainers/{id}", trainer.getId()).with(ADMIN));
+        perform(get("/api/trainers/me").with(httpBasic(trainerUsername, "secret123")));
+        perform(get("/api/trainers/{id}/clients", trainer.getId()).with(ADMIN));
+        perform(get("/api/trainers/me/clients").with(httpBasic(trainerUsername, "secret123")));
+
+        int n = SEQUENCE.incrementAndGet();
+        String body = """
+                {"name": "Тренер Новый", "username": "budget_new_trainer_%d", "password": "secret123"}
+                """.formatted(n);
+        MvcResult created = perform(post("/api/trainers")
+                .contentType(MediaType.APPLICATION_JSON).content(body).with(ADMIN));
+        Long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        evictCaches();
+
+        perform(put("/api/trainers/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content(body.replace("Тренер Новый", "Тренер Изменённый"))
+                .with(ADMIN));
+        evictCaches();
+
+        perform(delete("/api/trainers/{id}", id).with(ADMIN));
+    }
+
+    /**
+     * Тестирует эндпоинты {@code StatisticsController}.
+     * <p>
+     * Проверяет, что статистика в памяти и статистика кэшей не обращаются к базе данных,
+     * а расширенная статистика укладывается в три агрегирующих запроса.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void statisticsEndpoints_ColdCache_StayWithinBudget() throws Exception {
+        perform(get("/api/statistics").with(ADMIN));
+        perform(get("/api/statistics/breakdown").with(ADMIN));
+        perform(get("/api/statistics/auth-cache").with(ADMIN));
+        perform(get("/api/statistics/entity-cache").with(ADMIN));
+    }
+
+    /**
+     * Тестирует эндпоинты {@code AuthController}.
+     * <p>
+     * Проверяет вход в систему, обновление токенов и выход из системы.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void authEndpoints_ColdCache_StayWithinBudget() throws Exception {
+        MvcResult login = perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + trainerUsername + "\", \"password\": \"secret123\"}"));
+        TokenResponse tokens = objectMapper.readValue(login.getResponse().getContentAsString(), TokenResponse.class);
+
+        MvcResult refreshed = perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + tokens.refreshToken() + "\"}"));
+        TokenResponse newTokens = objectMapper.readValue(refreshed.getResponse().getContentAsString(), TokenResponse.class);
+
+        perform(post("/api/auth/logout").contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + newTokens.accessToken())
+                .content("{\"refreshToken\": \"" + newTokens.refreshToken() + "\"}"));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code VisitController}.
+     * <p>
+     * Проверяет, что отметка посещения принимается в буфер без обращения к базе данных.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void visitEndpoints_ColdCache_StayWithinBudget() throws Exception {
+        perform(post("/api/visits").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clientId\": " + client.getId() + "}")
+                .with(httpBasic(trainerUsername, "secret123")));
+    }
+
+    private void evictCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        return perform(request, 0);
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request, int chunks) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+        assertNotNull(budget, "Не объявлен @StatementBudget: " + handler.getShortLogMessage());
+
+        String statements = result.getResponse().getHeader(StatementCountHeaderAdvice.HEADER);
+        int allowed = budget.value() + budget.perChunk() * chunks;
+        if (statements != null) {
+            assertTrue(Integer.parseInt(statements) <= allowed,
+                    handler.getShortLogMessage() + ": " + statements + " > " + allowed);
+        }
+        return result;
+    }
+}
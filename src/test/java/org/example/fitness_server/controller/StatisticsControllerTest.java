@@ -1,8 +1,15 @@
 package org.example.fitness_server.controller;
 
-import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.dto.CacheRegionMetrics;
+import org.example.fitness_server.dto.ClientStatistics;
+import org.example.fitness_server.dto.StatisticsSnapshot;
+import org.example.fitness_server.dto.SubscriptionCostStatistics;
+import org.example.fitness_server.dto.TrainerLoad;
 import org.example.fitness_server.repository.ClientRepository;
 import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.example.fitness_server.service.CacheStatisticsService;
+import org.example.fitness_server.service.StatisticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,8 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
@@ -25,8 +32,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * <p>
  * Этот класс содержит юнит-тесты для проверки функциональности эндпоинта
  * {@code StatisticsController}, который предоставляет статистику по клиентам
- * и абонементам. Тесты проверяют корректность подсчёта клиентов, абонементов
- * и средней стоимости абонемента. Использует Mockito для мок-объектов и
+ * и абонементам. Тесты проверяют, что эндпоинт отдаёт снимок статистики,
+ * поддерживаемый в памяти сервисом {@code StatisticsService}. Использует Mockito для мок-объектов и
  * Spring Test для симуляции HTTP-запросов.
  * </p>
  *
@@ -38,12 +45,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class StatisticsControllerTest {
 
+    @Mock
+    private StatisticsService statisticsService;
+
     @Mock
     private ClientRepository clientRepository;
 
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
+    @Mock
+    private AuthenticationCache authenticationCache;
+
+    @Mock
+    private CacheStatisticsService cacheStatisticsService;
+
     @InjectMocks
     private StatisticsController statisticsController;
 
@@ -65,9 +81,9 @@ class StatisticsControllerTest {
     /**
      * Тестирует эндпоинт {@code GET /api/statistics} с имеющимися абонементами.
      * <p>
-     * Проверяет, что возвращается корректная статистика, включая общее количество
-     * клиентов, количество абонементов и среднюю стоимость абонемента.
-     * Также проверяет, что вызываются методы репозиториев для получения данных.
+     * Проверяет, что возвращается статистика из снимка {@code StatisticsService}, включая
+     * общее количество клиентов, количество абонементов, среднюю, минимальную и максимальную
+     * стоимость абонемента и распределение клиентов по абонементам и тренерам.
      * </p>
      *
      * @throws Exception если произошла ошибка при выполнении запроса
@@ -75,25 +91,21 @@ class StatisticsControllerTest {
 
     @Test
     void getStatistics_ReturnsStatistics() throws Exception {
-        Subscription subscription1 = new Subscription();
-        subscription1.setCost(5000.0);
-
-        Subscription subscription2 = new Subscription();
-        subscription2.setCost(45000.0);
-
-        when(clientRepository.count()).thenReturn(5L);
-        when(subscriptionRepository.count()).thenReturn(2L);
-        when(subscriptionRepository.findAll()).thenReturn(Arrays.asList(subscription1, subscription2));
+        when(statisticsService.getSnapshot()).thenReturn(new StatisticsSnapshot(
+                5, 1, 2, 50000.0, 25000.0, 5000.0, 45000.0, Map.of(1L, 3L, 2L, 2L), Map.of(7L, 4L)));
 
         mockMvc.perform(get("/api/statistics"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalClients", is(5)))
+                .andExpect(jsonPath("$.totalTrainers", is(1)))
                 .andExpect(jsonPath("$.totalSubscriptions", is(2)))
-                .andExpect(jsonPath("$.averageSubscriptionCost", is(25000.0)));
+                .andExpect(jsonPath("$.averageSubscriptionCost", is(25000.0)))
+                .andExpect(jsonPath("$.minSubscriptionCost", is(5000.0)))
+                .andExpect(jsonPath("$.maxSubscriptionCost", is(45000.0)))
+                .andExpect(jsonPath("$.clientsPerSubscription.1", is(3)))
+                .andExpect(jsonPath("$.clientsPerTrainer.7", is(4)));
 
-        verify(clientRepository).count();
-        verify(subscriptionRepository).count();
-        verify(subscriptionRepository).findAll();
+        verify(statisticsService).getSnapshot();
     }
 
     /**
@@ -101,7 +113,6 @@ class StatisticsControllerTest {
      * <p>
      * Проверяет, что возвращается корректная статистика с нулевой средней стоимостью
      * абонемента, а также корректное количество клиентов и абонементов.
-     * Убеждается, что вызываются методы репозиториев для получения данных.
      * </p>
      *
      * @throws Exception если произошла ошибка при выполнении запроса
@@ -109,9 +120,8 @@ class StatisticsControllerTest {
 
     @Test
     void getStatistics_NoSubscriptions_ReturnsZeroAverageCost() throws Exception {
-        when(clientRepository.count()).thenReturn(5L);
-        when(subscriptionRepository.count()).thenReturn(0L);
-        when(subscriptionRepository.findAll()).thenReturn(List.of());
+        when(statisticsService.getSnapshot()).thenReturn(new StatisticsSnapshot(
+                5, 0, 0, 0.0, 0.0, null, null, Map.of(), Map.of()));
 
         mockMvc.perform(get("/api/statistics"))
                 .andExpect(status().isOk())
@@ -119,8 +129,82 @@ class StatisticsControllerTest {
                 .andExpect(jsonPath("$.totalSubscriptions", is(0)))
                 .andExpect(jsonPath("$.averageSubscriptionCost", is(0.0)));
 
-        verify(clientRepository).count();
-        verify(subscriptionRepository).count();
-        verify(subscriptionRepository).findAll();
+        verify(statisticsService).getSnapshot();
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/statistics/breakdown}.
+     * <p>
+     * Проверяет, что расширенная статистика собирается из агрегирующих запросов репозиториев
+     * без загрузки списков сущностей.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getStatisticsBreakdown_ReturnsAggregates() throws Exception {
+        when(subscriptionRepository.getCostStatistics())
+                .thenReturn(new SubscriptionCostStatistics(2L, 25000.0, 5000.0, 45000.0));
+        when(clientRepository.getClientStatistics()).thenReturn(new ClientStatistics(3L, 2L, 0L, 55000.0));
+        when(clientRepository.getTrainerLoads()).thenReturn(List.of(new TrainerLoad(1L, "Тренер Иванов", 1L)));
+
+        mockMvc.perform(get("/api/statistics/breakdown"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subscriptions.averageCost", is(25000.0)))
+                .andExpect(jsonPath("$.subscriptions.maxCost", is(45000.0)))
+                .andExpect(jsonPath("$.clients.clientsWithoutTrainer", is(2)))
+                .andExpect(jsonPath("$.clients.revenueAtListPrice", is(55000.0)))
+                .andExpect(jsonPath("$.clientsPerTrainer[0].trainerName", is("Тренер Иванов")))
+                .andExpect(jsonPath("$.clientsPerTrainer[0].clients", is(1)));
+
+        verify(subscriptionRepository, never()).findAll();
+        verify(clientRepository, never()).findAll();
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/statistics/auth-cache}.
+     * <p>
+     * Проверяет, что возвращаются счётчики попаданий и промахов кэша аутентификации,
+     * а также текущий размер кэша.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getAuthenticationCacheStatistics_ReturnsCounters() throws Exception {
+        when(authenticationCache.getHitCount()).thenReturn(10L);
+        when(authenticationCache.getMissCount()).thenReturn(3L);
+        when(authenticationCache.getSize()).thenReturn(2L);
+
+        mockMvc.perform(get("/api/statistics/auth-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", is(10)))
+                .andExpect(jsonPath("$.misses", is(3)))
+                .andExpect(jsonPath("$.size", is(2)));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/statistics/entity-cache}.
+     * <p>
+     * Проверяет, что для каждого региона кэша второго уровня возвращаются
+     * счётчики попаданий, промахов и записей, а также доля попаданий.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getEntityCacheStatistics_ReturnsRegionCounters() throws Exception {
+        when(cacheStatisticsService.getRegionMetrics()).thenReturn(Map.of(
+                "org.example.fitness_server.model.Subscription", CacheRegionMetrics.of(9L, 1L, 2L)));
+
+        mockMvc.perform(get("/api/statistics/entity-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['org.example.fitness_server.model.Subscription'].hits", is(9)))
+                .andExpect(jsonPath("$['org.example.fitness_server.model.Subscription'].misses", is(1)))
+                .andExpect(jsonPath("$['org.example.fitness_server.model.Subscription'].puts", is(2)))
+                .andExpect(jsonPath("$['org.example.fitness_server.model.Subscription'].hitRatio", is(0.9)));
     }
-}
\ No newline at end of file
+}
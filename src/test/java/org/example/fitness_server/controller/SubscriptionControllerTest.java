@@ -3,12 +3,14 @@ package org.example.fitness_server.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.fitness_server.model.Subscription;
 import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.service.ResourceVersionRegistry;
 import org.example.fitness_server.service.SubscriptionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -46,6 +48,9 @@ class SubscriptionControllerTest {
     @Mock
     private SubscriptionService subscriptionService;
 
+    @Spy
+    private ResourceVersionRegistry versionRegistry = new ResourceVersionRegistry();
+
     @InjectMocks
     private SubscriptionController subscriptionController;
 
@@ -96,6 +101,33 @@ class SubscriptionControllerTest {
         verify(subscriptionRepository).findAll();
     }
 
+    /**
+     * Тестирует эндпоинт {@code GET /api/subscriptions} с заголовком {@code If-None-Match}.
+     * <p>
+     * Проверяет, что первый ответ содержит {@code ETag}, а повторный запрос с этим значением
+     * получает статус 304 без тела и без повторного обращения к репозиторию.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getAllSubscriptions_MatchingETag_Returns304() throws Exception {
+        when(subscriptionRepository.findAll()).thenReturn(Collections.singletonList(subscription));
+
+        String etag = mockMvc.perform(get("/api/subscriptions"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/subscriptions").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(subscriptionRepository, times(1)).findAll();
+    }
+
     /**
      * Тестирует эндпоинт {@code GET /api/subscriptions/{id}} при наличии абонемента.
      * <p>
@@ -234,19 +266,19 @@ class SubscriptionControllerTest {
 
     @Test
     void deleteSubscription_SubscriptionExists_Returns200() throws Exception {
-        when(subscriptionRepository.existsById(1L)).thenReturn(true);
+        when(subscriptionService.deleteSubscription(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/api/subscriptions/1"))
                 .andExpect(status().isOk());
 
-        verify(subscriptionRepository).deleteById(1L);
+        verify(subscriptionService).deleteSubscription(1L);
     }
 
     /**
      * Тестирует эндпоинт {@code DELETE /api/subscriptions/{id}} при отсутствии абонемента.
      * <p>
-     * Проверяет, что возвращается статус 404
-     * и что метод удаления не вызывается.
+     * Проверяет, что возвращается статус 404,
+     * если сервис сообщает об отсутствии абонемента.
      * </p>
      *
      * @throws Exception если произошла ошибка при выполнении запроса
@@ -254,11 +286,11 @@ class SubscriptionControllerTest {
 
     @Test
     void deleteSubscription_SubscriptionNotFound_Returns404() throws Exception {
-        when(subscriptionRepository.existsById(1L)).thenReturn(false);
+        when(subscriptionService.deleteSubscription(1L)).thenReturn(false);
 
         mockMvc.perform(delete("/api/subscriptions/1"))
                 .andExpect(status().isNotFound());
 
-        verify(subscriptionRepository, never()).deleteById(1L);
+        verify(subscriptionService).deleteSubscription(1L);
     }
 }
\ No newline at end of file
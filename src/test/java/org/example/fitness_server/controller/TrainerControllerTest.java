@@ -1,14 +1,20 @@
 package org.example.fitness_server.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.fitness_server.dto.ClientCursor;
+import org.example.fitness_server.dto.RosterEntry;
+import org.example.fitness_server.dto.TrainerRoster;
 import org.example.fitness_server.model.Trainer;
 import org.example.fitness_server.repository.TrainerRepository;
+import org.example.fitness_server.service.ResourceVersionRegistry;
+import org.example.fitness_server.service.TrainerRosterService;
 import org.example.fitness_server.service.TrainerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
@@ -16,10 +22,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -48,6 +56,12 @@ class TrainerControllerTest {
     @Mock
     private TrainerService trainerService;
 
+    @Mock
+    private TrainerRosterService rosterService;
+
+    @Spy
+    private ResourceVersionRegistry versionRegistry = new ResourceVersionRegistry();
+
     @InjectMocks
     private TrainerController trainerController;
 
@@ -236,12 +250,12 @@ class TrainerControllerTest {
 
     @Test
     void deleteTrainer_TrainerExists_Returns200() throws Exception {
-        when(trainerRepository.existsById(1L)).thenReturn(true);
+        when(trainerService.deleteTrainer(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/api/trainers/1"))
                 .andExpect(status().isOk());
 
-        verify(trainerRepository).deleteById(1L);
+        verify(trainerService).deleteTrainer(1L);
     }
 
     /**
@@ -256,7 +270,7 @@ class TrainerControllerTest {
 
     @Test
     void deleteTrainer_TrainerNotFound_Returns404() throws Exception {
-        when(trainerRepository.existsById(1L)).thenReturn(false);
+        when(trainerService.deleteTrainer(1L)).thenReturn(false);
 
         mockMvc.perform(delete("/api/trainers/1"))
                 .andExpect(status().isNotFound());
@@ -311,4 +325,73 @@ class TrainerControllerTest {
 
         verify(trainerRepository).findByUsername("trainer1");
     }
-}
\ No newline at end of file
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/trainers/{id}/clients} с курсором.
+     * <p>
+     * Проверяет, что курсор из запроса передаётся в сервис списков, а ответ содержит
+     * клиентов порции, общее количество клиентов тренера и курсор следующей порции.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getTrainerClients_WithCursor_ReturnsRoster() throws Exception {
+        String after = new ClientCursor(ClientCursor.Sort.ID, 5L, null).encode();
+        String next = new ClientCursor(ClientCursor.Sort.ID, 7L, null).encode();
+        RosterEntry entry = new RosterEntry(7L, "Иван Иванов", "+79876543210", "ivan", 1L, "Безлимит");
+        when(rosterService.getRoster(1L, new ClientCursor(ClientCursor.Sort.ID, 5L, null), 1))
+                .thenReturn(Optional.of(new TrainerRoster(1L, 3L, List.of(entry), next)));
+
+        mockMvc.perform(get("/api/trainers/1/clients")
+                        .param("limit", "1")
+                        .param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalClients", is(3)))
+                .andExpect(jsonPath("$.items[0].username", is("ivan")))
+                .andExpect(jsonPath("$.nextCursor", is(next)));
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/trainers/{id}/clients} при отсутствии тренера.
+     * <p>
+     * Проверяет, что возвращается статус 404.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getTrainerClients_TrainerNotFound_Returns404() throws Exception {
+        when(rosterService.getRoster(eq(1L), any(), eq(50))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/trainers/1/clients"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Тестирует эндпоинт {@code GET /api/trainers/me/clients}.
+     * <p>
+     * Проверяет, что идентификатор тренера определяется по имени пользователя
+     * и возвращается первая порция его списка клиентов.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void getCurrentTrainerClients_TrainerExists_ReturnsRoster() throws Exception {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("trainer1");
+        when(trainerRepository.findIdByUsername("trainer1")).thenReturn(Optional.of(1L));
+        when(rosterService.getRoster(1L, null, 50))
+                .thenReturn(Optional.of(new TrainerRoster(1L, 0L, List.of(), null)));
+
+        mockMvc.perform(get("/api/trainers/me/clients")
+                        .principal(auth))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trainerId", is(1)))
+                .andExpect(jsonPath("$.items").isEmpty());
+    }
+}
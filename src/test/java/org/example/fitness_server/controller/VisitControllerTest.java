@@ -0,0 +1,98 @@
+package org.example.fitness_server.controller;
+
+import org.example.fitness_server.exception.GlobalExceptionHandler;
+import org.example.fitness_server.exception.VisitRejectedException;
+import org.example.fitness_server.service.VisitIngestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Тестовый класс для контроллера {@code VisitController}.
+ * <p>
+ * Проверяет приём отметки посещения и ответ 429 при заполненном буфере отметок.
+ * Использует Mockito для мок-объектов и Spring Test для симуляции HTTP-запросов.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ExtendWith(MockitoExtension.class)
+class VisitControllerTest {
+
+    @Mock
+    private VisitIngestionService visitIngestionService;
+
+    @InjectMocks
+    private VisitController visitController;
+
+    private MockMvc mockMvc;
+
+    /**
+     * Инициализирует тестовую среду перед каждым тестом.
+     * <p>
+     * Настраивает {@code MockMvc} с глобальным обработчиком исключений.
+     * </p>
+     */
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(visitController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/visits}.
+     * <p>
+     * Проверяет, что отметка передаётся сервису и возвращается статус 202.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void recordVisit_ValidClient_ReturnsAccepted() throws Exception {
+        mockMvc.perform(post("/api/visits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientId\": 7}"))
+                .andExpect(status().isAccepted());
+
+        verify(visitIngestionService, times(1)).submit(7L);
+    }
+
+    /**
+     * Тестирует эндпоинт {@code POST /api/visits} при заполненном буфере отметок.
+     * <p>
+     * Проверяет, что возвращается статус 429 с заголовком {@code Retry-After}.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка при выполнении запроса
+     */
+
+    @Test
+    void recordVisit_BufferFull_Returns429() throws Exception {
+        doThrow(new VisitRejectedException("Буфер посещений заполнен (1), повторите запрос позже."))
+                .when(visitIngestionService).submit(7L);
+
+        mockMvc.perform(post("/api/visits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientId\": 7}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("Too many requests")));
+    }
+}
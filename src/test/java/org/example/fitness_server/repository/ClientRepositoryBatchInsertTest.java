@@ -0,0 +1,110 @@
+package org.example.fitness_server.repository;
+
+import org.example.fitness_server.model.Client;
+import org.hibernate.BaseSessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тестовый класс для проверки пакетной вставки клиентов.
+ * <p>
+ * Проверяет, что идентификаторы из последовательности с оптимизатором pooled и настройка
+ * {@code hibernate.jdbc.batch_size} позволяют Hibernate вставлять клиентов пакетами JDBC.
+ * Количество пакетов и отдельных операторов JDBC подсчитывается слушателем событий сессии
+ * Hibernate {@code JdbcCounter}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session.events.auto="
+                + "org.example.fitness_server.repository.ClientRepositoryBatchInsertTest$JdbcCounter"})
+class ClientRepositoryBatchInsertTest {
+
+    private static final int CLIENTS = 1000;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    /**
+     * Сбрасывает счётчики операторов перед каждым тестом.
+     */
+
+    @BeforeEach
+    void setUp() {
+        JdbcCounter.reset();
+    }
+
+    /**
+     * Тестирует сохранение 1000 клиентов через {@code saveAll}.
+     * <p>
+     * Проверяет, что вставки выполняются 1000 / {@code batch_size} пакетами JDBC, а отдельными
+     * операторами выполняются только обращения к последовательности: одно на блок из 50 клиентов.
+     * </p>
+     */
+
+    @Test
+    void saveAll_ThousandClients_InsertsInJdbcBatches() {
+        List<Client> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = new Client();
+            client.setName("Клиент Тестовый");
+            client.setUsername("batch_client_" + i);
+            client.setPassword("{noop}secret");
+            client.setPhone("+7900" + (1_000_000 + i));
+            clients.add(client);
+        }
+
+        clientRepository.saveAll(clients);
+        entityManager.flush();
+
+        assertEquals(CLIENTS / batchSize, JdbcCounter.BATCHES.get());
+        // Оптимизатор pooled обращается к последовательности один раз на блок и ещё раз при первом вызове
+        assertEquals(CLIENTS / 50 + 1, JdbcCounter.STATEMENTS.get());
+    }
+
+    /**
+     * Считает выполненные пакеты JDBC и отдельные операторы во всех сессиях Hibernate.
+     */
+
+    public static class JdbcCounter extends BaseSessionEventListener {
+
+        static final AtomicInteger BATCHES = new AtomicInteger();
+        static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+        static void reset() {
+            BATCHES.set(0);
+            STATEMENTS.set(0);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            BATCHES.incrementAndGet();
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            STATEMENTS.incrementAndGet();
+        }
+    }
+}
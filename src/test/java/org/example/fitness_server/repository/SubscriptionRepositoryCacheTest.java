@@ -0,0 +1,110 @@
+package org.example.fitness_server.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.fitness_server.model.Subscription;
+import org.example.fitness_server.service.SubscriptionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тестовый класс для проверки кэша второго уровня и кэша запросов для абонементов.
+ * <p>
+ * Каждое обращение к репозиторию и сервису выполняется в отдельной транзакции, как в приложении,
+ * поэтому кэш заполняется и сбрасывается так же, как при обработке HTTP-запросов.
+ * Обращения к базе данных подсчитываются по статистике Hibernate.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(SubscriptionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubscriptionRepositoryCacheTest {
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    /**
+     * Очищает таблицу, кэш и статистику перед каждым тестом.
+     */
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Тестирует повторное чтение списка и абонемента по ID.
+     * <p>
+     * Проверяет, что повторный {@code findAll()} обслуживается кэшем запросов, а {@code findById}
+     * — кэшем второго уровня, без обращения к базе данных.
+     * </p>
+     */
+
+    @Test
+    void findAll_RepeatedCall_ServedFromQueryCache() {
+        Subscription created = subscriptionService.createSubscription(subscription("Месячный", 5000.0));
+        subscriptionRepository.findAll();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        List<Subscription> subscriptions = subscriptionRepository.findAll();
+        subscriptionRepository.findById(created.getId());
+
+        assertEquals(1, subscriptions.size());
+        assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    /**
+     * Тестирует изменение абонемента через {@code SubscriptionService}.
+     * <p>
+     * Проверяет, что после изменения кэш запросов и кэш сущностей не возвращают устаревшую
+     * стоимость.
+     * </p>
+     */
+
+    @Test
+    void updateSubscription_CachedList_ReturnsUpdatedCost() {
+        Subscription created = subscriptionService.createSubscription(subscription("Годовой", 45000.0));
+        subscriptionRepository.findAll();
+        subscriptionRepository.findById(created.getId());
+
+        subscriptionService.updateSubscription(created.getId(), subscription("Годовой", 40000.0));
+
+        assertEquals(40000.0, subscriptionRepository.findAll().get(0).getCost());
+        assertEquals(40000.0, subscriptionRepository.findById(created.getId()).orElseThrow().getCost());
+    }
+
+    private static Subscription subscription(String type, double cost) {
+        Subscription subscription = new Subscription();
+        subscription.setType(type);
+        subscription.setCost(cost);
+        subscription.setDurationDays(30);
+        return subscription;
+    }
+}
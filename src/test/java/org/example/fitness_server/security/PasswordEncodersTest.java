@@ -0,0 +1,61 @@
+package org.example.fitness_server.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестовый класс для утилитного класса {@code PasswordEncoders}.
+ * <p>
+ * Проверяет распознавание зашифрованных паролей: хеши, выпущенные кодировщиком, распознаются,
+ * а пароли в открытом виде, похожие на хеш только префиксом, — нет.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+class PasswordEncodersTest {
+
+    /**
+     * Тестирует распознавание хешей, выпущенных кодировщиком для каждого алгоритма.
+     * <p>
+     * Проверяет хеши BCrypt и PBKDF2 с префиксом, а также хеш BCrypt без префикса.
+     * </p>
+     */
+
+    @Test
+    void isEncoded_EncoderOutput_ReturnsTrue() {
+        PasswordEncoder bcrypt = PasswordEncoders.create(PasswordEncoders.BCRYPT, 4);
+        PasswordEncoder pbkdf2 = PasswordEncoders.create(PasswordEncoders.PBKDF2, 4);
+        String bcryptHash = bcrypt.encode("ivan123");
+
+        assertTrue(PasswordEncoders.isEncoded(bcryptHash));
+        assertTrue(PasswordEncoders.isEncoded(pbkdf2.encode("ivan123")));
+        assertTrue(PasswordEncoders.isEncoded(bcryptHash.substring("{bcrypt}".length())));
+    }
+
+    /**
+     * Тестирует распознавание паролей в открытом виде с префиксом алгоритма.
+     * <p>
+     * Проверяет, что значение с префиксом известного алгоритма, но с телом не в формате
+     * этого алгоритма, а также значение с префиксом неизвестного алгоритма не считаются
+     * зашифрованными.
+     * </p>
+     */
+
+    @Test
+    void isEncoded_PrefixWithoutValidHash_ReturnsFalse() {
+        String bcryptHash = PasswordEncoders.create(PasswordEncoders.BCRYPT, 4).encode("ivan123");
+
+        assertFalse(PasswordEncoders.isEncoded("{bcrypt}secret123"));
+        assertFalse(PasswordEncoders.isEncoded("{pbkdf2@SpringSecurity_v5_8}secret123"));
+        assertFalse(PasswordEncoders.isEncoded("{pbkdf2@SpringSecurity_v5_8}" + bcryptHash.substring("{bcrypt}".length())));
+        assertFalse(PasswordEncoders.isEncoded("{noop}secret123"));
+        assertFalse(PasswordEncoders.isEncoded("secret123"));
+        assertFalse(PasswordEncoders.isEncoded(null));
+    }
+}
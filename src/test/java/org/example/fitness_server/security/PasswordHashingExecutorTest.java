@@ -0,0 +1,122 @@
+package org.example.fitness_server.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестовый класс для пула потоков шифрования паролей {@code PasswordHashingExecutor}.
+ * <p>
+ * Пул из одного потока с очередью на одну задачу заполняется двумя операциями, ожидающими
+ * защёлку. Проверяется, что проверка пароля при заполненной очереди не выполняется
+ * в вызывающем потоке, а ждёт места в очереди, и что ожидание учитывается отдельно от отказов.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+class PasswordHashingExecutorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingExecutor hashingExecutor;
+
+    /**
+     * Освобождает заблокированные операции и останавливает пул.
+     */
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * Тестирует проверку пароля при заполненной очереди, место в которой освобождается.
+     * <p>
+     * Проверяет, что операция выполняется в потоке пула после освобождения места,
+     * а ожидание учитывается в метрике {@code fallback}, но не в метрике отказов.
+     * </p>
+     *
+     * @throws Exception если ожидание результата было прервано или превысило время
+     */
+
+    @Test
+    void callOrWait_QueueFull_WaitsForPoolAndRunsThere() throws Exception {
+        hashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5), meterRegistry);
+        fillPool();
+        Thread caller = Thread.currentThread();
+
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(() ->
+                hashingExecutor.callOrWait(() -> Thread.currentThread().getName()));
+        awaitMetric(() -> counter("fitness.password.hashing.fallback"));
+        release.countDown();
+
+        String thread = result.get(5, TimeUnit.SECONDS);
+        assertTrue(thread.startsWith("password-hashing-"));
+        assertNotEquals(caller.getName(), thread);
+        assertEquals(1.0, counter("fitness.password.hashing.fallback"));
+        assertEquals(0.0, counter("fitness.password.hashing.rejected"));
+    }
+
+    /**
+     * Тестирует проверку пароля при заполненной очереди, место в которой не освобождается.
+     * <p>
+     * Проверяет, что по истечении времени ожидания выбрасывается {@code AuthenticationServiceException}
+     * и отказ учитывается в метрике {@code rejected}.
+     * </p>
+     */
+
+    @Test
+    void callOrWait_QueueFullUntilTimeout_ThrowsAuthenticationServiceException() {
+        hashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(50), meterRegistry);
+        fillPool();
+
+        assertThrows(AuthenticationServiceException.class, () -> hashingExecutor.callOrWait(() -> true));
+        assertEquals(1.0, counter("fitness.password.hashing.fallback"));
+        assertEquals(1.0, counter("fitness.password.hashing.rejected"));
+    }
+
+    private void fillPool() {
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture.runAsync(() -> hashingExecutor.call(() -> {
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+        }
+        awaitMetric(() -> meterRegistry.get("fitness.password.hashing.queue").gauge().value());
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static void awaitMetric(DoubleSupplier metric) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metric.getAsDouble() < 1.0) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Метрика не достигла ожидаемого значения");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
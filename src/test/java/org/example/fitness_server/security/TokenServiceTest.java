@@ -0,0 +1,166 @@
+package org.example.fitness_server.security;
+
+import org.example.fitness_server.dto.TokenResponse;
+import org.example.fitness_server.event.CredentialsChangedEvent;
+import org.example.fitness_server.model.Role;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для сервиса {@code TokenService}.
+ * <p>
+ * Проверяет, что токены привязаны к идентификатору пользователя и версии его учётных данных:
+ * после смены пароля или удаления пользователя выпущенные ранее токены доступа и обновления
+ * отклоняются. Репозиторий пользователей заменён мок-объектом Mockito.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenService tokenService;
+    private User user;
+
+    /**
+     * Создаёт сервис со случайным ключом подписи и пользователя с версией учётных данных 0.
+     */
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService(userRepository, "", Duration.ofMinutes(15), Duration.ofHours(8),
+                100, Duration.ofMinutes(5));
+        user = new User();
+        user.setId(7L);
+        user.setUsername("ivan");
+        user.setRole(Role.CLIENT);
+    }
+
+    /**
+     * Тестирует проверку токена доступа, выпущенного для текущей версии учётных данных.
+     * <p>
+     * Проверяет, что токен принимается, а повторная проверка берёт версию из кэша без
+     * обращения к репозиторию.
+     * </p>
+     */
+
+    @Test
+    void verifyAccessToken_CurrentCredentials_ReturnsClaims() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(copyOf(user)));
+        String accessToken = tokenService.issueTokens(user).accessToken();
+
+        TokenClaims claims = tokenService.verifyAccessToken(accessToken);
+        tokenService.verifyAccessToken(accessToken);
+
+        assertEquals(7L, claims.userId());
+        assertEquals("ivan", claims.username());
+        assertEquals(0, claims.credentialsVersion());
+        verify(userRepository, times(1)).findById(7L);
+    }
+
+    /**
+     * Тестирует проверку токена доступа после смены пароля.
+     * <p>
+     * Проверяет, что после события {@code CredentialsChangedEvent} кэшированная версия
+     * сбрасывается и токен с прежней версией отклоняется.
+     * </p>
+     */
+
+    @Test
+    void verifyAccessToken_CredentialsChanged_ThrowsBadCredentials() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(copyOf(user)));
+        String accessToken = tokenService.issueTokens(user).accessToken();
+        tokenService.verifyAccessToken(accessToken);
+
+        User changed = copyOf(user);
+        changed.setCredentialsVersion(1);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(changed));
+        tokenService.onCredentialsChanged(new CredentialsChangedEvent(7L, "ivan"));
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verifyAccessToken(accessToken));
+    }
+
+    /**
+     * Тестирует проверку токена доступа удалённого пользователя.
+     * <p>
+     * Проверяет, что токен отклоняется, если пользователь с идентификатором из токена не найден.
+     * </p>
+     */
+
+    @Test
+    void verifyAccessToken_UserDeleted_ThrowsBadCredentials() {
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+        String accessToken = tokenService.issueTokens(user).accessToken();
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verifyAccessToken(accessToken));
+    }
+
+    /**
+     * Тестирует обмен токена обновления при неизменных учётных данных.
+     * <p>
+     * Проверяет, что выдаётся новая пара токенов, а предъявленный токен обновления отзывается.
+     * </p>
+     */
+
+    @Test
+    void refresh_CurrentCredentials_ReturnsNewTokensAndRevokesOld() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(copyOf(user)));
+        String refreshToken = tokenService.issueTokens(user).refreshToken();
+
+        TokenResponse tokens = tokenService.refresh(refreshToken);
+
+        assertNotNull(tokens.accessToken());
+        assertEquals(1, tokenService.getRevokedTokenCount());
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(refreshToken));
+    }
+
+    /**
+     * Тестирует обмен токена обновления после смены пароля.
+     * <p>
+     * Проверяет, что обмен сверяется с базой данных и отклоняет токен с прежней версией
+     * учётных данных даже без события об их изменении.
+     * </p>
+     */
+
+    @Test
+    void refresh_CredentialsChanged_ThrowsBadCredentials() {
+        String refreshToken = tokenService.issueTokens(user).refreshToken();
+        User changed = copyOf(user);
+        changed.setCredentialsVersion(1);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(changed));
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(refreshToken));
+        assertEquals(0, tokenService.getRevokedTokenCount());
+    }
+
+    private static User copyOf(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setUsername(source.getUsername());
+        copy.setRole(source.getRole());
+        copy.setCredentialsVersion(source.getCredentialsVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.fitness_server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.fitness_server.dto.BulkImportReport;
+import org.example.fitness_server.dto.ImportRowError;
+import org.example.fitness_server.model.RegisteredUsername;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для сервиса пакетного импорта клиентов {@code ClientImportService}.
+ * <p>
+ * Репозитории, кодировщик паролей и шаблон транзакций заменены мок-объектами Mockito:
+ * шаблон выполняет переданный код сразу, а сохранение реестра имён отклоняет имя {@code taken},
+ * как это сделало бы ограничение уникальности, если имя занял параллельный запрос.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ExtendWith(MockitoExtension.class)
+class ClientImportServiceTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RegisteredUsernameRepository registeredUsernameRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PasswordHashingExecutor hashingExecutor;
+    private ClientImportService clientImportService;
+
+    /**
+     * Создаёт сервис с порцией из десяти строк.
+     */
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new PasswordHashingExecutor(1, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        clientImportService = new ClientImportService(clientRepository, userRepository, registeredUsernameRepository,
+                trainerRepository, subscriptionRepository, passwordEncoder, hashingExecutor, transactionTemplate,
+                eventPublisher, new ObjectMapper(), 10);
+    }
+
+    /**
+     * Останавливает пул шифрования паролей.
+     */
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * Тестирует импорт порции, одну из строк которой параллельный запрос занял до вставки.
+     * <p>
+     * Проверяет, что после отказа пакетной вставки порция сохраняется по одной строке:
+     * остальные строки импортируются, а в отчёт попадает только конфликтующая строка. Обработчик
+     * порций вызывается для исходной порции и для каждой повторной вставки.
+     * </p>
+     *
+     * @throws Exception если произошла ошибка чтения
+     */
+
+    @Test
+    void importCsv_ConcurrentConflictInChunk_RejectsOnlyConflictingRow() throws Exception {
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}hash");
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(registeredUsernameRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<RegisteredUsername> registrations = invocation.getArgument(0);
+            for (RegisteredUsername registration : registrations) {
+                if (registration.getUsername().equals("taken")) {
+                    throw new DataIntegrityViolationException("uk_username_registry_username");
+                }
+            }
+            return List.of();
+        });
+
+        AtomicInteger chunks = new AtomicInteger();
+        BulkImportReport report = clientImportService.importCsv(new StringReader("""
+                name,phone,username,password
+                Иван Петров,+79990000001,ivan_petrov,secret123
+                Пётр Иванов,+79990000002,taken,secret123
+                Мария Сидорова,+79990000003,maria,secret123
+                """), chunks::incrementAndGet);
+
+        assertEquals(3, report.totalRows());
+        assertEquals(2, report.importedRows());
+        assertEquals(List.of(2L), report.errors().stream().map(ImportRowError::row).toList());
+        assertEquals(4, chunks.get());
+        verify(registeredUsernameRepository, times(4)).saveAll(any());
+    }
+}
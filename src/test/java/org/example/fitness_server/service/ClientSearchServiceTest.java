@@ -0,0 +1,209 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.dto.ClientSuggestion;
+import org.example.fitness_server.dto.ClientSummary;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для сервиса поиска клиентов {@code ClientSearchService}.
+ * <p>
+ * Поиск в базе данных проверяется на H2 по клиентам, вставленным напрямую через JDBC.
+ * Префиксный индекс автодополнения строится перестройкой {@code rebuild()} и обновляется
+ * вызовами {@code onClientChanged}, как после фиксации транзакций {@code ClientService}.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:client-search;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClientSearchServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ClientSearchService clientSearchService;
+
+    /**
+     * Создаёт четырёх клиентов и строит индекс автодополнения.
+     * <p>
+     * Телефон клиента {@code ivan_petrov} хранится в том виде, в каком был введён.
+     * </p>
+     */
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("delete from clients");
+        jdbcTemplate.execute("delete from users");
+        insertClient(1, "Иван Петров", "+7 (987) 654-32-10", "+79876543210", "ivan_petrov");
+        insertClient(2, "Пётр Иванов", "+79991112233", "+79991112233", "petr");
+        insertClient(3, "Мария Сидорова", "+79995554433", "+79995554433", "ivanova_m");
+        insertClient(4, "Petra Lind", "+79990001122", "+79990001122", "lind");
+        clientSearchService = new ClientSearchService(clientRepository, transactionTemplate);
+        clientSearchService.rebuild();
+    }
+
+    /**
+     * Тестирует поиск в базе данных по части телефона.
+     * <p>
+     * Проверяет, что номер, введённый с кодом страны {@code 8} и пробелами, находит клиента,
+     * телефон которого хранится в другой записи, а запрос с {@code +7} — того же клиента.
+     * </p>
+     */
+
+    @Test
+    void search_PhoneInAnyFormat_MatchesNormalizedPhone() {
+        assertEquals(List.of(1L), searchIds("8 987 654"));
+        assertEquals(List.of(1L), searchIds("+7 987 654-32"));
+        assertEquals(List.of(1L), searchIds("654-32-10"));
+    }
+
+    /**
+     * Тестирует поиск в базе данных по имени и имени пользователя.
+     * <p>
+     * Проверяет, что поиск не различает «ё» и «е», находит клиента по части имени пользователя
+     * и ставит клиентов, имя которых начинается с запроса, выше остальных совпадений.
+     * </p>
+     */
+
+    @Test
+    void search_NameAndUsername_RanksNamePrefixFirst() {
+        assertEquals(List.of(2L, 1L), searchIds("петр"));
+        assertEquals(List.of(3L), searchIds("ova_m"));
+        assertEquals(List.of(1L, 2L), searchIds("иван"));
+    }
+
+    /**
+     * Тестирует ранжирование подсказок автодополнения.
+     * <p>
+     * Проверяет, что полное совпадение слова ранжируется выше совпадения по началу, совпадение
+     * по началу имени — выше полного совпадения имени пользователя, а запрос из нескольких слов
+     * находит только клиентов, у которых совпали все слова.
+     * </p>
+     */
+
+    @Test
+    void suggest_NameAndUsernameMatches_RanksByRelevance() {
+        assertEquals(List.of(1L, 2L), suggestIds("иван"));
+        assertEquals(List.of(4L, 2L), suggestIds("petr"));
+        assertEquals(List.of(1L, 3L), suggestIds("ivan"));
+        assertEquals(List.of(1L), suggestIds("иван петров"));
+    }
+
+    /**
+     * Тестирует автодополнение по телефону с кодом страны {@code 8}, {@code 7} и без него.
+     */
+
+    @Test
+    void suggest_PhoneVariants_MatchSameClient() {
+        assertEquals(List.of(1L), suggestIds("8 987 65"));
+        assertEquals(List.of(1L), suggestIds("+7 (987) 65"));
+        assertEquals(List.of(1L), suggestIds("98765"));
+        assertEquals(List.of(4L, 3L, 2L), suggestIds("8999"));
+    }
+
+    /**
+     * Тестирует обновление индекса по событиям создания, изменения и удаления клиента.
+     * <p>
+     * Проверяет, что созданный клиент находится сразу, после изменения находится только
+     * по новым имени и телефону, а после удаления не находится, в том числе по телефону.
+     * </p>
+     */
+
+    @Test
+    void onClientChanged_CreateUpdateDelete_UpdatesIndex() {
+        ClientState created = new ClientState(10L, null, null, "Анна Смирнова", "+79001234567", "anna");
+        clientSearchService.onClientChanged(new ClientChangedEvent(null, created));
+        assertEquals(List.of(10L), suggestIds("смир"));
+        assertEquals(10L, clientSearchService.findByPhone("8 900 123-45-67").orElseThrow().id());
+
+        ClientState updated = new ClientState(10L, null, null, "Анна Кузнецова", "+79007654321", "anna");
+        clientSearchService.onClientChanged(new ClientChangedEvent(created, updated));
+        assertEquals(List.of(), suggestIds("смир"));
+        assertEquals(List.of(10L), suggestIds("кузн"));
+        assertEquals(List.of(10L), suggestIds("8900765"));
+        assertEquals(List.of(), suggestIds("8900123"));
+
+        clientSearchService.onClientChanged(new ClientChangedEvent(updated, null));
+        assertEquals(List.of(), suggestIds("кузн"));
+        assertEquals(List.of(), suggestIds("anna"));
+        assertTrue(clientSearchService.findByPhone("+79007654321").isEmpty());
+    }
+
+    /**
+     * Тестирует событие, пришедшее во время перестройки индекса.
+     * <p>
+     * Событие изменения клиента применяется после того, как перестройка прочитала его прежнее
+     * состояние. Проверяет, что опубликованный индекс содержит новое состояние, а не прочитанное.
+     * </p>
+     */
+
+    @Test
+    void rebuild_EventDuringRead_AppliesEventToNewIndex() {
+        ClientRepository repository = mock(ClientRepository.class);
+        ClientSearchService service = new ClientSearchService(repository, transactionTemplate);
+        ClientState before = new ClientState(20L, null, null, "Олег Старый", "+79000000020", "oleg");
+        ClientState after = new ClientState(20L, null, null, "Олег Новый", "+79000000020", "oleg");
+        ClientState added = new ClientState(21L, null, null, "Ольга Новая", "+79000000021", "olga");
+        when(repository.streamAllSummaries()).thenAnswer(invocation -> Stream.of(summary(before))
+                .peek(summary -> {
+                    // Изменение зафиксировано, пока перестройка читает клиентов
+                    service.onClientChanged(new ClientChangedEvent(before, after));
+                    service.onClientChanged(new ClientChangedEvent(null, added));
+                }));
+
+        service.rebuild();
+
+        assertEquals(List.of(), service.suggest("стар", 10).stream().map(ClientSuggestion::id).toList());
+        assertEquals(List.of(20L, 21L), service.suggest("нов", 10).stream().map(ClientSuggestion::id).toList());
+    }
+
+    private List<Long> searchIds(String query) {
+        return clientSearchService.search(query, 10).stream().map(ClientSummary::id).toList();
+    }
+
+    private List<Long> suggestIds(String query) {
+        return clientSearchService.suggest(query, 10).stream().map(ClientSuggestion::id).toList();
+    }
+
+    private void insertClient(long id, String name, String phone, String phoneNormalized, String username) {
+        jdbcTemplate.update("insert into users (id, username, password, role) values (?, ?, '{noop}secret', 'CLIENT')",
+                id, username);
+        jdbcTemplate.update("insert into clients (id, name, phone, phone_normalized, user_id, version) "
+                + "values (?, ?, ?, ?, ?, 0)", id, name, phone, phoneNormalized, id);
+    }
+
+    private static ClientSummary summary(ClientState state) {
+        return new ClientSummary(state.id(), state.name(), state.phone(), state.username(), null, null, null, null);
+    }
+}
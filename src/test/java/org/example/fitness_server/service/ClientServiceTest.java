@@ -0,0 +1,178 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.model.Client;
+import org.example.fitness_server.model.Role;
+import org.example.fitness_server.model.User;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.RegisteredUsernameRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.example.fitness_server.repository.UserRepository;
+import org.example.fitness_server.security.AuthenticationCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для проверки телефона при создании и обновлении клиента в {@code ClientService}.
+ * <p>
+ * Телефон обязателен только при создании клиента: обновление без телефона сохраняет прежний
+ * телефон, а переданный телефон проверяется и приводится к формату E.164. Репозитории и шаблон
+ * транзакций заменены мок-объектами Mockito.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ExtendWith(MockitoExtension.class)
+class ClientServiceTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private RegisteredUsernameRepository registeredUsernameRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ClientService clientService;
+    private Client existing;
+
+    /**
+     * Создаёт сервис и существующего клиента {@code ivan} с телефоном {@code +79876543210}.
+     */
+
+    @BeforeEach
+    void setUp() {
+        clientService = new ClientService(clientRepository, userRepository, trainerRepository,
+                subscriptionRepository, registeredUsernameRepository, passwordEncoder,
+                new AuthenticationCache(100, Duration.ofMinutes(5)), eventPublisher, transactionTemplate);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("ivan");
+        user.setPassword("{bcrypt}hash");
+        user.setRole(Role.CLIENT);
+        existing = new Client();
+        existing.setId(1L);
+        existing.setName("Иван Иванов");
+        existing.setPhone("+79876543210");
+        existing.setPhoneNormalized("+79876543210");
+        existing.setUser(user);
+    }
+
+    /**
+     * Тестирует обновление клиента без телефона.
+     * <p>
+     * Проверяет, что валидация проходит, а у клиента остаются прежний телефон и его форма E.164.
+     * </p>
+     */
+
+    @Test
+    void updateClient_PhoneOmitted_KeepsExistingPhone() {
+        mockUpdateTransaction();
+
+        Client updated = clientService.updateClient(1L, update(null), null);
+
+        assertEquals("Иван Петров", updated.getName());
+        assertEquals("+79876543210", updated.getPhone());
+        assertEquals("+79876543210", updated.getPhoneNormalized());
+    }
+
+    /**
+     * Тестирует обновление клиента с новым телефоном.
+     * <p>
+     * Проверяет, что переданный телефон сохраняется и приводится к формату E.164.
+     * </p>
+     */
+
+    @Test
+    void updateClient_PhoneSupplied_NormalizesAndStoresPhone() {
+        mockUpdateTransaction();
+
+        Client updated = clientService.updateClient(1L, update("8 (999) 123-45-67"), null);
+
+        assertEquals("8 (999) 123-45-67", updated.getPhone());
+        assertEquals("+79991234567", updated.getPhoneNormalized());
+    }
+
+    /**
+     * Тестирует обновление клиента с некорректным телефоном.
+     * <p>
+     * Проверяет, что выбрасывается {@code IllegalArgumentException} и транзакция не начинается.
+     * </p>
+     */
+
+    @Test
+    void updateClient_InvalidPhone_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> clientService.updateClient(1L, update("не телефон"), null));
+
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    /**
+     * Тестирует создание клиента без телефона.
+     * <p>
+     * Проверяет, что при создании телефон по-прежнему обязателен.
+     * </p>
+     */
+
+    @Test
+    void createClient_PhoneOmitted_ThrowsIllegalArgumentException() {
+        Client client = update(null);
+        client.setPassword("ivan123");
+
+        assertThrows(IllegalArgumentException.class, () -> clientService.createClient(client, null));
+
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    private void mockUpdateTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Client>>getArgument(0).doInTransaction(null));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(clientRepository.save(existing)).thenReturn(existing);
+    }
+
+    private static Client update(String phone) {
+        Client client = new Client();
+        client.setName("Иван Петров");
+        client.setUsername("ivan");
+        client.setPhone(phone);
+        return client;
+    }
+}
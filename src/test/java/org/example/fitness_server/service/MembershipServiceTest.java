@@ -0,0 +1,134 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.dto.MemberEntry;
+import org.example.fitness_server.dto.MemberSlice;
+import org.example.fitness_server.dto.MembershipCursor;
+import org.example.fitness_server.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Тестовый класс для проверки списков абонементов и задачи их истечения.
+ * <p>
+ * Клиенты с разными сроками абонементов вставляются напрямую через JDBC. Задача истечения
+ * выполняется порциями по одному клиенту, чтобы проверить переход между порциями.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:memberships;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MembershipServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MembershipService membershipService;
+
+    /**
+     * Создаёт клиентов: два с действующим абонементом (на 3 и 30 дней), два с истёкшим, но ещё
+     * активным абонементом, один с уже переведённым в {@code EXPIRED} и один без абонемента.
+     */
+
+    @BeforeEach
+    void setUp() {
+        membershipService = new MembershipService(clientRepository, transactionTemplate, 1);
+        jdbcTemplate.execute("delete from clients");
+        Instant now = Instant.now();
+        insertClient(1, "ACTIVE", now.plus(Duration.ofDays(3)));
+        insertClient(2, "ACTIVE", now.plus(Duration.ofDays(30)));
+        insertClient(3, "ACTIVE", now.minus(Duration.ofDays(1)));
+        insertClient(4, "ACTIVE", now.minus(Duration.ofDays(2)));
+        insertClient(5, "EXPIRED", now.minus(Duration.ofDays(10)));
+        insertClient(6, null, null);
+    }
+
+    /**
+     * Тестирует списки активных, истекающих и истёкших абонементов.
+     * <p>
+     * Проверяет, что истёкший, но ещё не переведённый в {@code EXPIRED} абонемент не считается
+     * активным и попадает в список истёкших, а курсор следующей порции продолжает список
+     * с места остановки.
+     * </p>
+     */
+
+    @Test
+    void memberLists_BeforeExpiryJob_ClassifyByExpiryTime() {
+        MemberSlice firstActive = membershipService.getActiveMembers(null, 1);
+        assertEquals(List.of(1L), ids(firstActive));
+        assertNotNull(firstActive.nextCursor());
+        MemberSlice secondActive = membershipService.getActiveMembers(
+                MembershipCursor.decode(firstActive.nextCursor()), 1);
+        assertEquals(List.of(2L), ids(secondActive));
+        assertNull(secondActive.nextCursor());
+
+        assertEquals(List.of(1L), ids(membershipService.getExpiringMembers(7, null, 50)));
+        assertEquals(List.of(3L, 4L, 5L), ids(membershipService.getExpiredMembers(null, 50)));
+    }
+
+    /**
+     * Тестирует перевод истёкших абонементов в состояние {@code EXPIRED}.
+     * <p>
+     * Проверяет, что порциями по одному клиенту переводятся оба истёкших абонемента, их версия
+     * увеличивается, действующие абонементы не изменяются, а повторный запуск ничего не меняет.
+     * </p>
+     */
+
+    @Test
+    void expireMemberships_LapsedMemberships_ExpiresInChunks() {
+        assertEquals(2, membershipService.expireMemberships());
+        assertEquals(0, membershipService.expireMemberships());
+
+        assertEquals("EXPIRED", status(3));
+        assertEquals("EXPIRED", status(4));
+        assertEquals("ACTIVE", status(1));
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from clients where id = 3", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("select version from clients where id = 1", Long.class));
+        assertEquals(List.of(3L, 4L, 5L), ids(membershipService.getExpiredMembers(null, 50)));
+    }
+
+    private void insertClient(long id, String status, Instant expiresAt) {
+        OffsetDateTime expires = expiresAt == null ? null : expiresAt.atOffset(ZoneOffset.UTC);
+        OffsetDateTime activated = expires == null ? null : expires.minusDays(30);
+        jdbcTemplate.update("insert into clients (id, name, phone, version, membership_status, "
+                        + "subscription_activated_at, subscription_expires_at) values (?, 'Клиент Абонементов', ?, 0, ?, ?, ?)",
+                id, "+7999000000" + id, status, activated, expires);
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("select membership_status from clients where id = ?", String.class, id);
+    }
+
+    private static List<Long> ids(MemberSlice slice) {
+        return slice.items().stream().map(MemberEntry::id).toList();
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.dto.StatisticsSnapshot;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.event.SubscriptionChangedEvent;
+import org.example.fitness_server.event.SubscriptionChangedEvent.SubscriptionState;
+import org.example.fitness_server.event.TrainerChangedEvent;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.SubscriptionRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для сервиса статистики {@code StatisticsService}.
+ * <p>
+ * Сверка с SQL-агрегатами проверяется на H2 по данным, вставленным напрямую через JDBC,
+ * а инкрементальное обновление — вызовами обработчиков событий, как после фиксации транзакций
+ * сервисов. События, приходящие во время сверки, имитируются репозиторием-заглушкой Mockito.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statistics;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatisticsServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StatisticsService statisticsService;
+
+    /**
+     * Создаёт абонементы стоимостью 3000 и 5000, тренера и трёх клиентов и выполняет сверку.
+     * <p>
+     * Два клиента оформили первый абонемент, один из них занимается с тренером,
+     * третий клиент без абонемента и тренера.
+     * </p>
+     */
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("delete from clients");
+        jdbcTemplate.execute("delete from trainers");
+        jdbcTemplate.execute("delete from subscriptions");
+        jdbcTemplate.execute("delete from users");
+        jdbcTemplate.update("insert into subscriptions (id, type, cost, duration_days, version) "
+                + "values (1, 'Месячный', 3000, 30, 0), (2, 'Квартальный', 5000, 90, 0)");
+        jdbcTemplate.update("insert into users (id, username, password, role) values (100, 'trainer', '{noop}secret', 'TRAINER')");
+        jdbcTemplate.update("insert into trainers (id, name, user_id, version) values (1, 'Тренер Иванов', 100, 0)");
+        insertClient(1, 1L, 1L);
+        insertClient(2, 1L, null);
+        insertClient(3, null, null);
+        statisticsService = new StatisticsService(clientRepository, trainerRepository, subscriptionRepository,
+                transactionManager);
+        statisticsService.reconcile();
+    }
+
+    /**
+     * Тестирует сверку с базой данных.
+     * <p>
+     * Проверяет количество, сумму, среднюю, минимальную и максимальную стоимость абонементов
+     * и распределение клиентов по абонементам и тренерам.
+     * </p>
+     */
+
+    @Test
+    void reconcile_DatabaseState_PublishesAggregates() {
+        StatisticsSnapshot snapshot = statisticsService.getSnapshot();
+
+        assertEquals(3, snapshot.totalClients());
+        assertEquals(1, snapshot.totalTrainers());
+        assertEquals(2, snapshot.totalSubscriptions());
+        assertEquals(8000.0, snapshot.totalSubscriptionCost());
+        assertEquals(4000.0, snapshot.averageSubscriptionCost());
+        assertEquals(3000.0, snapshot.minSubscriptionCost());
+        assertEquals(5000.0, snapshot.maxSubscriptionCost());
+        assertEquals(Map.of(1L, 2L), snapshot.clientsPerSubscription());
+        assertEquals(Map.of(1L, 1L), snapshot.clientsPerTrainer());
+    }
+
+    /**
+     * Тестирует учёт создания, изменения и удаления клиента.
+     * <p>
+     * Проверяет, что клиент переносится между абонементами и тренерами, а группа,
+     * в которой не осталось клиентов, удаляется из распределения.
+     * </p>
+     */
+
+    @Test
+    void onClientChanged_CreateUpdateDelete_UpdatesCounts() {
+        ClientState created = new ClientState(10L, 2L, 1L, "Анна Смирнова", "+79001234567", "anna");
+        statisticsService.onClientChanged(new ClientChangedEvent(null, created));
+        assertEquals(4, statisticsService.getSnapshot().totalClients());
+        assertEquals(Map.of(1L, 2L, 2L, 1L), statisticsService.getSnapshot().clientsPerSubscription());
+        assertEquals(Map.of(1L, 2L), statisticsService.getSnapshot().clientsPerTrainer());
+
+        ClientState updated = new ClientState(10L, 1L, null, "Анна Смирнова", "+79001234567", "anna");
+        statisticsService.onClientChanged(new ClientChangedEvent(created, updated));
+        assertEquals(4, statisticsService.getSnapshot().totalClients());
+        assertEquals(Map.of(1L, 3L), statisticsService.getSnapshot().clientsPerSubscription());
+        assertEquals(Map.of(1L, 1L), statisticsService.getSnapshot().clientsPerTrainer());
+
+        statisticsService.onClientChanged(new ClientChangedEvent(updated, null));
+        assertEquals(3, statisticsService.getSnapshot().totalClients());
+        assertEquals(Map.of(1L, 2L), statisticsService.getSnapshot().clientsPerSubscription());
+    }
+
+    /**
+     * Тестирует учёт удаления и создания тренера.
+     * <p>
+     * Проверяет, что удалённый тренер исчезает из распределения клиентов по тренерам.
+     * </p>
+     */
+
+    @Test
+    void onTrainerChanged_DeleteAndCreate_UpdatesCounts() {
+        statisticsService.onTrainerChanged(new TrainerChangedEvent(1L, null));
+        assertEquals(0, statisticsService.getSnapshot().totalTrainers());
+        assertEquals(Map.of(), statisticsService.getSnapshot().clientsPerTrainer());
+
+        statisticsService.onTrainerChanged(new TrainerChangedEvent(null, 2L));
+        assertEquals(1, statisticsService.getSnapshot().totalTrainers());
+    }
+
+    /**
+     * Тестирует учёт изменения стоимости и удаления абонементов.
+     * <p>
+     * Проверяет пересчёт суммы, минимума и максимума стоимости, удаление абонемента
+     * из распределения клиентов и пустой снимок после удаления всех абонементов.
+     * </p>
+     */
+
+    @Test
+    void onSubscriptionChanged_CostChangedAndDeleted_UpdatesMinMax() {
+        statisticsService.onSubscriptionChanged(new SubscriptionChangedEvent(
+                new SubscriptionState(2L, 5000), new SubscriptionState(2L, 7000)));
+        assertEquals(10000.0, statisticsService.getSnapshot().totalSubscriptionCost());
+        assertEquals(7000.0, statisticsService.getSnapshot().maxSubscriptionCost());
+
+        statisticsService.onSubscriptionChanged(new SubscriptionChangedEvent(new SubscriptionState(1L, 3000), null));
+        assertEquals(1, statisticsService.getSnapshot().totalSubscriptions());
+        assertEquals(7000.0, statisticsService.getSnapshot().minSubscriptionCost());
+        assertEquals(Map.of(), statisticsService.getSnapshot().clientsPerSubscription());
+
+        statisticsService.onSubscriptionChanged(new SubscriptionChangedEvent(new SubscriptionState(2L, 7000), null));
+        assertEquals(0, statisticsService.getSnapshot().totalSubscriptions());
+        assertEquals(0.0, statisticsService.getSnapshot().averageSubscriptionCost());
+        assertNull(statisticsService.getSnapshot().minSubscriptionCost());
+        assertNull(statisticsService.getSnapshot().maxSubscriptionCost());
+    }
+
+    /**
+     * Тестирует сверку, во время чтения которой создан клиент.
+     * <p>
+     * Проверяет, что сверка повторяется и принимает повторно прочитанное состояние базы данных,
+     * в котором клиент уже учтён, без двойного учёта события.
+     * </p>
+     */
+
+    @Test
+    void reconcile_EventDuringRead_RetriesWithDatabaseState() {
+        ClientRepository repository = mock(ClientRepository.class);
+        StatisticsService service = new StatisticsService(repository, mock(TrainerRepository.class),
+                mock(SubscriptionRepository.class), transactionManager);
+        AtomicLong stored = new AtomicLong(3);
+        when(repository.count()).thenAnswer(invocation -> {
+            if (stored.get() == 3) {
+                // Клиент создан, пока сверка читает агрегаты
+                stored.incrementAndGet();
+                service.onClientChanged(new ClientChangedEvent(null, client(10L)));
+                return 3L;
+            }
+            return stored.get();
+        });
+
+        service.reconcile();
+
+        assertEquals(4, service.getSnapshot().totalClients());
+        verify(repository, times(2)).count();
+    }
+
+    /**
+     * Тестирует сверку под постоянной нагрузкой: события приходят во время каждого чтения.
+     * <p>
+     * Проверяет, что число попыток ограничено, а результат последней принимается вместе
+     * с событиями, пришедшими во время неё.
+     * </p>
+     */
+
+    @Test
+    void reconcile_EventsDuringEveryRead_AppliesPendingEventsAfterLastAttempt() {
+        ClientRepository repository = mock(ClientRepository.class);
+        StatisticsService service = new StatisticsService(repository, mock(TrainerRepository.class),
+                mock(SubscriptionRepository.class), transactionManager);
+        AtomicLong ids = new AtomicLong(10);
+        when(repository.count()).thenAnswer(invocation -> {
+            service.onClientChanged(new ClientChangedEvent(null, client(ids.incrementAndGet())));
+            return 3L;
+        });
+
+        service.reconcile();
+
+        assertEquals(4, service.getSnapshot().totalClients());
+        verify(repository, times(3)).count();
+    }
+
+    private void insertClient(long id, Long subscriptionId, Long trainerId) {
+        jdbcTemplate.update("insert into users (id, username, password, role) values (?, ?, '{noop}secret', 'CLIENT')",
+                id, "client" + id);
+        jdbcTemplate.update("insert into clients (id, name, phone, user_id, subscription_id, trainer_id, version) "
+                + "values (?, ?, ?, ?, ?, ?, 0)", id, "Клиент " + id, "+7999000000" + id, id, subscriptionId, trainerId);
+    }
+
+    private static ClientState client(long id) {
+        return new ClientState(id, null, null, "Клиент " + id, "+7900000" + id, "client" + id);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.fitness_server.service;
+
+import org.example.fitness_server.dto.RosterEntry;
+import org.example.fitness_server.dto.TrainerRoster;
+import org.example.fitness_server.event.ClientChangedEvent;
+import org.example.fitness_server.event.ClientChangedEvent.ClientState;
+import org.example.fitness_server.event.TrainerChangedEvent;
+import org.example.fitness_server.repository.ClientRepository;
+import org.example.fitness_server.repository.TrainerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для сервиса списков клиентов тренеров {@code TrainerRosterService}.
+ * <p>
+ * Проверяет, что количество клиентов берётся из того же кэшированного состояния, что и порции списка,
+ * и что записи кэша удаляются по событиям изменения клиентов и тренеров. Репозитории заменены
+ * мок-объектами Mockito: число обращений к ним показывает, выдан ли список из кэша.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@ExtendWith(MockitoExtension.class)
+class TrainerRosterServiceTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    private TrainerRosterService rosterService;
+
+    /**
+     * Создаёт сервис с кэшем на сто тренеров.
+     */
+
+    @BeforeEach
+    void setUp() {
+        rosterService = new TrainerRosterService(clientRepository, trainerRepository, 100, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Тестирует получение первой порции списка.
+     * <p>
+     * Проверяет, что общее количество клиентов берётся из запроса подсчёта, курсор следующей
+     * порции выдаётся, а повторный запрос обслуживается из кэша.
+     * </p>
+     */
+
+    @Test
+    void getRoster_FirstPage_ReturnsCountAndCachesPage() {
+        when(trainerRepository.countClientsById(1L)).thenReturn(Optional.of(3L));
+        when(clientRepository.findRosterAfterId(eq(1L), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(entry(1), entry(2), entry(3)));
+
+        TrainerRoster roster = rosterService.getRoster(1L, null, 2).orElseThrow();
+        rosterService.getRoster(1L, null, 2);
+
+        assertEquals(3, roster.totalClients());
+        assertEquals(List.of(1L, 2L), roster.items().stream().map(RosterEntry::id).toList());
+        assertNotNull(roster.nextCursor());
+        verify(trainerRepository, times(1)).countClientsById(1L);
+        verify(clientRepository, times(1)).findRosterAfterId(eq(1L), eq(0L), any(Limit.class));
+    }
+
+    /**
+     * Тестирует получение списка несуществующего тренера.
+     */
+
+    @Test
+    void getRoster_UnknownTrainer_ReturnsEmpty() {
+        when(trainerRepository.countClientsById(9L)).thenReturn(Optional.empty());
+
+        assertTrue(rosterService.getRoster(9L, null, 10).isEmpty());
+    }
+
+    /**
+     * Тестирует перевод клиента к другому тренеру.
+     * <p>
+     * Проверяет, что после события удаляются списки и прежнего, и нового тренера вместе
+     * с количеством клиентов, а список третьего тренера остаётся в кэше.
+     * </p>
+     */
+
+    @Test
+    void onClientChanged_TrainerChanged_EvictsOldAndNewTrainer() {
+        when(trainerRepository.countClientsById(anyLong())).thenReturn(Optional.of(1L));
+        when(clientRepository.findRosterAfterId(anyLong(), eq(0L), any(Limit.class))).thenReturn(List.of(entry(1)));
+        rosterService.getRoster(1L, null, 10);
+        rosterService.getRoster(2L, null, 10);
+        rosterService.getRoster(3L, null, 10);
+
+        ClientState before = new ClientState(1L, null, 1L, "Иван Петров", "+79876543210", "ivan");
+        ClientState after = new ClientState(1L, null, 2L, "Иван Петров", "+79876543210", "ivan");
+        rosterService.onClientChanged(new ClientChangedEvent(before, after));
+        when(trainerRepository.countClientsById(1L)).thenReturn(Optional.of(0L));
+        when(trainerRepository.countClientsById(2L)).thenReturn(Optional.of(2L));
+
+        assertEquals(0, rosterService.getRoster(1L, null, 10).orElseThrow().totalClients());
+        assertEquals(2, rosterService.getRoster(2L, null, 10).orElseThrow().totalClients());
+        assertEquals(1, rosterService.getRoster(3L, null, 10).orElseThrow().totalClients());
+        verify(trainerRepository, times(2)).countClientsById(1L);
+        verify(trainerRepository, times(2)).countClientsById(2L);
+        verify(trainerRepository, times(1)).countClientsById(3L);
+    }
+
+    /**
+     * Тестирует удаление тренера.
+     * <p>
+     * Проверяет, что список удалённого тренера удаляется из кэша и больше не выдаётся.
+     * </p>
+     */
+
+    @Test
+    void onTrainerChanged_TrainerDeleted_EvictsRoster() {
+        when(trainerRepository.countClientsById(1L)).thenReturn(Optional.of(1L));
+        when(clientRepository.findRosterAfterId(eq(1L), eq(0L), any(Limit.class))).thenReturn(List.of(entry(1)));
+        rosterService.getRoster(1L, null, 10);
+
+        rosterService.onTrainerChanged(new TrainerChangedEvent(1L, null));
+        when(trainerRepository.countClientsById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(rosterService.getRoster(1L, null, 10).isEmpty());
+    }
+
+    private static RosterEntry entry(long id) {
+        return new RosterEntry(id, "Клиент " + id, "+7999000000" + id, "client" + id, null, null);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.fitness_server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.fitness_server.config.VisitTableInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тестовый класс для проверки отложенной пакетной записи посещений.
+ * <p>
+ * Таблица {@code visits} создаётся {@code VisitTableInitializer} на базе данных H2, клиент
+ * вставляется напрямую через JDBC. Сервис запускается и останавливается вручную, как это делает
+ * контекст приложения.
+ * </p>
+ *
+ * @author Милана
+ * @version 1.0
+ * @since 2026-10-16
+ */
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:visit_ingestion;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VisitIngestionServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Тестирует запись принятых отметок при остановке сервиса.
+     * <p>
+     * Проверяет, что все отметки существующего клиента, принятые до остановки, записаны в таблицу
+     * пакетами не больше заданного размера, а отметка несуществующего клиента отброшена
+     * и не помешала записи остальных отметок своего пакета.
+     * </p>
+     */
+
+    @Test
+    void stop_AcceptedVisits_DrainsBufferIntoTable() {
+        new VisitTableInitializer(jdbcTemplate, 2).createTable();
+        jdbcTemplate.execute("delete from visits");
+        jdbcTemplate.execute("delete from clients");
+        jdbcTemplate.update("insert into clients (id, name, phone, version) values (1, 'Клиент Посещений', "
+                + "'+79990000001', 0)");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VisitIngestionService service = new VisitIngestionService(jdbcTemplate, 10_000, 100,
+                Duration.ofMillis(10), Duration.ofSeconds(30), meterRegistry);
+        service.start();
+        for (int i = 0; i < 1000; i++) {
+            service.submit(1L);
+        }
+        service.submit(999L);
+        service.stop();
+
+        assertEquals(1000, jdbcTemplate.queryForObject("select count(*) from visits where client_id = 1", Long.class));
+        assertEquals(1000.0, meterRegistry.get("fitness.visits.written").counter().count());
+        assertEquals(1.0, meterRegistry.get("fitness.visits.failed").counter().count());
+        assertEquals(100.0, meterRegistry.get("fitness.visits.batch.size").summary().max());
+    }
+}